@@ -57,7 +57,7 @@ public class PartyRenameCommand implements CommandExecutor {
                 }
             }
 
-            playerParty.setName(newPartyName);
+            mcMMO.p.getPartyManager().renameParty(playerParty, newPartyName);
 
             sender.sendMessage(LocaleLoader.getString("Commands.Party.Rename", newPartyName));
             return true;
@@ -7,23 +7,33 @@ import com.gmail.nossr50.mcMMO;
 import com.gmail.nossr50.skills.mining.BlastMining;
 import java.io.File;
 import java.util.ArrayList;
-import java.util.EnumMap;
 import java.util.List;
-import java.util.Map;
-import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.VisibleForTesting;
 
 public class AdvancedConfig extends BukkitConfig {
     int[] defaultCrippleValues = new int[]{10, 15, 20, 25};
     int[] defaultMomentumValues = new int[]{5, 10, 15, 20, 25, 30, 35, 40, 45, 50};
 
-    /* Values resolved once and reused on hot combat/RNG paths; reset by loadKeys() */
-    private @Nullable Boolean adjustSkillsForAttackCooldown;
-    private @Nullable Double archeryForceMultiplier;
-    private final Map<SubSkillType, Integer> maxBonusLevel = new EnumMap<>(SubSkillType.class);
-    private final Map<SubSkillType, Double> maximumProbability = new EnumMap<>(SubSkillType.class);
+    /* Values read on hot combat/RNG paths, compiled by every loadKeys() */
+    private volatile HotValues hotValues;
+
+    /**
+     * Values read on every RNG roll and most combat events, looked up by ordinal instead of by
+     * building a config path for each roll.
+     *
+     * @param maxBonusLevel the MaxBonusLevel of each SubSkillType by ordinal, for the scaling mode
+     * the snapshot was compiled in
+     * @param maximumProbability the ChanceMax of each SubSkillType by ordinal
+     */
+    private record HotValues(int @NotNull [] maxBonusLevel, double @NotNull [] maximumProbability,
+                             boolean useAttackCooldown, boolean canApplyLimitBreakPVE,
+                             double forceMultiplier) {
+    }
 
     public AdvancedConfig(File dataFolder) {
         super("advanced.yml", dataFolder);
+        loadKeys();
         validate();
     }
 
@@ -416,25 +426,51 @@ public class AdvancedConfig extends BukkitConfig {
 
     @Override
     protected void loadKeys() {
-        adjustSkillsForAttackCooldown = null;
-        archeryForceMultiplier = null;
-        maxBonusLevel.clear();
-        maximumProbability.clear();
+        compileHotValues();
     }
 
-    /* GENERAL */
+    /**
+     * Replaces the hot value snapshot with one compiled from the loaded config, so no hot path
+     * read ever walks the YAML tree. Reads the retro mode flag, which is set before this loads.
+     */
+    @VisibleForTesting
+    void compileHotValues() {
+        final boolean retroMode = mcMMO.isRetroModeEnabled();
+        final SubSkillType[] subSkillTypes = SubSkillType.values();
+        final int[] maxBonusLevel = new int[subSkillTypes.length];
+        final double[] maximumProbability = new double[subSkillTypes.length];
+
+        for (SubSkillType subSkillType : subSkillTypes) {
+            final int index = subSkillType.ordinal();
+            // Subskills not registered to a skill have no section, they get the defaults
+            if (subSkillType.getParentSkill() == null) {
+                maxBonusLevel[index] = retroMode ? 1000 : 100;
+                maximumProbability[index] = 100.0D;
+                continue;
+            }
 
-    public boolean useAttackCooldown() {
-        if (adjustSkillsForAttackCooldown == null) {
-            adjustSkillsForAttackCooldown = config.getBoolean(
-                    "Skills.General.Attack_Cooldown.Adjust_Skills_For_Attack_Cooldown", true);
+            final String address = subSkillType.getAdvConfigAddress();
+            maxBonusLevel[index] = retroMode
+                    ? config.getInt(address + ".MaxBonusLevel.RetroMode", 1000)
+                    : config.getInt(address + ".MaxBonusLevel.Standard", 100);
+            maximumProbability[index] = config.getDouble(address + ".ChanceMax", 100.0D);
         }
 
-        return adjustSkillsForAttackCooldown;
+        hotValues = new HotValues(maxBonusLevel, maximumProbability,
+                config.getBoolean(
+                        "Skills.General.Attack_Cooldown.Adjust_Skills_For_Attack_Cooldown", true),
+                config.getBoolean("Skills.General.LimitBreak.AllowPVE", false),
+                config.getDouble("Skills.Archery.ForceMultiplier", 2.0D));
+    }
+
+    /* GENERAL */
+
+    public boolean useAttackCooldown() {
+        return hotValues.useAttackCooldown();
     }
 
     public boolean canApplyLimitBreakPVE() {
-        return config.getBoolean("Skills.General.LimitBreak.AllowPVE", false);
+        return hotValues.canApplyLimitBreakPVE();
     }
 
     public int getStartingLevel() {
@@ -488,11 +524,7 @@ public class AdvancedConfig extends BukkitConfig {
      * @return the level at which this skills max benefits will be reached on the curve
      */
     public int getMaxBonusLevel(SubSkillType subSkillType) {
-        return maxBonusLevel.computeIfAbsent(subSkillType, key -> {
-            final String keyPath = key.getAdvConfigAddress() + ".MaxBonusLevel.";
-            return mcMMO.isRetroModeEnabled() ? config.getInt(keyPath + "RetroMode", 1000)
-                    : config.getInt(keyPath + "Standard", 100);
-        });
+        return hotValues.maxBonusLevel()[subSkillType.ordinal()];
     }
 
     public int getMaxBonusLevel(AbstractSubSkill abstractSubSkill) {
@@ -500,8 +532,7 @@ public class AdvancedConfig extends BukkitConfig {
     }
 
     public double getMaximumProbability(SubSkillType subSkillType) {
-        return maximumProbability.computeIfAbsent(subSkillType,
-                key -> config.getDouble(key.getAdvConfigAddress() + ".ChanceMax", 100.0D));
+        return hotValues.maximumProbability()[subSkillType.ordinal()];
     }
 
     public double getMaximumProbability(AbstractSubSkill abstractSubSkill) {
@@ -588,11 +619,7 @@ public class AdvancedConfig extends BukkitConfig {
     }
 
     public double getForceMultiplier() {
-        if (archeryForceMultiplier == null) {
-            archeryForceMultiplier = config.getDouble("Skills.Archery.ForceMultiplier", 2.0D);
-        }
-
-        return archeryForceMultiplier;
+        return hotValues.forceMultiplier();
     }
 
     /* AXES */
@@ -11,7 +11,6 @@ import com.gmail.nossr50.datatypes.skills.SuperAbilityType;
 import com.gmail.nossr50.util.text.StringUtils;
 import java.io.File;
 import java.util.ArrayList;
-import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -22,6 +21,7 @@ import org.bukkit.block.data.BlockData;
 import org.bukkit.configuration.ConfigurationSection;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
 
 public class GeneralConfig extends BukkitConfig {
     // Floor for how often leaderboards may rebuild; shared with FlatFileDatabaseManager's
@@ -36,21 +36,24 @@ public class GeneralConfig extends BukkitConfig {
     private @Nullable Material repairAnvilMaterial;
     private @Nullable Material salvageAnvilMaterial;
 
-    /* Level caps resolved once and reused on the XP hot path; reset by loadKeys() */
-    private @Nullable Integer powerLevelCap;
-    private final Map<PrimarySkillType, Integer> levelCaps = new EnumMap<>(
-            PrimarySkillType.class);
-
-    /* Values resolved once and reused on hot event paths; reset by loadKeys() */
-    private @Nullable Boolean abilitiesEnabled;
-    private @Nullable Boolean abilityMessagesEnabled;
-    private @Nullable Boolean abilitiesOnlyActivateWhenSneaking;
-    private @Nullable Boolean abilitiesGateEnabled;
-    private final Map<PrimarySkillType, Map<Material, Boolean>> doubleDropsEnabled =
-            new EnumMap<>(PrimarySkillType.class);
-    private final Map<Material, Boolean> woodcuttingDoubleDropsEnabled = new HashMap<>();
+    /* Values read on the XP and block break hot paths, compiled by every loadKeys */
+    private volatile HotValues hotValues;
     private final Map<String, Material> tamingCOTWMaterials = new HashMap<>();
 
+    /**
+     * Values read on every XP gain and most block breaks. Never modified once compiled; a reload
+     * swaps in a new instance, so region threads read it without locking.
+     *
+     * @param levelCaps the level cap of each PrimarySkillType by ordinal, MAX_VALUE if uncapped
+     * @param doubleDropsEnabled the Bonus_Drops flag by PrimarySkillType and Material ordinal
+     */
+    private record HotValues(int powerLevelCap, int @NotNull [] levelCaps,
+                             boolean abilitiesEnabled, boolean abilityMessagesEnabled,
+                             boolean abilitiesOnlyActivateWhenSneaking,
+                             boolean abilitiesGateEnabled,
+                             boolean @NotNull [] @NotNull [] doubleDropsEnabled) {
+    }
+
     public GeneralConfig(@NotNull File dataFolder) {
         super("config.yml", dataFolder);
         loadKeys();
@@ -63,15 +66,61 @@ public class GeneralConfig extends BukkitConfig {
                 config.getString("Skills.Repair.Anvil_Material", "IRON_BLOCK"));
         salvageAnvilMaterial = Material.matchMaterial(
                 config.getString("Skills.Salvage.Anvil_Material", "GOLD_BLOCK"));
-        powerLevelCap = null;
-        levelCaps.clear();
-        abilitiesEnabled = null;
-        abilityMessagesEnabled = null;
-        abilitiesOnlyActivateWhenSneaking = null;
-        abilitiesGateEnabled = null;
-        doubleDropsEnabled.clear();
-        woodcuttingDoubleDropsEnabled.clear();
         tamingCOTWMaterials.clear();
+        compileHotValues();
+    }
+
+    /**
+     * Replaces the hot value snapshot with one compiled from the loaded config, so no hot path
+     * read ever walks the YAML tree.
+     */
+    @VisibleForTesting
+    void compileHotValues() {
+        final PrimarySkillType[] skills = PrimarySkillType.values();
+        final int materialCount = Material.values().length;
+
+        final int[] levelCaps = new int[skills.length];
+        final boolean[][] doubleDropsEnabled = new boolean[skills.length][];
+        for (PrimarySkillType skill : skills) {
+            final String skillName = StringUtils.getCapitalized(skill.toString());
+            levelCaps[skill.ordinal()] = toCap(
+                    config.getInt("Skills." + skillName + ".Level_Cap"));
+            doubleDropsEnabled[skill.ordinal()] = compileDoubleDrops(
+                    config.getConfigurationSection("Bonus_Drops." + skillName), materialCount);
+        }
+
+        hotValues = new HotValues(toCap(config.getInt("General.Power_Level_Cap", 0)), levelCaps,
+                config.getBoolean("Abilities.Enabled", true),
+                config.getBoolean("Abilities.Messages", true),
+                config.getBoolean("Abilities.Activation.Only_Activate_When_Sneaking", false),
+                config.getBoolean("Abilities.Activation.Level_Gate_Abilities"),
+                doubleDropsEnabled);
+    }
+
+    /**
+     * Flags the materials enabled in one skill's Bonus_Drops section, walking only the keys
+     * present. A key counts only if it is spelled exactly like the material's config string,
+     * as a lookup by material would have required.
+     */
+    private static boolean @NotNull [] compileDoubleDrops(@Nullable ConfigurationSection section,
+            int materialCount) {
+        final boolean[] enabled = new boolean[materialCount];
+        if (section == null) {
+            return enabled;
+        }
+
+        for (String key : section.getKeys(false)) {
+            final Material material = Material.getMaterial(key.toUpperCase(Locale.ENGLISH));
+            if (material != null && getMaterialConfigString(material).equals(key)) {
+                enabled[material.ordinal()] = section.getBoolean(key);
+            }
+        }
+
+        return enabled;
+    }
+
+    private static int toCap(int cap) {
+        return (cap <= 0) ? Integer.MAX_VALUE : cap;
     }
 
     @Override
@@ -271,6 +320,10 @@ public class GeneralConfig extends BukkitConfig {
         return config.getBoolean("General.RegionDataMigrationBackups", true);
     }
 
+    public boolean getConsolidateAbilityDropsEnabled() {
+        return config.getBoolean("General.Consolidate_Ability_Drops", false);
+    }
+
     /**
      * @return Highest leaderboard position kept in the PlaceholderAPI cache, clamped between
      * {@value #MIN_PAPI_LEADERBOARD_TRACKED_RANK} and {@value #MAX_PAPI_LEADERBOARD_TRACKED_RANK}.
@@ -282,6 +335,14 @@ public class GeneralConfig extends BukkitConfig {
                 Math.max(MIN_PAPI_LEADERBOARD_TRACKED_RANK, configured));
     }
 
+    /**
+     * @return Seconds a player's ranks are cached for PlaceholderAPI before they are read again,
+     * never below 1.
+     */
+    public int getPapiRankCacheSeconds() {
+        return Math.max(1, config.getInt("General.PlaceholderAPI.Ranks.Cache_Seconds", 60));
+    }
+
     /**
      * @return SQL leaderboard cache refresh interval in seconds, never below
      * {@value #MIN_LEADERBOARD_REFRESH_INTERVAL_SECONDS}.
@@ -754,36 +815,19 @@ public class GeneralConfig extends BukkitConfig {
     }
 
     public boolean getAbilityMessagesEnabled() {
-        if (abilityMessagesEnabled == null) {
-            abilityMessagesEnabled = config.getBoolean("Abilities.Messages", true);
-        }
-
-        return abilityMessagesEnabled;
+        return hotValues.abilityMessagesEnabled();
     }
 
     public boolean getAbilitiesEnabled() {
-        if (abilitiesEnabled == null) {
-            abilitiesEnabled = config.getBoolean("Abilities.Enabled", true);
-        }
-
-        return abilitiesEnabled;
+        return hotValues.abilitiesEnabled();
     }
 
     public boolean getAbilitiesOnlyActivateWhenSneaking() {
-        if (abilitiesOnlyActivateWhenSneaking == null) {
-            abilitiesOnlyActivateWhenSneaking = config.getBoolean(
-                    "Abilities.Activation.Only_Activate_When_Sneaking", false);
-        }
-
-        return abilitiesOnlyActivateWhenSneaking;
+        return hotValues.abilitiesOnlyActivateWhenSneaking();
     }
 
     public boolean getAbilitiesGateEnabled() {
-        if (abilitiesGateEnabled == null) {
-            abilitiesGateEnabled = config.getBoolean("Abilities.Activation.Level_Gate_Abilities");
-        }
-
-        return abilitiesGateEnabled;
+        return hotValues.abilitiesGateEnabled();
     }
 
     public int getCooldown(SuperAbilityType ability) {
@@ -813,10 +857,7 @@ public class GeneralConfig extends BukkitConfig {
             return false;
         }
 
-        return doubleDropsEnabled.computeIfAbsent(skill, key -> new HashMap<>())
-                .computeIfAbsent(material, key -> config.getBoolean(
-                        "Bonus_Drops." + StringUtils.getCapitalized(skill.toString()) + "."
-                                + getMaterialConfigString(key).replace(" ", "_")));
+        return hotValues.doubleDropsEnabled()[skill.ordinal()][material.ordinal()];
     }
 
     public boolean getDoubleDropsDisabled(PrimarySkillType skill) {
@@ -1007,9 +1048,8 @@ public class GeneralConfig extends BukkitConfig {
 
     /* Woodcutting */
     public boolean getWoodcuttingDoubleDropsEnabled(BlockData blockData) {
-        return woodcuttingDoubleDropsEnabled.computeIfAbsent(blockData.getMaterial(),
-                key -> config.getBoolean("Bonus_Drops.Woodcutting."
-                        + getMaterialConfigString(key)));
+        return hotValues.doubleDropsEnabled()[PrimarySkillType.WOODCUTTING.ordinal()]
+                [blockData.getMaterial().ordinal()];
     }
 
     public boolean getTreeFellerSoundsEnabled() {
@@ -1027,20 +1067,11 @@ public class GeneralConfig extends BukkitConfig {
 
     /* Level Caps */
     public int getPowerLevelCap() {
-        if (powerLevelCap == null) {
-            int cap = config.getInt("General.Power_Level_Cap", 0);
-            powerLevelCap = (cap <= 0) ? Integer.MAX_VALUE : cap;
-        }
-
-        return powerLevelCap;
+        return hotValues.powerLevelCap();
     }
 
     public int getLevelCap(PrimarySkillType skill) {
-        return levelCaps.computeIfAbsent(skill, key -> {
-            int cap = config.getInt(
-                    "Skills." + StringUtils.getCapitalized(key.toString()) + ".Level_Cap");
-            return (cap <= 0) ? Integer.MAX_VALUE : cap;
-        });
+        return hotValues.levelCaps()[skill.ordinal()];
     }
 
 
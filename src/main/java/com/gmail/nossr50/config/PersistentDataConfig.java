@@ -1,6 +1,8 @@
 package com.gmail.nossr50.config;
 
 import com.gmail.nossr50.metadata.MobMetaFlagType;
+import com.gmail.nossr50.util.blockmeta.RegionFileBackend;
+import java.util.Locale;
 
 public class PersistentDataConfig extends BukkitConfig {
     private static PersistentDataConfig instance;
@@ -38,5 +40,20 @@ public class PersistentDataConfig extends BukkitConfig {
         return config.getBoolean("mcMMO_Region_System.Enabled", true);
     }
 
+    public boolean useAsyncBlockTrackerIO() {
+        return config.getBoolean("mcMMO_Region_System.Async_IO", true);
+    }
+
+    public RegionFileBackend getRegionFileBackend() {
+        try {
+            return RegionFileBackend.valueOf(
+                    config.getString("mcMMO_Region_System.File_Backend", "RANDOM_ACCESS_FILE")
+                            .toUpperCase(Locale.ENGLISH)
+                            .trim());
+        } catch (IllegalArgumentException ex) {
+            return RegionFileBackend.RANDOM_ACCESS_FILE;
+        }
+    }
+
 
 }
\ No newline at end of file
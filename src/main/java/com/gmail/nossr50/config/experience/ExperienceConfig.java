@@ -8,6 +8,8 @@ import com.gmail.nossr50.datatypes.experience.FormulaType;
 import com.gmail.nossr50.datatypes.skills.MaterialType;
 import com.gmail.nossr50.datatypes.skills.PrimarySkillType;
 import com.gmail.nossr50.datatypes.skills.alchemy.PotionStage;
+import com.gmail.nossr50.mcMMO;
+import com.gmail.nossr50.util.experience.FormulaManager;
 import com.gmail.nossr50.util.text.StringUtils;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -22,6 +24,8 @@ import org.bukkit.block.data.BlockData;
 import org.bukkit.boss.BarColor;
 import org.bukkit.boss.BarStyle;
 import org.bukkit.entity.EntityType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.VisibleForTesting;
 
 public class ExperienceConfig extends BukkitConfig {
     private static ExperienceConfig instance;
@@ -54,6 +58,8 @@ public class ExperienceConfig extends BukkitConfig {
     private Boolean experienceBarsEnabled;
     private final Map<PrimarySkillType, Double> formulaSkillModifiers =
             new EnumMap<>(PrimarySkillType.class);
+    // Compiled by every loadKeys() and replaced as a whole
+    private volatile HotValues hotValues;
     private final Map<PrimarySkillType, Integer> diminishedReturnsThresholds =
             new EnumMap<>(PrimarySkillType.class);
     private final Map<PrimarySkillType, Boolean> experienceBarEnabled =
@@ -63,8 +69,24 @@ public class ExperienceConfig extends BukkitConfig {
     private final Map<PrimarySkillType, BarStyle> experienceBarStyles =
             new EnumMap<>(PrimarySkillType.class);
 
+    /**
+     * Values read for every combat XP award and XP bar update, compiled from the YAML tree so
+     * those paths do no string building or section walks.
+     *
+     * @param combatXp the Combat.Multiplier of each EntityType by ordinal, 0 if unset
+     * @param animalsXp like combatXp but falling back to the Animals multiplier
+     * @param hasCombatXp whether each EntityType has its own Combat.Multiplier
+     */
+    private record HotValues(double @NotNull [] combatXp, double @NotNull [] animalsXp,
+                             boolean @NotNull [] hasCombatXp, boolean combatHPCeilingEnabled,
+                             int combatHPCeiling, boolean partyExperienceBarsEnabled,
+                             boolean passiveGainsExperienceBarsEnabled,
+                             boolean xpGainCoalescingEnabled) {
+    }
+
     private ExperienceConfig() {
         super("experience.yml");
+        loadKeys();
         validate();
     }
 
@@ -116,6 +138,13 @@ public class ExperienceConfig extends BukkitConfig {
         experienceBarEnabled.clear();
         experienceBarColors.clear();
         experienceBarStyles.clear();
+        compileHotValues();
+
+        // The experience curves are precomputed from the formula values read here
+        final FormulaManager formulaManager = mcMMO.getFormulaManager();
+        if (formulaManager != null) {
+            formulaManager.reloadCurves();
+        }
     }
 
     @Override
@@ -224,6 +253,16 @@ public class ExperienceConfig extends BukkitConfig {
         return noErrorsInConfig(reason);
     }
 
+    /**
+     * Whether the XP gains of a player are summed per skill, reason and source within a tick and
+     * processed once at the end of it.
+     *
+     * @return true if XP gains are coalesced
+     */
+    public boolean isXpGainCoalescingEnabled() {
+        return hotValues.xpGainCoalescingEnabled();
+    }
+
     public boolean isEarlyGameBoostEnabled() {
         if (earlyGameBoostEnabled == null) {
             earlyGameBoostEnabled = config.getBoolean("EarlyGameBoost.Enabled", true);
@@ -582,16 +621,11 @@ public class ExperienceConfig extends BukkitConfig {
     }
 
     public double getCombatXP(EntityType entity) {
-        return config.getDouble(
-                "Experience_Values.Combat.Multiplier." + getConfigEntityTypeString(entity).replace(
-                        " ", "_"));
+        return hotValues.combatXp()[entity.ordinal()];
     }
 
     public double getAnimalsXP(EntityType entity) {
-        return config.getDouble(
-                "Experience_Values.Combat.Multiplier." + getConfigEntityTypeString(entity).replace(
-                        " ", "_"),
-                getAnimalsXP());
+        return hotValues.animalsXp()[entity.ordinal()];
     }
 
     public double getAnimalsXP() {
@@ -599,9 +633,35 @@ public class ExperienceConfig extends BukkitConfig {
     }
 
     public boolean hasCombatXP(EntityType entity) {
-        return config.contains(
-                "Experience_Values.Combat.Multiplier." + getConfigEntityTypeString(entity).replace(
-                        " ", "_"));
+        return hotValues.hasCombatXp()[entity.ordinal()];
+    }
+
+    /**
+     * Replaces the hot value snapshot with one compiled from the loaded config, so no combat XP
+     * award or XP bar update ever walks the YAML tree.
+     */
+    @VisibleForTesting
+    void compileHotValues() {
+        final EntityType[] entityTypes = EntityType.values();
+        final double[] combatXp = new double[entityTypes.length];
+        final double[] animalsXp = new double[entityTypes.length];
+        final boolean[] hasCombatXp = new boolean[entityTypes.length];
+        final double defaultAnimalsXp = getAnimalsXP();
+
+        for (EntityType entityType : entityTypes) {
+            final String path = "Experience_Values.Combat.Multiplier."
+                    + getConfigEntityTypeString(entityType).replace(" ", "_");
+            combatXp[entityType.ordinal()] = config.getDouble(path);
+            animalsXp[entityType.ordinal()] = config.getDouble(path, defaultAnimalsXp);
+            hasCombatXp[entityType.ordinal()] = config.contains(path);
+        }
+
+        hotValues = new HotValues(combatXp, animalsXp, hasCombatXp,
+                config.getBoolean("ExploitFix.Combat.XPCeiling.Enabled", true),
+                config.getInt("ExploitFix.Combat.XPCeiling.Damage_Limit", 100),
+                config.getBoolean("Experience_Bars.Update.Party", true),
+                config.getBoolean("Experience_Bars.Update.Passive", true),
+                config.getBoolean("Coalesce_XP_Gains.Enabled", false));
     }
 
     /* Materials  */
@@ -648,11 +708,11 @@ public class ExperienceConfig extends BukkitConfig {
      */
 
     public boolean isPartyExperienceBarsEnabled() {
-        return config.getBoolean("Experience_Bars.Update.Party", true);
+        return hotValues.partyExperienceBarsEnabled();
     }
 
     public boolean isPassiveGainsExperienceBarsEnabled() {
-        return config.getBoolean("Experience_Bars.Update.Passive", true);
+        return hotValues.passiveGainsExperienceBarsEnabled();
     }
 
     public boolean getDoExperienceBarsAlwaysUpdateTitle() {
@@ -668,11 +728,11 @@ public class ExperienceConfig extends BukkitConfig {
     }
 
     public boolean useCombatHPCeiling() {
-        return config.getBoolean("ExploitFix.Combat.XPCeiling.Enabled", true);
+        return hotValues.combatHPCeilingEnabled();
     }
 
     public int getCombatHPCeiling() {
-        return config.getInt("ExploitFix.Combat.XPCeiling.Damage_Limit", 100);
+        return hotValues.combatHPCeiling();
     }
 
     public boolean isExperienceBarsEnabled() {
@@ -26,7 +26,6 @@ import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.PotionMeta;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
@@ -96,6 +95,10 @@ public class PotionConfig extends LegacyConfigLoader {
      * Map of potion names to AlchemyPotion objects.
      */
     private final Map<String, AlchemyPotion> alchemyPotions = new HashMap<>();
+    /**
+     * The potions of {@link #alchemyPotions} keyed for item stack lookups.
+     */
+    private PotionIndex potionIndex = PotionIndex.EMPTY;
 
     public PotionConfig() {
         super("potions.yml");
@@ -306,6 +309,8 @@ public class PotionConfig extends LegacyConfigLoader {
             }
         }
 
+        potionIndex = new PotionIndex(alchemyPotions.values());
+
         int totalPotions = potionsLoaded + failures;
 
         mcMMO.p.getLogger()
@@ -591,11 +596,7 @@ public class PotionConfig extends LegacyConfigLoader {
             return null;
         }
 
-        ItemMeta itemMeta = item.getItemMeta();
-        final List<AlchemyPotion> potionList = alchemyPotions.values().stream().filter(
-                potion -> potion.isSimilarPotion(item, itemMeta)).toList();
-
-        return potionList.isEmpty() ? null : potionList.get(0);
+        return potionIndex.find(item);
     }
 
     public Color generateColor(List<PotionEffect> effects) {
@@ -0,0 +1,99 @@
+package com.gmail.nossr50.config.skills.alchemy;
+
+import com.gmail.nossr50.datatypes.skills.alchemy.AlchemyPotion;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.PotionMeta;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.bukkit.potion.PotionType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Alchemy potions keyed by the parts of a potion that {@link AlchemyPotion#isSimilarPotion}
+ * compares first: the material, the base potion type and the set of custom effects. A lookup
+ * builds the key of the item once and only runs the similarity check, which also compares the
+ * lore, on the potions that share it.
+ */
+final class PotionIndex {
+    static final PotionIndex EMPTY = new PotionIndex(List.of());
+
+    private record EffectKey(@Nullable PotionEffectType type, int amplifier, int duration) {
+    }
+
+    // Custom effect order carries no meaning, so the effects are compared as a set
+    private record PotionKey(@NotNull Material material, @Nullable PotionType basePotionType,
+                             @NotNull Set<EffectKey> customEffects) {
+    }
+
+    private final Map<PotionKey, List<AlchemyPotion>> potionsByKey = new HashMap<>();
+    private final Set<Material> materials = EnumSet.noneOf(Material.class);
+
+    /**
+     * @param potions the potions, a lookup matching several of them returns the first
+     */
+    PotionIndex(@NotNull Collection<AlchemyPotion> potions) {
+        for (AlchemyPotion potion : potions) {
+            final PotionKey key = keyOf(potion.getMaterial(), potion.getAlchemyPotionMeta());
+            potionsByKey.computeIfAbsent(key, k -> new ArrayList<>(1)).add(potion);
+            materials.add(potion.getMaterial());
+        }
+    }
+
+    /**
+     * Finds the potion an item stack corresponds to.
+     *
+     * @param item the item stack
+     * @return the potion, or null if the item matches none
+     */
+    @Nullable AlchemyPotion find(@NotNull ItemStack item) {
+        if (!materials.contains(item.getType())) {
+            return null;
+        }
+
+        final ItemMeta itemMeta = item.getItemMeta();
+        if (!(itemMeta instanceof PotionMeta potionMeta)) {
+            return null;
+        }
+
+        final List<AlchemyPotion> candidates = potionsByKey.get(
+                keyOf(item.getType(), potionMeta));
+        if (candidates == null) {
+            return null;
+        }
+
+        for (AlchemyPotion candidate : candidates) {
+            if (candidate.isSimilarPotion(item, itemMeta)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static @NotNull PotionKey keyOf(@NotNull Material material,
+            @NotNull PotionMeta potionMeta) {
+        final List<PotionEffect> effects = potionMeta.getCustomEffects();
+        final Set<EffectKey> customEffects;
+        if (effects.isEmpty()) {
+            customEffects = Set.of();
+        } else {
+            customEffects = new HashSet<>(effects.size() * 2);
+            for (PotionEffect effect : effects) {
+                customEffects.add(new EffectKey(effect.getType(), effect.getAmplifier(),
+                        effect.getDuration()));
+            }
+        }
+
+        return new PotionKey(material, potionMeta.getBasePotionType(), customEffects);
+    }
+}
@@ -7,6 +7,7 @@ import com.gmail.nossr50.datatypes.database.PlayerStat;
 import com.gmail.nossr50.datatypes.player.PlayerProfile;
 import com.gmail.nossr50.datatypes.skills.PrimarySkillType;
 import com.gmail.nossr50.util.skills.SkillTools;
+import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
@@ -54,6 +55,24 @@ public interface DatabaseManager {
      */
     boolean saveUser(PlayerProfile profile);
 
+    /**
+     * Save several users to the database in one go. Backends that can write a batch more cheaply
+     * than one user at a time (one transaction, one lock hold) should override this; the default
+     * simply calls {@link #saveUser(PlayerProfile)} for each profile.
+     *
+     * @param profiles The profiles to save
+     * @return the profiles that failed to save, empty if all of them were saved
+     */
+    default @NotNull List<PlayerProfile> saveUsers(@NotNull List<PlayerProfile> profiles) {
+        final List<PlayerProfile> failed = new ArrayList<>();
+        for (PlayerProfile profile : profiles) {
+            if (!saveUser(profile)) {
+                failed.add(profile);
+            }
+        }
+        return failed;
+    }
+
     /**
      * Retrieve leaderboard info. Will never be null but it may be empty
      *
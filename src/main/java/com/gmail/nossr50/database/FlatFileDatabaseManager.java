@@ -2,6 +2,7 @@ package com.gmail.nossr50.database;
 
 import com.gmail.nossr50.api.exceptions.InvalidSkillException;
 import com.gmail.nossr50.config.GeneralConfig;
+import com.gmail.nossr50.database.flatfile.FlatFileLeaderboards;
 import com.gmail.nossr50.database.flatfile.LeaderboardStatus;
 import com.gmail.nossr50.datatypes.database.DatabaseType;
 import com.gmail.nossr50.datatypes.database.LeaderboardSnapshot;
@@ -27,7 +28,7 @@ import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeSet;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
@@ -47,14 +48,19 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
     private static final Object fileWritingLock = new Object();
     private static final String LINE_ENDING = "\r\n";
 
-    // One immutable generation holding every leaderboard scope, swapped atomically so async
-    // readers (PlaceholderAPI cache, /mctop, /mcrank) never observe lists from two different
-    // file scans. Null until the first successful rebuild.
-    private volatile @Nullable LeaderboardSnapshot leaderboards;
+    // Live leaderboards, updated by every save under fileWritingLock and replaced wholesale only
+    // when the file is rescanned. Null until the first successful scan.
+    private volatile @Nullable FlatFileLeaderboards leaderboards;
+    // Set when the file was rewritten in a way the leaderboards did not follow (purges, UUID
+    // updates, failed scans); the next refresh rescans it. Guarded by fileWritingLock.
+    private boolean leaderboardsOutdated;
     // Atomic so concurrent callers race the throttle with a CAS instead of both passing a
     // check-then-act window and performing duplicate full-file scans. Only a successful rebuild
     // keeps the claimed timestamp; failures roll it back so retries are not throttled.
     private final @NotNull AtomicLong lastUpdate = new AtomicLong(0L);
+    // Where each user's row lives in the file, guarded by fileWritingLock. Built lazily and
+    // dropped whenever the file is rewritten in full.
+    private @Nullable FlatFileUserIndex userIndex;
 
     private final @NotNull String usersFilePath;
     private final @NotNull File usersFile;
@@ -217,6 +223,15 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
                         + " data entries which need correction.");
             }
 
+            synchronized (fileWritingLock) {
+                try {
+                    userIndex();
+                } catch (IOException e) {
+                    logger.log(Level.SEVERE,
+                            "Unexpected Exception while indexing " + usersFilePath, e);
+                }
+            }
+
             updateLeaderboards();
         }
     }
@@ -246,6 +261,10 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
             try (BufferedReader in = newBufferedReader()) {
                 String line;
                 while ((line = in.readLine()) != null) {
+                    if (FlatFileUserIndex.isTombstone(line)) {
+                        continue;
+                    }
+
                     // Comments and empty lines are not users; keep them as-is
                     if (FlatFileRow.parse(line, logger, usersFilePath) == null) {
                         writer.append(line).append(LINE_ENDING);
@@ -336,26 +355,34 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
 
     public boolean removeUser(String playerName, UUID uuid) {
         // NOTE: UUID is unused for FlatFile for this interface implementation
-        final String targetName = playerName;
-        final boolean[] worked = {false};
+        boolean worked = false;
 
-        rewriteUsersFile(line -> {
-            FlatFileRow row = FlatFileRow.parse(line, logger, usersFilePath);
-            if (row == null) {
-                return line; // comments / malformed stay
-            }
+        synchronized (fileWritingLock) {
+            try {
+                for (int attempt = 0; attempt < 2 && !worked; attempt++) {
+                    final FlatFileUserIndex index = userIndex();
+                    worked = index.remove(playerName);
+                    if (!worked && !index.isStale()) {
+                        break;
+                    }
+                }
 
-            if (!worked[0] && row.username().equalsIgnoreCase(targetName)) {
-                logger.info("User found, removing...");
-                worked[0] = true;
-                return null; // drop this line
+                if (worked) {
+                    logger.info("User found, removing...");
+                    final FlatFileLeaderboards current = leaderboards;
+                    if (current != null) {
+                        current.remove(playerName);
+                    }
+                    compactIfNeeded();
+                }
+            } catch (IOException e) {
+                logger.log(Level.SEVERE,
+                        "Unexpected Exception while writing " + usersFilePath, e);
             }
-
-            return line;
-        });
+        }
 
         Misc.profileCleanup(playerName);
-        return worked[0];
+        return worked;
     }
 
     @Override
@@ -371,69 +398,76 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
         String playerName = profile.getPlayerName();
         UUID uuid = profile.getUniqueId();
 
-        boolean corruptDataFound = false;
-
         synchronized (fileWritingLock) {
-            StringBuilder writer = new StringBuilder();
-
-            try (BufferedReader in = newBufferedReader()) {
-                String line;
-                boolean wroteUser = false;
-
-                while ((line = in.readLine()) != null) {
-                    if (line.startsWith("#")) {
-                        writer.append(line).append(LINE_ENDING);
-                        continue;
+            try {
+                final String line = toUserLine(profile);
+
+                // A stale index is rebuilt and the write retried once
+                for (int attempt = 0; attempt < 2; attempt++) {
+                    if (userIndex().write(uuid, playerName, line)) {
+                        updateLeaderboardStats(profile);
+                        compactIfNeeded();
+                        return true;
                     }
+                }
 
-                    if (!line.contains(":")) {
-                        corruptDataFound = logCorruptOnce(corruptDataFound);
-                        continue;
-                    }
+                logger.severe("Could not locate the row of " + playerName + " in "
+                        + usersFilePath + ", the file keeps changing underneath mcMMO");
+                return false;
+            } catch (Exception e) {
+                logger.log(Level.SEVERE,
+                        "Unexpected Exception while writing " + usersFilePath, e);
+                return false;
+            }
+        }
+    }
 
-                    String[] splitData = line.split(":");
+    /**
+     * Writes every profile under a single hold of the file lock and compacts at most once
+     * afterwards, instead of paying both per profile.
+     */
+    @Override
+    public @NotNull List<PlayerProfile> saveUsers(@NotNull List<PlayerProfile> profiles) {
+        final List<PlayerProfile> failed = new ArrayList<>();
 
-                    // Not enough entries to even contain a UUID
-                    if (splitData.length < UUID_INDEX) {
-                        corruptDataFound = logCorruptOnce(corruptDataFound);
-                        continue;
+        synchronized (fileWritingLock) {
+            for (PlayerProfile profile : profiles) {
+                try {
+                    final String line = toUserLine(profile);
+                    boolean written = false;
+
+                    // A stale index is rebuilt and the write retried once
+                    for (int attempt = 0; attempt < 2 && !written; attempt++) {
+                        written = userIndex().write(profile.getUniqueId(),
+                                profile.getPlayerName(), line);
                     }
 
-                    boolean uuidMatches = uuid != null
-                            && splitData.length > UUID_INDEX
-                            && splitData[UUID_INDEX].equalsIgnoreCase(uuid.toString());
-                    boolean nameMatches = splitData.length > USERNAME_INDEX
-                            && splitData[USERNAME_INDEX].equalsIgnoreCase(playerName);
-
-                    if (!uuidMatches && !nameMatches) {
-                        // not the user, keep the line
-                        writer.append(line).append(LINE_ENDING);
+                    if (written) {
+                        updateLeaderboardStats(profile);
                     } else {
-                        writeUserToLine(profile, writer);
-                        wroteUser = true;
+                        logger.severe("Could not locate the row of " + profile.getPlayerName()
+                                + " in " + usersFilePath
+                                + ", the file keeps changing underneath mcMMO");
+                        failed.add(profile);
                     }
+                } catch (Exception e) {
+                    logger.log(Level.SEVERE,
+                            "Unexpected Exception while writing " + usersFilePath, e);
+                    failed.add(profile);
                 }
-
-                if (!wroteUser) {
-                    writeUserToLine(profile, writer);
-                }
-
-                writeStringToFileSafely(writer.toString());
-                return true;
-            } catch (Exception e) {
-                logger.log(Level.SEVERE,
-                        "Unexpected Exception while reading " + usersFilePath, e);
-                return false;
             }
+
+            compactIfNeeded();
         }
+
+        return failed;
     }
 
-    private boolean logCorruptOnce(boolean alreadyLogged) {
-        if (!alreadyLogged) {
-            logger.severe(
-                    "mcMMO found some unexpected or corrupted data in mcmmo.users and is removing it, it is possible some data has been lost.");
-        }
-        return true;
+    private @NotNull String toUserLine(@NotNull PlayerProfile profile) throws IOException {
+        final StringBuilder line = new StringBuilder(512);
+        writeUserToLine(profile, line);
+        line.setLength(line.length() - LINE_ENDING.length());
+        return line.toString();
     }
 
     public void writeUserToLine(@NotNull PlayerProfile profile,
@@ -536,20 +570,9 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
         PlayerProfile playerProfile = new PlayerProfile(playerName, uuid, true, startingLevel);
 
         synchronized (fileWritingLock) {
-            StringBuilder stringBuilder = new StringBuilder();
-
-            try (BufferedReader bufferedReader = newBufferedReader()) {
-                String line;
-                while ((line = bufferedReader.readLine()) != null) {
-                    stringBuilder.append(line).append(LINE_ENDING);
-                }
-            } catch (IOException e) {
-                logger.log(Level.SEVERE, "Unexpected Exception while reading " + usersFilePath, e);
-            }
-
-            try (FileWriter fileWriter = new FileWriter(usersFile)) {
-                writeUserToLine(playerProfile, stringBuilder);
-                fileWriter.write(stringBuilder.toString());
+            try {
+                userIndex().append(uuid, playerName, toUserLine(playerProfile));
+                updateLeaderboardStats(playerProfile);
             } catch (Exception e) {
                 logger.log(Level.SEVERE,
                         "Unexpected Exception while writing to " + usersFilePath, e);
@@ -599,23 +622,10 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
         String playerName = userQuery.getName();
 
         synchronized (fileWritingLock) {
-            try (BufferedReader in = newBufferedReader()) {
-                String line;
-
-                while ((line = in.readLine()) != null) {
-                    if (line.startsWith("#")) {
-                        continue;
-                    }
-
-                    String[] rawSplitData = line.split(":");
-
-                    if (rawSplitData.length < (USERNAME_INDEX + 1)) {
-                        continue;
-                    }
-
-                    if (playerName.equalsIgnoreCase(rawSplitData[USERNAME_INDEX])) {
-                        return loadFromLine(rawSplitData);
-                    }
+            try {
+                final String[] rawSplitData = readIndexedRow(null, playerName);
+                if (rawSplitData != null) {
+                    return loadFromLine(rawSplitData);
                 }
             } catch (Exception e) {
                 logger.log(Level.SEVERE,
@@ -630,28 +640,10 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
         UUID uuid = userQuery.getUUID();
 
         synchronized (fileWritingLock) {
-            try (BufferedReader in = newBufferedReader()) {
-                String line;
-
-                while ((line = in.readLine()) != null) {
-                    if (line.startsWith("#")) {
-                        continue;
-                    }
-
-                    String[] rawSplitData = line.split(":");
-
-                    if (rawSplitData.length < (UUID_INDEX + 1)) {
-                        continue;
-                    }
-
-                    try {
-                        UUID fromDataUUID = UUID.fromString(rawSplitData[UUID_INDEX]);
-                        if (fromDataUUID.equals(uuid)) {
-                            return loadFromLine(rawSplitData);
-                        }
-                    } catch (Exception e) {
-                        // Ignore malformed UUIDs
-                    }
+            try {
+                final String[] rawSplitData = readIndexedRow(uuid, null);
+                if (rawSplitData != null) {
+                    return loadFromLine(rawSplitData);
                 }
             } catch (Exception e) {
                 logger.log(Level.SEVERE,
@@ -667,41 +659,23 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
         UUID uuid = userQuery.getUUID();
 
         synchronized (fileWritingLock) {
-            try (BufferedReader in = newBufferedReader()) {
-                String line;
-
-                while ((line = in.readLine()) != null) {
-                    if (line.startsWith("#")) {
-                        continue;
-                    }
-
-                    String[] rawSplitData = line.split(":");
-
-                    if (rawSplitData.length < (UUID_INDEX + 1)) {
-                        continue;
+            try {
+                final String[] rawSplitData = readIndexedRow(uuid, null);
+                if (rawSplitData != null) {
+                    String dbPlayerName = rawSplitData[USERNAME_INDEX];
+                    boolean matchingName = dbPlayerName.equalsIgnoreCase(playerName);
+
+                    if (!matchingName) {
+                        logger.warning(
+                                "When loading user: " + playerName + " with UUID of ("
+                                        + uuid + ") we found a mismatched name, the name in the DB will be replaced (DB name: "
+                                        + dbPlayerName + ")");
+                        rawSplitData[USERNAME_INDEX] = playerName;
                     }
 
-                    try {
-                        UUID fromDataUUID = UUID.fromString(rawSplitData[UUID_INDEX]);
-                        if (fromDataUUID.equals(uuid)) {
-                            String dbPlayerName = rawSplitData[USERNAME_INDEX];
-                            boolean matchingName = dbPlayerName.equalsIgnoreCase(playerName);
-
-                            if (!matchingName) {
-                                logger.warning(
-                                        "When loading user: " + playerName + " with UUID of ("
-                                                + uuid + ") we found a mismatched name, the name in the DB will be replaced (DB name: "
-                                                + dbPlayerName + ")");
-                                rawSplitData[USERNAME_INDEX] = playerName;
-                            }
-
-                            return loadFromLine(rawSplitData);
-                        }
-                    } catch (Exception e) {
-                        // Ignore malformed UUIDs
-                    }
+                    return loadFromLine(rawSplitData);
                 }
-            } catch (IOException e) {
+            } catch (Exception e) {
                 logger.log(Level.SEVERE,
                         "Unexpected Exception while reading " + usersFilePath, e);
             }
@@ -710,6 +684,31 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
         return grabUnloadedProfile(uuid, playerName);
     }
 
+    /**
+     * Looks a user's row up through the index, by UUID if one is given and by name otherwise.
+     * Must be called while holding {@code fileWritingLock}.
+     *
+     * @return the split row, or null if the user is not in the file
+     */
+    private String @Nullable [] readIndexedRow(@Nullable UUID uuid, @Nullable String playerName)
+            throws IOException {
+        // A stale index is rebuilt once; the second lookup is authoritative
+        for (int attempt = 0; attempt < 2; attempt++) {
+            final FlatFileUserIndex index = userIndex();
+            final String line = uuid != null
+                    ? index.readByUuid(uuid)
+                    : index.readByName(Objects.requireNonNull(playerName));
+            if (line != null) {
+                return line.trim().split(":");
+            }
+            if (!index.isStale()) {
+                break;
+            }
+        }
+
+        return null;
+    }
+
     private @NotNull PlayerProfile grabUnloadedProfile(@NotNull UUID uuid,
             @Nullable String playerName) {
         String name = (playerName == null) ? "" : playerName;
@@ -836,9 +835,9 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
         ArrayList<String> users = new ArrayList<>();
 
         withUsersFileLines(line -> {
-            String[] character = line.split(":");
-            if (character.length > USERNAME_INDEX) {
-                users.add(character[USERNAME_INDEX]);
+            FlatFileRow row = FlatFileRow.parse(line, logger, usersFilePath);
+            if (row != null) {
+                users.add(row.username());
             }
         });
 
@@ -849,6 +848,11 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
     // Leaderboards
     // ------------------------------------------------------------------------
 
+    /**
+     * Makes sure the leaderboards reflect the users file. Saves keep them current on their own,
+     * so this only rescans the file if it was rewritten or changed behind the manager's back, at
+     * most once per refresh interval.
+     */
     public @NotNull LeaderboardStatus updateLeaderboards() {
         final long now = System.currentTimeMillis();
         final long last = lastUpdate.get();
@@ -861,7 +865,7 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
             return LeaderboardStatus.TOO_SOON_TO_UPDATE;
         }
 
-        final LeaderboardStatus status = rebuildLeaderboards();
+        final LeaderboardStatus status = refreshLeaderboards();
         if (status == LeaderboardStatus.FAILED) {
             // A failed rebuild must not consume the throttle window; undo the claim so the next
             // caller may retry immediately (unless another rebuild advanced it meanwhile).
@@ -870,73 +874,70 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
         return status;
     }
 
-    private @NotNull LeaderboardStatus rebuildLeaderboards() {
-        // Power level leaderboard
-        final TreeSet<PlayerStat> powerLevelStats = new TreeSet<>();
+    private @NotNull LeaderboardStatus refreshLeaderboards() {
+        synchronized (fileWritingLock) {
+            // The row index notices the file changing length underneath it, which is the only
+            // way the leaderboards can miss a change once built
+            if (leaderboards != null && !leaderboardsOutdated
+                    && userIndex != null && !userIndex.isStale()) {
+                lastUpdate.set(System.currentTimeMillis());
+                return LeaderboardStatus.UPDATED;
+            }
 
-        // Per-skill leaderboards
-        final EnumMap<PrimarySkillType, TreeSet<PlayerStat>> perSkillSets =
-                new EnumMap<>(PrimarySkillType.class);
-        for (PrimarySkillType skill : SkillTools.NON_CHILD_SKILLS) {
-            perSkillSets.put(skill, new TreeSet<>());
+            return rebuildLeaderboards();
         }
+    }
 
+    /**
+     * Must be called while holding {@code fileWritingLock}.
+     */
+    private @NotNull LeaderboardStatus rebuildLeaderboards() {
+        final FlatFileLeaderboards rebuilt = new FlatFileLeaderboards();
         String playerName = null;
 
-        synchronized (fileWritingLock) {
-            try (BufferedReader in = newBufferedReader()) {
-                String line;
-                while ((line = in.readLine()) != null) {
-                    FlatFileRow row = FlatFileRow.parse(line, logger, usersFilePath);
-                    if (row == null) {
-                        continue; // comment / empty / malformed
-                    }
-
-                    playerName = row.username();
-                    String[] data = row.fields();
-
-                    Map<PrimarySkillType, Integer> skills = getSkillMapFromLine(data);
-                    int powerLevel = addAllSkillStats(playerName, skills, perSkillSets);
-                    putStat(powerLevelStats, playerName, powerLevel);
+        try (BufferedReader in = newBufferedReader()) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                FlatFileRow row = FlatFileRow.parse(line, logger, usersFilePath);
+                if (row == null) {
+                    continue; // comment / empty / malformed
                 }
-            } catch (IOException e) {
-                logger.severe("Exception while reading " + usersFilePath + " during user "
-                        + playerName + " (Are you sure you formatted it correctly?) " + e);
-                return LeaderboardStatus.FAILED;
-            }
 
-            // Publish the whole generation while still holding the lock: rebuilds stay
-            // serialized scan-to-publish, so a slower older scan can never overwrite a newer
-            // one, and readers always observe lists from a single file scan.
-            final Map<PrimarySkillType, List<PlayerStat>> skillLeaderboards =
-                    new EnumMap<>(PrimarySkillType.class);
-            for (Map.Entry<PrimarySkillType, TreeSet<PlayerStat>> entry : perSkillSets.entrySet()) {
-                skillLeaderboards.put(entry.getKey(), List.copyOf(entry.getValue()));
+                playerName = row.username();
+                rebuilt.add(row.uuid(), playerName, getSkillMapFromLine(row.fields()));
             }
-
-            leaderboards = new LeaderboardSnapshot(skillLeaderboards, List.copyOf(powerLevelStats));
-            // Only successful rebuilds arm the throttle; failures leave it untouched so the
-            // next caller may retry immediately.
-            lastUpdate.set(System.currentTimeMillis());
+        } catch (IOException e) {
+            logger.severe("Exception while reading " + usersFilePath + " during user "
+                    + playerName + " (Are you sure you formatted it correctly?) " + e);
+            leaderboardsOutdated = true;
+            return LeaderboardStatus.FAILED;
         }
 
+        // Published while still holding the lock, so no save can slip in between the scan and
+        // the swap and be lost
+        leaderboards = rebuilt;
+        leaderboardsOutdated = false;
+        // Only successful rebuilds arm the throttle; failures leave it untouched so the
+        // next caller may retry immediately.
+        lastUpdate.set(System.currentTimeMillis());
         return LeaderboardStatus.UPDATED;
     }
 
-    private int addAllSkillStats(String playerName,
-            Map<PrimarySkillType, Integer> skills,
-            Map<PrimarySkillType, TreeSet<PlayerStat>> perSkillSets) {
-        int powerLevel = 0;
-
-        for (Map.Entry<PrimarySkillType, TreeSet<PlayerStat>> entry : perSkillSets.entrySet()) {
-            PrimarySkillType skill = entry.getKey();
-            TreeSet<PlayerStat> set = entry.getValue();
-
-            int value = skills.getOrDefault(skill, 0);
-            powerLevel += putStat(set, playerName, value);
+    /**
+     * Moves a saved or created user to their new place on every leaderboard. Must be called
+     * while holding {@code fileWritingLock}.
+     */
+    private void updateLeaderboardStats(@NotNull PlayerProfile profile) {
+        final FlatFileLeaderboards current = leaderboards;
+        if (current == null) {
+            return; // Built from the file on first use
         }
 
-        return powerLevel;
+        final Map<PrimarySkillType, Integer> levels = new EnumMap<>(PrimarySkillType.class);
+        for (PrimarySkillType skill : SkillTools.NON_CHILD_SKILLS) {
+            levels.put(skill, profile.getSkillLevel(skill));
+        }
+        current.update(profile.getUniqueId(), profile.getPlayerName(), levels);
     }
 
     public @NotNull List<PlayerStat> readLeaderboard(@Nullable PrimarySkillType primarySkillType,
@@ -946,32 +947,26 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
 
         updateLeaderboards();
 
-        return readLeaderboardPage(leaderboards, primarySkillType, pageNumber, statsPerPage);
+        final FlatFileLeaderboards current = leaderboards;
+        return current == null ? List.of()
+                : current.readPage(primarySkillType, pageNumber, statsPerPage);
     }
 
     /**
-     * Reads the top rows of every leaderboard scope after forcing a single rebuild, bypassing
-     * the wall-clock throttle that spaces out command-triggered rebuilds. One full users-file
-     * scan populates all scopes. Rebuild failures propagate so callers building caches from the
-     * result can keep their last good data.
+     * Reads the top rows of every leaderboard scope, bypassing the wall-clock throttle that
+     * spaces out command-triggered refreshes so callers building caches always observe current
+     * data. The live leaderboards already are, so this only scans the users file if they were
+     * never built or the file changed behind the manager's back. Rebuild failures propagate so
+     * callers can keep their last good data.
      */
     @Override
     public @NotNull LeaderboardSnapshot readLeaderboardSnapshot(int perScopeLimit) {
-        if (rebuildLeaderboards() == LeaderboardStatus.FAILED) {
+        if (refreshLeaderboards() == LeaderboardStatus.FAILED) {
             throw new RuntimeException(
                     "Failed to rebuild FlatFile leaderboards from " + usersFilePath);
         }
 
-        // Slice every scope from one generation so the result cannot mix two file scans.
-        final LeaderboardSnapshot generation = leaderboards;
-        final Map<PrimarySkillType, List<PlayerStat>> skillLeaderboards =
-                new EnumMap<>(PrimarySkillType.class);
-        for (PrimarySkillType skill : SkillTools.NON_CHILD_SKILLS) {
-            skillLeaderboards.put(skill, readLeaderboardPage(generation, skill, 1, perScopeLimit));
-        }
-
-        return new LeaderboardSnapshot(skillLeaderboards,
-                readLeaderboardPage(generation, null, 1, perScopeLimit));
+        return Objects.requireNonNull(leaderboards).snapshot(perScopeLimit);
     }
 
     private void validateNonChildSkill(@Nullable PrimarySkillType primarySkillType)
@@ -984,63 +979,20 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
         }
     }
 
-    private @NotNull List<PlayerStat> readLeaderboardPage(
-            @Nullable LeaderboardSnapshot generation, @Nullable PrimarySkillType primarySkillType,
-            int pageNumber, int statsPerPage) {
-        if (generation == null) {
-            return List.of();
-        }
-
-        final List<PlayerStat> statsList = (primarySkillType == null)
-                ? generation.powerLevels()
-                : generation.skillLeaderboards().get(primarySkillType);
-
-        if (statsList == null) {
-            return List.of();
-        }
-
-        int fromIndex = (Math.max(pageNumber, 1) - 1) * statsPerPage;
-        int start = Math.min(fromIndex, statsList.size());
-        int end = Math.min(fromIndex + statsPerPage, statsList.size());
-
-        return statsList.subList(start, end);
-    }
-
     public @NotNull HashMap<PrimarySkillType, Integer> readRank(String playerName) {
         updateLeaderboards();
 
-        // One generation reference so every rank comes from the same file scan.
-        final LeaderboardSnapshot generation = leaderboards;
-        final HashMap<PrimarySkillType, Integer> skills = new HashMap<>();
-
-        for (PrimarySkillType skill : SkillTools.NON_CHILD_SKILLS) {
-            skills.put(skill, getPlayerRank(playerName,
-                    generation == null ? null : generation.skillLeaderboards().get(skill)));
-        }
-
-        skills.put(null, getPlayerRank(playerName,
-                generation == null ? null : generation.powerLevels()));
-        return skills;
-    }
-
-    private Integer getPlayerRank(String playerName, List<PlayerStat> statsList) {
-        if (statsList == null) {
-            return null;
-        }
-
-        int currentPos = 1;
-        for (PlayerStat stat : statsList) {
-            if (stat.playerName().equalsIgnoreCase(playerName)) {
-                return currentPos;
+        final FlatFileLeaderboards current = leaderboards;
+        if (current == null) {
+            final HashMap<PrimarySkillType, Integer> skills = new HashMap<>();
+            for (PrimarySkillType skill : SkillTools.NON_CHILD_SKILLS) {
+                skills.put(skill, null);
             }
-            currentPos++;
+            skills.put(null, null);
+            return skills;
         }
-        return null;
-    }
 
-    private int putStat(TreeSet<PlayerStat> statList, String playerName, int statValue) {
-        statList.add(new PlayerStat(playerName, statValue));
-        return statValue;
+        return current.readRank(playerName);
     }
 
     // ------------------------------------------------------------------------
@@ -1089,7 +1041,7 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
                         continue;
                     }
 
-                    if (currentLine.isEmpty()) {
+                    if (currentLine.isEmpty() || FlatFileUserIndex.isTombstone(currentLine)) {
                         continue;
                     }
 
@@ -1104,6 +1056,8 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
                 flagsFound = new ArrayList<>(dataProcessor.getFlatFileDataFlags());
                 logger.info("Updating FlatFile Database...");
 
+                userIndex = null;
+                leaderboardsOutdated = true;
                 try (FileWriter fileWriter = new FileWriter(usersFilePath)) {
                     if (dbCommentDate != null) {
                         fileWriter.write(dbCommentDate + LINE_ENDING);
@@ -1246,7 +1200,39 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
         return new BufferedReader(new FileReader(usersFilePath));
     }
 
+    /**
+     * Returns the row index of the users file, (re)building it if the file changed underneath it.
+     * Must be called while holding {@code fileWritingLock}.
+     */
+    private @NotNull FlatFileUserIndex userIndex() throws IOException {
+        if (userIndex == null || userIndex.isStale()) {
+            if (userIndex != null) {
+                // The file changed behind the manager's back, so the leaderboards missed it too
+                leaderboardsOutdated = true;
+            }
+            userIndex = FlatFileUserIndex.build(usersFile);
+        }
+        return userIndex;
+    }
+
+    /**
+     * Rewrites the users file without the tombstones left by moved and removed rows once they
+     * take up enough of it. Must be called while holding {@code fileWritingLock}.
+     */
+    private void compactIfNeeded() {
+        if (userIndex != null && userIndex.needsCompaction()) {
+            LogUtils.debug(logger, "Compacting " + usersFilePath + "...");
+            // Compaction only drops tombstones, the leaderboards stay accurate
+            final boolean outdated = leaderboardsOutdated;
+            rewriteUsersFile(line -> line);
+            leaderboardsOutdated = outdated;
+        }
+    }
+
     private void writeStringToFileSafely(String contents) {
+        // Every row may move, the index is rebuilt on next use
+        userIndex = null;
+        leaderboardsOutdated = true;
         try (FileWriter out = new FileWriter(usersFilePath)) {
             out.write(contents);
         } catch (IOException e) {
@@ -1276,6 +1262,10 @@ public final class FlatFileDatabaseManager implements DatabaseManager {
             try (BufferedReader in = newBufferedReader()) {
                 String line;
                 while ((line = in.readLine()) != null) {
+                    if (FlatFileUserIndex.isTombstone(line)) {
+                        continue;
+                    }
+
                     String mapped = lineMapper.apply(line);
                     if (mapped != null) {
                         writer.append(mapped).append(LINE_ENDING);
@@ -0,0 +1,408 @@
+package com.gmail.nossr50.database;
+
+import static com.gmail.nossr50.database.FlatFileDatabaseManager.USERNAME_INDEX;
+import static com.gmail.nossr50.database.FlatFileDatabaseManager.UUID_INDEX;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * In-memory UUID / name to byte offset index over {@code mcmmo.users}, so that loading or saving
+ * a single profile costs one positional read or write instead of a pass over the whole file.
+ *
+ * <p>Rows are patched in place when the new line has the same byte length as the old one.
+ * Otherwise the new line is appended to the end of the file and the old one is overwritten with a
+ * tombstone: a {@code #} followed by spaces, which every reader of the file already skips as a
+ * comment. Tombstones are dropped whenever the file is rewritten in full, which the owner should
+ * do once {@link #needsCompaction()} reports that they make up a large part of the file.
+ *
+ * <p>The file is only trusted as long as its length matches what the index expects and the row
+ * found at an offset still carries the expected name and UUID; anything else marks the index
+ * {@linkplain #isStale() stale} so the owner can rebuild it.
+ *
+ * <p>When several rows share a UUID or a name, the first one in the file is found by key and the
+ * others are kept aside, so removing or moving the first one hands the key to the next.
+ *
+ * <p>Not thread-safe, every call must hold the owning database manager's file lock.
+ */
+final class FlatFileUserIndex {
+    private static final byte[] LINE_ENDING = "\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    // Below this much dead space compaction is not worth a full rewrite
+    private static final long COMPACTION_MIN_DEAD_BYTES = 64 * 1024;
+
+    // Same charset the rest of the manager reads and writes the file with (FileReader/FileWriter)
+    private final @NotNull Charset charset = Charset.defaultCharset();
+    private final @NotNull File usersFile;
+    private final @NotNull Map<UUID, Row> rowsByUuid = new HashMap<>();
+    private final @NotNull Map<String, Row> rowsByName = new HashMap<>();
+    // Rows hidden behind the first row of the same UUID or name
+    private final @NotNull Map<UUID, List<Row>> duplicatesByUuid = new HashMap<>();
+    private final @NotNull Map<String, List<Row>> duplicatesByName = new HashMap<>();
+    private long fileLength;
+    private long deadBytes;
+    private boolean endsWithLineBreak = true;
+    private boolean stale;
+
+    private static final class Row {
+        private final long offset;
+        private final int length; // Line content in bytes, without the line ending
+        private @NotNull String name;
+        private @Nullable UUID uuid;
+
+        private Row(long offset, int length, @NotNull String name, @Nullable UUID uuid) {
+            this.offset = offset;
+            this.length = length;
+            this.name = name;
+            this.uuid = uuid;
+        }
+    }
+
+    private FlatFileUserIndex(@NotNull File usersFile) {
+        this.usersFile = usersFile;
+    }
+
+    /**
+     * Scans the users file once and records where every user row starts.
+     */
+    static @NotNull FlatFileUserIndex build(@NotNull File usersFile) throws IOException {
+        final FlatFileUserIndex index = new FlatFileUserIndex(usersFile);
+        if (!usersFile.exists()) {
+            return index;
+        }
+
+        try (InputStream in = new FileInputStream(usersFile)) {
+            final byte[] buffer = new byte[READ_BUFFER_SIZE];
+            final ByteArrayOutputStream line = new ByteArrayOutputStream(512);
+            long position = 0;
+            long lineStart = 0;
+            int read;
+
+            while ((read = in.read(buffer)) != -1) {
+                int segmentStart = 0;
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        line.write(buffer, segmentStart, i - segmentStart);
+                        index.addLine(lineStart, line.toByteArray(), true);
+                        line.reset();
+                        segmentStart = i + 1;
+                        lineStart = position + i + 1;
+                    }
+                }
+                line.write(buffer, segmentStart, read - segmentStart);
+                position += read;
+            }
+
+            if (line.size() > 0) {
+                index.addLine(lineStart, line.toByteArray(), false);
+                index.endsWithLineBreak = false;
+            }
+            index.fileLength = position;
+        }
+
+        return index;
+    }
+
+    /**
+     * Whether the given line is a tombstone left behind by a row that moved or was removed.
+     */
+    static boolean isTombstone(@NotNull String line) {
+        return line.length() > 1 && line.charAt(0) == '#' && line.substring(1).isBlank();
+    }
+
+    /**
+     * Whether the file no longer matches this index, either because it was rewritten or edited
+     * behind the index's back or because a row was not where the index expected it.
+     */
+    boolean isStale() {
+        return stale || usersFile.length() != fileLength;
+    }
+
+    boolean needsCompaction() {
+        return deadBytes > COMPACTION_MIN_DEAD_BYTES && deadBytes * 2 > fileLength;
+    }
+
+    /**
+     * Reads the row of the user with the given UUID.
+     *
+     * @return the raw line, or null if the user is not indexed or the index turned out stale
+     */
+    @Nullable String readByUuid(@NotNull UUID uuid) throws IOException {
+        return readRow(rowsByUuid.get(uuid));
+    }
+
+    /**
+     * Reads the row of the user with the given name, ignoring case.
+     *
+     * @return the raw line, or null if the user is not indexed or the index turned out stale
+     */
+    @Nullable String readByName(@NotNull String name) throws IOException {
+        return readRow(rowsByName.get(toNameKey(name)));
+    }
+
+    /**
+     * Writes a user row, replacing the row of the same UUID (or failing that, the same name) if
+     * one exists and appending a new row otherwise.
+     *
+     * @param line the serialized row without its line ending
+     * @return false if nothing was written because the index turned out stale
+     */
+    boolean write(@Nullable UUID uuid, @NotNull String name, @NotNull String line)
+            throws IOException {
+        Row row = uuid == null ? null : rowsByUuid.get(uuid);
+        if (row == null) {
+            row = rowsByName.get(toNameKey(name));
+        }
+
+        final byte[] content = line.getBytes(charset);
+        try (RandomAccessFile file = new RandomAccessFile(usersFile, "rw")) {
+            if (row != null && !rowMatches(file, row)) {
+                stale = true;
+                return false;
+            }
+
+            if (row != null && row.length == content.length) {
+                file.seek(row.offset);
+                file.write(content);
+                unindex(row);
+                row.name = name;
+                row.uuid = uuid;
+                index(row);
+                return true;
+            }
+
+            // Append before burying the old row, so a crash in between leaves a stale duplicate
+            // for the health check rather than losing the user
+            final Row appended = append(file, content, name, uuid);
+            if (row != null) {
+                bury(file, row);
+            }
+            index(appended);
+        }
+
+        return true;
+    }
+
+    /**
+     * Appends a new user row without looking for an existing one.
+     *
+     * @param line the serialized row without its line ending
+     */
+    void append(@Nullable UUID uuid, @NotNull String name, @NotNull String line)
+            throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(usersFile, "rw")) {
+            index(append(file, line.getBytes(charset), name, uuid));
+        }
+    }
+
+    /**
+     * Removes the row of the user with the given name, ignoring case.
+     *
+     * @return false if there was no such user or the index turned out stale
+     */
+    boolean remove(@NotNull String name) throws IOException {
+        final Row row = rowsByName.get(toNameKey(name));
+        if (row == null) {
+            return false;
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(usersFile, "rw")) {
+            if (!rowMatches(file, row)) {
+                stale = true;
+                return false;
+            }
+            bury(file, row);
+        }
+
+        return true;
+    }
+
+    private @Nullable String readRow(@Nullable Row row) throws IOException {
+        if (row == null) {
+            return null;
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(usersFile, "r")) {
+            final String line = readLine(file, row);
+            if (line == null || !matches(line, row)) {
+                stale = true;
+                return null;
+            }
+            return line;
+        }
+    }
+
+    private @Nullable String readLine(@NotNull RandomAccessFile file, @NotNull Row row)
+            throws IOException {
+        if (row.offset + row.length > file.length()) {
+            return null;
+        }
+
+        final byte[] content = new byte[row.length];
+        file.seek(row.offset);
+        file.readFully(content);
+        return new String(content, charset);
+    }
+
+    private boolean rowMatches(@NotNull RandomAccessFile file, @NotNull Row row)
+            throws IOException {
+        final String line = readLine(file, row);
+        return line != null && matches(line, row);
+    }
+
+    private @NotNull Row append(@NotNull RandomAccessFile file, byte @NotNull [] content,
+            @NotNull String name, @Nullable UUID uuid) throws IOException {
+        long offset = file.length();
+        file.seek(offset);
+        if (!endsWithLineBreak) {
+            file.write(LINE_ENDING);
+            offset += LINE_ENDING.length;
+            endsWithLineBreak = true;
+        }
+        file.write(content);
+        file.write(LINE_ENDING);
+        fileLength = offset + content.length + LINE_ENDING.length;
+        return new Row(offset, content.length, name, uuid);
+    }
+
+    private void bury(@NotNull RandomAccessFile file, @NotNull Row row) throws IOException {
+        final byte[] tombstone = new byte[row.length];
+        Arrays.fill(tombstone, (byte) ' ');
+        tombstone[0] = '#';
+        file.seek(row.offset);
+        file.write(tombstone);
+        deadBytes += row.length + LINE_ENDING.length;
+        unindex(row);
+    }
+
+    private void addLine(long offset, byte @NotNull [] bytes, boolean terminated) {
+        int length = bytes.length;
+        if (terminated && length > 0 && bytes[length - 1] == '\r') {
+            length--;
+        }
+
+        final String line = new String(bytes, 0, length, charset);
+        if (isTombstone(line)) {
+            deadBytes += bytes.length + (terminated ? 1 : 0);
+            return;
+        }
+
+        final String[] data = splitRow(line);
+        if (data == null) {
+            return;
+        }
+
+        index(new Row(offset, length, data[USERNAME_INDEX], parseUuid(data)));
+    }
+
+    private void index(@NotNull Row row) {
+        if (row.uuid != null) {
+            index(rowsByUuid, duplicatesByUuid, row.uuid, row);
+        }
+        index(rowsByName, duplicatesByName, toNameKey(row.name), row);
+    }
+
+    private void unindex(@NotNull Row row) {
+        if (row.uuid != null) {
+            unindex(rowsByUuid, duplicatesByUuid, row.uuid, row);
+        }
+        unindex(rowsByName, duplicatesByName, toNameKey(row.name), row);
+    }
+
+    private static <K> void index(@NotNull Map<K, Row> rows,
+            @NotNull Map<K, List<Row>> duplicates, @NotNull K key, @NotNull Row row) {
+        final Row first = rows.putIfAbsent(key, row);
+        if (first == null) {
+            return;
+        }
+
+        // First row in the file wins, matching the old top-to-bottom scans
+        final List<Row> hidden = duplicates.computeIfAbsent(key, k -> new ArrayList<>(1));
+        if (row.offset < first.offset) {
+            rows.put(key, row);
+            hidden.add(first);
+        } else {
+            hidden.add(row);
+        }
+    }
+
+    private static <K> void unindex(@NotNull Map<K, Row> rows,
+            @NotNull Map<K, List<Row>> duplicates, @NotNull K key, @NotNull Row row) {
+        final List<Row> hidden = duplicates.get(key);
+        if (rows.get(key) != row) {
+            if (hidden != null) {
+                dropDuplicate(duplicates, key, hidden, row);
+            }
+            return;
+        }
+        if (hidden == null) {
+            rows.remove(key);
+            return;
+        }
+
+        // Hand the key to the next row in the file
+        Row next = hidden.get(0);
+        for (Row candidate : hidden) {
+            if (candidate.offset < next.offset) {
+                next = candidate;
+            }
+        }
+        rows.put(key, next);
+        dropDuplicate(duplicates, key, hidden, next);
+    }
+
+    private static <K> void dropDuplicate(@NotNull Map<K, List<Row>> duplicates, @NotNull K key,
+            @NotNull List<Row> hidden, @NotNull Row row) {
+        if (hidden.remove(row) && hidden.isEmpty()) {
+            duplicates.remove(key);
+        }
+    }
+
+    private static boolean matches(@NotNull String line, @NotNull Row row) {
+        final String[] data = splitRow(line);
+        return data != null && data[USERNAME_INDEX].equalsIgnoreCase(row.name)
+                && Objects.equals(parseUuid(data), row.uuid);
+    }
+
+    private static String @Nullable [] splitRow(@NotNull String line) {
+        final String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return null;
+        }
+
+        final String[] data = trimmed.split(":");
+        return data.length > USERNAME_INDEX ? data : null;
+    }
+
+    private static @Nullable UUID parseUuid(String @NotNull [] data) {
+        if (data.length <= UUID_INDEX) {
+            return null;
+        }
+
+        try {
+            return UUID.fromString(data[UUID_INDEX]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static @NotNull String toNameKey(@NotNull String name) {
+        return name.toLowerCase(Locale.ENGLISH);
+    }
+}
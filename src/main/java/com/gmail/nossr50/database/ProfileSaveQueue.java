@@ -0,0 +1,230 @@
+package com.gmail.nossr50.database;
+
+import com.gmail.nossr50.datatypes.player.PlayerProfile;
+import com.gmail.nossr50.mcMMO;
+import com.gmail.nossr50.util.LogUtils;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Bounded, coalescing queue of profiles waiting to be saved.
+ * <p>
+ * A profile queued again before its pending save ran is only saved once, with whatever state it
+ * has by then. Queued profiles are flushed on an async thread in batches handed to
+ * {@link DatabaseManager#saveUsers(List)}, so the backend pays for one transaction or one file
+ * lock hold per batch instead of one per player.
+ * <p>
+ * Profiles whose save fails go through {@link PlayerProfile#finishSave(boolean, boolean)}, which
+ * re-marks them dirty and queues them again; a flush only ever saves the profiles that were queued
+ * when it started, so a retry always lands in a later flush.
+ */
+public final class ProfileSaveQueue {
+    static final int DEFAULT_CAPACITY = 4096;
+    static final int DEFAULT_BATCH_SIZE = 100;
+    // Minimum spacing between "queue full" warnings
+    private static final long REJECTION_WARNING_INTERVAL_MILLIS = 60_000L;
+
+    private final @NotNull Supplier<DatabaseManager> databaseManager;
+    private final @NotNull Logger logger;
+    private final @NotNull Consumer<Runnable> asyncRunner;
+    private final int capacity;
+    private final int batchSize;
+
+    // PlayerProfile has identity equality, so this coalesces repeat saves of the same object
+    private final Set<PlayerProfile> pending = new LinkedHashSet<>();
+    // Single-flight guard for the async flush task
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    // Keeps an async flush and a shutdown drain from writing at the same time
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicLong lastRejectionWarning = new AtomicLong(0L);
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder saved = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private int peakDepth; // Guarded by pending
+
+    /**
+     * Counters since the queue was created, for diagnosing back-pressure.
+     *
+     * @param enqueued profiles accepted into the queue
+     * @param coalesced saves absorbed by a save of the same profile that was already queued
+     * @param rejected saves turned away because the queue was full
+     * @param saved profiles written to the database
+     * @param failed profiles the database failed to write
+     * @param batches batches handed to the database
+     * @param depth profiles currently queued
+     * @param peakDepth most profiles ever queued at once
+     */
+    public record Stats(long enqueued, long coalesced, long rejected, long saved, long failed,
+                        long batches, int depth, int peakDepth) {
+    }
+
+    public ProfileSaveQueue(@NotNull mcMMO plugin) {
+        this(mcMMO::getDatabaseManager, plugin.getLogger(),
+                task -> plugin.getFoliaLib().getScheduler().runAsync(wrappedTask -> task.run()),
+                DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE);
+    }
+
+    ProfileSaveQueue(@NotNull Supplier<DatabaseManager> databaseManager, @NotNull Logger logger,
+            @NotNull Consumer<Runnable> asyncRunner, int capacity, int batchSize) {
+        this.databaseManager = databaseManager;
+        this.logger = logger;
+        this.asyncRunner = asyncRunner;
+        this.capacity = Math.max(capacity, 1);
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    /**
+     * Queues a profile to be saved on the next async flush.
+     *
+     * @param profile the profile to save
+     * @return false if the queue is full and the caller has to save the profile itself
+     * @throws RuntimeException if the async flush could not be scheduled; the profile stays queued
+     */
+    public boolean enqueue(@NotNull PlayerProfile profile) {
+        synchronized (pending) {
+            if (pending.contains(profile)) {
+                coalesced.increment();
+                return true;
+            }
+
+            if (pending.size() >= capacity) {
+                rejected.increment();
+                warnRejected();
+                return false;
+            }
+
+            pending.add(profile);
+            enqueued.increment();
+            peakDepth = Math.max(peakDepth, pending.size());
+        }
+
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                asyncRunner.accept(this::runScheduledFlush);
+            } catch (RuntimeException e) {
+                // Nothing will run, the profile waits for the next enqueue or the shutdown drain
+                flushScheduled.set(false);
+                throw e;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Saves everything still queued along with the given profiles on the calling thread, ignoring
+     * the capacity limit. Used when the server shuts down.
+     *
+     * @param profiles additional profiles to save
+     */
+    public void drain(@NotNull Collection<PlayerProfile> profiles) {
+        synchronized (pending) {
+            pending.addAll(profiles);
+            peakDepth = Math.max(peakDepth, pending.size());
+        }
+
+        flush(true);
+    }
+
+    public @NotNull Stats getStats() {
+        synchronized (pending) {
+            return new Stats(enqueued.sum(), coalesced.sum(), rejected.sum(), saved.sum(),
+                    failed.sum(), batches.sum(), pending.size(), peakDepth);
+        }
+    }
+
+    private void runScheduledFlush() {
+        // Cleared first, so profiles queued while this flush runs schedule a new one
+        flushScheduled.set(false);
+        flush(false);
+    }
+
+    private void flush(boolean useSync) {
+        flushLock.lock();
+        try {
+            final List<PlayerProfile> profiles;
+            synchronized (pending) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                profiles = new ArrayList<>(pending);
+                pending.clear();
+            }
+
+            for (int from = 0; from < profiles.size(); from += batchSize) {
+                saveBatch(profiles.subList(from, Math.min(from + batchSize, profiles.size())),
+                        useSync);
+            }
+
+            LogUtils.debug(logger, "[User Data] Flushed " + profiles.size()
+                    + " queued profile saves, " + getStats());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void saveBatch(@NotNull List<PlayerProfile> profiles, boolean useSync) {
+        final List<PlayerProfile> originals = new ArrayList<>(profiles.size());
+        final List<PlayerProfile> copies = new ArrayList<>(profiles.size());
+        for (PlayerProfile profile : profiles) {
+            final PlayerProfile copy = profile.beginSave();
+            if (copy != null) {
+                originals.add(profile);
+                copies.add(copy);
+            }
+        }
+
+        if (copies.isEmpty()) {
+            return;
+        }
+
+        final Set<PlayerProfile> failedCopies =
+                Collections.newSetFromMap(new IdentityHashMap<>());
+        final DatabaseManager database = databaseManager.get();
+        if (database == null) {
+            failedCopies.addAll(copies);
+        } else {
+            try {
+                failedCopies.addAll(database.saveUsers(copies));
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Failed to save a batch of " + copies.size()
+                        + " profiles", e);
+                failedCopies.addAll(copies);
+            }
+        }
+
+        batches.increment();
+        for (int i = 0; i < originals.size(); i++) {
+            final boolean wasSaved = !failedCopies.contains(copies.get(i));
+            (wasSaved ? saved : failed).increment();
+            originals.get(i).finishSave(wasSaved, useSync);
+        }
+    }
+
+    private void warnRejected() {
+        final long now = System.currentTimeMillis();
+        final long last = lastRejectionWarning.get();
+        if (now - last >= REJECTION_WARNING_INTERVAL_MILLIS
+                && lastRejectionWarning.compareAndSet(last, now)) {
+            logger.warning("Profile save queue is full (" + capacity
+                    + " profiles), saving the overflow one by one. " + getStats());
+        }
+    }
+}
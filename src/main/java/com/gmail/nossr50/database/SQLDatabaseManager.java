@@ -42,8 +42,8 @@ public final class SQLDatabaseManager implements DatabaseManager {
     public static final String USER_VARCHAR = "VARCHAR(40)";
     public static final int CHILD_SKILLS_SIZE = 2;
     public static final String LEGACY_DRIVER_PATH = "com.mysql.jdbc.Driver";
-    private static final String ALL_QUERY_VERSION = "total";
-    private static final String INVALID_OLD_USERNAME = "_INVALID_OLD_USERNAME_";
+    static final String ALL_QUERY_VERSION = "total";
+    static final String INVALID_OLD_USERNAME = "_INVALID_OLD_USERNAME_";
 
     /**
      * MySQL/MariaDB error code for a duplicate index name (ER_DUP_KEYNAME), raised when
@@ -323,6 +323,12 @@ public final class SQLDatabaseManager implements DatabaseManager {
         final UUID uuid = profile.getUniqueId();
 
         try (Connection connection = getConnection(PoolIdentifier.SAVE)) {
+            // Known players are saved with one statement, atomic without a transaction
+            final int knownUserId = getUserID(connection, playerName, uuid);
+            if (knownUserId != -1 && updateProfile(connection, knownUserId, profile)) {
+                return true;
+            }
+
             boolean originalAutoCommit = connection.getAutoCommit();
             connection.setAutoCommit(false);
 
@@ -367,15 +373,152 @@ public final class SQLDatabaseManager implements DatabaseManager {
         }
     }
 
+    /**
+     * Saves a batch of profiles in one transaction, sending the updates of every table as a
+     * single JDBC batch. If the batch fails as a whole, every profile is retried in its own
+     * transaction so that one bad profile only fails itself.
+     */
+    @Override
+    public @NotNull List<PlayerProfile> saveUsers(@NotNull List<PlayerProfile> profiles) {
+        if (profiles.size() <= 1) {
+            return DatabaseManager.super.saveUsers(profiles);
+        }
+
+        try (Connection connection = getConnection(PoolIdentifier.SAVE)) {
+            connection.setAutoCommit(false);
+
+            try {
+                final int[] userIds = new int[profiles.size()];
+                for (int i = 0; i < profiles.size(); i++) {
+                    final PlayerProfile profile = profiles.get(i);
+                    int userId = getUserID(connection, profile.getPlayerName(),
+                            profile.getUniqueId());
+                    if (userId == -1) {
+                        userId = newUser(connection, profile.getPlayerName(),
+                                profile.getUniqueId());
+                        if (userId == -1) {
+                            throw new SQLException("Failed to create new account for "
+                                    + profile.getPlayerName());
+                        }
+                    }
+                    userIds[i] = userId;
+                }
+
+                executeUpdateBatch(connection, "profile", updateProfileSql(), profiles, userIds,
+                        this::bindProfile);
+
+                connection.commit();
+                return List.of();
+            } catch (SQLException e) {
+                connection.rollback();
+                logSQLException(e);
+            } finally {
+                // Best-effort restore
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException ignored) {
+                    // ignore
+                }
+            }
+        } catch (SQLException ex) {
+            logSQLException(ex);
+        }
+
+        logger.warning("Batch save of " + profiles.size()
+                + " profiles failed, saving them one at a time instead");
+        return DatabaseManager.super.saveUsers(profiles);
+    }
+
+    @FunctionalInterface
+    private interface ProfileUpdateBinder {
+        void bind(PreparedStatement stmt, int userId, PlayerProfile profile) throws SQLException;
+    }
+
+    private void executeUpdateBatch(Connection connection, String what, String sql,
+            List<PlayerProfile> profiles, int[] userIds, ProfileUpdateBinder binder)
+            throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (int i = 0; i < profiles.size(); i++) {
+                binder.bind(stmt, userIds[i], profiles.get(i));
+                stmt.addBatch();
+            }
+
+            final int[] updateCounts = stmt.executeBatch();
+            for (int i = 0; i < updateCounts.length; i++) {
+                // SUCCESS_NO_INFO is fine, a zero count means the row is missing
+                if (updateCounts[i] == 0 || updateCounts[i] == Statement.EXECUTE_FAILED) {
+                    throw new SQLException("Failed to update " + what + " for "
+                            + profiles.get(i).getPlayerName());
+                }
+            }
+        }
+    }
+
     // ---------------------------------------------------------------------
     // Update helpers
     // ---------------------------------------------------------------------
 
-    private boolean updateLastLogin(Connection connection, int userId, String playerName) {
-        String sql =
-                "UPDATE " + tablePrefix + "users SET lastlogin = UNIX_TIMESTAMP() WHERE id = ?";
+    /**
+     * Writes every table of a profile with one multi-table UPDATE, a single round trip.
+     *
+     * @return false if a row is missing from one of the tables or the update failed; the
+     * per-table updates then report which
+     */
+    private boolean updateProfile(Connection connection, int userId, PlayerProfile profile) {
+        try (PreparedStatement stmt = connection.prepareStatement(updateProfileSql())) {
+            bindProfile(stmt, userId, profile);
+            // Inner joins, so nothing matches when one of the rows is missing
+            return stmt.executeUpdate() != 0;
+        } catch (SQLException ex) {
+            logSQLException(ex);
+            return false;
+        }
+    }
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+    /**
+     * The updates of {@link #updateLastLoginSql}, {@link #updateSkillsSql},
+     * {@link #updateExperienceSql}, {@link #updateCooldownsSql} and
+     * {@link #updateHudSettingsSql} as one multi-table UPDATE, bound by {@link #bindProfile}.
+     */
+    private String updateProfileSql() {
+        final StringBuilder sql = new StringBuilder("UPDATE " + tablePrefix + "users u"
+                + " JOIN " + tablePrefix + "skills s ON s.user_id = u.id"
+                + " JOIN " + tablePrefix + "experience e ON e.user_id = u.id"
+                + " JOIN " + tablePrefix + "cooldowns c ON c.user_id = u.id"
+                + " JOIN " + tablePrefix + "huds h ON h.user_id = u.id"
+                + " SET u.lastlogin = UNIX_TIMESTAMP()");
+
+        // PERSISTED_SKILLS is in column order
+        for (PrimarySkillType primarySkillType : PERSISTED_SKILLS) {
+            sql.append(", s.").append(primarySkillType.name().toLowerCase(Locale.ENGLISH))
+                    .append(" = ?");
+        }
+        sql.append(", s.total = ?");
+        for (PrimarySkillType primarySkillType : PERSISTED_SKILLS) {
+            sql.append(", e.").append(primarySkillType.name().toLowerCase(Locale.ENGLISH))
+                    .append(" = ?");
+        }
+
+        return sql.append(", c.mining = ?, c.woodcutting = ?, c.unarmed = ?")
+                .append(", c.herbalism = ?, c.excavation = ?, c.swords = ?")
+                .append(", c.axes = ?, c.blast_mining = ?, c.chimaera_wing = ?, c.crossbows = ?")
+                .append(", c.tridents = ?, c.maces = ?, c.spears = ?")
+                .append(", h.mobhealthbar = ?, h.scoreboardtips = ?")
+                .append(" WHERE u.id = ?")
+                .toString();
+    }
+
+    private void bindProfile(PreparedStatement stmt, int userId, PlayerProfile profile)
+            throws SQLException {
+        int i = bindSkillValues(stmt, 1, profile);
+        i = bindExperienceValues(stmt, i, profile);
+        i = bindCooldownValues(stmt, i, profile);
+        i = bindHudSettingValues(stmt, i, profile);
+        stmt.setInt(i, userId);
+    }
+
+    private boolean updateLastLogin(Connection connection, int userId, String playerName) {
+        try (PreparedStatement stmt = connection.prepareStatement(updateLastLoginSql())) {
             stmt.setInt(1, userId);
             if (stmt.executeUpdate() == 0) {
                 logger.severe("Failed to update last login for " + playerName);
@@ -388,41 +531,14 @@ public final class SQLDatabaseManager implements DatabaseManager {
         }
     }
 
+    private String updateLastLoginSql() {
+        return "UPDATE " + tablePrefix + "users SET lastlogin = UNIX_TIMESTAMP() WHERE id = ?";
+    }
+
     private boolean updateSkills(Connection connection, int userId, PlayerProfile profile,
             String playerName) {
-        String sql = "UPDATE " + tablePrefix + "skills SET "
-                + " taming = ?, mining = ?, repair = ?, woodcutting = ?"
-                + ", unarmed = ?, herbalism = ?, excavation = ?"
-                + ", archery = ?, swords = ?, axes = ?, acrobatics = ?"
-                + ", fishing = ?, alchemy = ?, crossbows = ?, tridents = ?, maces = ?, spears = ?, total = ?"
-                + " WHERE user_id = ?";
-
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            int i = 1;
-            stmt.setInt(i++, profile.getSkillLevel(PrimarySkillType.TAMING));
-            stmt.setInt(i++, profile.getSkillLevel(PrimarySkillType.MINING));
-            stmt.setInt(i++, profile.getSkillLevel(PrimarySkillType.REPAIR));
-            stmt.setInt(i++, profile.getSkillLevel(PrimarySkillType.WOODCUTTING));
-            stmt.setInt(i++, profile.getSkillLevel(PrimarySkillType.UNARMED));
-            stmt.setInt(i++, profile.getSkillLevel(PrimarySkillType.HERBALISM));
-            stmt.setInt(i++, profile.getSkillLevel(PrimarySkillType.EXCAVATION));
-            stmt.setInt(i++, profile.getSkillLevel(PrimarySkillType.ARCHERY));
-            stmt.setInt(i++, profile.getSkillLevel(PrimarySkillType.SWORDS));
-            stmt.setInt(i++, profile.getSkillLevel(PrimarySkillType.AXES));
-            stmt.setInt(i++, profile.getSkillLevel(PrimarySkillType.ACROBATICS));
-            stmt.setInt(i++, profile.getSkillLevel(PrimarySkillType.FISHING));
-            stmt.setInt(i++, profile.getSkillLevel(PrimarySkillType.ALCHEMY));
-            stmt.setInt(i++, profile.getSkillLevel(PrimarySkillType.CROSSBOWS));
-            stmt.setInt(i++, profile.getSkillLevel(PrimarySkillType.TRIDENTS));
-            stmt.setInt(i++, profile.getSkillLevel(PrimarySkillType.MACES));
-            stmt.setInt(i++, profile.getSkillLevel(PrimarySkillType.SPEARS));
-
-            int total = 0;
-            for (PrimarySkillType primarySkillType : SkillTools.NON_CHILD_SKILLS) {
-                total += profile.getSkillLevel(primarySkillType);
-            }
-            stmt.setInt(i++, total);
-            stmt.setInt(i, userId);
+        try (PreparedStatement stmt = connection.prepareStatement(updateSkillsSql())) {
+            bindSkills(stmt, userId, profile);
 
             if (stmt.executeUpdate() == 0) {
                 logger.severe("Failed to update skills for " + playerName);
@@ -435,35 +551,39 @@ public final class SQLDatabaseManager implements DatabaseManager {
         }
     }
 
-    private boolean updateExperience(Connection connection, int userId, PlayerProfile profile,
-            String playerName) {
-        String sql = "UPDATE " + tablePrefix + "experience SET "
+    private String updateSkillsSql() {
+        return "UPDATE " + tablePrefix + "skills SET "
                 + " taming = ?, mining = ?, repair = ?, woodcutting = ?"
                 + ", unarmed = ?, herbalism = ?, excavation = ?"
                 + ", archery = ?, swords = ?, axes = ?, acrobatics = ?"
-                + ", fishing = ?, alchemy = ?, crossbows = ?, tridents = ?, maces = ?, spears = ?"
+                + ", fishing = ?, alchemy = ?, crossbows = ?, tridents = ?, maces = ?, spears = ?, total = ?"
                 + " WHERE user_id = ?";
+    }
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            int i = 1;
-            stmt.setInt(i++, profile.getSkillXpLevel(PrimarySkillType.TAMING));
-            stmt.setInt(i++, profile.getSkillXpLevel(PrimarySkillType.MINING));
-            stmt.setInt(i++, profile.getSkillXpLevel(PrimarySkillType.REPAIR));
-            stmt.setInt(i++, profile.getSkillXpLevel(PrimarySkillType.WOODCUTTING));
-            stmt.setInt(i++, profile.getSkillXpLevel(PrimarySkillType.UNARMED));
-            stmt.setInt(i++, profile.getSkillXpLevel(PrimarySkillType.HERBALISM));
-            stmt.setInt(i++, profile.getSkillXpLevel(PrimarySkillType.EXCAVATION));
-            stmt.setInt(i++, profile.getSkillXpLevel(PrimarySkillType.ARCHERY));
-            stmt.setInt(i++, profile.getSkillXpLevel(PrimarySkillType.SWORDS));
-            stmt.setInt(i++, profile.getSkillXpLevel(PrimarySkillType.AXES));
-            stmt.setInt(i++, profile.getSkillXpLevel(PrimarySkillType.ACROBATICS));
-            stmt.setInt(i++, profile.getSkillXpLevel(PrimarySkillType.FISHING));
-            stmt.setInt(i++, profile.getSkillXpLevel(PrimarySkillType.ALCHEMY));
-            stmt.setInt(i++, profile.getSkillXpLevel(PrimarySkillType.CROSSBOWS));
-            stmt.setInt(i++, profile.getSkillXpLevel(PrimarySkillType.TRIDENTS));
-            stmt.setInt(i++, profile.getSkillXpLevel(PrimarySkillType.MACES));
-            stmt.setInt(i++, profile.getSkillXpLevel(PrimarySkillType.SPEARS));
-            stmt.setInt(i, userId);
+    private void bindSkills(PreparedStatement stmt, int userId, PlayerProfile profile)
+            throws SQLException {
+        stmt.setInt(bindSkillValues(stmt, 1, profile), userId);
+    }
+
+    private int bindSkillValues(PreparedStatement stmt, int i, PlayerProfile profile)
+            throws SQLException {
+        // PERSISTED_SKILLS is in column order
+        for (PrimarySkillType primarySkillType : PERSISTED_SKILLS) {
+            stmt.setInt(i++, profile.getSkillLevel(primarySkillType));
+        }
+
+        int total = 0;
+        for (PrimarySkillType primarySkillType : SkillTools.NON_CHILD_SKILLS) {
+            total += profile.getSkillLevel(primarySkillType);
+        }
+        stmt.setInt(i++, total);
+        return i;
+    }
+
+    private boolean updateExperience(Connection connection, int userId, PlayerProfile profile,
+            String playerName) {
+        try (PreparedStatement stmt = connection.prepareStatement(updateExperienceSql())) {
+            bindExperience(stmt, userId, profile);
 
             if (stmt.executeUpdate() == 0) {
                 logger.severe("Failed to update experience for " + playerName);
@@ -476,31 +596,33 @@ public final class SQLDatabaseManager implements DatabaseManager {
         }
     }
 
-    private boolean updateCooldowns(Connection connection, int userId, PlayerProfile profile,
-            String playerName) {
-        String sql = "UPDATE " + tablePrefix + "cooldowns SET "
-                + "  mining = ?, woodcutting = ?, unarmed = ?"
-                + ", herbalism = ?, excavation = ?, swords = ?"
-                + ", axes = ?, blast_mining = ?, chimaera_wing = ?, crossbows = ?"
-                + ", tridents = ?, maces = ?, spears = ?"
+    private String updateExperienceSql() {
+        return "UPDATE " + tablePrefix + "experience SET "
+                + " taming = ?, mining = ?, repair = ?, woodcutting = ?"
+                + ", unarmed = ?, herbalism = ?, excavation = ?"
+                + ", archery = ?, swords = ?, axes = ?, acrobatics = ?"
+                + ", fishing = ?, alchemy = ?, crossbows = ?, tridents = ?, maces = ?, spears = ?"
                 + " WHERE user_id = ?";
+    }
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            int i = 1;
-            stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.SUPER_BREAKER));
-            stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.TREE_FELLER));
-            stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.BERSERK));
-            stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.GREEN_TERRA));
-            stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.GIGA_DRILL_BREAKER));
-            stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.SERRATED_STRIKES));
-            stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.SKULL_SPLITTER));
-            stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.BLAST_MINING));
-            stmt.setLong(i++, profile.getUniqueData(UniqueDataType.CHIMAERA_WING_DATS));
-            stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.SUPER_SHOTGUN));
-            stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.TRIDENTS_SUPER_ABILITY));
-            stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.MACES_SUPER_ABILITY));
-            stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.SPEARS_SUPER_ABILITY));
-            stmt.setInt(i, userId);
+    private void bindExperience(PreparedStatement stmt, int userId, PlayerProfile profile)
+            throws SQLException {
+        stmt.setInt(bindExperienceValues(stmt, 1, profile), userId);
+    }
+
+    private int bindExperienceValues(PreparedStatement stmt, int i, PlayerProfile profile)
+            throws SQLException {
+        // PERSISTED_SKILLS is in column order
+        for (PrimarySkillType primarySkillType : PERSISTED_SKILLS) {
+            stmt.setInt(i++, profile.getSkillXpLevel(primarySkillType));
+        }
+        return i;
+    }
+
+    private boolean updateCooldowns(Connection connection, int userId, PlayerProfile profile,
+            String playerName) {
+        try (PreparedStatement stmt = connection.prepareStatement(updateCooldownsSql())) {
+            bindCooldowns(stmt, userId, profile);
 
             if (stmt.executeUpdate() == 0) {
                 logger.severe("Failed to update cooldowns for " + playerName);
@@ -513,15 +635,42 @@ public final class SQLDatabaseManager implements DatabaseManager {
         }
     }
 
+    private String updateCooldownsSql() {
+        return "UPDATE " + tablePrefix + "cooldowns SET "
+                + "  mining = ?, woodcutting = ?, unarmed = ?"
+                + ", herbalism = ?, excavation = ?, swords = ?"
+                + ", axes = ?, blast_mining = ?, chimaera_wing = ?, crossbows = ?"
+                + ", tridents = ?, maces = ?, spears = ?"
+                + " WHERE user_id = ?";
+    }
+
+    private void bindCooldowns(PreparedStatement stmt, int userId, PlayerProfile profile)
+            throws SQLException {
+        stmt.setInt(bindCooldownValues(stmt, 1, profile), userId);
+    }
+
+    private int bindCooldownValues(PreparedStatement stmt, int i, PlayerProfile profile)
+            throws SQLException {
+        stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.SUPER_BREAKER));
+        stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.TREE_FELLER));
+        stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.BERSERK));
+        stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.GREEN_TERRA));
+        stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.GIGA_DRILL_BREAKER));
+        stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.SERRATED_STRIKES));
+        stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.SKULL_SPLITTER));
+        stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.BLAST_MINING));
+        stmt.setLong(i++, profile.getUniqueData(UniqueDataType.CHIMAERA_WING_DATS));
+        stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.SUPER_SHOTGUN));
+        stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.TRIDENTS_SUPER_ABILITY));
+        stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.MACES_SUPER_ABILITY));
+        stmt.setLong(i++, profile.getAbilityDATS(SuperAbilityType.SPEARS_SUPER_ABILITY));
+        return i;
+    }
+
     private boolean updateHudSettings(Connection connection, int userId, PlayerProfile profile,
             String playerName) {
-        String sql = "UPDATE " + tablePrefix
-                + "huds SET mobhealthbar = ?, scoreboardtips = ? WHERE user_id = ?";
-
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, MobHealthbarType.HEARTS.name());
-            stmt.setInt(2, profile.getScoreboardTipsShown());
-            stmt.setInt(3, userId);
+        try (PreparedStatement stmt = connection.prepareStatement(updateHudSettingsSql())) {
+            bindHudSettings(stmt, userId, profile);
 
             if (stmt.executeUpdate() == 0) {
                 logger.severe("Failed to update hud settings for " + playerName);
@@ -534,6 +683,23 @@ public final class SQLDatabaseManager implements DatabaseManager {
         }
     }
 
+    private String updateHudSettingsSql() {
+        return "UPDATE " + tablePrefix
+                + "huds SET mobhealthbar = ?, scoreboardtips = ? WHERE user_id = ?";
+    }
+
+    private void bindHudSettings(PreparedStatement stmt, int userId, PlayerProfile profile)
+            throws SQLException {
+        stmt.setInt(bindHudSettingValues(stmt, 1, profile), userId);
+    }
+
+    private int bindHudSettingValues(PreparedStatement stmt, int i, PlayerProfile profile)
+            throws SQLException {
+        stmt.setString(i++, MobHealthbarType.HEARTS.name());
+        stmt.setInt(i++, profile.getScoreboardTipsShown());
+        return i;
+    }
+
     // ---------------------------------------------------------------------
     // Leaderboards / rank
     // ---------------------------------------------------------------------
@@ -646,135 +812,13 @@ public final class SQLDatabaseManager implements DatabaseManager {
     }
 
     public Map<PrimarySkillType, Integer> readRank(String playerName) {
-        // NOTE: We keep HashMap so we can still use `null` as the "total" key,
-        // just like the original code.
-        Map<PrimarySkillType, Integer> ranks = new HashMap<>();
-
-        // Preload this player's skill levels & total in a single query
         try (Connection connection = getConnection(PoolIdentifier.MISC)) {
-
-            // 1) Load all relevant skill levels for this player in one shot
-            Map<PrimarySkillType, Integer> levels = new EnumMap<>(PrimarySkillType.class);
-            int totalLevel = 0;
-            int userId = -1;
-
-            String loadSql =
-                    "SELECT s.*, u.`user` " +
-                            "FROM " + tablePrefix + "users u " +
-                            "JOIN " + tablePrefix + "skills s ON s.user_id = u.id " +
-                            "WHERE u.`user` = ?";
-
-            try (PreparedStatement stmt = connection.prepareStatement(loadSql)) {
-                stmt.setString(1, playerName);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (!rs.next()) {
-                        // Player not found in DB, no ranks to report
-                        return ranks;
-                    }
-
-                    for (PrimarySkillType primarySkillType : SkillTools.NON_CHILD_SKILLS) {
-                        String column = primarySkillType.name().toLowerCase(Locale.ENGLISH);
-                        levels.put(primarySkillType, rs.getInt(column));
-                    }
-
-                    totalLevel = rs.getInt(ALL_QUERY_VERSION); // "total" column
-                    userId = rs.getInt("user_id");
-                }
-            }
-
-            // Helper method to compute a rank (base + tie offset + 1)
-            // for any numeric column on the skills table.
-            class RankCalculator {
-                private final int userId;
-
-                RankCalculator(int userId) {
-                    this.userId = userId;
-                }
-
-                int computeRank(String columnName, int value) throws SQLException {
-                    if (value <= 0) {
-                        // Original logic effectively did not assign a rank when the value <= 0
-                        return -1;
-                    }
-
-                    // Base: number of players with strictly higher value. Rows renamed to
-                    // _INVALID_OLD_USERNAME_ are hidden from the leaderboard (see
-                    // leaderboardQuery), so they must not count toward ranks either.
-                    String higherSql =
-                            "SELECT COUNT(*) AS cnt " +
-                                    "FROM " + tablePrefix + "users u " +
-                                    "JOIN " + tablePrefix + "skills s ON s.user_id = u.id " +
-                                    "WHERE s." + columnName + " > ? " +
-                                    "AND NOT u.`user` = '" + INVALID_OLD_USERNAME + "'";
-
-                    int higherCount = 0;
-                    try (PreparedStatement stmt = connection.prepareStatement(higherSql)) {
-                        stmt.setInt(1, value);
-                        try (ResultSet rs = stmt.executeQuery()) {
-                            if (rs.next()) {
-                                higherCount = rs.getInt("cnt");
-                            }
-                        }
-                    }
-
-                    // Tie offset: number of tied players who sort ahead of this one. Must match
-                    // the leaderboard's tiebreak (see leaderboardQuery: ORDER BY ... user_id
-                    // DESC) and its ghost-row filter, so /mcrank agrees with /mctop positions.
-                    String tieSql =
-                            "SELECT COUNT(*) AS cnt " +
-                                    "FROM " + tablePrefix + "users u " +
-                                    "JOIN " + tablePrefix + "skills s ON s.user_id = u.id " +
-                                    "WHERE s." + columnName + " = ? " +
-                                    "AND s." + columnName + " > 0 " +
-                                    "AND s.user_id > ? " +
-                                    "AND NOT u.`user` = '" + INVALID_OLD_USERNAME + "'";
-
-                    int tieCount = 0;
-                    try (PreparedStatement stmt = connection.prepareStatement(tieSql)) {
-                        stmt.setInt(1, value);
-                        stmt.setInt(2, userId);
-                        try (ResultSet rs = stmt.executeQuery()) {
-                            if (rs.next()) {
-                                tieCount = rs.getInt("cnt");
-                            }
-                        }
-                    }
-
-                    // 1-based rank: higher values first, then higher user_id first among ties
-                    return higherCount + tieCount + 1;
-                }
-            }
-
-            RankCalculator rankCalculator = new RankCalculator(userId);
-
-            // 2) Per-skill rank
-            for (PrimarySkillType primarySkillType : SkillTools.NON_CHILD_SKILLS) {
-                int level = levels.getOrDefault(primarySkillType, 0);
-
-                int rank = rankCalculator.computeRank(
-                        primarySkillType.name().toLowerCase(Locale.ENGLISH),
-                        level
-                );
-
-                if (rank > 0) {
-                    ranks.put(primarySkillType, rank);
-                }
-            }
-
-            // 3) Total rank (null key matches original behavior)
-            if (totalLevel > 0) {
-                int totalRank = rankCalculator.computeRank(ALL_QUERY_VERSION, totalLevel);
-                if (totalRank > 0) {
-                    ranks.put(null, totalRank);
-                }
-            }
-
+            return SQLRanks.readRank(connection, tablePrefix, playerName);
         } catch (SQLException ex) {
             logSQLException(ex);
         }
 
-        return ranks;
+        return new HashMap<>();
     }
 
 
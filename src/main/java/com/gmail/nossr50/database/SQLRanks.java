@@ -0,0 +1,145 @@
+package com.gmail.nossr50.database;
+
+import com.gmail.nossr50.datatypes.skills.PrimarySkillType;
+import com.gmail.nossr50.util.skills.SkillTools;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Computes every rank of one player for {@link SQLDatabaseManager#readRank} with one lookup of
+ * the player's levels and one rank statement, instead of two COUNT queries per scope.
+ * <p>
+ * Ranks match the leaderboard order (see {@link SQLDatabaseManager#leaderboardQuery}): higher
+ * values first, then higher user_id first among ties, with ghost rows renamed to
+ * {@code _INVALID_OLD_USERNAME_} left out. Scopes where the player has no levels get no rank.
+ * <p>
+ * The rank statement is one UNION ALL of per-scope counts, each a range scan of that scope's
+ * leaderboard index, which works on every server. ROW_NUMBER() over each scope would sort the
+ * whole table once per scope before picking out the player's row.
+ * <p>
+ * Package-private and static over a plain {@link Connection} so the rank statement can be
+ * checked and benchmarked against an embedded database.
+ */
+final class SQLRanks {
+    // A scope the player has levels in: the rank key (null for total), its column and value
+    private record Scope(@Nullable PrimarySkillType skill, @NotNull String column, int value) {
+    }
+
+    private SQLRanks() {
+    }
+
+    /**
+     * Reads the ranks of a player.
+     *
+     * @param connection connection to the mcMMO database
+     * @param tablePrefix mcMMO table prefix
+     * @param playerName name of the player
+     * @return rank by skill, with the total rank under the {@code null} key; empty if the player
+     * is unknown
+     * @throws SQLException if a statement fails
+     */
+    static @NotNull Map<PrimarySkillType, Integer> readRank(@NotNull Connection connection,
+            @NotNull String tablePrefix, @NotNull String playerName) throws SQLException {
+        // NOTE: HashMap so `null` can stay the "total" key
+        final Map<PrimarySkillType, Integer> ranks = new HashMap<>();
+
+        final String loadSql = "SELECT s.* " +
+                "FROM " + tablePrefix + "users u " +
+                "JOIN " + tablePrefix + "skills s ON s.user_id = u.id " +
+                "WHERE u.`user` = ?";
+
+        final List<Scope> scopes = new ArrayList<>(SkillTools.NON_CHILD_SKILLS.size() + 1);
+        final int userId;
+        try (PreparedStatement statement = connection.prepareStatement(loadSql)) {
+            statement.setString(1, playerName);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    // Player not found in DB, no ranks to report
+                    return ranks;
+                }
+
+                for (PrimarySkillType skill : SkillTools.NON_CHILD_SKILLS) {
+                    addScope(scopes, skill, skill.name().toLowerCase(Locale.ENGLISH), resultSet);
+                }
+                addScope(scopes, null, SQLDatabaseManager.ALL_QUERY_VERSION, resultSet);
+                userId = resultSet.getInt("user_id");
+            }
+        }
+
+        if (scopes.isEmpty()) {
+            return ranks;
+        }
+
+        readCountedRanks(connection, tablePrefix, scopes, userId, ranks);
+
+        return ranks;
+    }
+
+    private static void addScope(@NotNull List<Scope> scopes, @Nullable PrimarySkillType skill,
+            @NotNull String column, @NotNull ResultSet resultSet) throws SQLException {
+        final int value = resultSet.getInt(column);
+
+        // No levels, no rank
+        if (value > 0) {
+            scopes.add(new Scope(skill, column, value));
+        }
+    }
+
+    private static void readCountedRanks(@NotNull Connection connection,
+            @NotNull String tablePrefix, @NotNull List<Scope> scopes, int userId,
+            @NotNull Map<PrimarySkillType, Integer> ranks) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                countRankQuery(tablePrefix, scopes))) {
+            int parameter = 1;
+            for (Scope scope : scopes) {
+                statement.setInt(parameter++, scope.value());
+                statement.setInt(parameter++, scope.value());
+                statement.setInt(parameter++, userId);
+            }
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    // Players sorting ahead of this one, plus one
+                    ranks.put(scopes.get(resultSet.getInt(1)).skill(), resultSet.getInt(2) + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the counting rank statement: one row per scope holding the scope's position in the
+     * given list and the number of players sorting ahead of the player. Each scope binds its
+     * value twice and then the user id.
+     * <p>
+     * {@code col >= ? AND (col > ? OR user_id > ?)} keeps each count a range scan of the
+     * scope's leaderboard index, which InnoDB already orders by (col, user_id).
+     */
+    private static @NotNull String countRankQuery(@NotNull String tablePrefix,
+            @NotNull List<Scope> scopes) {
+        final StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < scopes.size(); i++) {
+            final String column = "s.`" + scopes.get(i).column() + "`";
+            if (i > 0) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("SELECT ").append(i).append(" AS scope, COUNT(*) AS cnt ")
+                    .append("FROM ").append(tablePrefix).append("skills s ")
+                    .append("JOIN ").append(tablePrefix).append("users u ON s.user_id = u.id ")
+                    .append("WHERE ").append(column).append(" >= ? ")
+                    .append("AND (").append(column).append(" > ? OR s.user_id > ?) ")
+                    .append("AND NOT u.`user` = '")
+                    .append(SQLDatabaseManager.INVALID_OLD_USERNAME).append("'");
+        }
+        return sql.toString();
+    }
+}
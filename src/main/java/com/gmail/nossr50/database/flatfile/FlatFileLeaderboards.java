@@ -0,0 +1,209 @@
+package com.gmail.nossr50.database.flatfile;
+
+import com.gmail.nossr50.datatypes.database.LeaderboardSnapshot;
+import com.gmail.nossr50.datatypes.database.PlayerStat;
+import com.gmail.nossr50.datatypes.skills.PrimarySkillType;
+import com.gmail.nossr50.util.skills.SkillTools;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Live leaderboards of the FlatFile database: one {@link RankedPlayerStats} per non-child skill
+ * plus one for power level, kept current by feeding every saved, created and removed user through
+ * {@link #update} and {@link #remove} instead of rescanning the users file.
+ * <p>
+ * Each user holds exactly one row per leaderboard, found by UUID or failing that by name, the same
+ * way the users file row of a saved profile is found. Rank and page reads take a read lock, so
+ * they never observe a user halfway through an update.
+ */
+public final class FlatFileLeaderboards {
+    private static final List<PrimarySkillType> RANKED_SKILLS = SkillTools.NON_CHILD_SKILLS;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Indexed like RANKED_SKILLS
+    private final RankedPlayerStats[] skillRankings = new RankedPlayerStats[RANKED_SKILLS.size()];
+    private final RankedPlayerStats powerLevelRanking = new RankedPlayerStats();
+    private final Map<UUID, Entry> entriesByUuid = new HashMap<>();
+    private final Map<String, Entry> entriesByName = new HashMap<>();
+
+    // Levels are indexed like RANKED_SKILLS, a primitive array keeps large files affordable
+    private record Entry(@NotNull String name, @Nullable UUID uuid, int @NotNull [] levels,
+                         int powerLevel) {
+    }
+
+    public FlatFileLeaderboards() {
+        for (int i = 0; i < skillRankings.length; i++) {
+            skillRankings[i] = new RankedPlayerStats();
+        }
+    }
+
+    /**
+     * Adds a user read from the users file while building the leaderboards. Only the first row of
+     * a duplicated UUID or name is ranked.
+     */
+    public void add(@Nullable UUID uuid, @NotNull String name,
+            @NotNull Map<PrimarySkillType, Integer> levels) {
+        lock.writeLock().lock();
+        try {
+            if ((uuid != null && entriesByUuid.containsKey(uuid))
+                    || entriesByName.containsKey(toNameKey(name))) {
+                return;
+            }
+            insert(uuid, name, levels);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the rows of a saved user, or adds them for a new user.
+     */
+    public void update(@Nullable UUID uuid, @NotNull String name,
+            @NotNull Map<PrimarySkillType, Integer> levels) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = uuid == null ? null : entriesByUuid.get(uuid);
+            if (previous == null) {
+                previous = entriesByName.get(toNameKey(name));
+            }
+            if (previous != null) {
+                delete(previous);
+            }
+            insert(uuid, name, levels);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the rows of the user with the given name, ignoring case.
+     */
+    public void remove(@NotNull String name) {
+        lock.writeLock().lock();
+        try {
+            final Entry entry = entriesByName.get(toNameKey(name));
+            if (entry != null) {
+                delete(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reads one page of a leaderboard.
+     *
+     * @param skill the skill, or null for the power level leaderboard
+     */
+    public @NotNull List<PlayerStat> readPage(@Nullable PrimarySkillType skill, int pageNumber,
+            int statsPerPage) {
+        lock.readLock().lock();
+        try {
+            final RankedPlayerStats ranking = ranking(skill);
+            if (ranking == null) {
+                return List.of();
+            }
+            return ranking.slice((Math.max(pageNumber, 1) - 1) * statsPerPage, statsPerPage);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the rank of a user on every leaderboard, with the power level rank under the
+     * {@code null} key. Leaderboards the user is not on map to null.
+     */
+    public @NotNull HashMap<PrimarySkillType, Integer> readRank(@NotNull String name) {
+        final HashMap<PrimarySkillType, Integer> ranks = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            final Entry entry = entriesByName.get(toNameKey(name));
+            for (int i = 0; i < skillRankings.length; i++) {
+                ranks.put(RANKED_SKILLS.get(i), entry == null ? null
+                        : toRank(skillRankings[i].rankOf(entry.name(), entry.levels()[i])));
+            }
+            ranks.put(null, entry == null ? null
+                    : toRank(powerLevelRanking.rankOf(entry.name(), entry.powerLevel())));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return ranks;
+    }
+
+    /**
+     * Copies the top rows of every leaderboard in one consistent read.
+     */
+    public @NotNull LeaderboardSnapshot snapshot(int perScopeLimit) {
+        lock.readLock().lock();
+        try {
+            final Map<PrimarySkillType, List<PlayerStat>> skillLeaderboards =
+                    new EnumMap<>(PrimarySkillType.class);
+            for (int i = 0; i < skillRankings.length; i++) {
+                skillLeaderboards.put(RANKED_SKILLS.get(i),
+                        skillRankings[i].slice(0, perScopeLimit));
+            }
+            return new LeaderboardSnapshot(skillLeaderboards,
+                    powerLevelRanking.slice(0, perScopeLimit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private @Nullable RankedPlayerStats ranking(@Nullable PrimarySkillType skill) {
+        if (skill == null) {
+            return powerLevelRanking;
+        }
+
+        final int index = RANKED_SKILLS.indexOf(skill);
+        return index == -1 ? null : skillRankings[index];
+    }
+
+    private void insert(@Nullable UUID uuid, @NotNull String name,
+            @NotNull Map<PrimarySkillType, Integer> levels) {
+        final int[] ranked = new int[skillRankings.length];
+        int powerLevel = 0;
+        for (int i = 0; i < skillRankings.length; i++) {
+            ranked[i] = levels.getOrDefault(RANKED_SKILLS.get(i), 0);
+            skillRankings[i].add(name, ranked[i]);
+            powerLevel += ranked[i];
+        }
+        powerLevelRanking.add(name, powerLevel);
+
+        // A name still held by another user's row (a rename onto a taken name) keeps pointing
+        // at that row, matching the first-row-wins lookups of the users file
+        final Entry entry = new Entry(name, uuid, ranked, powerLevel);
+        if (uuid != null) {
+            entriesByUuid.putIfAbsent(uuid, entry);
+        }
+        entriesByName.putIfAbsent(toNameKey(name), entry);
+    }
+
+    private void delete(@NotNull Entry entry) {
+        for (int i = 0; i < skillRankings.length; i++) {
+            skillRankings[i].remove(entry.name(), entry.levels()[i]);
+        }
+        powerLevelRanking.remove(entry.name(), entry.powerLevel());
+
+        if (entry.uuid() != null) {
+            entriesByUuid.remove(entry.uuid(), entry);
+        }
+        entriesByName.remove(toNameKey(entry.name()), entry);
+    }
+
+    private static @Nullable Integer toRank(int rank) {
+        return rank == -1 ? null : rank;
+    }
+
+    private static @NotNull String toNameKey(@NotNull String name) {
+        return name.toLowerCase(Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,214 @@
+package com.gmail.nossr50.database.flatfile;
+
+import com.gmail.nossr50.datatypes.database.PlayerStat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Order-statistic tree of leaderboard rows in {@link PlayerStat} order (highest value first, ties
+ * broken by name), supporting inserts, removals, rank lookups and page reads in O(log n).
+ * <p>
+ * Implemented as a treap whose nodes carry their subtree size. Nodes hold the name and value
+ * directly instead of a {@link PlayerStat}, which is only created for rows handed out by
+ * {@link #slice(int, int)}.
+ * <p>
+ * Not thread-safe.
+ */
+final class RankedPlayerStats {
+    private static final class Node {
+        private final @NotNull String name;
+        private final int value;
+        private final int priority;
+        private @Nullable Node left;
+        private @Nullable Node right;
+        private int size = 1;
+
+        private Node(@NotNull String name, int value, int priority) {
+            this.name = name;
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+
+    private @Nullable Node root;
+    // xorshift state for node priorities; the tree shape only needs to look random, not be secure
+    private int seed = 0x2545F491;
+
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Adds a row, unless an identical one (same name and value) is already present.
+     */
+    void add(@NotNull String name, int value) {
+        if (rankOf(name, value) != -1) {
+            return;
+        }
+
+        final Node[] parts = split(root, name, value);
+        root = merge(merge(parts[0], new Node(name, value, nextPriority())), parts[1]);
+    }
+
+    /**
+     * Removes a row.
+     *
+     * @return false if there was no such row
+     */
+    boolean remove(@NotNull String name, int value) {
+        if (rankOf(name, value) == -1) {
+            return false;
+        }
+
+        root = remove(root, name, value);
+        return true;
+    }
+
+    /**
+     * Position of a row on the leaderboard.
+     *
+     * @return the 1-based rank, or -1 if there is no such row
+     */
+    int rankOf(@NotNull String name, int value) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            final int cmp = compare(name, value, node);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return rank + size(node.left) + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads up to {@code count} rows starting at the 0-based position {@code from}.
+     */
+    @NotNull List<PlayerStat> slice(int from, int count) {
+        final int start = Math.max(from, 0);
+        final int length = Math.max(Math.min(count, size() - start), 0);
+        final List<PlayerStat> rows = new ArrayList<>(length);
+        if (length == 0) {
+            return rows;
+        }
+
+        // Descend to the first row, remembering every ancestor that comes after it
+        final ArrayDeque<Node> stack = new ArrayDeque<>();
+        Node node = root;
+        int index = start;
+        while (node != null) {
+            final int leftSize = size(node.left);
+            if (index < leftSize) {
+                stack.push(node);
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                stack.push(node);
+                break;
+            }
+        }
+
+        // Then walk in order
+        while (!stack.isEmpty() && rows.size() < length) {
+            final Node next = stack.pop();
+            rows.add(new PlayerStat(next.name, next.value));
+            for (Node child = next.right; child != null; child = child.left) {
+                stack.push(child);
+            }
+        }
+        return rows;
+    }
+
+    private static int size(@Nullable Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void updateSize(@NotNull Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    // Same order as PlayerStat#compareTo
+    private static int compare(@NotNull String name, int value, @NotNull Node node) {
+        final int cmp = Integer.compare(node.value, value);
+        return cmp != 0 ? cmp : name.compareTo(node.name);
+    }
+
+    /**
+     * Splits a subtree into the rows ordered before the given row and the rest.
+     */
+    private static @Nullable Node @NotNull [] split(@Nullable Node node, @NotNull String name,
+            int value) {
+        if (node == null) {
+            return new Node[2];
+        }
+
+        if (compare(name, value, node) > 0) {
+            final Node[] parts = split(node.right, name, value);
+            node.right = parts[0];
+            updateSize(node);
+            parts[0] = node;
+            return parts;
+        } else {
+            final Node[] parts = split(node.left, name, value);
+            node.left = parts[1];
+            updateSize(node);
+            parts[1] = node;
+            return parts;
+        }
+    }
+
+    private static @Nullable Node merge(@Nullable Node left, @Nullable Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            updateSize(left);
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            updateSize(right);
+            return right;
+        }
+    }
+
+    private static @Nullable Node remove(@Nullable Node node, @NotNull String name, int value) {
+        if (node == null) {
+            return null;
+        }
+
+        final int cmp = compare(name, value, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+
+        if (cmp < 0) {
+            node.left = remove(node.left, name, value);
+        } else {
+            node.right = remove(node.right, name, value);
+        }
+        updateSize(node);
+        return node;
+    }
+
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+}
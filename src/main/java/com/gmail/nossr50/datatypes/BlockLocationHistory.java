@@ -1,20 +1,47 @@
 package com.gmail.nossr50.datatypes;
 
-import com.google.common.collect.HashMultiset;
-import java.util.LinkedList;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.bukkit.Location;
+import org.bukkit.World;
 
 /**
- * This class works with the assumption that you only pass in Block Locations.  If locations have
- * differing pitch/yaw, the logic breaks
+ * A bounded history of block locations, compared by world and block coordinates only. Any
+ * location inside a block counts as that block.
+ *
+ * <p>Locations are packed into longs: 8 bits of world index, 12 bits of y and 22 bits each of x
+ * and z. The history is a ring of those longs with an open addressing count table next to it, so
+ * adding and looking up a location does not allocate and the footprint is fixed by the max size.
+ * Coordinates wrap every 4,194,304 blocks, locations that far apart share a key.</p>
  */
 public class BlockLocationHistory {
-    private final LinkedList<Location> limitedSizeOrderedList = new LinkedList<>();
-    private final HashMultiset<Location> lookup = HashMultiset.create();
-    private final int maxSize;
+    private static final int COORDINATE_BITS = 22;
+    private static final long COORDINATE_MASK = (1L << COORDINATE_BITS) - 1;
+    private static final long Y_MASK = 0xFFF;
+    private static final long WORLD_MASK = 0xFF;
+
+    // Worlds get a small index on first use, 0 is left for locations without a world
+    private static final Map<UUID, Integer> worldIndexes = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextWorldIndex = new AtomicInteger();
+
+    private final long[] history;
+    private int next;
+    private int size;
+
+    // Open addressing with linear probing, a count of 0 marks a free slot
+    private final long[] keys;
+    private final int[] counts;
+    private final int mask;
 
     public BlockLocationHistory(int maxSize) {
-        this.maxSize = maxSize;
+        history = new long[Math.max(0, maxSize)];
+        // At most a quarter full, probes stay short
+        final int tableSize = Integer.highestOneBit(Math.max(1, history.length) * 4 - 1) << 1;
+        keys = new long[tableSize];
+        counts = new int[tableSize];
+        mask = tableSize - 1;
     }
 
     /**
@@ -24,11 +51,21 @@ public class BlockLocationHistory {
      * @param newItem
      */
     public void add(Location newItem) {
-        limitedSizeOrderedList.addFirst(newItem);
-        lookup.add(newItem);
-        if (limitedSizeOrderedList.size() > maxSize) {
-            lookup.remove(limitedSizeOrderedList.removeLast());
+        if (history.length == 0) {
+            return;
+        }
+
+        final long key = pack(newItem);
+
+        if (size == history.length) {
+            decrement(history[next]);
+        } else {
+            size++;
         }
+
+        history[next] = key;
+        next = next + 1 == history.length ? 0 : next + 1;
+        increment(key);
     }
 
     /**
@@ -38,6 +75,61 @@ public class BlockLocationHistory {
      * @return true if the block location is in the recorded history
      */
     public boolean contains(Location targetLoc) {
-        return lookup.contains(targetLoc);
+        return counts[find(pack(targetLoc))] != 0;
+    }
+
+    private static long pack(Location location) {
+        final World world = location.getWorld();
+        final int worldIndex = world == null ? 0 : worldIndexes.computeIfAbsent(world.getUID(),
+                uid -> nextWorldIndex.incrementAndGet());
+
+        return (worldIndex & WORLD_MASK) << 56
+                | (location.getBlockY() & Y_MASK) << 44
+                | (location.getBlockX() & COORDINATE_MASK) << COORDINATE_BITS
+                | location.getBlockZ() & COORDINATE_MASK;
+    }
+
+    // Slot holding the key, or the free slot it would go in
+    private int find(long key) {
+        int slot = slot(key);
+        while (counts[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+    }
+
+    private void increment(long key) {
+        final int slot = find(key);
+        keys[slot] = key;
+        counts[slot]++;
+    }
+
+    private void decrement(long key) {
+        int slot = find(key);
+        if (--counts[slot] != 0) {
+            return;
+        }
+
+        // Shift later keys of the probe run back, so no lookup stops early at the freed slot
+        int free = slot;
+        slot = (slot + 1) & mask;
+        while (counts[slot] != 0) {
+            final int home = slot(keys[slot]);
+            // Move the key unless its home lies cyclically after the free slot, up to its slot
+            final boolean homeAfterFree = free <= slot
+                    ? free < home && home <= slot
+                    : free < home || home <= slot;
+            if (!homeAfterFree) {
+                keys[free] = keys[slot];
+                counts[free] = counts[slot];
+                counts[slot] = 0;
+                free = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
     }
 }
@@ -0,0 +1,101 @@
+package com.gmail.nossr50.datatypes.experience;
+
+import com.gmail.nossr50.datatypes.skills.PrimarySkillType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * XP gains of one player that are waiting for the end of the tick, summed per skill, reason and
+ * source. Abilities like Tree Feller or Blast Mining award XP for hundreds of blocks in one tick;
+ * buffered here, they go through the XP events, level check and XP bar update once per key.
+ *
+ * <p>All methods are safe to call from multiple threads.</p>
+ */
+public final class PendingXpGains {
+    private static final PrimarySkillType[] SKILLS = PrimarySkillType.values();
+    private static final XPGainReason[] REASONS = XPGainReason.values();
+    private static final XPGainSource[] SOURCES = XPGainSource.values();
+    private static final int SLOTS = SKILLS.length * REASONS.length * SOURCES.length;
+
+    /**
+     * Receives the summed gains on a flush.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void accept(@NotNull PrimarySkillType skill, float xp, @NotNull XPGainReason xpGainReason,
+                @NotNull XPGainSource xpGainSource);
+    }
+
+    // Allocated on the first gain, most players never have coalescing enabled
+    private double[] amounts;
+    // Slots in the order they were first added to, so keys flush in the order they were gained
+    private int[] order;
+    private int size;
+
+    /**
+     * Adds a gain to the sum of its skill, reason and source.
+     *
+     * @param skill the skill the XP is for
+     * @param xp the XP gained, must be positive
+     * @param xpGainReason why the XP was gained
+     * @param xpGainSource where the XP came from
+     * @return true if nothing was pending before, so the caller should schedule a flush
+     */
+    public synchronized boolean add(@NotNull PrimarySkillType skill, float xp,
+            @NotNull XPGainReason xpGainReason, @NotNull XPGainSource xpGainSource) {
+        if (amounts == null) {
+            amounts = new double[SLOTS];
+            order = new int[SLOTS];
+        }
+
+        final boolean wasEmpty = size == 0;
+        final int slot = (skill.ordinal() * REASONS.length + xpGainReason.ordinal())
+                * SOURCES.length + xpGainSource.ordinal();
+        // Gains are positive, so a slot is in use exactly when its sum is not zero
+        if (amounts[slot] == 0) {
+            order[size++] = slot;
+        }
+
+        // Summed as doubles so hundreds of small gains do not lose float precision
+        amounts[slot] += xp;
+        return wasEmpty;
+    }
+
+    /**
+     * @return true if no gains are pending
+     */
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Hands every pending sum to the sink and clears them. Gains added while the sink runs, for
+     * example by an event listener, are kept for the next flush.
+     *
+     * @param sink receives each skill, reason and source with its summed XP
+     */
+    public void flush(@NotNull Sink sink) {
+        final int[] slots;
+        final double[] sums;
+        synchronized (this) {
+            if (size == 0) {
+                return;
+            }
+
+            slots = new int[size];
+            sums = new double[size];
+            for (int i = 0; i < size; i++) {
+                slots[i] = order[i];
+                sums[i] = amounts[order[i]];
+                amounts[order[i]] = 0;
+            }
+            size = 0;
+        }
+
+        for (int i = 0; i < slots.length; i++) {
+            final int slot = slots[i];
+            sink.accept(SKILLS[slot / (REASONS.length * SOURCES.length)], (float) sums[i],
+                    REASONS[slot / SOURCES.length % REASONS.length],
+                    SOURCES[slot % SOURCES.length]);
+        }
+    }
+}
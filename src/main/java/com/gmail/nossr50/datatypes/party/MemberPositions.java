@@ -0,0 +1,137 @@
+package com.gmail.nossr50.datatypes.party;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Positions of the online members of a party, copied at most once per server tick. Party XP and
+ * item sharing ask for the members near a player on every XP gain and item pickup; with the
+ * snapshot those checks compare coordinates instead of reading every member's location.
+ *
+ * <p>Coordinates are packed into one array, x, y and z per member. Locations are copied through
+ * {@link Player#getLocation(Location)} into a reused Location instead of a new one per member.
+ * The snapshot is retaken once it is a tick old, when it is invalidated or when the number of
+ * online members changed.</p>
+ */
+public final class MemberPositions {
+    // One server tick
+    static final long MAX_AGE_NANOS = 50_000_000L;
+
+    // Reused for every location read, only touched under the lock
+    private final Location scratch = new Location(null, 0, 0, 0);
+    private Player[] members = new Player[4];
+    private World[] worlds = new World[4];
+    private double[] coordinates = new double[12];
+    private int size;
+    private int onlineMemberCount = -1;
+    private long takenAtNanos;
+
+    /**
+     * Drops the snapshot, the next query takes a new one.
+     */
+    public synchronized void invalidate() {
+        onlineMemberCount = -1;
+    }
+
+    /**
+     * Checks if any other online member is near a player, without building a list.
+     *
+     * @param player the player
+     * @param onlineMembers the online members of the party
+     * @param range the share range, 0 for the whole world
+     * @return true if another valid member is in the same world and within range
+     */
+    public synchronized boolean anyNear(@NotNull Player player,
+            @NotNull List<Player> onlineMembers, double range) {
+        refreshIfStale(onlineMembers);
+        player.getLocation(scratch);
+
+        for (int i = 0; i < size; i++) {
+            if (isNear(i, player, range)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets the other online members near a player.
+     *
+     * @param player the player
+     * @param onlineMembers the online members of the party
+     * @param range the share range, 0 for the whole world
+     * @param visibleOnly true to leave out members the player cannot see
+     * @return a new list of the near members
+     */
+    public synchronized @NotNull List<Player> getNear(@NotNull Player player,
+            @NotNull List<Player> onlineMembers, double range, boolean visibleOnly) {
+        refreshIfStale(onlineMembers);
+        player.getLocation(scratch);
+
+        final List<Player> nearMembers = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (isNear(i, player, range) && (!visibleOnly || player.canSee(members[i]))) {
+                nearMembers.add(members[i]);
+            }
+        }
+
+        return nearMembers;
+    }
+
+    // Compares member i against the player location held in scratch
+    private boolean isNear(int i, @NotNull Player player, double range) {
+        if (player.equals(members[i]) || worlds[i] != scratch.getWorld()) {
+            return false;
+        }
+
+        if (range == 0) {
+            return true;
+        }
+
+        final double dx = coordinates[i * 3] - scratch.getX();
+        final double dy = coordinates[i * 3 + 1] - scratch.getY();
+        final double dz = coordinates[i * 3 + 2] - scratch.getZ();
+        return dx * dx + dy * dy + dz * dz < range * range;
+    }
+
+    private void refreshIfStale(@NotNull List<Player> onlineMembers) {
+        final long now = System.nanoTime();
+        if (onlineMemberCount == onlineMembers.size() && now - takenAtNanos < MAX_AGE_NANOS) {
+            return;
+        }
+
+        if (members.length < onlineMembers.size()) {
+            final int capacity = Math.max(onlineMembers.size(), members.length * 2);
+            members = new Player[capacity];
+            worlds = new World[capacity];
+            coordinates = new double[capacity * 3];
+        }
+
+        size = 0;
+        for (Player member : onlineMembers) {
+            if (!member.isValid()) {
+                continue;
+            }
+
+            member.getLocation(scratch);
+            members[size] = member;
+            worlds[size] = scratch.getWorld();
+            coordinates[size * 3] = scratch.getX();
+            coordinates[size * 3 + 1] = scratch.getY();
+            coordinates[size * 3 + 2] = scratch.getZ();
+            size++;
+        }
+
+        // Members that left must not be held on to
+        Arrays.fill(members, size, members.length, null);
+        Arrays.fill(worlds, size, worlds.length, null);
+        onlineMemberCount = onlineMembers.size();
+        takenAtNanos = now;
+    }
+}
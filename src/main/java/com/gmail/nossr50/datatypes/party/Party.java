@@ -7,7 +7,6 @@ import com.gmail.nossr50.datatypes.player.McMMOPlayer;
 import com.gmail.nossr50.locale.LocaleLoader;
 import com.gmail.nossr50.mcMMO;
 import com.gmail.nossr50.util.EventUtils;
-import com.gmail.nossr50.util.Misc;
 import com.gmail.nossr50.util.player.UserManager;
 import com.gmail.nossr50.util.sounds.SoundManager;
 import com.gmail.nossr50.util.sounds.SoundType;
@@ -34,6 +33,7 @@ public class Party {
     private final @NotNull Predicate<CommandSender> samePartyPredicate;
     private final LinkedHashMap<UUID, String> members = new LinkedHashMap<>();
     private final List<Player> onlineMembers = new ArrayList<>();
+    private final MemberPositions memberPositions = new MemberPositions();
 
     private PartyLeader leader;
     private String name;
@@ -91,6 +91,10 @@ public class Party {
         return onlineMembers;
     }
 
+    public @NotNull MemberPositions getMemberPositions() {
+        return memberPositions;
+    }
+
     public List<Player> getVisibleMembers(Player player) {
         ArrayList<Player> visibleMembers = new ArrayList<>();
 
@@ -117,10 +121,12 @@ public class Party {
     }
 
     public boolean addOnlineMember(Player player) {
+        memberPositions.invalidate();
         return getOnlineMembers().add(player);
     }
 
     public boolean removeOnlineMember(Player player) {
+        memberPositions.invalidate();
         return getOnlineMembers().remove(player);
     }
 
@@ -389,22 +395,14 @@ public class Party {
      * @return the near party members
      */
     public List<Player> getNearMembers(McMMOPlayer mmoPlayer) {
-        List<Player> nearMembers = new ArrayList<>();
         Party party = mmoPlayer.getParty();
 
-        if (party != null) {
-            Player player = mmoPlayer.getPlayer();
-            double range = mcMMO.p.getGeneralConfig().getPartyShareRange();
-
-            for (Player member : party.getOnlineMembers()) {
-                if (!player.equals(member) && member.isValid() && Misc.isNear(player.getLocation(),
-                        member.getLocation(), range)) {
-                    nearMembers.add(member);
-                }
-            }
+        if (party == null) {
+            return new ArrayList<>();
         }
 
-        return nearMembers;
+        return party.getMemberPositions().getNear(mmoPlayer.getPlayer(), party.getOnlineMembers(),
+                mcMMO.p.getGeneralConfig().getPartyShareRange(), false);
     }
 
     @Override
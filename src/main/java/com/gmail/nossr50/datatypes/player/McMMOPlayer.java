@@ -9,6 +9,7 @@ import com.gmail.nossr50.config.ChatConfig;
 import com.gmail.nossr50.config.WorldBlacklist;
 import com.gmail.nossr50.config.experience.ExperienceConfig;
 import com.gmail.nossr50.datatypes.chat.ChatChannel;
+import com.gmail.nossr50.datatypes.experience.PendingXpGains;
 import com.gmail.nossr50.datatypes.experience.XPGainReason;
 import com.gmail.nossr50.datatypes.experience.XPGainSource;
 import com.gmail.nossr50.datatypes.interactions.NotificationType;
@@ -51,14 +52,17 @@ import com.gmail.nossr50.util.EventUtils;
 import com.gmail.nossr50.util.MetadataConstants;
 import com.gmail.nossr50.util.Misc;
 import com.gmail.nossr50.util.Permissions;
+import com.gmail.nossr50.util.TimerWheel;
 import com.gmail.nossr50.util.experience.ExperienceBarManager;
 import com.gmail.nossr50.util.player.NotificationManager;
 import com.gmail.nossr50.util.player.UserManager;
 import com.gmail.nossr50.util.scoreboards.ScoreboardManager;
 import com.gmail.nossr50.util.skills.PerksUtils;
 import com.gmail.nossr50.util.skills.RankUtils;
+import com.gmail.nossr50.util.skills.SkillPermissions;
 import com.gmail.nossr50.util.skills.SkillTools;
 import com.gmail.nossr50.util.skills.SkillUtils;
+import com.gmail.nossr50.util.skills.SubSkillRanks;
 import com.gmail.nossr50.util.sounds.SoundManager;
 import com.gmail.nossr50.util.sounds.SoundType;
 import java.util.EnumMap;
@@ -92,6 +96,14 @@ public class McMMOPlayer implements Identified {
     private final Map<PrimarySkillType, SkillManager> skillManagers = new EnumMap<>(
             PrimarySkillType.class);
     private final ExperienceBarManager experienceBarManager;
+    private final SubSkillRanks subSkillRanks = new SubSkillRanks(this);
+    private final PendingXpGains pendingXpGains = new PendingXpGains();
+    private final SkillPermissions skillPermissions;
+    // The power level along with the levels and permissions it was summed from
+    private volatile @Nullable PowerLevel powerLevel;
+
+    private record PowerLevel(int skillLevelsVersion, long enabledSkills, int value) {
+    }
 
     private Party party;
     private Party invite;
@@ -138,6 +150,7 @@ public class McMMOPlayer implements Identified {
         identity = Identity.identity(uuid);
 
         this.player = player;
+        skillPermissions = new SkillPermissions(player);
         playerMetadata = new FixedMetadataValue(mcMMO.p, playerName);
         this.profile = profile;
 
@@ -608,15 +621,25 @@ public class McMMOPlayer implements Identified {
      * @return the power level of the player
      */
     public int getPowerLevel() {
-        int powerLevel = 0;
+        // Read the version before the levels, so a level change racing with the sum is not missed
+        final int skillLevelsVersion = getSkillLevelsVersion();
+        final long enabledSkills = skillPermissions.getEnabledSkills();
+
+        final PowerLevel current = powerLevel;
+        if (current != null && current.skillLevelsVersion() == skillLevelsVersion
+                && current.enabledSkills() == enabledSkills) {
+            return current.value();
+        }
 
+        int levelSum = 0;
         for (PrimarySkillType primarySkillType : SkillTools.NON_CHILD_SKILLS) {
-            if (mcMMO.p.getSkillTools().doesPlayerHaveSkillPermission(player, primarySkillType)) {
-                powerLevel += getSkillLevel(primarySkillType);
+            if ((enabledSkills & (1L << primarySkillType.ordinal())) != 0) {
+                levelSum += getSkillLevel(primarySkillType);
             }
         }
 
-        return powerLevel;
+        powerLevel = new PowerLevel(skillLevelsVersion, enabledSkills, levelSum);
+        return levelSum;
     }
 
     /**
@@ -676,7 +699,9 @@ public class McMMOPlayer implements Identified {
 
     /**
      * Begins an experience gain. The amount will be affected by skill modifiers, global rate,
-     * perks, and may be shared with the party
+     * perks, and may be shared with the party. With XP gain coalescing enabled, the gain is
+     * summed with the other gains of this tick and processed at the end of it, see
+     * {@link #flushXpGains()}.
      *
      * @param skill Skill being used
      * @param xp Experience amount to process
@@ -687,13 +712,35 @@ public class McMMOPlayer implements Identified {
             return;
         }
 
+        if (ExperienceConfig.getInstance().isXpGainCoalescingEnabled()) {
+            if (pendingXpGains.add(skill, xp, xpGainReason, xpGainSource)) {
+                mcMMO.p.getFoliaLib().getScheduler().runAtEntity(player,
+                        task -> flushXpGains());
+            }
+            return;
+        }
+
+        processXpGain(skill, xp, xpGainReason, xpGainSource);
+    }
+
+    /**
+     * Processes the XP gains buffered by {@link #beginXpGain} since the last flush, one sum per
+     * skill, reason and source. Runs on its own at the end of the tick; call it directly before
+     * anything that needs the gains applied, like saving the profile.
+     */
+    public void flushXpGains() {
+        pendingXpGains.flush(this::processXpGain);
+    }
+
+    private void processXpGain(PrimarySkillType skill, float xp, XPGainReason xpGainReason,
+            XPGainSource xpGainSource) {
         if (SkillTools.isChildSkill(skill)) {
             var parentSkills = mcMMO.p.getSkillTools().getChildSkillParents(skill);
             float splitXp = xp / parentSkills.size();
 
             for (PrimarySkillType parentSkill : parentSkills) {
-                if (mcMMO.p.getSkillTools().doesPlayerHaveSkillPermission(player, parentSkill)) {
-                    beginXpGain(parentSkill, splitXp, xpGainReason, xpGainSource);
+                if (skillPermissions.hasSkill(parentSkill)) {
+                    processXpGain(parentSkill, splitXp, xpGainReason, xpGainSource);
                 }
             }
 
@@ -732,8 +779,8 @@ public class McMMOPlayer implements Identified {
             return;
         }
 
-        if (!mcMMO.p.getGeneralConfig().getPartyXpNearMembersNeeded() || !mcMMO.p.getPartyManager()
-                .getNearMembers(this).isEmpty()) {
+        if (!mcMMO.p.getGeneralConfig().getPartyXpNearMembersNeeded()
+                || mcMMO.p.getPartyManager().anyMemberNear(this)) {
             party.applyXpGain(modifiedXp);
         }
     }
@@ -746,7 +793,7 @@ public class McMMOPlayer implements Identified {
      */
     public void applyXpGain(PrimarySkillType primarySkillType, float xp, XPGainReason xpGainReason,
             XPGainSource xpGainSource) {
-        if (!mcMMO.p.getSkillTools().doesPlayerHaveSkillPermission(player, primarySkillType)) {
+        if (!skillPermissions.hasSkill(primarySkillType)) {
             return;
         }
 
@@ -1063,13 +1110,12 @@ public class McMMOPlayer implements Identified {
         }
 
         setToolPreparationMode(tool, false);
-        mcMMO.p.getFoliaLib().getScheduler()
-                .runAtEntityLater(player, new AbilityDisableTask(this, superAbilityType),
-                        (long) ticks * Misc.TICK_CONVERSION_FACTOR);
+        TimerWheel.runAtEntityLater(player, new AbilityDisableTask(this, superAbilityType),
+                (long) ticks * Misc.TICK_CONVERSION_FACTOR);
     }
 
     public void processAbilityActivation(@NotNull PrimarySkillType primarySkillType) {
-        if (!mcMMO.p.getSkillTools().doesPlayerHaveSkillPermission(getPlayer(), primarySkillType)) {
+        if (!skillPermissions.hasSkill(primarySkillType)) {
             return;
         }
 
@@ -1128,9 +1174,8 @@ public class McMMOPlayer implements Identified {
             }
 
             setToolPreparationMode(tool, true);
-            mcMMO.p.getFoliaLib().getScheduler()
-                    .runAtEntityLater(player, new ToolLowerTask(this, tool),
-                            4 * Misc.TICK_CONVERSION_FACTOR);
+            TimerWheel.runAtEntityLater(player, new ToolLowerTask(this, tool),
+                    4 * Misc.TICK_CONVERSION_FACTOR);
         }
     }
 
@@ -1216,6 +1261,49 @@ public class McMMOPlayer implements Identified {
         return profile.getSkillLevel(skill);
     }
 
+    public int getSkillLevelsVersion() {
+        return profile.getSkillLevelsVersion();
+    }
+
+    /**
+     * Get the cached rank table of this player, prefer {@link RankUtils#getRank} for lookups.
+     *
+     * @return the rank of this player in every ranked subskill
+     */
+    public @NotNull SubSkillRanks getSubSkillRanks() {
+        return subSkillRanks;
+    }
+
+    /**
+     * Get the cached skill permissions of this player. Call {@link SkillPermissions#invalidate()}
+     * on it when the permissions of the player are known to have changed.
+     *
+     * @return the skill permissions of this player
+     */
+    public @NotNull SkillPermissions getSkillPermissions() {
+        return skillPermissions;
+    }
+
+    /**
+     * Whether this player has the permission to use a skill, read from the cached permissions.
+     *
+     * @param skill target skill
+     * @return true if the skill is enabled for this player
+     */
+    public boolean hasSkillPermission(@NotNull PrimarySkillType skill) {
+        return skillPermissions.hasSkill(skill);
+    }
+
+    /**
+     * Whether this player has the lucky perk for a skill, read from the cached permissions.
+     *
+     * @param skill target skill
+     * @return true if this player is lucky in the skill
+     */
+    public boolean isLucky(@NotNull PrimarySkillType skill) {
+        return skillPermissions.isLucky(skill);
+    }
+
     public float getSkillXpLevelRaw(PrimarySkillType skill) {
         return profile.getSkillXpLevelRaw(skill);
     }
@@ -1309,6 +1397,7 @@ public class McMMOPlayer implements Identified {
             }
         }
 
+        flushXpGains();
         cleanup();
 
         if (syncSave) {
@@ -1,6 +1,7 @@
 package com.gmail.nossr50.datatypes.player;
 
 import com.gmail.nossr50.config.experience.ExperienceConfig;
+import com.gmail.nossr50.database.ProfileSaveQueue;
 import com.gmail.nossr50.datatypes.experience.DiminishedReturnsCache;
 import com.gmail.nossr50.datatypes.experience.DiminishedReturnsState;
 import com.gmail.nossr50.datatypes.experience.FormulaType;
@@ -16,6 +17,7 @@ import java.util.EnumMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -41,6 +43,9 @@ public class PlayerProfile {
     private final Map<UniqueDataType, Integer> uniquePlayerData = new EnumMap<>(
             UniqueDataType.class); //Misc data that doesn't fit into other categories (chimaera wing, etc..)
 
+    // Bumped on every skill level change, so caches derived from the levels know to rebuild
+    private final AtomicInteger skillLevelsVersion = new AtomicInteger();
+
     // Store previous XP gains for diminished returns (persisted across reconnects via cache)
     private final DiminishedReturnsState diminishedReturnsState;
 
@@ -113,6 +118,12 @@ public class PlayerProfile {
     }
 
     public void scheduleAsyncSave() {
+        // Coalesced with any other pending save of this profile and written in a batch
+        final ProfileSaveQueue saveQueue = mcMMO.getProfileSaveQueue();
+        if (saveQueue != null && saveQueue.enqueue(this)) {
+            return;
+        }
+
         mcMMO.p.getFoliaLib().getScheduler().runAsync(new PlayerProfileSaveTask(this, false));
     }
 
@@ -127,34 +138,57 @@ public class PlayerProfile {
     }
 
     public void save(boolean useSync) {
-        if (!changed || !loaded) {
-            saveAttempts = 0;
+        final PlayerProfile profileCopy = beginSave();
+        if (profileCopy == null) {
             return;
         }
 
-        // Clear the dirty flag before copying: a change that lands while the copy is being
-        // written re-marks the profile dirty and is picked up by the next save, instead of
-        // being wiped by an unconditional flag write once the database returns
-        changed = false;
         boolean saved = false;
-
         try {
-            final PlayerProfile profileCopy = new PlayerProfile(playerName, uuid,
-                    ImmutableMap.copyOf(skills), ImmutableMap.copyOf(skillsXp),
-                    ImmutableMap.copyOf(abilityDATS), scoreboardTipsShown,
-                    ImmutableMap.copyOf(uniquePlayerData), lastLogin);
             saved = mcMMO.getDatabaseManager().saveUser(profileCopy);
         } finally {
-            if (!saved) {
-                changed = true;
-            }
+            finishSave(saved, useSync);
+        }
+    }
+
+    /**
+     * First half of a save: clears the dirty flag and snapshots the profile for the database.
+     * Every non-null result must be followed by {@link #finishSave(boolean, boolean)} once the
+     * snapshot has been written, or has failed to be.
+     *
+     * @return a copy of this profile to hand to the database, or null if there is nothing to save
+     */
+    public @Nullable PlayerProfile beginSave() {
+        if (!changed || !loaded) {
+            saveAttempts = 0;
+            return null;
         }
 
+        // Clear the dirty flag before copying: a change that lands while the copy is being
+        // written re-marks the profile dirty and is picked up by the next save, instead of
+        // being wiped by an unconditional flag write once the database returns
+        changed = false;
+        return new PlayerProfile(playerName, uuid,
+                ImmutableMap.copyOf(skills), ImmutableMap.copyOf(skillsXp),
+                ImmutableMap.copyOf(abilityDATS), scoreboardTipsShown,
+                ImmutableMap.copyOf(uniquePlayerData), lastLogin);
+    }
+
+    /**
+     * Second half of a save started with {@link #beginSave()}: re-marks the profile dirty and
+     * schedules a retry if the snapshot could not be written.
+     *
+     * @param saved whether the database accepted the snapshot
+     * @param useSync whether a retry should run on the main thread
+     */
+    public void finishSave(boolean saved, boolean useSync) {
         if (saved) {
             saveAttempts = 0;
             return;
         }
 
+        changed = true;
+
         mcMMO.p.getLogger()
                 .severe("PlayerProfile saving failed for player: " + playerName + " " + uuid);
 
@@ -305,6 +339,15 @@ public class PlayerProfile {
         return SkillTools.isChildSkill(skill) ? getChildSkillLevel(skill) : skills.get(skill);
     }
 
+    /**
+     * Get a number that changes whenever any skill level of this profile changes.
+     *
+     * @return the current skill levels version
+     */
+    public int getSkillLevelsVersion() {
+        return skillLevelsVersion.get();
+    }
+
     public float getSkillXpLevelRaw(PrimarySkillType skill) {
         // Child skills store no XP of their own; zero matches getSkillXpLevel
         if (SkillTools.isChildSkill(skill)) {
@@ -339,6 +382,7 @@ public class PlayerProfile {
 
         skills.put(skill, skills.get(skill) + 1);
         skillsXp.put(skill, skillsXp.get(skill) - xpRemoved);
+        skillLevelsVersion.incrementAndGet();
 
         return xpRemoved;
     }
@@ -389,6 +433,7 @@ public class PlayerProfile {
 
         skills.put(skill, level);
         skillsXp.put(skill, 0F);
+        skillLevelsVersion.incrementAndGet();
     }
 
     /**
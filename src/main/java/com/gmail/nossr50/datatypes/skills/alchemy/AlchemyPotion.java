@@ -122,6 +122,10 @@ public class AlchemyPotion {
         return (PotionMeta) potionItemMeta;
     }
 
+    public @NotNull Material getMaterial() {
+        return potionItemStack.getType();
+    }
+
     public boolean isSplash() {
         return potionItemStack.getType() == Material.SPLASH_POTION;
     }
@@ -318,8 +318,9 @@ public class Roll extends AcrobaticsSubSkill {
             return true;
         }
 
+        // The fall history compares block coordinates, no block location needed
         if (mmoPlayer.getAcrobaticsManager()
-                .hasFallenInLocationBefore(getBlockLocation(mmoPlayer))) {
+                .hasFallenInLocationBefore(mmoPlayer.getPlayer().getLocation())) {
             if (mmoPlayer.isDebugMode()) {
                 mmoPlayer.getPlayer()
                         .sendMessage("Acrobatics XP Prevented: Fallen in location before");
@@ -367,7 +368,7 @@ public class Roll extends AcrobaticsSubSkill {
     }
 
     public void addFallLocation(@NotNull McMMOPlayer mmoPlayer) {
-        mmoPlayer.getAcrobaticsManager().addLocationToFallMap(getBlockLocation(mmoPlayer));
+        mmoPlayer.getAcrobaticsManager().addLocationToFallMap(mmoPlayer.getPlayer().getLocation());
     }
 
     public @NotNull Location getBlockLocation(@NotNull McMMOPlayer mmoPlayer) {
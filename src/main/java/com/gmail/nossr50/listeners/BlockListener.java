@@ -52,8 +52,10 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
 import org.bukkit.event.block.BlockDamageEvent;
 import org.bukkit.event.block.BlockDropItemEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
 import org.bukkit.event.block.BlockFormEvent;
 import org.bukkit.event.block.BlockGrowEvent;
 import org.bukkit.event.block.BlockMultiPlaceEvent;
@@ -61,6 +63,7 @@ import org.bukkit.event.block.BlockPistonExtendEvent;
 import org.bukkit.event.block.BlockPistonRetractEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.block.EntityBlockFormEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.metadata.FixedMetadataValue;
 import org.bukkit.metadata.MetadataValue;
@@ -226,19 +229,22 @@ public class BlockListener implements Listener {
 
         BlockFace direction = event.getDirection();
         Block movedBlock = event.getBlock().getRelative(direction);
+        // Marked together, a sticky piston can pull a dozen blocks spanning two chunks
+        final List<Block> unnaturalBlocks = new ArrayList<>(event.getBlocks().size() + 1);
 
         //Spigot makes bad things happen in its API
         if (BlockUtils.isWithinWorldBounds(movedBlock)) {
-            BlockUtils.setUnnaturalBlock(movedBlock);
+            unnaturalBlocks.add(movedBlock);
         }
 
         for (Block block : event.getBlocks()) {
             if (BlockUtils.isWithinWorldBounds(block) && BlockUtils.isWithinWorldBounds(
                     block.getRelative(direction))) {
-                Block relativeBlock = block.getRelative(direction);
-                BlockUtils.setUnnaturalBlock(relativeBlock);
+                unnaturalBlocks.add(block.getRelative(direction));
             }
         }
+
+        BlockUtils.setUnnaturalBlocks(unnaturalBlocks);
     }
 
     /**
@@ -310,6 +316,9 @@ public class BlockListener implements Listener {
     public void onBlockPlace(BlockPlaceEvent event) {
         final Block block = event.getBlock();
 
+        // The placed block replaces any container cached at this location
+        ContainerMetadataUtils.invalidateContainerOwner(block);
+
         /* Check if the blocks placed should be monitored so they do not give out XP in the future */
 //      if (!Tag.LOGS.isTagged(event.getBlockReplacedState().getType()) || !Tag.LOGS.isTagged(event.getBlockPlaced().getType()))
 
@@ -397,6 +406,36 @@ public class BlockListener implements Listener {
         }
     }
 
+    /**
+     * Monitor BlockExplode events.
+     *
+     * @param event The event to monitor
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        ContainerMetadataUtils.invalidateContainerOwners(event.blockList());
+    }
+
+    /**
+     * Monitor EntityExplode events for the blocks they destroy.
+     *
+     * @param event The event to monitor
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        ContainerMetadataUtils.invalidateContainerOwners(event.blockList());
+    }
+
+    /**
+     * Monitor BlockBurn events.
+     *
+     * @param event The event to monitor
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBurn(BlockBurnEvent event) {
+        ContainerMetadataUtils.invalidateContainerOwner(event.getBlock());
+    }
+
     /**
      * Monitor BlockBreak events.
      *
@@ -411,6 +450,8 @@ public class BlockListener implements Listener {
             return;
         }
 
+        ContainerMetadataUtils.invalidateContainerOwner(block);
+
         if (WorldBlacklist.isWorldBlacklisted(block.getWorld())) {
             BlockUtils.cleanupBlockMetadata(block);
             return;
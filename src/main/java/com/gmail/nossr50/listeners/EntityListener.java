@@ -28,6 +28,7 @@ import com.gmail.nossr50.util.MetadataConstants;
 import com.gmail.nossr50.util.Misc;
 import com.gmail.nossr50.util.MobHealthbarUtils;
 import com.gmail.nossr50.util.Permissions;
+import com.gmail.nossr50.util.TimerWheel;
 import com.gmail.nossr50.util.player.NotificationManager;
 import com.gmail.nossr50.util.player.UserManager;
 import com.gmail.nossr50.util.random.ProbabilityUtil;
@@ -295,8 +296,7 @@ public class EntityListener implements Listener {
                         MetadataConstants.METADATA_KEY_TRAVELING_BLOCK, pluginRef);
                 // Re-check every 60 seconds; the task cancels itself once the entity dies or
                 // the metadata is gone
-                mcMMO.p.getFoliaLib().getScheduler().runAtEntityTimer(entity, metaCleanupTask,
-                        retired, 20, 20 * 60);
+                TimerWheel.runAtEntityTimer(entity, metaCleanupTask, retired, 20, 20 * 60);
             } else if (isTracked) {
                 BlockUtils.setUnnaturalBlock(block);
                 entity.removeMetadata(MetadataConstants.METADATA_KEY_TRAVELING_BLOCK, pluginRef);
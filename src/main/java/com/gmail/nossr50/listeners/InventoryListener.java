@@ -19,9 +19,7 @@ import com.gmail.nossr50.worldguard.WorldGuardManager;
 import com.gmail.nossr50.worldguard.WorldGuardUtils;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.block.Block;
-import org.bukkit.block.BlockState;
 import org.bukkit.block.BrewingStand;
 import org.bukkit.block.Furnace;
 import org.bukkit.entity.Player;
@@ -61,29 +59,26 @@ public class InventoryListener implements Listener {
             return;
         }
 
-        if (!(event.getBlock().getState() instanceof Furnace furnace)) {
+        if (event.getBurnTime() <= 0) {
             return;
         }
 
-        if (!ItemUtils.isSmeltable(furnace.getInventory().getSmelting())
-                || event.getBurnTime() <= 0) {
-            return;
-        }
-
-        final OfflinePlayer offlinePlayer = ContainerMetadataUtils.getContainerOwner(furnace);
-
         // Fuel efficiency only applies while the furnace owner is online
-        if (!(offlinePlayer instanceof Player player) || !player.isOnline()) {
+        final McMMOPlayer mmoPlayer = ContainerMetadataUtils.getOnlineContainerOwner(
+                event.getBlock());
+
+        if (mmoPlayer == null) {
             return;
         }
 
+        final Player player = mmoPlayer.getPlayer();
+
         if (!Permissions.isSubSkillEnabled(player, SubSkillType.SMELTING_FUEL_EFFICIENCY)) {
             return;
         }
 
-        final McMMOPlayer mmoPlayer = UserManager.getPlayer(player);
-
-        if (mmoPlayer == null) {
+        if (!(event.getBlock().getState() instanceof Furnace furnace)
+                || !ItemUtils.isSmeltable(furnace.getInventory().getSmelting())) {
             return;
         }
 
@@ -113,27 +108,22 @@ public class InventoryListener implements Listener {
             return;
         }
 
-        BlockState blockState = event.getBlock()
-                .getState(); //Furnaces can only be cast from a BlockState not a Block
-        ItemStack smelting = event.getSource();
-
-        if (!ItemUtils.isSmeltable(smelting)) {
+        if (!ItemUtils.isSmeltable(event.getSource())) {
             return;
         }
 
-        if (blockState instanceof Furnace furnace) {
-            OfflinePlayer offlinePlayer = ContainerMetadataUtils.getContainerOwner(furnace);
-
-            if (offlinePlayer != null) {
+        final McMMOPlayer mmoPlayer = ContainerMetadataUtils.getOnlineContainerOwner(
+                event.getBlock());
 
-                McMMOPlayer offlineProfile = UserManager.getOfflinePlayer(offlinePlayer);
+        //Owner offline or no owner
+        if (mmoPlayer == null) {
+            return;
+        }
 
-                //Profile doesn't exist
-                if (offlineProfile != null) {
-                    //Process smelting
-                    offlineProfile.getSmeltingManager().smeltProcessing(event, furnace);
-                }
-            }
+        //Furnaces can only be cast from a BlockState not a Block
+        if (event.getBlock().getState() instanceof Furnace furnace) {
+            //Process smelting
+            mmoPlayer.getSmeltingManager().smeltProcessing(event, furnace);
         }
     }
 
@@ -144,15 +134,14 @@ public class InventoryListener implements Listener {
             return;
         }
 
-        BlockState furnaceBlock = event.getBlock().getState();
-
         if (!ItemUtils.isSmelted(event.getItemType())) {
             return;
         }
 
         Player player = event.getPlayer();
 
-        if (furnaceBlock instanceof Furnace) {
+        // Block data instead of a BlockState, the extract only needs the block type
+        if (event.getBlock().getBlockData() instanceof org.bukkit.block.data.type.Furnace) {
             /* WORLD GUARD MAIN FLAG CHECK */
             if (WorldGuardUtils.isWorldGuardLoaded()) {
                 if (!WorldGuardManager.getInstance().hasMainFlag(player)) {
@@ -432,12 +421,10 @@ public class InventoryListener implements Listener {
         if (holder instanceof BrewingStand brewingStand) {
             int ingredientLevel = 1;
 
-            OfflinePlayer offlinePlayer = ContainerMetadataUtils.getContainerOwner(brewingStand);
-            if (offlinePlayer != null && offlinePlayer.isOnline()) {
-                final McMMOPlayer mmoPlayer = UserManager.getPlayer(offlinePlayer.getPlayer());
-                if (mmoPlayer != null) {
-                    ingredientLevel = mmoPlayer.getAlchemyManager().getTier();
-                }
+            final McMMOPlayer mmoPlayer = ContainerMetadataUtils.getOnlineContainerOwner(
+                    brewingStand);
+            if (mmoPlayer != null) {
+                ingredientLevel = mmoPlayer.getAlchemyManager().getTier();
             }
 
             if (AlchemyPotionBrewer.isValidIngredientByLevel(ingredientLevel, item)) {
@@ -234,7 +234,7 @@ public class PlayerListener implements Listener {
 
         Player killedPlayer = event.getEntity();
 
-        if (!killedPlayer.hasMetadata(MetadataConstants.METADATA_KEY_PLAYER_DATA)
+        if (!UserManager.hasPlayerDataKey(killedPlayer)
                 || Permissions.hardcoreBypass(killedPlayer)) {
             return;
         }
@@ -291,6 +291,8 @@ public class PlayerListener implements Listener {
             return;
         }
 
+        // Permissions can be granted per world
+        mmoPlayer.getSkillPermissions().invalidate();
         mmoPlayer.checkGodMode();
         mmoPlayer.checkParty();
     }
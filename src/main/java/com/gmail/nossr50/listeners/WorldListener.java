@@ -3,6 +3,7 @@ package com.gmail.nossr50.listeners;
 import com.gmail.nossr50.config.PersistentDataConfig;
 import com.gmail.nossr50.config.WorldBlacklist;
 import com.gmail.nossr50.mcMMO;
+import com.gmail.nossr50.util.ContainerMetadataUtils;
 import com.gmail.nossr50.util.PaperUtil;
 import com.gmail.nossr50.util.blockmeta.McMMORegionBackupStore;
 import org.bukkit.Chunk;
@@ -10,6 +11,7 @@ import org.bukkit.block.BlockState;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
 import org.bukkit.event.world.ChunkUnloadEvent;
 import org.bukkit.event.world.StructureGrowEvent;
 import org.bukkit.event.world.WorldLoadEvent;
@@ -77,6 +79,8 @@ public class WorldListener implements Listener {
      */
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onWorldUnload(WorldUnloadEvent event) {
+        ContainerMetadataUtils.invalidateWorld(event.getWorld());
+
         /* WORLD BLACKLIST CHECK */
         if (WorldBlacklist.isWorldBlacklisted(event.getWorld())) {
             return;
@@ -91,6 +95,23 @@ public class WorldListener implements Listener {
         }
     }
 
+    /**
+     * Monitor ChunkLoad events, prefetching the chunk's placed-block data off the main thread.
+     *
+     * @param event The event to watch
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        /* WORLD BLACKLIST CHECK */
+        if (WorldBlacklist.isWorldBlacklisted(event.getWorld())) {
+            return;
+        }
+
+        Chunk chunk = event.getChunk();
+
+        mcMMO.getChunkManager().chunkLoaded(chunk.getX(), chunk.getZ(), event.getWorld());
+    }
+
     /**
      * Monitor ChunkUnload events.
      *
@@ -98,13 +119,15 @@ public class WorldListener implements Listener {
      */
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onChunkUnload(ChunkUnloadEvent event) {
+        Chunk chunk = event.getChunk();
+
+        ContainerMetadataUtils.invalidateChunk(event.getWorld(), chunk.getX(), chunk.getZ());
+
         /* WORLD BLACKLIST CHECK */
         if (WorldBlacklist.isWorldBlacklisted(event.getWorld())) {
             return;
         }
 
-        Chunk chunk = event.getChunk();
-
         mcMMO.getChunkManager().chunkUnloaded(chunk.getX(), chunk.getZ(), event.getWorld());
     }
 }
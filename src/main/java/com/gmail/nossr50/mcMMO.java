@@ -22,6 +22,7 @@ import com.gmail.nossr50.config.treasure.FishingTreasureConfig;
 import com.gmail.nossr50.config.treasure.TreasureConfig;
 import com.gmail.nossr50.database.DatabaseManager;
 import com.gmail.nossr50.database.DatabaseManagerFactory;
+import com.gmail.nossr50.database.ProfileSaveQueue;
 import com.gmail.nossr50.datatypes.skills.PrimarySkillType;
 import com.gmail.nossr50.datatypes.skills.subskills.acrobatics.Roll;
 import com.gmail.nossr50.listeners.BlockListener;
@@ -59,7 +60,9 @@ import com.gmail.nossr50.util.MaterialMapStore;
 import com.gmail.nossr50.util.MetadataConstants;
 import com.gmail.nossr50.util.MinecraftGameVersionFactory;
 import com.gmail.nossr50.util.Misc;
+import com.gmail.nossr50.util.PaperUtil;
 import com.gmail.nossr50.util.Permissions;
+import com.gmail.nossr50.util.TimerWheel;
 import com.gmail.nossr50.util.TransientEntityTracker;
 import com.gmail.nossr50.util.TransientMetadataTools;
 import com.gmail.nossr50.util.blockmeta.ChunkManager;
@@ -99,11 +102,16 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class mcMMO extends JavaPlugin {
+    // Ticks in one revolution of the timer wheel, most entity timers are shorter than this
+    private static final int TIMER_WHEEL_SLOTS = 512;
+
     /* Managers & Services */
     private static ChunkManager chunkManager;
     private static RepairableManager repairableManager;
     private static SalvageableManager salvageableManager;
     private static DatabaseManager databaseManager;
+    private static ProfileSaveQueue profileSaveQueue;
+    private static @Nullable TimerWheel timerWheel;
     private static FormulaManager formulaManager;
     private static UpgradeManager upgradeManager;
     private static LevelUpCommandManager levelUpCommandManager;
@@ -270,6 +278,7 @@ public class mcMMO extends JavaPlugin {
             databaseManager = DatabaseManagerFactory.getDatabaseManager(
                     mcMMO.getUsersFilePath(), getLogger(),
                     purgeTime, mcMMO.p.getAdvancedConfig().getStartingLevel());
+            profileSaveQueue = new ProfileSaveQueue(this);
 
             //Check for the newer API and tell them what to do if its missing
             checkForOutdatedAPI();
@@ -468,6 +477,11 @@ public class mcMMO extends JavaPlugin {
                 .info("Server shutdown has been executed, saving and cleaning up data...");
 
         try {
+            if (timerWheel != null) {
+                LogUtils.debug(getLogger(), "Timer wheel at shutdown: " + timerWheel.getStats());
+                timerWheel.clear();
+                timerWheel = null;
+            }
             UserManager.saveAll();      // Make sure to save player information if the server shuts down
             UserManager.clearAll();
             if (levelUpCommandManager != null) {
@@ -640,6 +654,19 @@ public class mcMMO extends JavaPlugin {
         return databaseManager;
     }
 
+    public static ProfileSaveQueue getProfileSaveQueue() {
+        return profileSaveQueue;
+    }
+
+    /**
+     * Get the wheel that runs the per-entity timers, see {@link TimerWheel#runAtEntityLater}.
+     *
+     * @return the wheel, or null on Folia and while the plugin is disabled
+     */
+    public static @Nullable TimerWheel getTimerWheel() {
+        return timerWheel;
+    }
+
     public static UpgradeManager getUpgradeManager() {
         return upgradeManager;
     }
@@ -784,6 +811,13 @@ public class mcMMO extends JavaPlugin {
     }
 
     private void scheduleTasks() {
+        // Per-entity timers share one wheel; on Folia they stay on the region schedulers
+        if (!PaperUtil.isFolia()) {
+            final TimerWheel wheel = new TimerWheel(TIMER_WHEEL_SLOTS);
+            getFoliaLib().getScheduler().runTimer(wheel::tick, 1, 1);
+            timerWheel = wheel;
+        }
+
         // Periodic save timer (Saves every 10 minutes by default)
         long second = 20;
         long minute = second * 60;
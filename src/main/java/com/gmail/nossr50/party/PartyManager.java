@@ -15,18 +15,22 @@ import com.gmail.nossr50.events.party.McMMOPartyChangeEvent.EventReason;
 import com.gmail.nossr50.locale.LocaleLoader;
 import com.gmail.nossr50.mcMMO;
 import com.gmail.nossr50.util.LogUtils;
-import com.gmail.nossr50.util.Misc;
 import com.gmail.nossr50.util.Permissions;
 import com.gmail.nossr50.util.player.NotificationManager;
 import com.gmail.nossr50.util.player.UserManager;
 import com.gmail.nossr50.util.sounds.SoundManager;
 import com.gmail.nossr50.util.sounds.SoundType;
 import java.io.File;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.RandomAccess;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -36,6 +40,13 @@ import org.jetbrains.annotations.Nullable;
 
 public final class PartyManager {
     private final @NotNull List<Party> parties;
+    /*
+     * Lookup indexes over the parties, kept current by the party list and the methods here that
+     * change members. Parties by lower case name, and by the UUID and the name of each member.
+     */
+    private final @NotNull Map<String, Party> partiesByName = new ConcurrentHashMap<>();
+    private final @NotNull Map<UUID, Party> partiesByMemberId = new ConcurrentHashMap<>();
+    private final @NotNull Map<String, Party> partiesByMemberName = new ConcurrentHashMap<>();
     private final @NotNull File partyFile;
     private final @NotNull mcMMO pluginRef;
 
@@ -43,7 +54,143 @@ public final class PartyManager {
         this.pluginRef = pluginRef;
         final String partiesFilePath = mcMMO.getFlatFileDirectory() + "parties.yml";
         this.partyFile = new File(partiesFilePath);
-        this.parties = new ArrayList<>();
+        this.parties = new IndexedPartyList();
+    }
+
+    /**
+     * The party list, updating the lookup indexes on every change to it, including changes made
+     * through {@link #getParties()}.
+     */
+    private final class IndexedPartyList extends AbstractList<Party> implements RandomAccess {
+        private final List<Party> delegate = new ArrayList<>();
+
+        @Override
+        public Party get(int index) {
+            return delegate.get(index);
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public void add(int index, Party party) {
+            delegate.add(index, party);
+            modCount++;
+            index(party);
+        }
+
+        @Override
+        public Party set(int index, Party party) {
+            final Party previous = delegate.set(index, party);
+            unindex(previous);
+            index(party);
+            return previous;
+        }
+
+        @Override
+        public Party remove(int index) {
+            final Party removed = delegate.remove(index);
+            modCount++;
+            unindex(removed);
+            return removed;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            final int index = delegate.indexOf(o);
+            if (index == -1) {
+                return false;
+            }
+
+            remove(index);
+            return true;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Party party)) {
+                return false;
+            }
+
+            if (party.getName() == null) {
+                return delegate.contains(party);
+            }
+
+            final Party indexed = partiesByName.get(nameKey(party.getName()));
+            if (indexed == null) {
+                return false;
+            }
+
+            // Party equality is by exact name, parties differing only in case share an entry
+            return indexed.equals(party) || delegate.contains(party);
+        }
+    }
+
+    private static @NotNull String nameKey(@NotNull String name) {
+        return name.toLowerCase(Locale.ENGLISH);
+    }
+
+    // The first party in the list wins a name or member shared by several, as with a linear scan
+    private void index(@Nullable Party party) {
+        if (party == null) {
+            return;
+        }
+
+        if (party.getName() != null) {
+            partiesByName.putIfAbsent(nameKey(party.getName()), party);
+        }
+
+        for (Entry<UUID, String> member : party.getMembers().entrySet()) {
+            partiesByMemberId.putIfAbsent(member.getKey(), party);
+            if (member.getValue() != null) {
+                partiesByMemberName.putIfAbsent(member.getValue(), party);
+            }
+        }
+    }
+
+    private void unindex(@Nullable Party party) {
+        if (party == null) {
+            return;
+        }
+
+        if (party.getName() != null
+                && partiesByName.remove(nameKey(party.getName()), party)) {
+            // Another party may share the name in a hand edited parties.yml
+            for (Party other : parties) {
+                if (other != party && other.getName() != null
+                        && nameKey(other.getName()).equals(nameKey(party.getName()))) {
+                    partiesByName.putIfAbsent(nameKey(other.getName()), other);
+                    break;
+                }
+            }
+        }
+
+        for (Entry<UUID, String> member : party.getMembers().entrySet()) {
+            partiesByMemberId.remove(member.getKey(), party);
+            if (member.getValue() != null) {
+                partiesByMemberName.remove(member.getValue(), party);
+            }
+        }
+    }
+
+    private void putMember(@NotNull Party party, @NotNull UUID uuid, @NotNull String name) {
+        final String previousName = party.getMembers().put(uuid, name);
+        if (previousName != null && !previousName.equals(name)) {
+            partiesByMemberName.remove(previousName, party);
+        }
+
+        partiesByMemberId.put(uuid, party);
+        partiesByMemberName.put(name, party);
+    }
+
+    private void removeMember(@NotNull Party party, @NotNull UUID uuid) {
+        final String name = party.getMembers().remove(uuid);
+        partiesByMemberId.remove(uuid, party);
+        if (name != null) {
+            partiesByMemberName.remove(name, party);
+        }
     }
 
     /**
@@ -95,43 +242,38 @@ public final class PartyManager {
      * @return the near party members
      */
     public @NotNull List<Player> getNearMembers(@NotNull McMMOPlayer mmoPlayer) {
+        return getNearMembers(mmoPlayer, false);
+    }
+
+    public @NotNull List<Player> getNearVisibleMembers(@NotNull McMMOPlayer mmoPlayer) {
+        return getNearMembers(mmoPlayer, true);
+    }
+
+    private @NotNull List<Player> getNearMembers(@NotNull McMMOPlayer mmoPlayer,
+            boolean visibleOnly) {
         requireNonNull(mmoPlayer, "mmoPlayer cannot be null!");
-        List<Player> nearMembers = new ArrayList<>();
         Party party = mmoPlayer.getParty();
 
-        if (party != null) {
-            Player player = mmoPlayer.getPlayer();
-            double range = pluginRef.getGeneralConfig().getPartyShareRange();
-
-            for (Player member : party.getOnlineMembers()) {
-                if (!player.equals(member) && member.isValid() && Misc.isNear(player.getLocation(),
-                        member.getLocation(), range)) {
-                    nearMembers.add(member);
-                }
-            }
+        if (party == null) {
+            return new ArrayList<>();
         }
 
-        return nearMembers;
+        return party.getMemberPositions().getNear(mmoPlayer.getPlayer(), party.getOnlineMembers(),
+                pluginRef.getGeneralConfig().getPartyShareRange(), visibleOnly);
     }
 
-    public @NotNull List<Player> getNearVisibleMembers(@NotNull McMMOPlayer mmoPlayer) {
+    /**
+     * Check if any party member is near, without building the list of near members.
+     *
+     * @param mmoPlayer The player to check
+     * @return true if {@link #getNearMembers(McMMOPlayer)} would not be empty
+     */
+    public boolean anyMemberNear(@NotNull McMMOPlayer mmoPlayer) {
         requireNonNull(mmoPlayer, "mmoPlayer cannot be null!");
-        List<Player> nearMembers = new ArrayList<>();
         Party party = mmoPlayer.getParty();
 
-        if (party != null) {
-            Player player = mmoPlayer.getPlayer();
-            double range = pluginRef.getGeneralConfig().getPartyShareRange();
-
-            for (Player member : party.getVisibleMembers(player)) {
-                if (!player.equals(member) && member.isValid() && Misc.isNear(player.getLocation(),
-                        member.getLocation(), range)) {
-                    nearMembers.add(member);
-                }
-            }
-        }
-
-        return nearMembers;
+        return party != null && party.getMemberPositions().anyNear(mmoPlayer.getPlayer(),
+                party.getOnlineMembers(), pluginRef.getGeneralConfig().getPartyShareRange());
     }
 
     /**
@@ -181,13 +323,7 @@ public final class PartyManager {
      */
     public @Nullable Party getParty(@NotNull String partyName) {
         requireNonNull(partyName, "partyName cannot be null!");
-        for (Party party : parties) {
-            if (party.getName().equalsIgnoreCase(partyName)) {
-                return party;
-            }
-        }
-
-        return null;
+        return partiesByName.get(nameKey(partyName));
     }
 
     /**
@@ -199,13 +335,7 @@ public final class PartyManager {
     @Deprecated
     public @Nullable Party getPlayerParty(@NotNull String playerName) {
         requireNonNull(playerName, "playerName cannot be null!");
-        for (Party party : parties) {
-            if (party.getMembers().containsValue(playerName)) {
-                return party;
-            }
-        }
-
-        return null;
+        return partiesByMemberName.get(playerName);
     }
 
     /**
@@ -217,20 +347,21 @@ public final class PartyManager {
     public @Nullable Party getPlayerParty(@NotNull String playerName, @NotNull UUID uuid) {
         requireNonNull(playerName, "playerName cannot be null!");
         requireNonNull(uuid, "uuid cannot be null!");
-        for (Party party : parties) {
-            LinkedHashMap<UUID, String> members = party.getMembers();
-            if (members.containsKey(uuid) || members.containsValue(playerName)) {
+        Party party = partiesByMemberId.get(uuid);
+        if (party == null) {
+            party = partiesByMemberName.get(playerName);
+        }
 
-                // Name changes
-                if (members.get(uuid) == null || !members.get(uuid).equals(playerName)) {
-                    members.put(uuid, playerName);
-                }
+        if (party == null) {
+            return null;
+        }
 
-                return party;
-            }
+        // Name changes
+        if (!playerName.equals(party.getMembers().get(uuid))) {
+            putMember(party, uuid, playerName);
         }
 
-        return null;
+        return party;
     }
 
     /**
@@ -277,7 +408,7 @@ public final class PartyManager {
         final String playerName = player.getName();
 
         if (party.getLeader().getUniqueId().equals(player.getUniqueId())) {
-            members.remove(player.getUniqueId());
+            removeMember(party, player.getUniqueId());
             if (!members.isEmpty()) {
                 for (Entry<UUID, String> entry : members.entrySet()) {
                     final UUID memberUUID = entry.getKey();
@@ -290,11 +421,11 @@ public final class PartyManager {
             }
 
         } else {
-            members.remove(player.getUniqueId());
+            removeMember(party, player.getUniqueId());
         }
 
         if (player.isOnline()) {
-            party.getOnlineMembers().remove(player.getPlayer());
+            party.removeOnlineMember(player.getPlayer());
         }
 
         if (members.isEmpty()) {
@@ -549,8 +680,26 @@ public final class PartyManager {
 
         informPartyMembersJoin(party, playerName);
         mmoPlayer.setParty(party);
-        party.getMembers().put(player.getUniqueId(), player.getName());
-        party.getOnlineMembers().add(player);
+        putMember(party, player.getUniqueId(), player.getName());
+        party.addOnlineMember(player);
+    }
+
+    /**
+     * Rename a party.
+     *
+     * @param party The party
+     * @param newPartyName The new party name
+     */
+    public void renameParty(@NotNull Party party, @NotNull String newPartyName) {
+        requireNonNull(party, "party cannot be null!");
+        requireNonNull(newPartyName, "newPartyName cannot be null!");
+
+        final boolean listed = parties.contains(party);
+        unindex(party);
+        party.setName(newPartyName);
+        if (listed) {
+            index(party);
+        }
     }
 
     /**
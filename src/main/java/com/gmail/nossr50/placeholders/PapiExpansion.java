@@ -1,6 +1,5 @@
 package com.gmail.nossr50.placeholders;
 
-import com.gmail.nossr50.api.ExperienceAPI;
 import com.gmail.nossr50.config.experience.ExperienceConfig;
 import com.gmail.nossr50.datatypes.party.Party;
 import com.gmail.nossr50.datatypes.player.McMMOPlayer;
@@ -9,7 +8,6 @@ import com.gmail.nossr50.mcMMO;
 import com.gmail.nossr50.util.Permissions;
 import com.gmail.nossr50.util.player.UserManager;
 import com.gmail.nossr50.util.skills.SkillTools;
-import com.gmail.nossr50.util.text.StringUtils;
 import java.util.Map;
 import java.util.TreeMap;
 import me.clip.placeholderapi.PlaceholderAPIPlugin;
@@ -29,6 +27,10 @@ public class PapiExpansion extends PlaceholderExpansion {
      * Shared cache backing leaderboard-by-position placeholders.
      */
     private final LeaderboardPlaceholderCache leaderboardPlaceholderCache;
+    /**
+     * Per-player cache backing rank placeholders.
+     */
+    private final PlayerRankPlaceholderCache playerRankPlaceholderCache;
 
     public PapiExpansion() {
         final int maxTrackedRank = mcMMO.p.getGeneralConfig().getPapiLeaderboardMaxTrackedRank();
@@ -39,6 +41,8 @@ public class PapiExpansion extends PlaceholderExpansion {
 
         this.leaderboardPlaceholderCache = new LeaderboardPlaceholderCache(mcMMO.p, maxTrackedRank,
                 refreshIntervalTicks);
+        this.playerRankPlaceholderCache = new PlayerRankPlaceholderCache(mcMMO.p,
+                mcMMO.p.getGeneralConfig().getPapiRankCacheSeconds());
         init();
     }
 
@@ -137,12 +141,11 @@ public class PapiExpansion extends PlaceholderExpansion {
     }
 
     public Integer getRank(PrimarySkillType skill, Player player) {
-        try {
-            return ExperienceAPI.getPlayerRankSkill(player.getUniqueId(),
-                    StringUtils.getCapitalized(skill.toString()));
-        } catch (Exception ex) {
+        if (SkillTools.isChildSkill(skill)) {
             return null;
         }
+
+        return playerRankPlaceholderCache.getRank(player.getUniqueId(), player.getName(), skill);
     }
 
     public Integer getPowerLevel(Player player) {
@@ -224,6 +227,7 @@ public class PapiExpansion extends PlaceholderExpansion {
     public void shutdown() {
         // Called from plugin disable to stop periodic refresh tasks before global task cancellation.
         leaderboardPlaceholderCache.shutdown();
+        playerRankPlaceholderCache.shutdown();
     }
 
     /**
@@ -0,0 +1,158 @@
+package com.gmail.nossr50.placeholders;
+
+import com.gmail.nossr50.datatypes.skills.PrimarySkillType;
+import com.gmail.nossr50.mcMMO;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Per-player cache for rank PlaceholderAPI lookups.
+ * <p>
+ * A player's ranks are read with one {@code readRank} call covering every skill, which costs a
+ * player lookup plus one count query per skill on SQL and a leaderboard walk on FlatFile.
+ * Placeholder resolution never does that read itself: it returns the last known ranks right
+ * away and, once they are older than the configured time to live, schedules one async refresh
+ * for that player. A player seen for the first time resolves to an empty string until the first
+ * refresh lands.
+ */
+public class PlayerRankPlaceholderCache {
+    // Entries not looked up for this many time to live intervals are dropped on the next refresh
+    private static final int EVICT_AFTER_TTLS = 10;
+
+    private final @NotNull RankDataSource dataSource;
+    private final @NotNull Executor asyncExecutor;
+    private final @NotNull Logger logger;
+    private final @NotNull LongSupplier nanoClock;
+    private final long ttlNanos;
+
+    private final Map<UUID, CachedRanks> ranksByPlayer = new ConcurrentHashMap<>();
+    private final AtomicLong lastEvictionAt = new AtomicLong();
+    // Once stopped, lookups keep serving cached ranks but schedule no more database reads
+    private volatile boolean stopped;
+
+    /**
+     * Constructor.
+     *
+     * @param plugin Plugin reference for scheduler + logger access.
+     * @param ttlSeconds Seconds a player's ranks are served before they are read again.
+     */
+    public PlayerRankPlaceholderCache(@NotNull mcMMO plugin, int ttlSeconds) {
+        this(playerName -> mcMMO.getDatabaseManager().readRank(playerName),
+                task -> plugin.getFoliaLib().getScheduler().runAsync(wrapped -> task.run()),
+                plugin.getLogger(), System::nanoTime, ttlSeconds);
+    }
+
+    PlayerRankPlaceholderCache(@NotNull RankDataSource dataSource,
+            @NotNull Executor asyncExecutor, @NotNull Logger logger,
+            @NotNull LongSupplier nanoClock, int ttlSeconds) {
+        this.dataSource = dataSource;
+        this.asyncExecutor = asyncExecutor;
+        this.logger = logger;
+        this.nanoClock = nanoClock;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(ttlSeconds, 1));
+    }
+
+    /**
+     * @param playerId UUID of the player.
+     * @param playerName Name the player is stored under in the database.
+     * @param skill Skill scope, or {@code null} for overall rank.
+     * @return Last known rank of the player, or {@code null} when not known yet or unranked.
+     */
+    public @Nullable Integer getRank(@NotNull UUID playerId, @NotNull String playerName,
+            @Nullable PrimarySkillType skill) {
+        final long now = nanoClock.getAsLong();
+        final CachedRanks cached = ranksByPlayer.computeIfAbsent(playerId,
+                id -> new CachedRanks());
+        cached.lookedUpAt = now;
+
+        final Map<PrimarySkillType, Integer> ranks = cached.ranks;
+        if ((ranks == null || now - cached.readAt >= ttlNanos) && !stopped
+                && cached.refreshInProgress.compareAndSet(false, true)) {
+            scheduleRefresh(playerId, playerName, cached);
+        }
+
+        return ranks == null ? null : ranks.get(skill);
+    }
+
+    /**
+     * Stops scheduling refreshes; lookups keep returning the cached ranks.
+     */
+    public void shutdown() {
+        stopped = true;
+    }
+
+    private void scheduleRefresh(@NotNull UUID playerId, @NotNull String playerName,
+            @NotNull CachedRanks cached) {
+        try {
+            asyncExecutor.execute(() -> refresh(playerId, playerName, cached));
+        } catch (RuntimeException e) {
+            // The scheduler refuses tasks while the plugin disables
+            cached.refreshInProgress.set(false);
+            if (!stopped) {
+                logger.log(Level.WARNING, "Failed to schedule PlaceholderAPI rank refresh", e);
+            }
+        }
+    }
+
+    private void refresh(@NotNull UUID playerId, @NotNull String playerName,
+            @NotNull CachedRanks cached) {
+        try {
+            if (stopped) {
+                return;
+            }
+
+            // A failed read keeps the last known ranks, the next lookup retries
+            final Map<PrimarySkillType, Integer> ranks = dataSource.readRank(playerName);
+            cached.readAt = nanoClock.getAsLong();
+            cached.ranks = ranks;
+        } catch (RuntimeException e) {
+            if (!stopped) {
+                logger.log(Level.WARNING,
+                        "Failed to refresh PlaceholderAPI ranks of " + playerName, e);
+            }
+        } finally {
+            cached.refreshInProgress.set(false);
+            evictIdle(playerId);
+        }
+    }
+
+    // Players who logged off stop being looked up; their entries go after a while. The sweep
+    // runs at most once per time to live, from whichever refresh comes first.
+    private void evictIdle(@NotNull UUID refreshedPlayerId) {
+        final long now = nanoClock.getAsLong();
+        final long lastEviction = lastEvictionAt.get();
+        if (now - lastEviction < ttlNanos || !lastEvictionAt.compareAndSet(lastEviction, now)) {
+            return;
+        }
+
+        final long idleLimit = now - ttlNanos * EVICT_AFTER_TTLS;
+        ranksByPlayer.entrySet().removeIf(entry -> !entry.getKey().equals(refreshedPlayerId)
+                && !entry.getValue().refreshInProgress.get()
+                && entry.getValue().lookedUpAt - idleLimit < 0);
+    }
+
+    @FunctionalInterface
+    interface RankDataSource {
+        /**
+         * @return Rank by skill, with the overall rank under the {@code null} key.
+         */
+        @NotNull Map<PrimarySkillType, Integer> readRank(@NotNull String playerName);
+    }
+
+    private static final class CachedRanks {
+        private final AtomicBoolean refreshInProgress = new AtomicBoolean(false);
+        private volatile @Nullable Map<PrimarySkillType, Integer> ranks;
+        private volatile long readAt;
+        private volatile long lookedUpAt;
+    }
+}
@@ -2,7 +2,6 @@ package com.gmail.nossr50.runnables;
 
 import com.gmail.nossr50.datatypes.player.McMMOPlayer;
 import com.gmail.nossr50.mcMMO;
-import com.gmail.nossr50.runnables.player.PlayerProfileSaveTask;
 import com.gmail.nossr50.util.CancellableRunnable;
 import com.gmail.nossr50.util.LogUtils;
 import com.gmail.nossr50.util.player.UserManager;
@@ -11,13 +10,9 @@ public class SaveTimerTask extends CancellableRunnable {
     @Override
     public void run() {
         LogUtils.debug(mcMMO.p.getLogger(), "[User Data] Saving...");
-        // All player data will be saved periodically through this
-        int count = 1;
-
+        // All player data will be saved periodically through this, in batches via the save queue
         for (McMMOPlayer mmoPlayer : UserManager.getPlayers()) {
-            mcMMO.p.getFoliaLib().getScheduler()
-                    .runLaterAsync(new PlayerProfileSaveTask(mmoPlayer.getProfile(), false), count);
-            count++;
+            mmoPlayer.getProfile().scheduleAsyncSave();
         }
 
         if (mcMMO.p.getPartyConfig().isPartyEnabled()) {
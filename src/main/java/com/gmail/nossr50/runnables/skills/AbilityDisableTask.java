@@ -7,6 +7,7 @@ import com.gmail.nossr50.mcMMO;
 import com.gmail.nossr50.util.CancellableRunnable;
 import com.gmail.nossr50.util.EventUtils;
 import com.gmail.nossr50.util.Misc;
+import com.gmail.nossr50.util.TimerWheel;
 import com.gmail.nossr50.util.player.NotificationManager;
 import com.gmail.nossr50.util.skills.PerksUtils;
 import com.gmail.nossr50.util.skills.SkillUtils;
@@ -66,10 +67,9 @@ public class AbilityDisableTask extends CancellableRunnable {
                     ability.getAbilityPlayerOff());
         }
         if (!mcMMO.isServerShutdownExecuted()) {
-            mcMMO.p.getFoliaLib().getScheduler()
-                    .runAtEntityLater(player, new AbilityCooldownTask(mmoPlayer, ability),
-                            (long) PerksUtils.handleCooldownPerks(player, ability.getCooldown())
-                                    * Misc.TICK_CONVERSION_FACTOR);
+            TimerWheel.runAtEntityLater(player, new AbilityCooldownTask(mmoPlayer, ability),
+                    (long) PerksUtils.handleCooldownPerks(player, ability.getCooldown())
+                            * Misc.TICK_CONVERSION_FACTOR);
         }
     }
 
@@ -6,10 +6,8 @@ import com.gmail.nossr50.datatypes.player.McMMOPlayer;
 import com.gmail.nossr50.skills.alchemy.Alchemy;
 import com.gmail.nossr50.util.CancellableRunnable;
 import com.gmail.nossr50.util.ContainerMetadataUtils;
-import com.gmail.nossr50.util.player.UserManager;
 import java.util.Arrays;
 import org.bukkit.Location;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.block.BrewingStand;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -32,13 +30,11 @@ public class AlchemyBrewCheckTask extends CancellableRunnable {
 
     @Override
     public void run() {
-        OfflinePlayer offlinePlayer = ContainerMetadataUtils.getContainerOwner(brewingStand);
+        final McMMOPlayer mmoPlayer =
+                ContainerMetadataUtils.getOnlineContainerOwner(brewingStand);
         int ingredientLevel = 1;
-        if (offlinePlayer != null && offlinePlayer.isOnline()) {
-            final McMMOPlayer mmoPlayer = UserManager.getPlayer(offlinePlayer.getPlayer());
-            if (mmoPlayer != null) {
-                ingredientLevel = mmoPlayer.getAlchemyManager().getTier();
-            }
+        if (mmoPlayer != null) {
+            ingredientLevel = mmoPlayer.getAlchemyManager().getTier();
         }
         final Location location = brewingStand.getLocation();
         final ItemStack[] newInventory = Arrays.copyOfRange(
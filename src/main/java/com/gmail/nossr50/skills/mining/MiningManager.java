@@ -17,17 +17,19 @@ import com.gmail.nossr50.mcMMO;
 import com.gmail.nossr50.runnables.skills.AbilityCooldownTask;
 import com.gmail.nossr50.skills.SkillManager;
 import com.gmail.nossr50.util.BlockUtils;
+import com.gmail.nossr50.util.DropAccumulator;
 import com.gmail.nossr50.util.EventUtils;
-import com.gmail.nossr50.util.ItemUtils;
 import com.gmail.nossr50.util.MetadataConstants;
 import com.gmail.nossr50.util.Misc;
 import com.gmail.nossr50.util.Permissions;
+import com.gmail.nossr50.util.TimerWheel;
 import com.gmail.nossr50.util.player.NotificationManager;
 import com.gmail.nossr50.util.random.Probability;
 import com.gmail.nossr50.util.random.ProbabilityUtil;
 import com.gmail.nossr50.util.skills.RankUtils;
 import com.gmail.nossr50.util.skills.SkillUtils;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
@@ -205,7 +207,7 @@ public class MiningManager extends SkillManager {
 
         mmoPlayer.setAbilityDATS(SuperAbilityType.BLAST_MINING, System.currentTimeMillis());
         mmoPlayer.setAbilityInformed(SuperAbilityType.BLAST_MINING, false);
-        mcMMO.p.getFoliaLib().getScheduler().runAtEntityLater(mmoPlayer.getPlayer(),
+        TimerWheel.runAtEntityLater(mmoPlayer.getPlayer(),
                 new AbilityCooldownTask(mmoPlayer, SuperAbilityType.BLAST_MINING),
                 (long) SuperAbilityType.BLAST_MINING.getCooldown() * Misc.TICK_CONVERSION_FACTOR);
     }
@@ -229,9 +231,12 @@ public class MiningManager extends SkillManager {
         // Strip out only stuff that gives mining XP
         final List<Block> ores = new ArrayList<>();
         final List<Block> notOres = new ArrayList<>();
-        for (Block targetBlock : event.blockList()) {
-
-            if (mcMMO.getUserBlockTracker().isIneligible(targetBlock)) {
+        final List<Block> blastedBlocks = event.blockList();
+        // One lookup for the whole blast, grouped by chunk
+        final BitSet ineligible = mcMMO.getUserBlockTracker().isIneligible(blastedBlocks);
+        int blockIndex = 0;
+        for (Block targetBlock : blastedBlocks) {
+            if (ineligible.get(blockIndex++)) {
                 continue;
             }
 
@@ -248,6 +253,7 @@ public class MiningManager extends SkillManager {
 
         int xp = 0;
         int dropMultiplier = getDropMultiplier();
+        final DropAccumulator drops = new DropAccumulator(getPlayer());
 
         for (Block block : notOres) {
             if (isDropIllegal(block.getType())) {
@@ -255,8 +261,7 @@ public class MiningManager extends SkillManager {
             }
 
             if (block.getType().isItem() && Probability.ofPercent(10).evaluate()) {
-                ItemUtils.spawnItem(getPlayer(),
-                        getBlockCenter(block),
+                drops.add(getBlockCenter(block),
                         new ItemStack(block.getType()),
                         ItemSpawnReason.BLAST_MINING_DEBRIS_NON_ORES); // Initial block that would have been dropped
             }
@@ -279,14 +284,13 @@ public class MiningManager extends SkillManager {
                                     ? block.getDrops(
                                     mmoPlayer.getPlayer().getInventory().getItemInMainHand())
                                     : List.of(new ItemStack(block.getType()));
-                    ItemUtils.spawnItems(getPlayer(), getBlockCenter(block),
+                    drops.addAll(getBlockCenter(block),
                             oreDrops, BLAST_MINING_BLACKLIST, ItemSpawnReason.BLAST_MINING_ORES);
 
                     if (mcMMO.p.getAdvancedConfig().isBlastMiningBonusDropsEnabled()) {
                         if (Probability.ofValue(0.5F).evaluate()) {
                             for (int i = 1; i < dropMultiplier; i++) {
-                                ItemUtils.spawnItems(getPlayer(),
-                                        getBlockCenter(block),
+                                drops.addAll(getBlockCenter(block),
                                         oreDrops,
                                         BLAST_MINING_BLACKLIST,
                                         ItemSpawnReason.BLAST_MINING_ORES_BONUS_DROP);
@@ -298,6 +302,8 @@ public class MiningManager extends SkillManager {
             }
         }
 
+        drops.spawnDrops();
+
         // Replace the event blocklist with the newYield list
         event.setYield(0F);
         applyXpGain(xp, XPGainReason.PVE, XPGainSource.SELF);
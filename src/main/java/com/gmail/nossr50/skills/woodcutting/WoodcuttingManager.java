@@ -17,6 +17,7 @@ import com.gmail.nossr50.datatypes.skills.SuperAbilityType;
 import com.gmail.nossr50.mcMMO;
 import com.gmail.nossr50.skills.SkillManager;
 import com.gmail.nossr50.util.BlockUtils;
+import com.gmail.nossr50.util.DropAccumulator;
 import com.gmail.nossr50.util.EventUtils;
 import com.gmail.nossr50.util.ItemUtils;
 import com.gmail.nossr50.util.Misc;
@@ -42,6 +43,7 @@ import org.bukkit.event.player.PlayerItemDamageEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.VisibleForTesting;
 
 public class WoodcuttingManager extends SkillManager {
@@ -52,6 +54,8 @@ public class WoodcuttingManager extends SkillManager {
                     || p.getType().getKey().getKey().toLowerCase().contains(PROPAGULE);
     private boolean treeFellerReachedThreshold = false;
     private static int treeFellerThreshold;
+    // Collects the drops of the Tree Feller being processed, null otherwise
+    private @Nullable DropAccumulator treeFellerDrops;
 
     /**
      * The x/y differences to the blocks in a flat cylinder around the center block, which is
@@ -353,9 +357,23 @@ public class WoodcuttingManager extends SkillManager {
      */
     private void dropTreeFellerLootFromBlocks(@NotNull Set<Block> treeFellerBlocks) {
         Player player = getPlayer();
+        ItemStack itemStack = player.getInventory().getItemInMainHand();
+        // Bonus drops from processBonusDropCheck land in the same accumulator
+        final DropAccumulator drops = new DropAccumulator(player);
+        treeFellerDrops = drops;
+        try {
+            collectTreeFellerLoot(treeFellerBlocks, player, itemStack, drops);
+        } finally {
+            treeFellerDrops = null;
+        }
+        drops.spawnDrops();
+    }
+
+    private void collectTreeFellerLoot(@NotNull Set<Block> treeFellerBlocks,
+            @NotNull Player player, @NotNull ItemStack itemStack,
+            @NotNull DropAccumulator drops) {
         int xp = 0;
         int processedLogCount = 0;
-        ItemStack itemStack = player.getInventory().getItemInMainHand();
 
         for (Block block : treeFellerBlocks) {
             int beforeXP = xp;
@@ -374,27 +392,25 @@ public class WoodcuttingManager extends SkillManager {
                 xp += processTreeFellerXPGains(block, processedLogCount);
 
                 //Drop displaced block
-                spawnItemsFromCollection(player, getBlockCenter(block),
-                        block.getDrops(itemStack), ItemSpawnReason.TREE_FELLER_DISPLACED_BLOCK);
+                drops.addAll(getBlockCenter(block), block.getDrops(itemStack),
+                        ItemSpawnReason.TREE_FELLER_DISPLACED_BLOCK);
 
                 //Bonus Drops / Harvest lumber checks
                 processBonusDropCheck(block);
             } else if (BlockUtils.isNonWoodPartOfTree(block)) {
                 // 75% of the time do not drop leaf blocks
                 if (ThreadLocalRandom.current().nextInt(100) > 75) {
-                    spawnItemsFromCollection(player,
-                            getBlockCenter(block),
+                    drops.addAll(getBlockCenter(block),
                             block.getDrops(itemStack),
                             ItemSpawnReason.TREE_FELLER_DISPLACED_BLOCK);
                 } else if (hasUnlockedSubskill(player, SubSkillType.WOODCUTTING_KNOCK_ON_WOOD)) {
                     // if KnockOnWood is unlocked, then drop any saplings from the remaining blocks
-                    ItemUtils.spawnItemsConditionally(block.getDrops(itemStack),
-                            IS_SAPLING_OR_PROPAGULE,
-                            ItemSpawnReason.TREE_FELLER_DISPLACED_BLOCK,
-                            getBlockCenter(block),
+                    drops.addAll(getBlockCenter(block),
                             // only spawn saplings
-                            player
-                    );
+                            block.getDrops(itemStack).stream()
+                                    .filter(IS_SAPLING_OR_PROPAGULE)
+                                    .toList(),
+                            ItemSpawnReason.TREE_FELLER_DISPLACED_BLOCK);
                 }
             }
 
@@ -509,6 +525,13 @@ public class WoodcuttingManager extends SkillManager {
      */
     @Deprecated(since = "2.2.052")
     void spawnHarvestLumberBonusDrops(@NotNull Block block) {
+        if (treeFellerDrops != null) {
+            treeFellerDrops.addAll(getBlockCenter(block),
+                    block.getDrops(getPlayer().getInventory().getItemInMainHand()),
+                    ItemSpawnReason.BONUS_DROPS);
+            return;
+        }
+
         spawnItemsFromCollection(
                 getPlayer(),
                 getBlockCenter(block),
@@ -10,6 +10,7 @@ import com.gmail.nossr50.datatypes.skills.SubSkillType;
 import com.gmail.nossr50.mcMMO;
 import com.gmail.nossr50.util.player.UserManager;
 import com.gmail.nossr50.util.random.ProbabilityUtil;
+import java.util.Collection;
 import java.util.HashSet;
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -91,6 +92,27 @@ public final class BlockUtils {
         }
     }
 
+    /**
+     * Set up the state for several blocks at once to be seen as unnatural, see
+     * {@link #setUnnaturalBlock(Block)}
+     *
+     * @param blocks target blocks
+     */
+    public static void setUnnaturalBlocks(@NotNull Collection<Block> blocks) {
+        mcMMO.getUserBlockTracker().setIneligible(blocks);
+
+        // Failsafe against lingering metadata
+        for (Block block : blocks) {
+            if (block.hasMetadata(MetadataConstants.METADATA_KEY_BONUS_DROPS)) {
+                block.removeMetadata(MetadataConstants.METADATA_KEY_BONUS_DROPS, mcMMO.p);
+            }
+            if (block.hasMetadata(MetadataConstants.METADATA_KEY_EXCAVATION_TREASURE_ROLL)) {
+                block.removeMetadata(MetadataConstants.METADATA_KEY_EXCAVATION_TREASURE_ROLL,
+                        mcMMO.p);
+            }
+        }
+    }
+
     /**
      * Cleans up some block metadata when a block breaks and the metadata is no longer needed This
      * also sets the blocks coords to false in our chunk store
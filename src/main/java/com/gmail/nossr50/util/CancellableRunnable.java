@@ -2,12 +2,29 @@ package com.gmail.nossr50.util;
 
 import com.tcoded.folialib.wrapper.task.WrappedTask;
 import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class CancellableRunnable implements Consumer<WrappedTask> {
     private boolean cancelled = false;
+    // Set while the task runs in the TimerWheel, so cancelling takes it out of the wheel
+    private @Nullable TimerWheel.Timer timer;
 
     public void cancel() {
         cancelled = true;
+        if (timer != null) {
+            final TimerWheel.Timer wheelTimer = timer;
+            timer = null;
+            wheelTimer.remove();
+        }
+    }
+
+    void attach(@NotNull TimerWheel.Timer timer) {
+        this.timer = timer;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
     }
 
     public abstract void run();
@@ -5,10 +5,15 @@ import static com.gmail.nossr50.util.MetadataService.NSK_CONTAINER_UUID_MOST_SIG
 
 import com.gmail.nossr50.datatypes.player.McMMOPlayer;
 import com.gmail.nossr50.util.player.UserManager;
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.OfflinePlayer;
+import org.bukkit.World;
+import org.bukkit.block.Block;
 import org.bukkit.block.BlockState;
 import org.bukkit.entity.Player;
 import org.bukkit.persistence.PersistentDataContainer;
@@ -18,6 +23,21 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class ContainerMetadataUtils {
+    /*
+     * Owners read so far, by chunk and then by block position in the chunk. Hopper fed furnaces
+     * and brewing stands fire events every few ticks, the cache lets those skip the BlockState
+     * snapshot and the PDC reads. Kept current by setOwner and the block break, block place and
+     * chunk unload listeners.
+     */
+    private static final Map<ChunkKey, Map<Integer, UUID>> ownerCache = new ConcurrentHashMap<>();
+    // Cached for blocks without an owner, ConcurrentHashMap takes no null values
+    private static final UUID NO_OWNER = new UUID(0L, 0L);
+
+    private record ChunkKey(@NotNull UUID worldId, int chunkX, int chunkZ) {
+        static @NotNull ChunkKey of(@NotNull World world, int x, int z) {
+            return new ChunkKey(world.getUID(), x >> 4, z >> 4);
+        }
+    }
 
     public static void changeContainerOwnership(@Nullable BlockState blockState,
             @Nullable Player player) {
@@ -80,6 +100,130 @@ public class ContainerMetadataUtils {
     }
 
 
+    /**
+     * Gets the owner of a container if they are online, without a BlockState snapshot once the
+     * owner of the block is cached.
+     *
+     * @param block the container block
+     * @return the online owner, or null if the block has no owner or the owner is offline
+     */
+    public static @Nullable McMMOPlayer getOnlineContainerOwner(@NotNull Block block) {
+        final Map<Integer, UUID> chunkOwners = ownerCache.get(
+                ChunkKey.of(block.getWorld(), block.getX(), block.getZ()));
+        UUID owner = chunkOwners == null ? null
+                : chunkOwners.get(packPosition(block.getX(), block.getY(), block.getZ()));
+
+        if (owner == null) {
+            owner = cacheOwner(block.getState());
+        }
+
+        return owner == NO_OWNER ? null : UserManager.getPlayer(owner);
+    }
+
+    /**
+     * Gets the owner of a container if they are online, for callers that already hold a snapshot
+     * of the block.
+     *
+     * @param blockState the container
+     * @return the online owner, or null if the container has no owner or the owner is offline
+     */
+    public static @Nullable McMMOPlayer getOnlineContainerOwner(@NotNull BlockState blockState) {
+        UUID owner = getCachedOwner(blockState);
+
+        if (owner == null) {
+            owner = cacheOwner(blockState);
+        }
+
+        return owner == NO_OWNER ? null : UserManager.getPlayer(owner);
+    }
+
+    /**
+     * Drops the cached owner of a block, for when the block is broken or replaced.
+     *
+     * @param block the block
+     */
+    public static void invalidateContainerOwner(@NotNull Block block) {
+        final Map<Integer, UUID> chunkOwners = ownerCache.get(
+                ChunkKey.of(block.getWorld(), block.getX(), block.getZ()));
+
+        if (chunkOwners != null) {
+            chunkOwners.remove(packPosition(block.getX(), block.getY(), block.getZ()));
+        }
+    }
+
+    /**
+     * Drops the cached owners of several blocks, for when an explosion destroys them.
+     *
+     * @param blocks the blocks
+     */
+    public static void invalidateContainerOwners(@NotNull Collection<Block> blocks) {
+        if (ownerCache.isEmpty()) {
+            return;
+        }
+
+        for (Block block : blocks) {
+            invalidateContainerOwner(block);
+        }
+    }
+
+    /**
+     * Drops the cached owners of every block in a chunk.
+     *
+     * @param world the world of the unloaded chunk
+     * @param chunkX the chunk X coordinate
+     * @param chunkZ the chunk Z coordinate
+     */
+    public static void invalidateChunk(@NotNull World world, int chunkX, int chunkZ) {
+        ownerCache.remove(new ChunkKey(world.getUID(), chunkX, chunkZ));
+    }
+
+    /**
+     * Drops the cached owners of every block in a world.
+     *
+     * @param world the unloaded world
+     */
+    public static void invalidateWorld(@NotNull World world) {
+        final UUID worldId = world.getUID();
+        ownerCache.keySet().removeIf(key -> key.worldId().equals(worldId));
+    }
+
+    private static @Nullable UUID getCachedOwner(@NotNull BlockState blockState) {
+        final Map<Integer, UUID> chunkOwners = ownerCache.get(
+                ChunkKey.of(blockState.getWorld(), blockState.getX(), blockState.getZ()));
+
+        return chunkOwners == null ? null
+                : chunkOwners.get(packPosition(blockState.getX(), blockState.getY(),
+                        blockState.getZ()));
+    }
+
+    private static @NotNull UUID cacheOwner(@NotNull BlockState blockState) {
+        UUID owner = null;
+
+        if (blockState instanceof PersistentDataHolder persistentDataHolder) {
+            owner = getOwner(persistentDataHolder);
+        }
+
+        if (owner == null) {
+            owner = NO_OWNER;
+        }
+
+        putCachedOwner(blockState, owner);
+        return owner;
+    }
+
+    private static void putCachedOwner(@NotNull BlockState blockState, @NotNull UUID owner) {
+        ownerCache.computeIfAbsent(
+                        ChunkKey.of(blockState.getWorld(), blockState.getX(), blockState.getZ()),
+                        key -> new ConcurrentHashMap<>())
+                .put(packPosition(blockState.getX(), blockState.getY(), blockState.getZ()),
+                        owner);
+    }
+
+    // 4 bits each for the position in the chunk, the rest for the height
+    private static int packPosition(int x, int y, int z) {
+        return (y << 8) | ((x & 15) << 4) | (z & 15);
+    }
+
     public static boolean isContainerOwned(BlockState blockState) {
         return getContainerOwner(blockState) != null;
     }
@@ -125,5 +269,6 @@ public class ContainerMetadataUtils {
                 uuid.getLeastSignificantBits());
 
         blockState.update();
+        putCachedOwner(blockState, uuid);
     }
 }
@@ -0,0 +1,170 @@
+package com.gmail.nossr50.util;
+
+import com.gmail.nossr50.api.ItemSpawnReason;
+import com.gmail.nossr50.mcMMO;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Collects the drops of one ability activation that breaks many blocks, such as a Blast Mining
+ * explosion or a Tree Feller, and spawns identical items as full stacks at the centroid of where
+ * they dropped, instead of one item entity per block and per bonus roll.
+ * <p>
+ * Every stack still goes through {@link ItemUtils#spawnItem}, so a
+ * {@link com.gmail.nossr50.events.items.McMMOItemSpawnEvent} fires per spawned stack. Items only
+ * merge with items of the same spawn reason.
+ * <p>
+ * Consolidation is opt-in through {@code General.Consolidate_Ability_Drops}; when it is off every
+ * drop is spawned right away, exactly as without an accumulator.
+ */
+public final class DropAccumulator {
+    private final @Nullable Player player;
+    private final boolean consolidate;
+    private final List<PendingDrop> pendingDrops = new ArrayList<>();
+
+    public DropAccumulator(@Nullable Player player) {
+        this(player, mcMMO.p.getGeneralConfig().getConsolidateAbilityDropsEnabled());
+    }
+
+    DropAccumulator(@Nullable Player player, boolean consolidate) {
+        this.player = player;
+        this.consolidate = consolidate;
+    }
+
+    /**
+     * Adds a drop, or spawns it right away when consolidation is off.
+     *
+     * @param location where the item dropped
+     * @param itemStack the item, not modified
+     * @param itemSpawnReason the reason for the item drop
+     */
+    public void add(@NotNull Location location, @NotNull ItemStack itemStack,
+            @NotNull ItemSpawnReason itemSpawnReason) {
+        if (!consolidate) {
+            ItemUtils.spawnItem(player, location, itemStack, itemSpawnReason);
+            return;
+        }
+
+        final World world = location.getWorld();
+        if (itemStack.getType() == Material.AIR || itemStack.getAmount() <= 0 || world == null) {
+            return; // Would not spawn anyway
+        }
+
+        // A handful of distinct items per activation, a scan beats hashing item meta
+        for (PendingDrop pendingDrop : pendingDrops) {
+            if (pendingDrop.itemSpawnReason == itemSpawnReason && pendingDrop.world.equals(world)
+                    && pendingDrop.item.isSimilar(itemStack)) {
+                pendingDrop.add(location, itemStack.getAmount());
+                return;
+            }
+        }
+
+        final PendingDrop pendingDrop = new PendingDrop(world, itemStack.clone(), itemSpawnReason);
+        pendingDrop.add(location, itemStack.getAmount());
+        pendingDrops.add(pendingDrop);
+    }
+
+    /**
+     * Adds several drops at one location, or spawns them right away when consolidation is off.
+     *
+     * @param location where the items dropped
+     * @param itemStacks the items, not modified
+     * @param itemSpawnReason the reason for the item drop
+     */
+    public void addAll(@NotNull Location location, @NotNull Collection<ItemStack> itemStacks,
+            @NotNull ItemSpawnReason itemSpawnReason) {
+        if (!consolidate) {
+            ItemUtils.spawnItems(player, location, itemStacks, itemSpawnReason);
+            return;
+        }
+
+        for (ItemStack itemStack : itemStacks) {
+            add(location, itemStack, itemSpawnReason);
+        }
+    }
+
+    /**
+     * Adds several drops at one location, skipping blacklisted items, or spawns them right away
+     * when consolidation is off.
+     *
+     * @param location where the items dropped
+     * @param itemStacks the items, not modified
+     * @param blackList the items to skip
+     * @param itemSpawnReason the reason for the item drop
+     */
+    public void addAll(@NotNull Location location, @NotNull Collection<ItemStack> itemStacks,
+            @NotNull Collection<Material> blackList, @NotNull ItemSpawnReason itemSpawnReason) {
+        if (!consolidate) {
+            ItemUtils.spawnItems(player, location, itemStacks, blackList, itemSpawnReason);
+            return;
+        }
+
+        for (ItemStack itemStack : itemStacks) {
+            if (!blackList.contains(itemStack.getType())) {
+                add(location, itemStack, itemSpawnReason);
+            }
+        }
+    }
+
+    /**
+     * Spawns everything collected since the last call, as few stacks as the max stack sizes
+     * allow. Does nothing when consolidation is off, the drops were already spawned.
+     */
+    public void spawnDrops() {
+        for (PendingDrop pendingDrop : pendingDrops) {
+            final Location centroid = pendingDrop.centroid();
+            final int maxStackSize = Math.max(1, pendingDrop.item.getMaxStackSize());
+            int remaining = pendingDrop.amount;
+
+            while (remaining > 0) {
+                final ItemStack stack = pendingDrop.item.clone();
+                stack.setAmount(Math.min(remaining, maxStackSize));
+                remaining -= stack.getAmount();
+                ItemUtils.spawnItem(player, centroid, stack, pendingDrop.itemSpawnReason);
+            }
+        }
+        pendingDrops.clear();
+    }
+
+    /**
+     * Items that merge into the same stacks, and where they dropped.
+     */
+    private static final class PendingDrop {
+        private final @NotNull World world;
+        private final @NotNull ItemStack item;
+        private final @NotNull ItemSpawnReason itemSpawnReason;
+        private int amount;
+        // Sums of the drop locations, one per drop rather than per item
+        private double x;
+        private double y;
+        private double z;
+        private int locations;
+
+        private PendingDrop(@NotNull World world, @NotNull ItemStack item,
+                @NotNull ItemSpawnReason itemSpawnReason) {
+            this.world = world;
+            this.item = item;
+            this.itemSpawnReason = itemSpawnReason;
+        }
+
+        private void add(@NotNull Location location, int amount) {
+            this.amount += amount;
+            x += location.getX();
+            y += location.getY();
+            z += location.getZ();
+            locations++;
+        }
+
+        private @NotNull Location centroid() {
+            return new Location(world, x / locations, y / locations, z / locations);
+        }
+    }
+}
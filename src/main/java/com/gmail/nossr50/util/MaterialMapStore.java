@@ -2,7 +2,9 @@ package com.gmail.nossr50.util;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import org.bukkit.Material;
 import org.jetbrains.annotations.NotNull;
@@ -12,6 +14,50 @@ import org.jetbrains.annotations.NotNull;
  * versions of Minecraft
  */
 public class MaterialMapStore {
+    // Flag bits of materialFlags, one per register
+    private static final long MULTI_BLOCK_PLANT = 1L << 0;
+    private static final long MULTI_BLOCK_HANGING_PLANT = 1L << 1;
+    private static final long ABILITY_BLACKLISTED = 1L << 2;
+    private static final long TOOL_BLACKLISTED = 1L << 3;
+    private static final long MOSSY = 1L << 4;
+    private static final long TREE_FELLER_DESTRUCTIBLE = 1L << 5;
+    private static final long HERBALISM_ABILITY = 1L << 6;
+    private static final long BLOCK_CRACKER = 1L << 7;
+    private static final long SHROOMY = 1L << 8;
+    private static final long GLASS = 1L << 9;
+    private static final long FOOD = 1L << 10;
+    private static final long ARMOR = 1L << 11;
+    private static final long LEATHER_ARMOR = 1L << 12;
+    private static final long COPPER_ARMOR = 1L << 13;
+    private static final long IRON_ARMOR = 1L << 14;
+    private static final long GOLD_ARMOR = 1L << 15;
+    private static final long CHAINMAIL_ARMOR = 1L << 16;
+    private static final long DIAMOND_ARMOR = 1L << 17;
+    private static final long NETHERITE_ARMOR = 1L << 18;
+    private static final long TOOL = 1L << 19;
+    private static final long WOOD_TOOL = 1L << 20;
+    private static final long STONE_TOOL = 1L << 21;
+    private static final long COPPER_TOOL = 1L << 22;
+    private static final long IRON_TOOL = 1L << 23;
+    private static final long GOLD_TOOL = 1L << 24;
+    private static final long DIAMOND_TOOL = 1L << 25;
+    private static final long NETHERITE_TOOL = 1L << 26;
+    private static final long STRING_TOOL = 1L << 27;
+    private static final long PRISMARINE_TOOL = 1L << 28;
+    private static final long SWORD = 1L << 29;
+    private static final long AXE = 1L << 30;
+    private static final long PICKAXE = 1L << 31;
+    private static final long SHOVEL = 1L << 32;
+    private static final long HOE = 1L << 33;
+    private static final long TRIDENT = 1L << 34;
+    private static final long BOW = 1L << 35;
+    private static final long CROSSBOW = 1L << 36;
+    private static final long MACE = 1L << 37;
+    private static final long SPEAR = 1L << 38;
+    private static final long ENCHANTABLE = 1L << 39;
+    private static final long ORE = 1L << 40;
+    private static final long INTENDED_TOOL_PICKAXE = 1L << 41;
+
 
     private final @NotNull HashSet<String> abilityBlackList;
     private final @NotNull HashSet<String> toolBlackList;
@@ -62,6 +108,12 @@ public class MaterialMapStore {
 
     private final @NotNull HashMap<String, Integer> tierValue;
 
+    // The registers above compiled into one flag word and one tier per Material ordinal, so the
+    // Material checks made by every block break, interact and damage event are an array read.
+    // The string registers stay the source of truth and serve the String overloads
+    private final long @NotNull [] materialFlags;
+    private final byte @NotNull [] materialTiers;
+
 
     public MaterialMapStore() {
         abilityBlackList = new HashSet<>();
@@ -115,6 +167,11 @@ public class MaterialMapStore {
         tierValue = new HashMap<>();
 
         fillVanillaMaterialRegisters();
+
+        final Material[] materials = Material.values();
+        materialFlags = new long[materials.length];
+        materialTiers = new byte[materials.length];
+        compileMaterialTable(materials);
     }
 
     private void fillVanillaMaterialRegisters() {
@@ -139,40 +196,113 @@ public class MaterialMapStore {
         fillTierMap();
     }
 
+    /**
+     * Fill the per-Material flags and tiers from the string registers. Legacy materials have no
+     * key and never matched any register.
+     */
+    @SuppressWarnings("deprecation")
+    private void compileMaterialTable(@NotNull Material @NotNull [] materials) {
+        final Map<Set<String>, Long> registers = new IdentityHashMap<>();
+        registers.put(multiBlockPlant, MULTI_BLOCK_PLANT);
+        registers.put(multiBlockHangingPlant, MULTI_BLOCK_HANGING_PLANT);
+        registers.put(abilityBlackList, ABILITY_BLACKLISTED);
+        registers.put(toolBlackList, TOOL_BLACKLISTED);
+        registers.put(mossyWhiteList, MOSSY);
+        registers.put(treeFellerDestructibleWhiteList, TREE_FELLER_DESTRUCTIBLE);
+        registers.put(herbalismAbilityWhiteList, HERBALISM_ABILITY);
+        registers.put(blockCrackerWhiteList, BLOCK_CRACKER);
+        registers.put(canMakeShroomyWhiteList, SHROOMY);
+        registers.put(glassBlocks, GLASS);
+        registers.put(foodItemWhiteList, FOOD);
+        registers.put(armors, ARMOR);
+        registers.put(leatherArmor, LEATHER_ARMOR);
+        registers.put(copperArmor, COPPER_ARMOR);
+        registers.put(ironArmor, IRON_ARMOR);
+        registers.put(goldArmor, GOLD_ARMOR);
+        registers.put(chainmailArmor, CHAINMAIL_ARMOR);
+        registers.put(diamondArmor, DIAMOND_ARMOR);
+        registers.put(netheriteArmor, NETHERITE_ARMOR);
+        registers.put(tools, TOOL);
+        registers.put(woodTools, WOOD_TOOL);
+        registers.put(stoneTools, STONE_TOOL);
+        registers.put(copperTools, COPPER_TOOL);
+        registers.put(ironTools, IRON_TOOL);
+        registers.put(goldTools, GOLD_TOOL);
+        registers.put(diamondTools, DIAMOND_TOOL);
+        registers.put(netheriteTools, NETHERITE_TOOL);
+        registers.put(stringTools, STRING_TOOL);
+        registers.put(prismarineTools, PRISMARINE_TOOL);
+        registers.put(swords, SWORD);
+        registers.put(axes, AXE);
+        registers.put(pickAxes, PICKAXE);
+        registers.put(shovels, SHOVEL);
+        registers.put(hoes, HOE);
+        registers.put(tridents, TRIDENT);
+        registers.put(bows, BOW);
+        registers.put(crossbows, CROSSBOW);
+        registers.put(maces, MACE);
+        registers.put(spears, SPEAR);
+        registers.put(enchantables, ENCHANTABLE);
+        registers.put(ores, ORE);
+        registers.put(intendedToolPickAxe, INTENDED_TOOL_PICKAXE);
+
+        for (Material material : materials) {
+            if (material.isLegacy()) {
+                materialTiers[material.ordinal()] = 1; //1 for unknown items
+                continue;
+            }
+
+            final String id = material.getKey().getKey();
+            long flags = 0;
+            for (Map.Entry<Set<String>, Long> register : registers.entrySet()) {
+                if (register.getKey().contains(id)) {
+                    flags |= register.getValue();
+                }
+            }
+
+            materialFlags[material.ordinal()] = flags;
+            materialTiers[material.ordinal()] = (byte) getTier(id);
+        }
+    }
+
+    private boolean hasFlag(@NotNull Material material, long flag) {
+        return (materialFlags[material.ordinal()] & flag) != 0;
+    }
+
     public boolean isMultiBlockPlant(@NotNull Material material) {
-        return multiBlockPlant.contains(material.getKey().getKey());
+        return hasFlag(material, MULTI_BLOCK_PLANT);
     }
 
     public boolean isMultiBlockHangingPlant(@NotNull Material material) {
-        return multiBlockHangingPlant.contains(material.getKey().getKey());
+        return hasFlag(material, MULTI_BLOCK_HANGING_PLANT);
     }
 
     public boolean isAbilityActivationBlackListed(@NotNull Material material) {
-        return abilityBlackList.contains(material.getKey().getKey());
+        return hasFlag(material, ABILITY_BLACKLISTED);
     }
 
     public boolean isToolActivationBlackListed(@NotNull Material material) {
-        return toolBlackList.contains(material.getKey().getKey());
+        return hasFlag(material, TOOL_BLACKLISTED);
     }
 
     public boolean isMossyWhiteListed(@NotNull Material material) {
-        return mossyWhiteList.contains(material.getKey().getKey());
+        return hasFlag(material, MOSSY);
     }
 
     public boolean isTreeFellerDestructible(@NotNull Material material) {
-        return treeFellerDestructibleWhiteList.contains(material.getKey().getKey());
+        return hasFlag(material, TREE_FELLER_DESTRUCTIBLE);
     }
 
     public boolean isHerbalismAbilityWhiteListed(@NotNull Material material) {
-        return herbalismAbilityWhiteList.contains(material.getKey().getKey());
+        return hasFlag(material, HERBALISM_ABILITY);
     }
 
     public boolean isBlockCrackerWhiteListed(@NotNull Material material) {
-        return blockCrackerWhiteList.contains(material.getKey().getKey());
+        return hasFlag(material, BLOCK_CRACKER);
     }
 
     public boolean isShroomyWhiteListed(@NotNull Material material) {
-        return canMakeShroomyWhiteList.contains(material.getKey().getKey());
+        return hasFlag(material, SHROOMY);
     }
 
     private void fillTierMap() {
@@ -840,7 +970,7 @@ public class MaterialMapStore {
      * @return true if it is used for armor
      */
     public boolean isArmor(@NotNull Material material) {
-        return isArmor(material.getKey().getKey());
+        return hasFlag(material, ARMOR);
     }
 
     /**
@@ -854,7 +984,7 @@ public class MaterialMapStore {
     }
 
     public boolean isTool(@NotNull Material material) {
-        return isTool(material.getKey().getKey());
+        return hasFlag(material, TOOL);
     }
 
     public boolean isTool(@NotNull String id) {
@@ -862,7 +992,7 @@ public class MaterialMapStore {
     }
 
     public boolean isEnchantable(@NotNull Material material) {
-        return isEnchantable(material.getKey().getKey());
+        return hasFlag(material, ENCHANTABLE);
     }
 
     public boolean isEnchantable(@NotNull String id) {
@@ -870,7 +1000,7 @@ public class MaterialMapStore {
     }
 
     public boolean isOre(@NotNull Material material) {
-        return isOre(material.getKey().getKey());
+        return hasFlag(material, ORE);
     }
 
     public boolean isOre(@NotNull String id) {
@@ -878,7 +1008,7 @@ public class MaterialMapStore {
     }
 
     public boolean isBow(@NotNull Material material) {
-        return isBow(material.getKey().getKey());
+        return hasFlag(material, BOW);
     }
 
     public boolean isBow(@NotNull String id) {
@@ -886,7 +1016,7 @@ public class MaterialMapStore {
     }
 
     public boolean isCrossbow(@NotNull Material material) {
-        return isCrossbow(material.getKey().getKey());
+        return hasFlag(material, CROSSBOW);
     }
 
     public boolean isCrossbow(@NotNull String id) {
@@ -894,7 +1024,7 @@ public class MaterialMapStore {
     }
 
     public boolean isTrident(@NotNull Material material) {
-        return isTrident(material.getKey().getKey());
+        return hasFlag(material, TRIDENT);
     }
 
     public boolean isTrident(@NotNull String id) {
@@ -902,7 +1032,7 @@ public class MaterialMapStore {
     }
 
     public boolean isMace(@NotNull Material material) {
-        return isMace(material.getKey().getKey());
+        return hasFlag(material, MACE);
     }
 
     public boolean isMace(@NotNull String id) {
@@ -910,7 +1040,7 @@ public class MaterialMapStore {
     }
 
     public boolean isSpear(@NotNull Material material) {
-        return isSpear(material.getKey().getKey());
+        return hasFlag(material, SPEAR);
     }
 
     public boolean isSpear(@NotNull String id) {
@@ -918,7 +1048,7 @@ public class MaterialMapStore {
     }
 
     public boolean isLeatherArmor(@NotNull Material material) {
-        return isLeatherArmor(material.getKey().getKey());
+        return hasFlag(material, LEATHER_ARMOR);
     }
 
     public boolean isLeatherArmor(@NotNull String id) {
@@ -926,7 +1056,7 @@ public class MaterialMapStore {
     }
 
     public boolean isCopperArmor(@NotNull Material material) {
-        return isCopperArmor(material.getKey().getKey());
+        return hasFlag(material, COPPER_ARMOR);
     }
 
     public boolean isCopperArmor(@NotNull String id) {
@@ -934,7 +1064,7 @@ public class MaterialMapStore {
     }
 
     public boolean isIronArmor(@NotNull Material material) {
-        return isIronArmor(material.getKey().getKey());
+        return hasFlag(material, IRON_ARMOR);
     }
 
     public boolean isIronArmor(@NotNull String id) {
@@ -942,7 +1072,7 @@ public class MaterialMapStore {
     }
 
     public boolean isGoldArmor(@NotNull Material material) {
-        return isGoldArmor(material.getKey().getKey());
+        return hasFlag(material, GOLD_ARMOR);
     }
 
     public boolean isGoldArmor(@NotNull String id) {
@@ -950,7 +1080,7 @@ public class MaterialMapStore {
     }
 
     public boolean isDiamondArmor(@NotNull Material material) {
-        return isDiamondArmor(material.getKey().getKey());
+        return hasFlag(material, DIAMOND_ARMOR);
     }
 
     public boolean isDiamondArmor(@NotNull String id) {
@@ -958,7 +1088,7 @@ public class MaterialMapStore {
     }
 
     public boolean isChainmailArmor(@NotNull Material material) {
-        return isChainmailArmor(material.getKey().getKey());
+        return hasFlag(material, CHAINMAIL_ARMOR);
     }
 
     public boolean isChainmailArmor(@NotNull String id) {
@@ -966,7 +1096,7 @@ public class MaterialMapStore {
     }
 
     public boolean isNetheriteArmor(@NotNull Material material) {
-        return isNetheriteArmor(material.getKey().getKey());
+        return hasFlag(material, NETHERITE_ARMOR);
     }
 
     public boolean isNetheriteArmor(@NotNull String id) {
@@ -974,7 +1104,7 @@ public class MaterialMapStore {
     }
 
     public boolean isWoodTool(@NotNull Material material) {
-        return isWoodTool(material.getKey().getKey());
+        return hasFlag(material, WOOD_TOOL);
     }
 
     public boolean isWoodTool(@NotNull String id) {
@@ -982,7 +1112,7 @@ public class MaterialMapStore {
     }
 
     public boolean isStoneTool(@NotNull Material material) {
-        return isStoneTool(material.getKey().getKey());
+        return hasFlag(material, STONE_TOOL);
     }
 
     public boolean isStoneTool(@NotNull String id) {
@@ -990,7 +1120,7 @@ public class MaterialMapStore {
     }
 
     public boolean isCopperTool(@NotNull Material material) {
-        return isCopperTool(material.getKey().getKey());
+        return hasFlag(material, COPPER_TOOL);
     }
 
     public boolean isCopperTool(@NotNull String id) {
@@ -998,7 +1128,7 @@ public class MaterialMapStore {
     }
 
     public boolean isIronTool(@NotNull Material material) {
-        return isIronTool(material.getKey().getKey());
+        return hasFlag(material, IRON_TOOL);
     }
 
     public boolean isIronTool(@NotNull String id) {
@@ -1006,7 +1136,7 @@ public class MaterialMapStore {
     }
 
     public boolean isGoldTool(@NotNull Material material) {
-        return isGoldTool(material.getKey().getKey());
+        return hasFlag(material, GOLD_TOOL);
     }
 
     public boolean isGoldTool(@NotNull String id) {
@@ -1014,7 +1144,7 @@ public class MaterialMapStore {
     }
 
     public boolean isDiamondTool(@NotNull Material material) {
-        return isDiamondTool(material.getKey().getKey());
+        return hasFlag(material, DIAMOND_TOOL);
     }
 
     public boolean isDiamondTool(@NotNull String id) {
@@ -1022,7 +1152,7 @@ public class MaterialMapStore {
     }
 
     public boolean isSword(@NotNull Material material) {
-        return isSword(material.getKey().getKey());
+        return hasFlag(material, SWORD);
     }
 
     public boolean isSword(@NotNull String id) {
@@ -1030,7 +1160,7 @@ public class MaterialMapStore {
     }
 
     public boolean isAxe(@NotNull Material material) {
-        return isAxe(material.getKey().getKey());
+        return hasFlag(material, AXE);
     }
 
     public boolean isAxe(@NotNull String id) {
@@ -1038,7 +1168,7 @@ public class MaterialMapStore {
     }
 
     public boolean isPickAxe(@NotNull Material material) {
-        return isPickAxe(material.getKey().getKey());
+        return hasFlag(material, PICKAXE);
     }
 
     public boolean isPickAxe(@NotNull String id) {
@@ -1046,7 +1176,7 @@ public class MaterialMapStore {
     }
 
     public boolean isShovel(@NotNull Material material) {
-        return isShovel(material.getKey().getKey());
+        return hasFlag(material, SHOVEL);
     }
 
     public boolean isShovel(@NotNull String id) {
@@ -1054,7 +1184,7 @@ public class MaterialMapStore {
     }
 
     public boolean isHoe(@NotNull Material material) {
-        return isHoe(material.getKey().getKey());
+        return hasFlag(material, HOE);
     }
 
     public boolean isHoe(@NotNull String id) {
@@ -1062,7 +1192,7 @@ public class MaterialMapStore {
     }
 
     public boolean isNetheriteTool(@NotNull Material material) {
-        return isNetheriteTool(material.getKey().getKey());
+        return hasFlag(material, NETHERITE_TOOL);
     }
 
     public boolean isNetheriteTool(@NotNull String id) {
@@ -1070,7 +1200,7 @@ public class MaterialMapStore {
     }
 
     public boolean isStringTool(@NotNull Material material) {
-        return isStringTool(material.getKey().getKey());
+        return hasFlag(material, STRING_TOOL);
     }
 
     public boolean isStringTool(@NotNull String id) {
@@ -1078,7 +1208,7 @@ public class MaterialMapStore {
     }
 
     public boolean isPrismarineTool(@NotNull Material material) {
-        return isPrismarineTool(material.getKey().getKey());
+        return hasFlag(material, PRISMARINE_TOOL);
     }
 
     public boolean isPrismarineTool(@NotNull String id) {
@@ -1086,11 +1216,11 @@ public class MaterialMapStore {
     }
 
     public boolean isGlass(@NotNull Material material) {
-        return glassBlocks.contains(material.getKey().getKey());
+        return hasFlag(material, GLASS);
     }
 
     public boolean isFood(@NotNull Material material) {
-        return foodItemWhiteList.contains(material.getKey().getKey());
+        return hasFlag(material, FOOD);
     }
 
     private void fillMultiBlockPlantSet() {
@@ -1524,7 +1654,7 @@ public class MaterialMapStore {
     }
 
     public boolean isIntendedToolPickaxe(@NotNull Material material) {
-        return intendedToolPickAxe.contains(material.getKey().getKey());
+        return hasFlag(material, INTENDED_TOOL_PICKAXE);
     }
 
     public boolean isIntendedToolPickaxe(@NotNull String string) {
@@ -1546,7 +1676,7 @@ public class MaterialMapStore {
 
 
     public int getTier(@NotNull Material material) {
-        return getTier(material.getKey().getKey());
+        return materialTiers[material.ordinal()];
     }
 
     public int getTier(@NotNull String id) {
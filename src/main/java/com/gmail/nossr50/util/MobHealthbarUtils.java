@@ -104,11 +104,10 @@ public final class MobHealthbarUtils {
                     new FixedMetadataValue(plugin,
                             new HealthbarSnapshot(previousCustomName, previousNameVisible, now)));
 
-            mcMMO.p.getFoliaLib().getScheduler()
-                    .runAtEntityTimer(target,
-                            new MobHealthDisplayUpdaterTask(target, displayTimeMs),
-                            initialDelayTicks,
-                            MobHealthDisplayUpdaterTask.POLL_INTERVAL_TICKS);
+            TimerWheel.runAtEntityTimer(target,
+                    new MobHealthDisplayUpdaterTask(target, displayTimeMs),
+                    initialDelayTicks,
+                    MobHealthDisplayUpdaterTask.POLL_INTERVAL_TICKS);
         } else {
             // Re-hit: refresh lastHitMs so the existing task extends the display window.
             // Original name fields are preserved from the first-hit snapshot — overwriting them
@@ -0,0 +1,306 @@
+package com.gmail.nossr50.util;
+
+import com.gmail.nossr50.mcMMO;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import org.bukkit.entity.Entity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Hashed timing wheel that owns the short-lived per-entity timers of mcMMO: rupture ticks, mob
+ * healthbar resets, ability timers, XP bar hiding and so on. Mob farms can keep thousands of these
+ * alive at once; in the wheel they cost one scheduler task in total, scheduling and cancelling
+ * them is O(1), and a tick only visits the timers hashed to the current slot.
+ *
+ * <p>A timer whose deadline is more than one revolution away stays in its slot and is skipped
+ * until the wheel comes around to its deadline. Cancelling a task, from inside or outside of it,
+ * takes its timer out of the wheel right away.</p>
+ *
+ * <p>The wheel is not thread safe, it is only used on the main thread. Folia has no main thread,
+ * so there {@link #runAtEntityLater} and {@link #runAtEntityTimer} keep handing timers to the
+ * entity schedulers of FoliaLib, which already run per region.</p>
+ */
+public final class TimerWheel {
+    /**
+     * Active timer counts, for metrics.
+     *
+     * @param active timers waiting to fire
+     * @param activeByType active timers by the simple class name of their task
+     * @param fired timers fired since the wheel was created
+     */
+    public record Stats(int active, @NotNull Map<String, Integer> activeByType, long fired) {
+    }
+
+    /**
+     * A timer in the wheel.
+     */
+    public final class Timer {
+        private final @NotNull CancellableRunnable task;
+        private final long periodTicks;
+        // Set together, the timer retires once the entity is no longer valid
+        private final @Nullable Entity entity;
+        private final @Nullable Runnable retired;
+        private long deadline;
+        private int slot = -1;
+        private @Nullable Timer previous;
+        private @Nullable Timer next;
+
+        private Timer(@NotNull CancellableRunnable task, long periodTicks,
+                @Nullable Entity entity, @Nullable Runnable retired) {
+            this.task = task;
+            this.periodTicks = periodTicks;
+            this.entity = entity;
+            this.retired = retired;
+        }
+
+        /**
+         * Cancels the task and takes the timer out of the wheel.
+         */
+        public void cancel() {
+            task.cancel();
+        }
+
+        // Called by CancellableRunnable.cancel()
+        void remove() {
+            if (slot != -1) {
+                unlink(this);
+                untrack(this);
+            }
+        }
+    }
+
+    private final Timer[] slots;
+    private final int mask;
+    private final Map<Class<?>, Integer> activeByType = new HashMap<>();
+    // Reused by tick(), timers are collected before any of them runs
+    private final List<Timer> due = new ArrayList<>();
+    private long currentTick;
+    private int active;
+    private long fired;
+
+    /**
+     * @param slotCount number of slots, rounded up to a power of two
+     */
+    public TimerWheel(int slotCount) {
+        final int size = Integer.highestOneBit(Math.max(2, slotCount - 1)) << 1;
+        slots = new Timer[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Schedules a task.
+     *
+     * @param task the task, cancelling it stops the timer
+     * @param delayTicks ticks until the first run, at least 1
+     * @param periodTicks ticks between runs, or 0 to run once
+     * @return the timer
+     */
+    public @NotNull Timer schedule(@NotNull CancellableRunnable task, long delayTicks,
+            long periodTicks) {
+        return track(new Timer(task, Math.max(0, periodTicks), null, null), delayTicks);
+    }
+
+    /**
+     * Schedules a task that retires with an entity: once the entity is no longer valid, the timer
+     * cancels the task and runs the retired callback in its place, like an entity scheduler does
+     * on Folia.
+     *
+     * @param task the task, cancelling it stops the timer
+     * @param entity the entity the task is about
+     * @param retired run instead of the task once the entity is no longer valid
+     * @param delayTicks ticks until the first run, at least 1
+     * @param periodTicks ticks between runs, or 0 to run once
+     * @return the timer
+     */
+    public @NotNull Timer schedule(@NotNull CancellableRunnable task, @NotNull Entity entity,
+            @NotNull Runnable retired, long delayTicks, long periodTicks) {
+        return track(new Timer(task, Math.max(0, periodTicks), entity, retired), delayTicks);
+    }
+
+    private @NotNull Timer track(@NotNull Timer timer, long delayTicks) {
+        link(timer, currentTick + Math.max(1, delayTicks));
+        timer.task.attach(timer);
+        active++;
+        activeByType.merge(timer.task.getClass(), 1, Integer::sum);
+        return timer;
+    }
+
+    /**
+     * Advances the wheel by one tick and runs the timers that are due.
+     */
+    public void tick() {
+        currentTick++;
+        final int slot = (int) (currentTick & mask);
+
+        for (Timer timer = slots[slot]; timer != null; timer = timer.next) {
+            if (timer.deadline <= currentTick) {
+                due.add(timer);
+            }
+        }
+
+        try {
+            for (Timer timer : due) {
+                // Cancelled by a task that ran before it in this tick
+                if (timer.slot == -1) {
+                    continue;
+                }
+
+                unlink(timer);
+                fire(timer);
+            }
+        } finally {
+            due.clear();
+        }
+    }
+
+    private void fire(@NotNull Timer timer) {
+        if (!timer.task.isCancelled()) {
+            if (timer.entity != null && timer.retired != null && !timer.entity.isValid()) {
+                timer.task.cancel();
+                run(timer, timer.retired);
+            } else {
+                fired++;
+                run(timer, timer.task::run);
+            }
+        }
+
+        if (timer.periodTicks > 0 && !timer.task.isCancelled()) {
+            link(timer, currentTick + timer.periodTicks);
+        } else {
+            untrack(timer);
+        }
+    }
+
+    private void run(@NotNull Timer timer, @NotNull Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (RuntimeException e) {
+            // Logged like the Bukkit scheduler does, one failing task must not stop the wheel
+            mcMMO.p.getLogger().log(Level.WARNING,
+                    "Task " + timer.task.getClass().getSimpleName() + " threw an exception", e);
+        }
+    }
+
+    private void link(@NotNull Timer timer, long deadline) {
+        timer.deadline = deadline;
+        timer.slot = (int) (deadline & mask);
+        timer.previous = null;
+        timer.next = slots[timer.slot];
+        if (timer.next != null) {
+            timer.next.previous = timer;
+        }
+        slots[timer.slot] = timer;
+    }
+
+    private void unlink(@NotNull Timer timer) {
+        if (timer.previous != null) {
+            timer.previous.next = timer.next;
+        } else {
+            slots[timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        }
+        timer.previous = null;
+        timer.next = null;
+        timer.slot = -1;
+    }
+
+    private void untrack(@NotNull Timer timer) {
+        active--;
+        activeByType.computeIfPresent(timer.task.getClass(),
+                (type, count) -> count == 1 ? null : count - 1);
+    }
+
+    /**
+     * Drops every timer without running it.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            Timer timer = slots[i];
+            while (timer != null) {
+                final Timer next = timer.next;
+                timer.previous = null;
+                timer.next = null;
+                timer.slot = -1;
+                timer = next;
+            }
+            slots[i] = null;
+        }
+        active = 0;
+        activeByType.clear();
+    }
+
+    /**
+     * @return the active timer counts
+     */
+    public @NotNull Stats getStats() {
+        final Map<String, Integer> byType = new HashMap<>();
+        activeByType.forEach((type, count) -> byType.merge(type.getSimpleName(), count,
+                Integer::sum));
+        return new Stats(active, Collections.unmodifiableMap(byType), fired);
+    }
+
+    /**
+     * Runs a task once, after a delay, on the thread that owns the entity.
+     *
+     * @param entity the entity the task is about
+     * @param task the task
+     * @param delayTicks ticks until the task runs
+     */
+    public static void runAtEntityLater(@NotNull Entity entity, @NotNull CancellableRunnable task,
+            long delayTicks) {
+        final TimerWheel timerWheel = mcMMO.getTimerWheel();
+        if (timerWheel == null) {
+            mcMMO.p.getFoliaLib().getScheduler().runAtEntityLater(entity, task, delayTicks);
+        } else {
+            timerWheel.schedule(task, delayTicks, 0);
+        }
+    }
+
+    /**
+     * Runs a task repeatedly on the thread that owns the entity, until the task cancels itself.
+     *
+     * @param entity the entity the task is about
+     * @param task the task
+     * @param delayTicks ticks until the first run
+     * @param periodTicks ticks between runs
+     */
+    public static void runAtEntityTimer(@NotNull Entity entity, @NotNull CancellableRunnable task,
+            long delayTicks, long periodTicks) {
+        runAtEntityTimer(entity, task, null, delayTicks, periodTicks);
+    }
+
+    /**
+     * Runs a task repeatedly on the thread that owns the entity, until the task cancels itself.
+     *
+     * @param entity the entity the task is about
+     * @param task the task
+     * @param retired run instead of the task when the entity is removed before the task is
+     * cancelled; outside Folia on the first run after the entity is no longer valid
+     * @param delayTicks ticks until the first run
+     * @param periodTicks ticks between runs
+     */
+    public static void runAtEntityTimer(@NotNull Entity entity, @NotNull CancellableRunnable task,
+            @Nullable Runnable retired, long delayTicks, long periodTicks) {
+        final TimerWheel timerWheel = mcMMO.getTimerWheel();
+        if (timerWheel != null) {
+            if (retired != null) {
+                timerWheel.schedule(task, entity, retired, delayTicks, periodTicks);
+            } else {
+                timerWheel.schedule(task, delayTicks, periodTicks);
+            }
+        } else if (retired != null) {
+            mcMMO.p.getFoliaLib().getScheduler().runAtEntityTimer(entity, task, retired,
+                    delayTicks, periodTicks);
+        } else {
+            mcMMO.p.getFoliaLib().getScheduler().runAtEntityTimer(entity, task, delayTicks,
+                    periodTicks);
+        }
+    }
+}
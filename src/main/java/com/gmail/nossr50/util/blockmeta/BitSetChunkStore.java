@@ -18,17 +18,35 @@ import org.bukkit.World;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+/**
+ * Placed-block markers for one chunk, stored as a stack of 16x16x16 sections.
+ *
+ * <p>Each section is a 4096 bit bitmap that is only allocated once a marker is set inside it and
+ * released again when its last marker is cleared, so a chunk with a single marker near the
+ * build limit costs one 512 byte section instead of a bitmap spanning the whole column.
+ *
+ * <p>Format version 10 writes the same sparse layout to disk: only populated sections are
+ * stored, each either as a list of set bit offsets or, once that list would outgrow it, as the
+ * raw bitmap. Versions 8 and 9 (a single bitmap of the whole column) are still read and are
+ * written back as version 10 the next time the chunk is saved.
+ */
 public class BitSetChunkStore implements ChunkStore {
-    private static final int CURRENT_VERSION = 9;
+    private static final int CURRENT_VERSION = 10;
     private static final int MAGIC_NUMBER = 0xEA5EDEBB;
+    private static final int SECTION_SHIFT = 12; // 16x16x16 = 4096 bits per section
+    private static final int SECTION_BITS = 1 << SECTION_SHIFT;
+    private static final int SECTION_WORDS = SECTION_BITS / Long.SIZE;
+    // Below this many markers a list of 2 byte offsets is smaller than the 512 byte bitmap
+    private static final int ARRAY_CONTAINER_LIMIT = SECTION_BITS / Short.SIZE;
 
     private final int cx;
     private final int cz;
     private final int worldMin;
     private final int worldMax;
     private final @NotNull UUID worldUid;
-    // Bitset store conforms to a "bottom-up" bit ordering consisting of a stack of {worldHeight} Y planes, each Y plane consists of 16 Z rows of 16 X bits.
-    private final @NotNull BitSet store;
+    // Sections conform to a "bottom-up" bit ordering consisting of a stack of {worldHeight} Y planes, each Y plane consists of 16 Z rows of 16 X bits.
+    // Every 16 Y planes form one section; empty sections are null.
+    private final long[][] sections;
 
     private transient boolean dirty = false;
 
@@ -42,9 +60,8 @@ public class BitSetChunkStore implements ChunkStore {
         this.worldUid = worldUid;
         this.worldMin = worldMin;
         this.worldMax = worldMax;
-        // Grows on demand; sizing it for the full world height would pin ~12KB per chunk
-        // even for chunks with no tracked blocks
-        this.store = new BitSet();
+        // worldMax itself is addressable, see coordToIndex
+        this.sections = new long[Math.max(0, worldMax - worldMin) / 16 + 1][];
     }
 
     @Override
@@ -84,7 +101,7 @@ public class BitSetChunkStore implements ChunkStore {
 
     @Override
     public boolean isTrue(int x, int y, int z) {
-        return store.get(coordToIndex(x, y, z));
+        return getBit(coordToIndex(x, y, z));
     }
 
     @Override
@@ -99,13 +116,18 @@ public class BitSetChunkStore implements ChunkStore {
 
     @Override
     public void set(int x, int y, int z, boolean value) {
-        store.set(coordToIndex(x, y, z), value);
+        setBit(coordToIndex(x, y, z), value);
         dirty = true;
     }
 
     @Override
     public boolean isEmpty() {
-        return store.isEmpty();
+        for (long[] section : sections) {
+            if (section != null) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -120,13 +142,92 @@ public class BitSetChunkStore implements ChunkStore {
                     "Cannot merge chunk stores from different worlds (this=" + worldUid
                             + ", other=" + other.worldUid + ")");
         }
-        if (other.store.isEmpty()) {
+        if (other.isEmpty()) {
             return;
         }
-        store.or(other.store);
+        for (int i = 0; i < Math.min(sections.length, other.sections.length); i++) {
+            final long[] otherSection = other.sections[i];
+            if (otherSection == null) {
+                continue;
+            }
+            if (sections[i] == null) {
+                sections[i] = otherSection.clone();
+                continue;
+            }
+            for (int word = 0; word < SECTION_WORDS; word++) {
+                sections[i][word] |= otherSection[word];
+            }
+        }
         dirty = true;
     }
 
+    private boolean getBit(int index) {
+        final long[] section = sections[index >> SECTION_SHIFT];
+        return section != null && (section[(index >> 6) & (SECTION_WORDS - 1)] & (1L << index)) != 0;
+    }
+
+    private void setBit(int index, boolean value) {
+        final int sectionIndex = index >> SECTION_SHIFT;
+        final int word = (index >> 6) & (SECTION_WORDS - 1);
+        long[] section = sections[sectionIndex];
+        if (value) {
+            if (section == null) {
+                section = new long[SECTION_WORDS];
+                sections[sectionIndex] = section;
+            }
+            section[word] |= 1L << index;
+        } else if (section != null) {
+            section[word] &= ~(1L << index);
+            // Release sections whose last marker was cleared
+            if (section[word] == 0 && isClear(section)) {
+                sections[sectionIndex] = null;
+            }
+        }
+    }
+
+    private static boolean isClear(long[] section) {
+        for (long word : section) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Flattens sections into one bitmap of the whole column, the layout of format versions 8
+     * and 9.
+     */
+    private static @NotNull BitSet toBitSet(long[][] sections) {
+        final long[] words = new long[sections.length * SECTION_WORDS];
+        for (int i = 0; i < sections.length; i++) {
+            if (sections[i] != null) {
+                System.arraycopy(sections[i], 0, words, i * SECTION_WORDS, SECTION_WORDS);
+            }
+        }
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Sets every marker of a whole-column bitmap; markers beyond the top section are dropped.
+     */
+    private void orBitSet(@NotNull BitSet bits) {
+        final long[] words = bits.toLongArray();
+        for (int w = 0; w < words.length; w++) {
+            final int sectionIndex = w / SECTION_WORDS;
+            if (sectionIndex >= sections.length) {
+                break;
+            }
+            if (words[w] == 0) {
+                continue;
+            }
+            if (sections[sectionIndex] == null) {
+                sections[sectionIndex] = new long[SECTION_WORDS];
+            }
+            sections[sectionIndex][w % SECTION_WORDS] |= words[w];
+        }
+    }
+
     private int coordToIndex(int x, int y, int z) {
         return coordToIndex(x, y, z, worldMin, worldMax);
     }
@@ -174,14 +275,77 @@ public class BitSetChunkStore implements ChunkStore {
         out.writeInt(worldMin);
         out.writeInt(worldMax);
 
-        // Store the byte array directly so we don't have the object type info overhead
-        byte[] storeData = store.toByteArray();
-        out.writeInt(storeData.length);
-        out.write(storeData);
+        // Only populated sections are stored, each as whichever container is smaller
+        int populatedSections = 0;
+        for (long[] section : sections) {
+            if (section != null) {
+                populatedSections++;
+            }
+        }
+        out.writeInt(populatedSections);
+        for (int i = 0; i < sections.length; i++) {
+            final long[] section = sections[i];
+            if (section == null) {
+                continue;
+            }
+            int cardinality = 0;
+            for (long word : section) {
+                cardinality += Long.bitCount(word);
+            }
+            out.writeShort(i);
+            out.writeShort(cardinality);
+            if (cardinality < ARRAY_CONTAINER_LIMIT) {
+                for (int word = 0; word < SECTION_WORDS; word++) {
+                    long bits = section[word];
+                    while (bits != 0) {
+                        out.writeShort(word * Long.SIZE + Long.numberOfTrailingZeros(bits));
+                        bits &= bits - 1;
+                    }
+                }
+            } else {
+                for (long word : section) {
+                    out.writeLong(word);
+                }
+            }
+        }
 
         dirty = false;
     }
 
+    private static long[][] readSections(@NotNull DataInputStream in,
+            int worldMin, int worldMax) throws IOException {
+        final long[][] sections = new long[Math.max(0, worldMax - worldMin) / 16 + 1][];
+        final int populatedSections = in.readInt();
+        if (populatedSections < 0 || populatedSections > sections.length) {
+            throw new IOException("Corrupt chunk store: " + populatedSections
+                    + " populated sections for " + sections.length + " sections");
+        }
+        for (int i = 0; i < populatedSections; i++) {
+            final int sectionIndex = in.readUnsignedShort();
+            final int cardinality = in.readUnsignedShort();
+            if (sectionIndex >= sections.length || cardinality > SECTION_BITS) {
+                throw new IOException("Corrupt chunk store section " + sectionIndex
+                        + " with " + cardinality + " markers");
+            }
+            final long[] section = new long[SECTION_WORDS];
+            if (cardinality < ARRAY_CONTAINER_LIMIT) {
+                for (int j = 0; j < cardinality; j++) {
+                    final int bit = in.readUnsignedShort();
+                    if (bit >= SECTION_BITS) {
+                        throw new IOException("Corrupt chunk store bit offset " + bit);
+                    }
+                    section[bit >> 6] |= 1L << bit;
+                }
+            } else {
+                for (int word = 0; word < SECTION_WORDS; word++) {
+                    section[word] = in.readLong();
+                }
+            }
+            sections[sectionIndex] = isClear(section) ? null : section;
+        }
+        return sections;
+    }
+
     private static @NotNull BitSetChunkStore deserialize(@NotNull DataInputStream in)
             throws IOException {
         int magic = in.readInt();
@@ -204,13 +368,33 @@ public class BitSetChunkStore implements ChunkStore {
             worldMin = in.readInt();
         }
         int worldMax = in.readInt();
-        byte[] temp = new byte[in.readInt()];
-        in.readFully(temp);
-        BitSet stored = BitSet.valueOf(temp);
+
+        long[][] storedSections = null;
+        BitSet stored;
+        if (fileVersionNumber >= 10) {
+            storedSections = readSections(in, worldMin, worldMax);
+            stored = null;
+        } else {
+            byte[] temp = new byte[in.readInt()];
+            in.readFully(temp);
+            stored = BitSet.valueOf(temp);
+        }
 
         int currentWorldMin = getWorldMin(worldUid);
         int currentWorldMax = getWorldMax(worldUid);
 
+        // Unchanged world height, the sections can be used as they are
+        if (storedSections != null && currentWorldMin == worldMin
+                && currentWorldMax == worldMax) {
+            BitSetChunkStore chunkStore = new BitSetChunkStore(worldUid, worldMin, worldMax, cx,
+                    cz);
+            System.arraycopy(storedSections, 0, chunkStore.sections, 0, storedSections.length);
+            return chunkStore;
+        }
+        if (stored == null) {
+            stored = toBitSet(storedSections);
+        }
+
         // The order in which the world height update code occurs here is important, the world max truncate math only holds up if done before adjusting for min changes
         // Lop off extra data if world max has shrunk
         if (currentWorldMax < worldMax) {
@@ -241,7 +425,7 @@ public class BitSetChunkStore implements ChunkStore {
 
         BitSetChunkStore chunkStore = new BitSetChunkStore(worldUid, currentWorldMin,
                 currentWorldMax, cx, cz);
-        chunkStore.store.or(stored);
+        chunkStore.orBitSet(stored);
         chunkStore.dirty = currentWorldMin != worldMin || currentWorldMax != worldMax;
 
         return chunkStore;
@@ -334,7 +518,7 @@ public class BitSetChunkStore implements ChunkStore {
                     for (int x = 0; x < 16; x++) {
                         for (int z = 0; z < 16; z++) {
                             for (int y = 0; y < worldMax && y < currentWorldMax; y++) {
-                                converted.store.set(converted.coordToIndex(x, y, z),
+                                converted.setBit(converted.coordToIndex(x, y, z),
                                         store[x][z][y]);
                             }
                         }
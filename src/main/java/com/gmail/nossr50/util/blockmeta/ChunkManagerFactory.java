@@ -7,7 +7,9 @@ public class ChunkManagerFactory {
     public static @NotNull ChunkManager getChunkManager() {
 
         if (PersistentDataConfig.getInstance().useBlockTracker()) {
-            return new HashChunkManager();
+            return new HashChunkManager(
+                    PersistentDataConfig.getInstance().useAsyncBlockTrackerIO(),
+                    PersistentDataConfig.getInstance().getRegionFileBackend());
         }
 
         return new NullChunkManager();
@@ -1,15 +1,23 @@
 package com.gmail.nossr50.util.blockmeta;
 
 import com.gmail.nossr50.mcMMO;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.block.Block;
@@ -17,37 +25,82 @@ import org.bukkit.block.BlockState;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+/**
+ * Tracks player-placed blocks in memory and persists them to per-region {@code .mcm} files.
+ *
+ * <p>Locking is striped by world plus 32x32 chunk region: every region owns its own lock, its
+ * region file and the chunk stores loaded from it. Block lookups on different region threads
+ * (Folia) or in different parts of the world therefore never contend, and the disk read done
+ * for a cold chunk only blocks callers touching the same region.
+ *
+ * <p>When constructed with asynchronous I/O enabled, region file access moves to a dedicated
+ * I/O thread: chunk stores are prefetched when their chunk loads, and dirty stores of unloaded
+ * chunks are queued for write-behind. A chunk that reloads while its write is still queued
+ * takes the queued store back instead of reading stale data from disk, and unloading it again
+ * coalesces into the same queued write. Once more than {@link #MAX_QUEUED_WRITES} writes are
+ * queued, unloads fall back to writing on the calling thread.
+ *
+ * <p>The I/O thread only holds a region's lock to claim work and to publish its result. The
+ * disk read or write in between runs under the region's separate file lock, so lookups of
+ * chunks already in memory never wait on it. A prefetched store is only published if the chunk
+ * was not loaded in the meantime. Locks are always taken region lock first, file lock second.
+ */
 public class HashChunkManager implements ChunkManager {
-    private final HashMap<CoordinateKey, McMMOSimpleRegionFile> regionMap = new HashMap<>(); // Tracks active regions
-    private final HashMap<CoordinateKey, HashSet<CoordinateKey>> chunkUsageMap = new HashMap<>(); // Tracks active chunks by region
-    private final HashMap<CoordinateKey, ChunkStore> chunkMap = new HashMap<>(); // Tracks active chunks
+    private static final int REGION_CHUNKS = 1024; // 32x32
+    private static final int MAX_QUEUED_WRITES = 4096;
+    private static final int MAX_QUEUED_PREFETCHES = 4096;
+    private static final long IO_SHUTDOWN_TIMEOUT_SECONDS = 30;
+    // Batch sort keys hold the block's position in the batch in their low bits
+    private static final int BATCH_INDEX_BITS = 20;
+    private static final long BATCH_INDEX_MASK = (1L << BATCH_INDEX_BITS) - 1;
+
+    private final ConcurrentHashMap<CoordinateKey, ChunkRegion> regionMap = new ConcurrentHashMap<>(); // Tracks active regions
+    private final @NotNull RegionFileBackend regionFileBackend;
+    private final @Nullable ExecutorService ioExecutor; // null when all I/O is synchronous
+    private final AtomicInteger queuedWrites = new AtomicInteger();
+    private final AtomicInteger queuedPrefetches = new AtomicInteger();
+
+    public HashChunkManager() {
+        this(false);
+    }
+
+    public HashChunkManager(boolean asyncIO) {
+        this(asyncIO, RegionFileBackend.RANDOM_ACCESS_FILE);
+    }
+
+    public HashChunkManager(boolean asyncIO, @NotNull RegionFileBackend regionFileBackend) {
+        this.regionFileBackend = regionFileBackend;
+        this.ioExecutor = asyncIO ? Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "mcMMO-BlockTracker-IO");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
 
     @Override
-    public synchronized void closeAll() {
-        // Save all dirty chunkstores; one failing chunk must not abort the rest of shutdown
-        for (ChunkStore chunkStore : chunkMap.values()) {
-            if (!chunkStore.isDirty()) {
-                continue;
-            }
-            World world = Bukkit.getWorld(chunkStore.getWorldId());
-            if (world == null) {
-                continue; // Oh well
-            }
+    public void closeAll() {
+        // Let queued prefetches and write-behind finish before the final synchronous save
+        if (ioExecutor != null) {
+            ioExecutor.shutdown();
             try {
-                writeChunkStore(world, chunkStore);
-            } catch (Exception e) {
-                logChunkSaveFailure(chunkStore.getChunkX(), chunkStore.getChunkZ(),
-                        world.getName(), e);
+                if (!ioExecutor.awaitTermination(IO_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    mcMMO.p.getLogger().warning("Timed out waiting for placed-block I/O to"
+                            + " finish, saving remaining chunks directly");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
         }
-        // Clear in memory chunks
-        chunkMap.clear();
-        chunkUsageMap.clear();
-        // Close all region files
-        for (McMMOSimpleRegionFile rf : regionMap.values()) {
-            closeQuietly(rf);
+
+        for (ChunkRegion region : new ArrayList<>(regionMap.values())) {
+            region.lock.lock();
+            try {
+                // Save all dirty chunkstores; one failing chunk must not abort the rest of shutdown
+                closeRegion(region, Bukkit.getWorld(region.key.worldID()));
+            } finally {
+                region.lock.unlock();
+            }
         }
-        regionMap.clear();
     }
 
     private static void logChunkSaveFailure(int cx, int cz, @NotNull String worldName,
@@ -56,7 +109,7 @@ public class HashChunkManager implements ChunkManager {
                 + cz + ") in world '" + worldName + "': " + e);
     }
 
-    private static void closeQuietly(@Nullable McMMOSimpleRegionFile regionFile) {
+    private static void closeQuietly(@Nullable McMMORegionFile regionFile) {
         if (regionFile == null) {
             return;
         }
@@ -67,44 +120,114 @@ public class HashChunkManager implements ChunkManager {
         }
     }
 
-    private synchronized @Nullable ChunkStore readChunkStore(@NotNull World world, int cx, int cz)
-            throws IOException {
-        final McMMOSimpleRegionFile rf = getWriteableSimpleRegionFile(world, cx, cz);
-        try (DataInputStream in = rf.getInputStream(cx, cz)) { // Get input stream for chunk
-            if (in == null) {
-                return null; // No chunk
+    private @Nullable ChunkStore readChunkStore(@NotNull World world,
+            @NotNull ChunkRegion region, int cx, int cz) throws IOException {
+        region.fileLock.lock();
+        try {
+            final McMMORegionFile rf = getReadableRegionFile(world, region);
+            if (rf == null) {
+                return null; // No region file, nothing was ever stored here
             }
-            return BitSetChunkStore.Serialization.readChunkStore(in); // Read in the chunkstore
+            try (DataInputStream in = rf.getInputStream(cx, cz)) { // Get input stream for chunk
+                if (in == null) {
+                    return null; // No chunk
+                }
+                return BitSetChunkStore.Serialization.readChunkStore(in); // Read in the chunkstore
+            }
+        } finally {
+            region.fileLock.unlock();
         }
     }
 
-    private synchronized void writeChunkStore(@NotNull World world, @NotNull ChunkStore data) {
+    private void writeChunkStore(@NotNull World world, @NotNull ChunkRegion region,
+            @NotNull ChunkStore data) {
         if (!data.isDirty()) {
             return; // Don't save unchanged data
         }
-        try {
-            McMMOSimpleRegionFile rf = getWriteableSimpleRegionFile(world, data.getChunkX(),
-                    data.getChunkZ());
-            try (DataOutputStream out = rf.getOutputStream(data.getChunkX(), data.getChunkZ())) {
-                BitSetChunkStore.Serialization.writeChunkStore(out, data);
-            }
-            data.setDirty(false);
+        writeChunkData(world, region, data.getChunkX(), data.getChunkZ(), serialize(data));
+        data.setDirty(false);
+    }
+
+    private static byte @NotNull [] serialize(@NotNull ChunkStore data) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            BitSetChunkStore.Serialization.writeChunkStore(out, data);
         } catch (IOException e) {
             throw new RuntimeException(
                     "Unable to write chunk meta data for " + data.getChunkX() + ", "
                             + data.getChunkZ(), e);
         }
+        return bytes.toByteArray();
     }
 
-    private synchronized @NotNull McMMOSimpleRegionFile getWriteableSimpleRegionFile(
-            @NotNull World world, int cx, int cz) {
-        CoordinateKey regionKey = toRegionKey(world.getUID(), cx, cz);
+    /**
+     * Writes serialized chunk data to the region file. Skipped once the region is retired,
+     * since retiring saves every store itself.
+     */
+    private void writeChunkData(@NotNull World world, @NotNull ChunkRegion region, int cx,
+            int cz, byte @NotNull [] data) {
+        region.fileLock.lock();
+        try {
+            if (region.regionFileClosed) {
+                return;
+            }
+            final McMMORegionFile rf = getWriteableSimpleRegionFile(world, region);
+            try (DataOutputStream out = rf.getOutputStream(cx, cz)) {
+                out.write(data);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(
+                    "Unable to write chunk meta data for " + cx + ", " + cz, e);
+        } finally {
+            region.fileLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the region file for reading: the file already open for the region, or the existing
+     * file opened read-only. Reads never create a region file. Callers must hold the file lock.
+     *
+     * @return the region file, or null if the region has none on disk or was retired
+     */
+    private @Nullable McMMORegionFile getReadableRegionFile(@NotNull World world,
+            @NotNull ChunkRegion region) {
+        if (region.regionFileClosed) {
+            return null;
+        }
+
+        if (region.regionFile == null) {
+            final File regionFile = getRegionFile(world, region.key);
+            if (!regionFile.isFile()) {
+                return null;
+            }
+            region.regionFile = regionFileBackend.openReadOnly(regionFile, region.key.x(),
+                    region.key.z());
+            region.regionFileReadOnly = true;
+        }
 
-        return regionMap.computeIfAbsent(regionKey, k -> {
-            File regionFile = getRegionFile(world, regionKey);
+        return region.regionFile;
+    }
+
+    /**
+     * Gets the region file for writing, creating it if needed. Callers must hold the file lock.
+     */
+    private @NotNull McMMORegionFile getWriteableSimpleRegionFile(@NotNull World world,
+            @NotNull ChunkRegion region) {
+        if (region.regionFileReadOnly) {
+            // Opened by a read, reopen for writing
+            closeQuietly(region.regionFile);
+            region.regionFile = null;
+            region.regionFileReadOnly = false;
+        }
+
+        if (region.regionFile == null) {
+            File regionFile = getRegionFile(world, region.key);
             regionFile.getParentFile().mkdirs();
-            return new McMMOSimpleRegionFile(regionFile, regionKey.x(), regionKey.z());
-        });
+            region.regionFile = regionFileBackend.open(regionFile, region.key.x(),
+                    region.key.z());
+        }
+
+        return region.regionFile;
     }
 
     /**
@@ -137,9 +260,10 @@ public class HashChunkManager implements ChunkManager {
                 "mcmmo_" + regionKey.x() + "_" + regionKey.z() + "_.mcm");
     }
 
-    private @Nullable ChunkStore loadChunk(int cx, int cz, @NotNull World world) {
+    private @Nullable ChunkStore loadChunk(int cx, int cz, @NotNull World world,
+            @NotNull ChunkRegion region) {
         try {
-            return readChunkStore(world, cx, cz);
+            return readChunkStore(world, region, cx, cz);
         } catch (Exception e) {
             mcMMO.p.getLogger().warning(
                     "Failed to read placed-block data for chunk (" + cx + ", " + cz
@@ -149,87 +273,373 @@ public class HashChunkManager implements ChunkManager {
         return null;
     }
 
-    private void unloadChunk(int cx, int cz, @NotNull World world) {
-        CoordinateKey chunkKey = toChunkKey(world.getUID(), cx, cz);
-        ChunkStore chunkStore = chunkMap.remove(chunkKey); // Remove from chunk map
-        if (chunkStore == null) {
+    @Override
+    public void chunkLoaded(int cx, int cz, @NotNull World world) {
+        if (ioExecutor == null || queuedPrefetches.get() >= MAX_QUEUED_PREFETCHES) {
+            return; // Prefetching is only a hint, the first lookup loads the chunk otherwise
+        }
+
+        final ChunkRegion region = lockRegion(world.getUID(), cx, cz);
+        try {
+            final int index = toRegionChunkIndex(cx, cz);
+            if (!isAbsent(region, index)) {
+                return; // Already in memory
+            }
+            region.prefetches.set(index);
+        } finally {
+            region.lock.unlock();
+        }
+
+        queuedPrefetches.incrementAndGet();
+        try {
+            ioExecutor.execute(() -> {
+                queuedPrefetches.decrementAndGet();
+                prefetchChunk(cx, cz, world);
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; drop the request so it does not keep the region open
+            queuedPrefetches.decrementAndGet();
+            cancelPrefetch(cx, cz, world);
+        }
+    }
+
+    private void cancelPrefetch(int cx, int cz, @NotNull World world) {
+        final ChunkRegion region = regionMap.get(toRegionKey(world.getUID(), cx, cz));
+        if (region == null) {
             return;
         }
 
+        region.lock.lock();
         try {
-            if (chunkStore.isDirty()) {
-                writeChunkStore(world, chunkStore);
+            region.prefetches.clear(toRegionChunkIndex(cx, cz));
+            retireIfIdle(region);
+        } finally {
+            region.lock.unlock();
+        }
+    }
+
+    /**
+     * Loads a chunk store on the I/O thread, unless the chunk was unloaded or looked up by a
+     * caller since the prefetch was requested. Only chunks with stored data are kept in memory,
+     * and a region without a region file is skipped without creating one.
+     *
+     * <p>The read runs without the region lock. A caller that loads the chunk meanwhile bumps
+     * its load generation, and the prefetched store is then dropped: it may predate changes the
+     * caller has made and saved since.
+     */
+    private void prefetchChunk(int cx, int cz, @NotNull World world) {
+        final int index = toRegionChunkIndex(cx, cz);
+        final int generation;
+        final ChunkRegion region = lockRegion(world.getUID(), cx, cz);
+        try {
+            if (!region.prefetches.get(index)) {
+                return;
             }
-        } catch (Exception e) {
-            // Log-and-degrade: a failed save must not escape into the chunk unload event or
-            // strand the region bookkeeping below
-            logChunkSaveFailure(cx, cz, world.getName(), e);
+            region.prefetches.clear(index);
+            if (!isAbsent(region, index)) {
+                return;
+            }
+            generation = region.loadGenerations[index];
+            region.ioInFlight++;
         } finally {
-            CoordinateKey regionKey = toRegionKey(world.getUID(), cx, cz);
-            HashSet<CoordinateKey> chunkKeys = chunkUsageMap.get(regionKey);
-            if (chunkKeys != null) {
-                chunkKeys.remove(chunkKey); // remove from region file in-use set
-                // If it was the last chunk in the region, close the region file and forget it
-                if (chunkKeys.isEmpty()) {
-                    chunkUsageMap.remove(regionKey);
-                    closeQuietly(regionMap.remove(regionKey));
-                }
+            retireIfIdle(region);
+            region.lock.unlock();
+        }
+
+        final ChunkStore chunkStore = loadChunk(cx, cz, world, region);
+
+        region.lock.lock();
+        try {
+            region.ioInFlight--;
+            if (chunkStore != null && !region.closed && isAbsent(region, index)
+                    && region.loadGenerations[index] == generation) {
+                region.chunks[index] = chunkStore;
+                region.loadedChunks++;
             }
+        } finally {
+            retireIfIdle(region);
+            region.lock.unlock();
         }
     }
 
+    /**
+     * Whether the chunk has no store in memory, queued for writing or being written. Callers
+     * must hold the region lock.
+     */
+    private static boolean isAbsent(@NotNull ChunkRegion region, int index) {
+        return region.chunks[index] == null && region.pendingWrites[index] == null
+                && !region.writesInFlight.get(index);
+    }
+
     @Override
-    public synchronized void chunkUnloaded(int cx, int cz, @NotNull World world) {
-        unloadChunk(cx, cz, world);
+    public void chunkUnloaded(int cx, int cz, @NotNull World world) {
+        final ChunkRegion region = regionMap.get(toRegionKey(world.getUID(), cx, cz));
+        if (region == null) {
+            return;
+        }
+
+        boolean queueWrite = false;
+        region.lock.lock();
+        try {
+            if (region.closed) {
+                return;
+            }
+
+            final int index = toRegionChunkIndex(cx, cz);
+            region.prefetches.clear(index);
+            final ChunkStore chunkStore = region.chunks[index];
+            if (chunkStore == null) {
+                return;
+            }
+            region.chunks[index] = null;
+            region.loadedChunks--;
+
+            if (!chunkStore.isDirty()) {
+                return;
+            }
+
+            if (region.pendingWrites[index] != null) {
+                // Coalesce into the write that is already queued for this chunk
+                region.pendingWrites[index] = chunkStore;
+                return;
+            }
+
+            // While an earlier write of this chunk is in flight, only the I/O thread may write
+            // it again, or the older data could land last
+            if (ioExecutor != null && (queuedWrites.get() < MAX_QUEUED_WRITES
+                    || region.writesInFlight.get(index))) {
+                region.pendingWrites[index] = chunkStore;
+                region.pendingWriteCount++;
+                queueWrite = true;
+                return;
+            }
+
+            try {
+                writeChunkStore(world, region, chunkStore);
+            } catch (Exception e) {
+                // Log-and-degrade: a failed save must not escape into the chunk unload event or
+                // strand the region bookkeeping
+                logChunkSaveFailure(cx, cz, world.getName(), e);
+            }
+        } finally {
+            retireIfIdle(region);
+            region.lock.unlock();
+        }
+
+        if (queueWrite) {
+            queueWriteBehind(cx, cz, world);
+        }
+    }
+
+    private void queueWriteBehind(int cx, int cz, @NotNull World world) {
+        queuedWrites.incrementAndGet();
+        try {
+            ioExecutor.execute(() -> {
+                queuedWrites.decrementAndGet();
+                flushPendingWrite(cx, cz, world);
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down, write it out here instead
+            queuedWrites.decrementAndGet();
+            flushPendingWrite(cx, cz, world);
+        }
+    }
+
+    /**
+     * Writes out the queued store of an unloaded chunk, unless the chunk was reloaded (and took
+     * the store back) or its region was closed (which saves it) in the meantime.
+     *
+     * <p>The store is serialized under the region lock and written without it. Until the write
+     * is done the store stays reclaimable, and dirty, so a chunk reloading meanwhile takes it
+     * back instead of reading the region file before the write lands.
+     */
+    private void flushPendingWrite(int cx, int cz, @NotNull World world) {
+        final ChunkRegion region = regionMap.get(toRegionKey(world.getUID(), cx, cz));
+        if (region == null) {
+            return;
+        }
+
+        final int index = toRegionChunkIndex(cx, cz);
+        final ChunkStore chunkStore;
+        final byte[] data;
+        region.lock.lock();
+        try {
+            chunkStore = region.pendingWrites[index];
+            // With a write of this chunk still in flight (only when flushing inline during
+            // shutdown), leave the store queued for the region close to save
+            if (region.closed || chunkStore == null || region.writesInFlight.get(index)) {
+                return;
+            }
+            region.pendingWrites[index] = null;
+            region.pendingWriteCount--;
+
+            try {
+                data = serialize(chunkStore);
+            } catch (Exception e) {
+                logChunkSaveFailure(cx, cz, world.getName(), e);
+                return;
+            }
+            region.writing[index] = chunkStore;
+            region.writesInFlight.set(index);
+            region.ioInFlight++;
+        } finally {
+            retireIfIdle(region);
+            region.lock.unlock();
+        }
+
+        try {
+            writeChunkData(world, region, cx, cz, data);
+        } catch (Exception e) {
+            logChunkSaveFailure(cx, cz, world.getName(), e);
+        }
+
+        region.lock.lock();
+        try {
+            if (region.writing[index] == chunkStore) {
+                region.writing[index] = null;
+            }
+            region.writesInFlight.clear(index);
+            region.ioInFlight--;
+        } finally {
+            retireIfIdle(region);
+            region.lock.unlock();
+        }
     }
 
     @Override
-    public synchronized void unloadWorld(@NotNull World world) {
+    public void unloadWorld(@NotNull World world) {
         UUID wID = world.getUID();
 
-        // Save and remove all the chunks
-        List<CoordinateKey> chunkKeys = new ArrayList<>(chunkMap.keySet());
-        for (CoordinateKey chunkKey : chunkKeys) {
-            if (!wID.equals(chunkKey.worldID())) {
+        // Save and remove all the chunks, then close the region files
+        for (ChunkRegion region : new ArrayList<>(regionMap.values())) {
+            if (!wID.equals(region.key.worldID())) {
                 continue;
             }
-            ChunkStore chunkStore = chunkMap.remove(chunkKey);
-            if (!chunkStore.isDirty()) {
+            region.lock.lock();
+            try {
+                closeRegion(region, world);
+            } finally {
+                region.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Closes the region once nothing is loaded, queued for writing, being read or written, or
+     * waiting on a prefetch. Callers must hold the region lock.
+     */
+    private void retireIfIdle(@NotNull ChunkRegion region) {
+        if (region.closed || region.loadedChunks > 0 || region.pendingWriteCount > 0
+                || region.ioInFlight > 0 || !region.prefetches.isEmpty()) {
+            return;
+        }
+
+        region.closed = true;
+        regionMap.remove(region.key, region);
+        closeRegionFile(region);
+    }
+
+    /**
+     * Saves every dirty chunk of a region, including those queued for write-behind, closes its
+     * file and retires it from the region map. Callers must hold the region lock.
+     */
+    private void closeRegion(@NotNull ChunkRegion region, @Nullable World world) {
+        if (region.closed) {
+            return;
+        }
+
+        if (world != null) { // Oh well otherwise
+            saveChunkStores(region, world, region.pendingWrites);
+            saveChunkStores(region, world, region.writing);
+            saveChunkStores(region, world, region.chunks);
+        }
+
+        region.closed = true;
+        regionMap.remove(region.key, region);
+        closeRegionFile(region);
+    }
+
+    /**
+     * Closes the region file for good, once an I/O thread still using it is done. Reads and
+     * writes the I/O thread attempts afterward are skipped, the region close saved their data.
+     */
+    private static void closeRegionFile(@NotNull ChunkRegion region) {
+        region.fileLock.lock();
+        try {
+            region.regionFileClosed = true;
+            closeQuietly(region.regionFile);
+            region.regionFile = null;
+        } finally {
+            region.fileLock.unlock();
+        }
+    }
+
+    private void saveChunkStores(@NotNull ChunkRegion region, @NotNull World world,
+            ChunkStore[] chunkStores) {
+        for (ChunkStore chunkStore : chunkStores) {
+            if (chunkStore == null || !chunkStore.isDirty()) {
                 continue;
             }
             try {
-                writeChunkStore(world, chunkStore);
+                writeChunkStore(world, region, chunkStore);
             } catch (Exception e) {
-                logChunkSaveFailure(chunkKey.x(), chunkKey.z(), world.getName(), e);
+                logChunkSaveFailure(chunkStore.getChunkX(), chunkStore.getChunkZ(),
+                        world.getName(), e);
             }
         }
-        // Clear all the region files
-        List<CoordinateKey> regionKeys = new ArrayList<>(regionMap.keySet());
-        for (CoordinateKey regionKey : regionKeys) {
-            if (!wID.equals(regionKey.worldID())) {
-                continue;
+    }
+
+    /**
+     * Looks up (or creates) the region holding the given chunk and acquires its lock. A region
+     * that was retired by another thread between lookup and locking is skipped and looked up
+     * again, so the returned region is always live. Callers must release the lock.
+     */
+    private @NotNull ChunkRegion lockRegion(@NotNull UUID worldUid, int cx, int cz) {
+        final CoordinateKey regionKey = toRegionKey(worldUid, cx, cz);
+        while (true) {
+            final ChunkRegion region = regionMap.computeIfAbsent(regionKey, ChunkRegion::new);
+            region.lock.lock();
+            if (!region.closed) {
+                return region;
             }
-            closeQuietly(regionMap.remove(regionKey));
-            chunkUsageMap.remove(regionKey);
+            region.lock.unlock();
         }
     }
 
     /**
-     * Gets the chunk store for the chunk, loading it from disk or creating a fresh one when
-     * absent, and marks the chunk in-use for region file tracking.
+     * Gets the chunk store for the chunk, reclaiming it from the write-behind queue, loading it
+     * from disk or creating a fresh one when absent, and marks the chunk in-use for region file
+     * tracking. Callers must hold the region lock.
      */
     private @NotNull ChunkStore getOrLoadChunkStore(@NotNull World world,
-            @NotNull CoordinateKey chunkKey) {
-        return chunkMap.computeIfAbsent(chunkKey, k -> {
-            // Mark chunk in-use for region tracking
-            chunkUsageMap.computeIfAbsent(
-                    toRegionKey(chunkKey.worldID(), chunkKey.x(), chunkKey.z()),
-                    j -> new HashSet<>()).add(chunkKey);
+            @NotNull ChunkRegion region, int cx, int cz) {
+        final int index = toRegionChunkIndex(cx, cz);
+        ChunkStore chunkStore = region.chunks[index];
+        if (chunkStore != null) {
+            return chunkStore;
+        }
+
+        region.prefetches.clear(index);
+        region.loadGenerations[index]++; // Drops a prefetch of this chunk still being read
+        chunkStore = region.pendingWrites[index];
+        if (chunkStore != null) {
+            // Still dirty, so it is written again when the chunk next unloads
+            region.pendingWrites[index] = null;
+            region.pendingWriteCount--;
+        } else if (region.writing[index] != null) {
+            // Being written on the I/O thread; also still dirty
+            chunkStore = region.writing[index];
+            region.writing[index] = null;
+        } else {
             // Load from file, or create a new chunkstore when the chunk has no stored data
-            ChunkStore loaded = loadChunk(chunkKey.x(), chunkKey.z(), world);
-            return loaded != null ? loaded
-                    : new BitSetChunkStore(world, chunkKey.x(), chunkKey.z());
-        });
+            chunkStore = loadChunk(cx, cz, world, region);
+            if (chunkStore == null) {
+                chunkStore = new BitSetChunkStore(world, cx, cz);
+            }
+        }
+        region.chunks[index] = chunkStore;
+        region.loadedChunks++;
+        return chunkStore;
     }
 
     /**
@@ -244,68 +654,166 @@ public class HashChunkManager implements ChunkManager {
         return Math.abs(worldCoordinate) % 16;
     }
 
-    private synchronized boolean isIneligible(int x, int y, int z, @NotNull World world) {
-        CoordinateKey chunkKey = blockCoordinateToChunkKey(world.getUID(), x, y, z);
-        ChunkStore check = getOrLoadChunkStore(world, chunkKey);
-
-        return check.isTrue(toChunkLocal(x), y, toChunkLocal(z));
+    private boolean isIneligible(int x, int y, int z, @NotNull World world) {
+        final int cx = x >> 4;
+        final int cz = z >> 4;
+        final ChunkRegion region = lockRegion(world.getUID(), cx, cz);
+        try {
+            ChunkStore check = getOrLoadChunkStore(world, region, cx, cz);
+            return check.isTrue(toChunkLocal(x), y, toChunkLocal(z));
+        } finally {
+            region.lock.unlock();
+        }
     }
 
     @Override
-    public synchronized boolean isIneligible(@NotNull Block block) {
+    public boolean isIneligible(@NotNull Block block) {
         return isIneligible(block.getX(), block.getY(), block.getZ(), block.getWorld());
     }
 
     @Override
-    public synchronized boolean isIneligible(@NotNull BlockState blockState) {
+    public boolean isIneligible(@NotNull BlockState blockState) {
         return isIneligible(blockState.getX(), blockState.getY(), blockState.getZ(),
                 blockState.getWorld());
     }
 
     @Override
-    public synchronized boolean isEligible(@NotNull Block block) {
+    public boolean isEligible(@NotNull Block block) {
         return !isIneligible(block);
     }
 
     @Override
-    public synchronized boolean isEligible(@NotNull BlockState blockState) {
+    public boolean isEligible(@NotNull BlockState blockState) {
         return !isIneligible(blockState);
     }
 
     @Override
-    public synchronized void setIneligible(@NotNull Block block) {
+    public void setIneligible(@NotNull Block block) {
         set(block.getX(), block.getY(), block.getZ(), block.getWorld(), true);
     }
 
     @Override
-    public synchronized void setIneligible(@NotNull BlockState blockState) {
+    public void setIneligible(@NotNull BlockState blockState) {
         set(blockState.getX(), blockState.getY(), blockState.getZ(), blockState.getWorld(), true);
     }
 
     @Override
-    public synchronized void setEligible(@NotNull Block block) {
+    public void setEligible(@NotNull Block block) {
         set(block.getX(), block.getY(), block.getZ(), block.getWorld(), false);
     }
 
     @Override
-    public synchronized void setEligible(@NotNull BlockState blockState) {
+    public void setEligible(@NotNull BlockState blockState) {
         set(blockState.getX(), blockState.getY(), blockState.getZ(), blockState.getWorld(), false);
     }
 
-    private synchronized void set(int x, int y, int z, @NotNull World world, boolean value) {
-        CoordinateKey chunkKey = blockCoordinateToChunkKey(world.getUID(), x, y, z);
-        ChunkStore cStore = getOrLoadChunkStore(world, chunkKey);
+    private void set(int x, int y, int z, @NotNull World world, boolean value) {
+        final int cx = x >> 4;
+        final int cz = z >> 4;
+        final ChunkRegion region = lockRegion(world.getUID(), cx, cz);
+        try {
+            ChunkStore cStore = getOrLoadChunkStore(world, region, cx, cz);
+            cStore.set(toChunkLocal(x), y, toChunkLocal(z), value);
+        } finally {
+            region.lock.unlock();
+        }
+    }
+
+    @Override
+    public @NotNull BitSet isIneligible(@NotNull Collection<? extends Block> blocks) {
+        if (blocks.size() > BATCH_INDEX_MASK) {
+            return ChunkManager.super.isIneligible(blocks); // Too many to number in a sort key
+        }
+
+        final BitSet ineligible = new BitSet(blocks.size());
+        visitByChunk(blocks, (chunkStore, index, x, y, z) -> {
+            if (chunkStore.isTrue(x, y, z)) {
+                ineligible.set(index);
+            }
+        });
+        return ineligible;
+    }
+
+    @Override
+    public void setIneligible(@NotNull Collection<? extends Block> blocks) {
+        if (blocks.size() > BATCH_INDEX_MASK) {
+            ChunkManager.super.setIneligible(blocks);
+            return;
+        }
 
-        cStore.set(toChunkLocal(x), y, toChunkLocal(z), value);
+        visitByChunk(blocks, (chunkStore, index, x, y, z) -> chunkStore.set(x, y, z, true));
     }
 
-    private @NotNull CoordinateKey blockCoordinateToChunkKey(@NotNull UUID worldUid, int x, int y,
-            int z) {
-        return toChunkKey(worldUid, x >> 4, z >> 4);
+    /**
+     * Visits every block of a batch with its chunk store, grouped by region and then by chunk:
+     * each region lock is taken once per group instead of once per block, and each chunk store
+     * is looked up once per chunk. Blocks are visited in that grouped order, not in the order of
+     * the collection; at most one region lock is held at a time.
+     */
+    private void visitByChunk(@NotNull Collection<? extends Block> blocks,
+            @NotNull ChunkStoreVisitor visitor) {
+        final Block[] batch = blocks.toArray(new Block[0]);
+
+        // Region x and z fit in 17 bits each and the chunk within the region in 10, which
+        // leaves 20 bits for the position in the batch
+        final long[] order = new long[batch.length];
+        for (int i = 0; i < batch.length; i++) {
+            final int cx = batch[i].getX() >> 4;
+            final int cz = batch[i].getZ() >> 4;
+            order[i] = ((long) ((cx >> 5) & 0x1FFFF) << 47)
+                    | ((long) ((cz >> 5) & 0x1FFFF) << 30)
+                    | ((long) toRegionChunkIndex(cx, cz) << BATCH_INDEX_BITS)
+                    | i;
+        }
+        Arrays.sort(order);
+
+        ChunkRegion region = null;
+        ChunkStore chunkStore = null;
+        try {
+            for (long key : order) {
+                final int index = (int) (key & BATCH_INDEX_MASK);
+                final Block block = batch[index];
+                final World world = block.getWorld();
+                final int x = block.getX();
+                final int z = block.getZ();
+                final int cx = x >> 4;
+                final int cz = z >> 4;
+
+                if (region == null || region.key.x() != cx >> 5 || region.key.z() != cz >> 5
+                        || !region.key.worldID().equals(world.getUID())) {
+                    if (region != null) {
+                        region.lock.unlock();
+                        region = null; // Not held if locking the next one fails
+                    }
+                    region = lockRegion(world.getUID(), cx, cz);
+                    chunkStore = null;
+                }
+
+                if (chunkStore == null || chunkStore.getChunkX() != cx
+                        || chunkStore.getChunkZ() != cz) {
+                    chunkStore = getOrLoadChunkStore(world, region, cx, cz);
+                }
+
+                visitor.visit(chunkStore, index, toChunkLocal(x), block.getY(), toChunkLocal(z));
+            }
+        } finally {
+            if (region != null) {
+                region.lock.unlock();
+            }
+        }
     }
 
-    private @NotNull CoordinateKey toChunkKey(@NotNull UUID worldUid, int cx, int cz) {
-        return new CoordinateKey(worldUid, cx, cz);
+    /**
+     * Receives one block of a batch: its chunk store, its position in the batch and its
+     * chunk-local coordinates. Called with the region lock held.
+     */
+    @FunctionalInterface
+    private interface ChunkStoreVisitor {
+        void visit(@NotNull ChunkStore chunkStore, int index, int x, int y, int z);
+    }
+
+    private static int toRegionChunkIndex(int cx, int cz) {
+        return ((cx & 0x1F) << 5) + (cz & 0x1F); // Same layout as the region file header
     }
 
     private @NotNull CoordinateKey toRegionKey(@NotNull UUID worldUid, int cx, int cz) {
@@ -317,4 +825,36 @@ public class HashChunkManager implements ChunkManager {
 
     private record CoordinateKey(@NotNull UUID worldID, int x, int z) {
     }
+
+    /**
+     * A 32x32 chunk region: the lock stripe, the chunk stores loaded from it, the stores of
+     * unloaded chunks still queued for write-behind, and its lazily opened region file. The
+     * region file is guarded by {@link #fileLock}, all other mutable state by {@link #lock}.
+     */
+    private static final class ChunkRegion {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ReentrantLock fileLock = new ReentrantLock();
+        private final @NotNull CoordinateKey key;
+        private final ChunkStore[] chunks = new ChunkStore[REGION_CHUNKS];
+        private final ChunkStore[] pendingWrites = new ChunkStore[REGION_CHUNKS];
+        // Stores the I/O thread is writing out, until written or reclaimed by a reload
+        private final ChunkStore[] writing = new ChunkStore[REGION_CHUNKS];
+        private final BitSet writesInFlight = new BitSet(REGION_CHUNKS); // Even once reclaimed
+        private final BitSet prefetches = new BitSet(REGION_CHUNKS); // Chunks awaiting prefetch
+        private final int[] loadGenerations = new int[REGION_CHUNKS];
+        private int loadedChunks;
+        private int pendingWriteCount;
+        private int ioInFlight; // Reads and writes running without the region lock
+        // Set once the region is retired from the region map; lockers must look it up again
+        private boolean closed;
+        private @Nullable McMMORegionFile regionFile;
+        // Set when regionFile was opened read-only by a lookup; writes reopen it
+        private boolean regionFileReadOnly;
+        // Set once the region file is closed for good; later reads and writes are skipped
+        private boolean regionFileClosed;
+
+        private ChunkRegion(@NotNull CoordinateKey key) {
+            this.key = key;
+        }
+    }
 }
@@ -0,0 +1,379 @@
+package com.gmail.nossr50.util.blockmeta;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.concurrent.locks.StampedLock;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@link FileChannel} based region file, format-compatible with {@link McMMOSimpleRegionFile}.
+ *
+ * <p>Reads use positional I/O under an optimistic {@link StampedLock} stamp, so concurrent reads
+ * never block each other and only retry under a read lock if a write raced them. Writes hand the
+ * compression buffer straight to the channel and update both header entries of a chunk (its
+ * segment index and byte length) in one positional write of the in-memory header mirror.
+ *
+ * <p>{@link HashChunkManager} holds the region's file lock around every region file access, so
+ * it never reads one file from several threads at once; there the gain over
+ * {@link McMMOSimpleRegionFile} is positional I/O without seeks and the single header write.
+ * The optimistic reads keep the file safe for callers that do share it between threads.
+ *
+ * <p>As with any {@link FileChannel}, interrupting a thread blocked in I/O closes the channel.
+ */
+public class McMMOChannelRegionFile implements McMMORegionFile {
+    private static final int DEFAULT_SEGMENT_EXPONENT = 10;
+    private static final int DEFAULT_SEGMENT_SIZE = 1 << DEFAULT_SEGMENT_EXPONENT; // 1024
+    private static final int RESERVED_HEADER_BYTES = 12288; // This needs to be divisible by segment size
+    private static final int NUM_CHUNKS = 1024; // 32x32
+    private static final int SEEK_CHUNK_SEGMENT_INDICES = 0;
+    private static final int SEEK_CHUNK_BYTE_LENGTHS = 4096;
+    private static final int SEEK_FILE_INFO = 8192;
+
+    private final StampedLock lock = new StampedLock();
+    // Chunk info, mirrored byte for byte by the first SEEK_FILE_INFO bytes of chunkTables
+    private final int[] chunkSegmentIndex = new int[NUM_CHUNKS];
+    private final int[] chunkNumBytes = new int[NUM_CHUNKS];
+    private final ByteBuffer chunkTables = ByteBuffer.allocate(SEEK_FILE_INFO);
+
+    // Segments
+    private final BitSet segments = new BitSet(); // Used to denote which segments are in use or not
+
+    // Segment size/mask
+    private final int segmentExponent;
+    private final int segmentMask;
+
+    // File location
+    private final @NotNull File parent;
+    // File access
+    private final FileChannel channel;
+    private final boolean readOnly;
+    private volatile long fileLength;
+
+    // Region index
+    private final int rx;
+    private final int rz;
+
+    public McMMOChannelRegionFile(@NotNull File f, int rx, int rz) {
+        this(f, rx, rz, false);
+    }
+
+    /**
+     * Opens a region file.
+     *
+     * @param f the region file
+     * @param rx region x coordinate
+     * @param rz region z coordinate
+     * @param readOnly open an existing file for reading only; it is never created, extended or
+     * written, and {@link #getOutputStream} fails
+     */
+    public McMMOChannelRegionFile(@NotNull File f, int rx, int rz, boolean readOnly) {
+        this.rx = rx;
+        this.rz = rz;
+        this.parent = f;
+        this.readOnly = readOnly;
+
+        FileChannel fileChannel = null;
+        try {
+            fileChannel = readOnly
+                    ? FileChannel.open(parent.toPath(), StandardOpenOption.READ)
+                    : FileChannel.open(parent.toPath(), StandardOpenOption.READ,
+                            StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+
+            // New file, write out header bytes
+            if (fileChannel.size() < RESERVED_HEADER_BYTES) {
+                if (readOnly) {
+                    throw new IOException("Truncated header, " + fileChannel.size() + " bytes");
+                }
+                final ByteBuffer newHeader = ByteBuffer.allocate(RESERVED_HEADER_BYTES);
+                newHeader.putInt(SEEK_FILE_INFO, DEFAULT_SEGMENT_EXPONENT);
+                writeFully(fileChannel, newHeader, 0);
+            }
+
+            // Read the whole header in one go
+            final ByteBuffer header = ByteBuffer.allocate(RESERVED_HEADER_BYTES);
+            readFully(fileChannel, header, 0);
+
+            this.segmentExponent = header.getInt(SEEK_FILE_INFO);
+            if (segmentExponent < 0 || segmentExponent > 30) {
+                throw new IOException("Corrupt segment exponent " + segmentExponent);
+            }
+            this.segmentMask = (1 << segmentExponent) - 1;
+
+            // Mark reserved segments reserved
+            segments.set(0, bytesToSegments(RESERVED_HEADER_BYTES), true);
+
+            // Read chunk header data
+            for (int i = 0; i < NUM_CHUNKS; i++) {
+                chunkSegmentIndex[i] = header.getInt(SEEK_CHUNK_SEGMENT_INDICES + 4 * i);
+                chunkNumBytes[i] = header.getInt(SEEK_CHUNK_BYTE_LENGTHS + 4 * i);
+                if (chunkSegmentIndex[i] < 0 || chunkNumBytes[i] < 0) {
+                    throw new IOException("Corrupt chunk header at index " + i + " (segment="
+                            + chunkSegmentIndex[i] + ", bytes=" + chunkNumBytes[i] + ")");
+                }
+                markChunkSegments(i, true);
+            }
+            chunkTables.put(0, header, 0, SEEK_FILE_INFO);
+
+            this.channel = fileChannel;
+            if (readOnly) {
+                fileLength = fileChannel.size();
+            } else {
+                fixFileLength();
+            }
+        } catch (IOException | RuntimeException e) {
+            // A failed open must not keep the handle; a leaked channel keeps the region file
+            // locked on Windows until it is garbage collected
+            if (fileChannel != null) {
+                try {
+                    fileChannel.close();
+                } catch (IOException ignored) {
+                }
+            }
+            throw new RuntimeException("Unable to open region file " + parent, e);
+        }
+    }
+
+    @Override
+    public @NotNull DataOutputStream getOutputStream(int x, int z) {
+        if (readOnly) {
+            throw new IllegalStateException("Region file " + parent + " is open read-only");
+        }
+        int index = getChunkIndex(x, z); // Get chunk index
+        return new DataOutputStream(new DeflaterOutputStream(new ChannelChunkBuffer(index)));
+    }
+
+    private class ChannelChunkBuffer extends ByteArrayOutputStream {
+        private final int index;
+
+        ChannelChunkBuffer(int index) {
+            super(DEFAULT_SEGMENT_SIZE);
+            this.index = index;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Wraps the buffer in place, no copy
+            writeChunk(index, ByteBuffer.wrap(buf, 0, count));
+        }
+    }
+
+    private void writeChunk(int index, @NotNull ByteBuffer data) throws IOException {
+        final long stamp = lock.writeLock();
+        try {
+            final int size = data.remaining();
+            int oldSegmentIndex = chunkSegmentIndex[index]; // Get current segment index
+            markChunkSegments(index, false); // Clear our old segments
+            int newSegmentIndex = findContiguousSegments(oldSegmentIndex,
+                    size); // Find contiguous segments to save to
+            final long position = (long) newSegmentIndex << segmentExponent;
+            writeFully(channel, data, position); // Write data
+            fileLength = Math.max(fileLength, position + size);
+            // update in memory info
+            chunkSegmentIndex[index] = newSegmentIndex;
+            chunkNumBytes[index] = size;
+            // Mark segments in use
+            markChunkSegments(index, true);
+            // Update header info: one write spanning the segment index and byte length entries
+            final int headerStart = SEEK_CHUNK_SEGMENT_INDICES + 4 * index;
+            final int headerEnd = SEEK_CHUNK_BYTE_LENGTHS + 4 * index + 4;
+            chunkTables.putInt(headerStart, newSegmentIndex);
+            chunkTables.putInt(SEEK_CHUNK_BYTE_LENGTHS + 4 * index, size);
+            writeFully(channel, chunkTables.slice(headerStart, headerEnd - headerStart),
+                    headerStart);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public @Nullable DataInputStream getInputStream(int x, int z) throws IOException {
+        int index = getChunkIndex(x, z); // Get chunk index
+
+        // Optimistic read: only trust what was read if no write happened meanwhile
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                final byte[] data = readChunk(index, x, z);
+                if (lock.validate(stamp)) {
+                    return toInputStream(data);
+                }
+            } catch (IOException e) {
+                if (lock.validate(stamp)) {
+                    throw e; // A genuine failure rather than a read torn by a concurrent write
+                }
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            return toInputStream(readChunk(index, x, z));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private byte @Nullable [] readChunk(int index, int x, int z) throws IOException {
+        int byteLength = chunkNumBytes[index]; // Get byte length of data
+
+        // No bytes
+        if (byteLength == 0) {
+            return null;
+        }
+
+        if (byteLength < 0 || byteLength > fileLength) {
+            throw new IOException("Corrupt chunk data in " + parent + " for chunk (" + x + ", "
+                    + z + "): impossible byte length " + byteLength);
+        }
+
+        final ByteBuffer data = ByteBuffer.allocate(byteLength);
+        readFully(channel, data, (long) chunkSegmentIndex[index] << segmentExponent);
+        return data.array();
+    }
+
+    private static @Nullable DataInputStream toInputStream(byte @Nullable [] data) {
+        if (data == null) {
+            return null;
+        }
+
+        return new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)));
+    }
+
+    @Override
+    public void close() {
+        final long stamp = lock.writeLock();
+        try {
+            channel.close();
+        } catch (IOException ioe) {
+            throw new RuntimeException("Unable to close region file " + parent, ioe);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static void readFully(@NotNull FileChannel fileChannel, @NotNull ByteBuffer buffer,
+            long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            final int read = fileChannel.read(buffer, offset);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of region file at " + offset);
+            }
+            offset += read;
+        }
+    }
+
+    private static void writeFully(@NotNull FileChannel fileChannel, @NotNull ByteBuffer buffer,
+            long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += fileChannel.write(buffer, offset);
+        }
+    }
+
+    private void markChunkSegments(int index, boolean inUse) {
+        // No bytes used
+        if (chunkNumBytes[index] == 0) {
+            return;
+        }
+
+        int start = chunkSegmentIndex[index];
+        int end = start + bytesToSegments(chunkNumBytes[index]);
+
+        // If we are writing, assert we don't write over any in-use segments
+        if (inUse) {
+            int nextSetBit = segments.nextSetBit(start);
+            if (nextSetBit != -1 && nextSetBit < end) {
+                throw new IllegalStateException("Attempting to overwrite an in-use segment");
+            }
+        }
+
+        segments.set(start, end, inUse);
+    }
+
+    private void fixFileLength() throws IOException {
+        long length = channel.size();
+        int extend = (int) (-length
+                & segmentMask); // how many bytes do we need to be divisible by segment size
+
+        // Append bytes
+        if (extend > 0) {
+            writeFully(channel, ByteBuffer.allocate(extend), length);
+        }
+        fileLength = length + extend;
+    }
+
+    private int findContiguousSegments(int hint, int size) {
+        if (size == 0) {
+            return 0; // Zero byte data will not claim any chunks anyways
+        }
+
+        int segments = bytesToSegments(size); // Number of segments we need
+
+        // Check the hinted location (previous location of chunk) most of the time we can fit where we were.
+        boolean oldFree = true;
+        for (int i = hint; i < this.segments.size() && i < hint + segments; i++) {
+            if (this.segments.get(i)) {
+                oldFree = false;
+                break;
+            }
+        }
+
+        // We fit!
+        if (oldFree) {
+            return hint;
+        }
+
+        // Find somewhere to put us
+        int start = 0;
+        int current = 0;
+
+        while (current < this.segments.size()) {
+            boolean segmentInUse = this.segments.get(current); // check if segment is in use
+            current++; // Move up a segment
+
+            // Move up start if the segment was in use
+            if (segmentInUse) {
+                start = current;
+            }
+
+            // If we have enough segments now, return
+            if (current - start >= segments) {
+                return start;
+            }
+        }
+
+        // Return the end of the segments (will expand to fit them)
+        return start;
+    }
+
+    private int bytesToSegments(int bytes) {
+        if (bytes <= 0) {
+            return 1;
+        }
+
+        return ((bytes - 1) >> segmentExponent) + 1; // ((bytes - 1) / segmentSize) + 1
+    }
+
+    private int getChunkIndex(int x, int z) {
+        if (rx != (x >> 5) || rz != (z >> 5)) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        x = x & 0x1F; // 5 bits (mod 32)
+        z = z & 0x1F; // 5 bits (mod 32)
+
+        return (x << 5) + z; // x in the upper 5 bits, z in the lower 5 bits
+    }
+}
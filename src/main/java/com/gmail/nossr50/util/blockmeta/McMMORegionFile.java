@@ -0,0 +1,36 @@
+package com.gmail.nossr50.util.blockmeta;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@code mcmmo_X_Z_.mcm} region file holding the compressed chunk stores of a 32x32 chunk
+ * region. Implementations share the on-disk format documented on
+ * {@link McMMOSimpleRegionFile} and are interchangeable on existing files.
+ */
+public interface McMMORegionFile extends AutoCloseable {
+    /**
+     * Opens a stream that replaces the chunk's data once it is closed.
+     *
+     * @param x chunk x coordinate, must lie inside this region
+     * @param z chunk z coordinate, must lie inside this region
+     * @return a stream compressing the chunk's new data
+     */
+    @NotNull DataOutputStream getOutputStream(int x, int z);
+
+    /**
+     * Opens a stream over the chunk's stored data.
+     *
+     * @param x chunk x coordinate, must lie inside this region
+     * @param z chunk z coordinate, must lie inside this region
+     * @return a stream decompressing the chunk's data, or null if the chunk has none
+     * @throws IOException if the stored data cannot be read
+     */
+    @Nullable DataInputStream getInputStream(int x, int z) throws IOException;
+
+    @Override
+    void close();
+}
@@ -39,7 +39,7 @@ import org.jetbrains.annotations.Nullable;
  * future use bytes 12288+ contain the data segments, by default 1024 byte segments. Chunk data is
  * compressed and stored in 1 or more segments as needed.
  */
-public class McMMOSimpleRegionFile implements AutoCloseable {
+public class McMMOSimpleRegionFile implements McMMORegionFile {
     private static final int DEFAULT_SEGMENT_EXPONENT = 10; // TODO, analyze real world usage and determine if a smaller segment(512) is worth it or not. (need to know average chunkstore bytesize)
     private static final int DEFAULT_SEGMENT_SIZE = (int) Math.pow(2,
             DEFAULT_SEGMENT_EXPONENT); // 1024
@@ -64,22 +64,40 @@ public class McMMOSimpleRegionFile implements AutoCloseable {
     private final @NotNull File parent;
     // File access
     private final RandomAccessFile file;
+    private final boolean readOnly;
 
     // Region index
     private final int rx;
     private final int rz;
 
     public McMMOSimpleRegionFile(@NotNull File f, int rx, int rz) {
+        this(f, rx, rz, false);
+    }
+
+    /**
+     * Opens a region file.
+     *
+     * @param f the region file
+     * @param rx region x coordinate
+     * @param rz region z coordinate
+     * @param readOnly open an existing file for reading only; it is never created, extended or
+     * written, and {@link #getOutputStream} fails
+     */
+    public McMMOSimpleRegionFile(@NotNull File f, int rx, int rz, boolean readOnly) {
         this.rx = rx;
         this.rz = rz;
         this.parent = f;
+        this.readOnly = readOnly;
 
         RandomAccessFile raf = null;
         try {
-            raf = new RandomAccessFile(parent, "rw");
+            raf = new RandomAccessFile(parent, readOnly ? "r" : "rw");
 
             // New file, write out header bytes
             if (raf.length() < RESERVED_HEADER_BYTES) {
+                if (readOnly) {
+                    throw new IOException("Truncated header, " + raf.length() + " bytes");
+                }
                 raf.write(new byte[RESERVED_HEADER_BYTES]);
                 raf.seek(SEEK_FILE_INFO);
                 raf.writeInt(DEFAULT_SEGMENT_EXPONENT);
@@ -111,7 +129,9 @@ public class McMMOSimpleRegionFile implements AutoCloseable {
             }
 
             this.file = raf;
-            fixFileLength();
+            if (!readOnly) {
+                fixFileLength();
+            }
         } catch (IOException | RuntimeException e) {
             // A failed open must not keep the handle; a leaked RandomAccessFile keeps the
             // region file locked on Windows until it is garbage collected
@@ -125,7 +145,11 @@ public class McMMOSimpleRegionFile implements AutoCloseable {
         }
     }
 
+    @Override
     public synchronized @NotNull DataOutputStream getOutputStream(int x, int z) {
+        if (readOnly) {
+            throw new IllegalStateException("Region file " + parent + " is open read-only");
+        }
         int index = getChunkIndex(x, z); // Get chunk index
         return new DataOutputStream(
                 new DeflaterOutputStream(new McMMOSimpleChunkBuffer(this, index)));
@@ -167,6 +191,7 @@ public class McMMOSimpleRegionFile implements AutoCloseable {
         file.writeInt(chunkNumBytes[index]);
     }
 
+    @Override
     public synchronized @Nullable DataInputStream getInputStream(int x, int z) throws IOException {
         int index = getChunkIndex(x, z); // Get chunk index
         int byteLength = chunkNumBytes[index]; // Get byte length of data
@@ -11,6 +11,10 @@ public class NullChunkManager implements ChunkManager {
     public void closeAll() {
     }
 
+    @Override
+    public void chunkLoaded(int cx, int cz, @NotNull World world) {
+    }
+
     @Override
     public void chunkUnloaded(int cx, int cz, @NotNull World world) {
     }
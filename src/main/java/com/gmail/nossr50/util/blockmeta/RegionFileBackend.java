@@ -0,0 +1,51 @@
+package com.gmail.nossr50.util.blockmeta;
+
+import java.io.File;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Selects the {@link McMMORegionFile} implementation used by the block tracker, configured via
+ * {@code mcMMO_Region_System.File_Backend} in persistent_data.yml.
+ */
+public enum RegionFileBackend {
+    /**
+     * {@link McMMOSimpleRegionFile}, a {@link java.io.RandomAccessFile} serializing every read and
+     * write.
+     */
+    RANDOM_ACCESS_FILE {
+        @Override
+        public @NotNull McMMORegionFile open(@NotNull File file, int rx, int rz) {
+            return new McMMOSimpleRegionFile(file, rx, rz);
+        }
+
+        @Override
+        public @NotNull McMMORegionFile openReadOnly(@NotNull File file, int rx, int rz) {
+            return new McMMOSimpleRegionFile(file, rx, rz, true);
+        }
+    },
+    /**
+     * {@link McMMOChannelRegionFile}, positional {@link java.nio.channels.FileChannel} I/O with
+     * one header write per chunk save.
+     */
+    FILE_CHANNEL {
+        @Override
+        public @NotNull McMMORegionFile open(@NotNull File file, int rx, int rz) {
+            return new McMMOChannelRegionFile(file, rx, rz);
+        }
+
+        @Override
+        public @NotNull McMMORegionFile openReadOnly(@NotNull File file, int rx, int rz) {
+            return new McMMOChannelRegionFile(file, rx, rz, true);
+        }
+    };
+
+    /**
+     * Opens a region file for reading and writing, creating it if it does not exist.
+     */
+    public abstract @NotNull McMMORegionFile open(@NotNull File file, int rx, int rz);
+
+    /**
+     * Opens an existing region file for reading only, without creating or extending it.
+     */
+    public abstract @NotNull McMMORegionFile openReadOnly(@NotNull File file, int rx, int rz);
+}
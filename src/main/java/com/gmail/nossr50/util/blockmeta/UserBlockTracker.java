@@ -1,6 +1,8 @@
 package com.gmail.nossr50.util.blockmeta;
 
 import com.gmail.nossr50.mcMMO;
+import java.util.BitSet;
+import java.util.Collection;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockState;
 import org.jetbrains.annotations.NotNull;
@@ -76,6 +78,38 @@ public interface UserBlockTracker {
      */
     void setEligible(@NotNull BlockState blockState);
 
+    /**
+     * Check a batch of {@link Block}s for reward eligibility at once, for abilities that touch
+     * many blocks together such as Blast Mining. Location-based like {@link #isIneligible(Block)}.
+     *
+     * @param blocks Blocks to check
+     * @return bit {@code i} is set if the {@code i}-th block in iteration order should not give
+     * rewards
+     */
+    default @NotNull BitSet isIneligible(@NotNull Collection<? extends Block> blocks) {
+        final BitSet ineligible = new BitSet(blocks.size());
+        int index = 0;
+        for (Block block : blocks) {
+            if (isIneligible(block)) {
+                ineligible.set(index);
+            }
+            index++;
+        }
+        return ineligible;
+    }
+
+    /**
+     * Set a batch of {@link Block}s as ineligible for rewards. Location-based like
+     * {@link #setIneligible(Block)}.
+     *
+     * @param blocks blocks whose locations to set as ineligible
+     */
+    default void setIneligible(@NotNull Collection<? extends Block> blocks) {
+        for (Block block : blocks) {
+            setIneligible(block);
+        }
+    }
+
     /**
      * Check to see if a given block location is set to true
      *
@@ -5,7 +5,6 @@ import com.gmail.nossr50.datatypes.player.PlayerProfile;
 import com.gmail.nossr50.datatypes.skills.PrimarySkillType;
 import com.gmail.nossr50.locale.LocaleLoader;
 import com.gmail.nossr50.mcMMO;
-import com.gmail.nossr50.util.MetadataConstants;
 import com.gmail.nossr50.util.Misc;
 import com.gmail.nossr50.util.player.UserManager;
 import com.gmail.nossr50.util.skills.SkillTools;
@@ -115,8 +114,7 @@ public final class CommandUtils {
             return false;
         }
 
-        boolean hasPlayerDataKey = ((Player) sender).hasMetadata(
-                MetadataConstants.METADATA_KEY_PLAYER_DATA);
+        boolean hasPlayerDataKey = UserManager.hasPlayerDataKey((Player) sender);
 
         if (!hasPlayerDataKey) {
             sender.sendMessage(LocaleLoader.getString("Commands.NotLoaded"));
@@ -6,6 +6,7 @@ import com.gmail.nossr50.datatypes.skills.PrimarySkillType;
 import com.gmail.nossr50.mcMMO;
 import com.gmail.nossr50.runnables.skills.ExperienceBarHideTask;
 import com.gmail.nossr50.util.Misc;
+import com.gmail.nossr50.util.TimerWheel;
 import com.gmail.nossr50.util.player.NotificationManager;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -91,9 +92,8 @@ public class ExperienceBarManager {
 
         ExperienceBarHideTask experienceBarHideTask = new ExperienceBarHideTask(this, mmoPlayer,
                 primarySkillType);
-        mcMMO.p.getFoliaLib().getScheduler()
-                .runAtEntityLater(mmoPlayer.getPlayer(), experienceBarHideTask,
-                        (long) delaySeconds * Misc.TICK_CONVERSION_FACTOR);
+        TimerWheel.runAtEntityLater(mmoPlayer.getPlayer(), experienceBarHideTask,
+                (long) delaySeconds * Misc.TICK_CONVERSION_FACTOR);
         experienceBarHideTaskHashMap.put(primarySkillType, experienceBarHideTask);
     }
 
@@ -6,43 +6,62 @@ import com.gmail.nossr50.datatypes.skills.PrimarySkillType;
 import com.gmail.nossr50.mcMMO;
 import com.gmail.nossr50.util.LogUtils;
 import java.io.File;
-import java.util.HashMap;
-import java.util.Map;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.jetbrains.annotations.VisibleForTesting;
 
 public class FormulaManager {
     private static final File formulaFile = new File(mcMMO.getFlatFileDirectory() + "formula.yml");
 
-    // Experience needed to reach a level, cached values to improve conversion speed
-    private Map<Integer, Integer> experienceNeededRetroLinear;
-    private Map<Integer, Integer> experienceNeededStandardLinear;
-    private Map<Integer, Integer> experienceNeededRetroExponential;
-    private Map<Integer, Integer> experienceNeededStandardExponential;
+    // Levels covered by a freshly built curve when no skill has a level cap below it
+    private static final int DEFAULT_RETRO_CURVE_LEVELS = 1000;
+    private static final int DEFAULT_STANDARD_CURVE_LEVELS = 100;
+    // Level caps above this are not precomputed up front, the curve grows to them on demand
+    private static final int MAX_PRECOMPUTED_LEVELS = 100_000;
+    // Curves never grow past this many levels, higher levels are computed on every call
+    private static final int MAX_CURVE_LEVELS = 1 << 22;
+
+    /**
+     * Experience curve of one formula in one scaling mode, precomputed for levels
+     * {@code 0 .. length - 1}. Never modified once published; growing or rebuilding a curve
+     * publishes a new instance.
+     *
+     * @param retroMode whether the curve uses Retro Mode scaling
+     * @param xpToNextLevel experience needed to go from each level to the next
+     * @param totalXpToLevel experience needed to go from level 0 to each level, one entry longer
+     *         than {@code xpToNextLevel}
+     * @param increasing whether every level costs experience, which makes {@code totalXpToLevel}
+     *         sorted
+     */
+    private record ExperienceCurve(boolean retroMode, int[] xpToNextLevel, long[] totalXpToLevel,
+                                   boolean increasing) {
+        int length() {
+            return xpToNextLevel.length;
+        }
+    }
+
+    private volatile ExperienceCurve linearCurve;
+    private volatile ExperienceCurve exponentialCurve;
 
     private FormulaType previousFormula;
 
     public FormulaManager() {
         /* Setting for Classic Mode (Scales a lot of stuff up by * 10) */
-        initExperienceNeededMaps();
         loadFormula();
     }
 
     @VisibleForTesting
     public FormulaManager(FormulaType previousFormulaType) {
         /* Setting for Classic Mode (Scales a lot of stuff up by * 10) */
-        initExperienceNeededMaps();
         this.previousFormula = previousFormulaType;
     }
 
     /**
-     * Initialize maps used for XP to next level
+     * Drop the precomputed experience curves so they are rebuilt from the current experience
+     * config on next use.
      */
-    private void initExperienceNeededMaps() {
-        experienceNeededRetroLinear = new HashMap<>();
-        experienceNeededRetroExponential = new HashMap<>();
-        experienceNeededStandardLinear = new HashMap<>();
-        experienceNeededStandardExponential = new HashMap<>();
+    public synchronized void reloadCurves() {
+        linearCurve = null;
+        exponentialCurve = null;
     }
 
     /**
@@ -72,15 +91,18 @@ public class FormulaManager {
      * @return The total amount of experience
      */
     public int calculateTotalExperience(int skillLevel, int skillXPLevel) {
-        int totalXP = 0;
+        if (skillLevel <= 0) {
+            return skillXPLevel;
+        }
 
-        for (int level = 0; level < skillLevel; level++) {
+        final int cachedLevels = Math.min(skillLevel, MAX_CURVE_LEVELS);
+        long totalXP = getCurve(previousFormula, cachedLevels).totalXpToLevel()[cachedLevels];
+        for (int level = cachedLevels; level < skillLevel; level++) {
             totalXP += getXPtoNextLevel(level, previousFormula);
         }
 
-        totalXP += skillXPLevel;
-
-        return totalXP;
+        // Narrowing wraps the same way summing the levels in an int always has
+        return (int) (totalXP + skillXPLevel);
     }
 
     /**
@@ -93,9 +115,58 @@ public class FormulaManager {
      */
     public int[] calculateNewLevel(PrimarySkillType primarySkillType, int experience,
             FormulaType formulaType) {
+        final int maxLevel = mcMMO.p.getSkillTools().getLevelCap(primarySkillType);
+        if (experience <= 0 || maxLevel <= 0) {
+            return new int[]{0, 0};
+        }
+
+        ExperienceCurve curve = getCurve(formulaType, 0);
+        // Grow the curve until it reaches the level cap or costs more than the given experience
+        while (curve.increasing() && curve.length() < maxLevel
+                && curve.totalXpToLevel()[curve.length()] <= experience
+                && curve.length() < MAX_CURVE_LEVELS) {
+            curve = getCurve(formulaType,
+                    Math.min(growLength(curve.length(), maxLevel), MAX_CURVE_LEVELS));
+        }
+
+        if (!curve.increasing() || (curve.length() < maxLevel
+                && curve.totalXpToLevel()[curve.length()] <= experience)) {
+            return walkLevels(experience, maxLevel, formulaType);
+        }
+
+        final int newLevel = highestLevelWithin(curve, experience, maxLevel);
+        if (newLevel == maxLevel) {
+            return new int[]{newLevel, 0};
+        }
+        return new int[]{newLevel, (int) (experience - curve.totalXpToLevel()[newLevel])};
+    }
+
+    /**
+     * Highest level whose total experience fits in the given experience, found by binary search
+     * over the sorted totals.
+     */
+    private static int highestLevelWithin(ExperienceCurve curve, int experience, int maxLevel) {
+        final long[] totals = curve.totalXpToLevel();
+        int low = 0;
+        int high = Math.min(maxLevel, curve.length());
+        while (low < high) {
+            final int mid = (low + high + 1) >>> 1;
+            if (totals[mid] <= experience) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Spends experience one level at a time, for curves where some level costs nothing or less
+     * and the totals are therefore not sorted, or that are too long to precompute.
+     */
+    private int[] walkLevels(int experience, int maxLevel, FormulaType formulaType) {
         int newLevel = 0;
         int remainder = 0;
-        int maxLevel = mcMMO.p.getSkillTools().getLevelCap(primarySkillType);
 
         while (experience > 0 && newLevel < maxLevel) {
             int experienceToNextLevel = getXPtoNextLevel(newLevel, formulaType);
@@ -113,8 +184,8 @@ public class FormulaManager {
     }
 
     /**
-     * Get the cached amount of experience needed to reach the next level, if cache doesn't contain
-     * the given value it is calculated and added to the cached data.
+     * Get the amount of experience needed to reach the next level from the precomputed curves,
+     * extending them if the level is beyond what they cover.
      *
      * @param level level to check
      * @param formulaType The {@link FormulaType} used
@@ -125,71 +196,118 @@ public class FormulaManager {
           Retro mode XP requirements are the default requirements
           Standard mode XP requirements are multiplied by a factor of 10
          */
+        if (level < 0 || level >= MAX_CURVE_LEVELS) {
+            return computeXPToNextLevel(level, normalize(formulaType), mcMMO.isRetroModeEnabled());
+        }
 
-        //TODO: When the heck is Unknown used?
+        return getCurve(formulaType, level + 1).xpToNextLevel()[level];
+    }
+
+    //TODO: When the heck is Unknown used?
+    private static FormulaType normalize(FormulaType formulaType) {
         if (formulaType == null || formulaType == FormulaType.UNKNOWN) {
-            formulaType = FormulaType.LINEAR;
+            return FormulaType.LINEAR;
         }
-
-        return processXPToNextLevel(level, formulaType);
+        return formulaType;
     }
 
     /**
-     * Gets the value of XP needed for the next level based on the level Scaling, the level, and the
-     * formula type
-     *
-     * @param level target level
-     * @param formulaType target formulaType
+     * Gets the curve of a formula in the current scaling mode, covering at least the given number
+     * of levels.
      */
-    private int processXPToNextLevel(int level, FormulaType formulaType) {
-        if (mcMMO.isRetroModeEnabled()) {
-            return processXPRetroToNextLevel(level, formulaType);
+    private ExperienceCurve getCurve(FormulaType formulaType, int minLength) {
+        formulaType = normalize(formulaType);
+        final boolean retroMode = mcMMO.isRetroModeEnabled();
+        final ExperienceCurve curve =
+                formulaType == FormulaType.LINEAR ? linearCurve : exponentialCurve;
+
+        if (curve != null && curve.retroMode() == retroMode && curve.length() >= minLength) {
+            return curve;
+        }
+        return buildCurve(formulaType, retroMode, minLength);
+    }
+
+    private synchronized ExperienceCurve buildCurve(FormulaType formulaType, boolean retroMode,
+            int minLength) {
+        final ExperienceCurve current =
+                formulaType == FormulaType.LINEAR ? linearCurve : exponentialCurve;
+        // Another thread may have built it while we waited for the lock
+        if (current != null && current.retroMode() == retroMode
+                && current.length() >= minLength) {
+            return current;
+        }
+
+        int length = Math.max(minLength, initialCurveLength(retroMode));
+        if (current != null && current.retroMode() == retroMode) {
+            length = Math.max(length, growLength(current.length(), MAX_CURVE_LEVELS));
+        }
+
+        final int[] xpToNextLevel = new int[length];
+        final long[] totalXpToLevel = new long[length + 1];
+        boolean increasing = true;
+        for (int level = 0; level < length; level++) {
+            xpToNextLevel[level] = computeXPToNextLevel(level, formulaType, retroMode);
+            totalXpToLevel[level + 1] = totalXpToLevel[level] + xpToNextLevel[level];
+            increasing &= xpToNextLevel[level] > 0;
+        }
+
+        final ExperienceCurve curve =
+                new ExperienceCurve(retroMode, xpToNextLevel, totalXpToLevel, increasing);
+        if (formulaType == FormulaType.LINEAR) {
+            linearCurve = curve;
         } else {
-            return processStandardXPToNextLevel(level, formulaType);
+            exponentialCurve = curve;
         }
+        return curve;
     }
 
     /**
-     * Calculate the XP needed for the next level for the linear formula for Standard scaling
-     * (1-100)
-     *
-     * @param level target level
-     * @return raw xp needed to reach the next level
+     * Levels to precompute: the highest configured level cap, or the usual level range of the
+     * scaling mode when no skill is capped.
      */
-    private int processStandardXPToNextLevel(int level, FormulaType formulaType) {
-        final Map<Integer, Integer> experienceMapRef =
-                formulaType == FormulaType.LINEAR ? experienceNeededStandardLinear
-                        : experienceNeededStandardExponential;
-
-        return experienceMapRef.computeIfAbsent(level, key -> {
-            int experienceSum = 0;
-            final int retroIndex = (key * 10) + 1;
-
-            //Sum the range of levels in Retro that this Standard level would represent
-            for (int x = retroIndex; x < (retroIndex + 10); x++) {
-                //calculateXPNeeded doesn't cache results so we use that instead of invoking the Retro XP methods to avoid memory bloat
-                experienceSum += calculateXPNeeded(x, formulaType);
+    private static int initialCurveLength(boolean retroMode) {
+        int highestCap = 0;
+        if (mcMMO.p != null && mcMMO.p.getGeneralConfig() != null) {
+            for (PrimarySkillType primarySkillType : PrimarySkillType.values()) {
+                final int cap = mcMMO.p.getGeneralConfig().getLevelCap(primarySkillType);
+                if (cap != Integer.MAX_VALUE) {
+                    highestCap = Math.max(highestCap, cap);
+                }
             }
+        }
 
-            return experienceSum;
-        });
+        if (highestCap <= 0) {
+            highestCap = retroMode ? DEFAULT_RETRO_CURVE_LEVELS : DEFAULT_STANDARD_CURVE_LEVELS;
+        }
+        return Math.min(highestCap, MAX_PRECOMPUTED_LEVELS) + 1;
+    }
+
+    private static int growLength(int length, int maxLevel) {
+        return (int) Math.min((long) length * 2, Math.max(maxLevel, length));
     }
 
     /**
-     * Calculates the XP to next level for Retro Mode scaling Results are cached to reduce needless
-     * operations
+     * Calculates the XP needed for the next level
      *
      * @param level target level
      * @param formulaType target formula type
-     * @return raw xp needed to reach the next level based on formula type
+     * @param retroMode whether to use Retro Mode scaling
+     * @return raw xp needed to reach the next level
      */
-    private int processXPRetroToNextLevel(int level, FormulaType formulaType) {
-        final Map<Integer, Integer> experienceMapRef =
-                formulaType == FormulaType.LINEAR ? experienceNeededRetroLinear
-                        : experienceNeededRetroExponential;
+    private int computeXPToNextLevel(int level, FormulaType formulaType, boolean retroMode) {
+        if (retroMode) {
+            return calculateXPNeeded(level, formulaType);
+        }
+
+        int experienceSum = 0;
+        final int retroIndex = (level * 10) + 1;
+
+        //Sum the range of levels in Retro that this Standard level would represent
+        for (int x = retroIndex; x < (retroIndex + 10); x++) {
+            experienceSum += calculateXPNeeded(x, formulaType);
+        }
 
-        return experienceMapRef.computeIfAbsent(level,
-                key -> calculateXPNeeded(key, formulaType));
+        return experienceSum;
     }
 
     /**
@@ -1,13 +1,19 @@
 package com.gmail.nossr50.util.player;
 
+import com.gmail.nossr50.database.ProfileSaveQueue;
 import com.gmail.nossr50.datatypes.player.McMMOPlayer;
+import com.gmail.nossr50.datatypes.player.PlayerProfile;
 import com.gmail.nossr50.mcMMO;
 import com.gmail.nossr50.util.LogUtils;
 import com.gmail.nossr50.util.MetadataConstants;
 import com.google.common.collect.ImmutableList;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Entity;
@@ -22,6 +28,11 @@ public final class UserManager {
     // region threads on Folia, so this set must be safe for concurrent mutation
     private static final Set<McMMOPlayer> playerDataSet = ConcurrentHashMap.newKeySet();
 
+    // Loaded players by UUID and by lower case name. These are what lookups read; the
+    // player-data metadata is still set for other plugins that read it, but never read here
+    private static final Map<UUID, McMMOPlayer> playersByUuid = new ConcurrentHashMap<>();
+    private static final Map<String, McMMOPlayer> playersByName = new ConcurrentHashMap<>();
+
     private UserManager() {
     }
 
@@ -31,13 +42,18 @@ public final class UserManager {
      * @param mmoPlayer the player profile to start tracking
      */
     public static void track(@NotNull McMMOPlayer mmoPlayer) {
-        mmoPlayer.getPlayer().setMetadata(MetadataConstants.METADATA_KEY_PLAYER_DATA,
+        final Player player = mmoPlayer.getPlayer();
+        playersByUuid.put(player.getUniqueId(), mmoPlayer);
+        playersByName.put(toNameKey(player.getName()), mmoPlayer);
+
+        player.setMetadata(MetadataConstants.METADATA_KEY_PLAYER_DATA,
                 new FixedMetadataValue(mcMMO.p, mmoPlayer));
 
         playerDataSet.add(mmoPlayer); //for sync saves on shutdown
     }
 
     public static void cleanupPlayer(McMMOPlayer mmoPlayer) {
+        untrack(mmoPlayer.getPlayer(), mmoPlayer);
         playerDataSet.remove(mmoPlayer);
     }
 
@@ -54,6 +70,7 @@ public final class UserManager {
         }
 
         mmoPlayer.cleanup();
+        untrack(player, mmoPlayer);
         player.removeMetadata(MetadataConstants.METADATA_KEY_PLAYER_DATA, mcMMO.p);
 
         playerDataSet.remove(mmoPlayer); //Clear sync save tracking
@@ -67,9 +84,19 @@ public final class UserManager {
             remove(player);
         }
 
+        playersByUuid.clear();
+        playersByName.clear();
         playerDataSet.clear(); //Clear sync save tracking
     }
 
+    private static void untrack(@NotNull Player player, @NotNull McMMOPlayer mmoPlayer) {
+        // Only drop the entries of this McMMOPlayer, a newer one may already be tracked
+        if (player.getUniqueId() != null) {
+            playersByUuid.remove(player.getUniqueId(), mmoPlayer);
+        }
+        playersByName.remove(toNameKey(player.getName()), mmoPlayer);
+    }
+
     /**
      * Save all users ON THIS THREAD.
      */
@@ -78,6 +105,31 @@ public final class UserManager {
 
         mcMMO.p.getLogger().info("Saving mmoPlayers... (" + trackedSyncData.size() + ")");
 
+        // XP still waiting for the end of the tick would otherwise not be saved
+        for (McMMOPlayer playerData : trackedSyncData) {
+            playerData.flushXpGains();
+        }
+
+        // Saves still waiting in the queue (players who just logged out, command edits) are
+        // written together with the online players, in batches
+        final ProfileSaveQueue saveQueue = mcMMO.getProfileSaveQueue();
+        if (saveQueue != null) {
+            final List<PlayerProfile> profiles = new ArrayList<>(trackedSyncData.size());
+            for (McMMOPlayer playerData : trackedSyncData) {
+                profiles.add(playerData.getProfile());
+            }
+
+            try {
+                saveQueue.drain(profiles);
+                mcMMO.p.getLogger().info("Finished save operation for " + profiles.size()
+                        + " players! " + saveQueue.getStats());
+                return;
+            } catch (Exception e) {
+                mcMMO.p.getLogger().warning("Could not save mcMMO player data in batches,"
+                        + " saving players one by one");
+            }
+        }
+
         for (McMMOPlayer playerData : trackedSyncData) {
             try {
                 LogUtils.debug(mcMMO.p.getLogger(),
@@ -94,15 +146,7 @@ public final class UserManager {
     }
 
     public static @NotNull Collection<McMMOPlayer> getPlayers() {
-        Collection<McMMOPlayer> playerCollection = new ArrayList<>();
-
-        for (Player player : mcMMO.p.getServer().getOnlinePlayers()) {
-            if (hasPlayerDataKey(player)) {
-                playerCollection.add(getPlayer(player));
-            }
-        }
-
-        return playerCollection;
+        return new ArrayList<>(playersByUuid.values());
     }
 
     /**
@@ -135,13 +179,18 @@ public final class UserManager {
      * @return McMMOPlayer object for this player, null if Player has not been loaded
      */
     public static @Nullable McMMOPlayer getPlayer(@Nullable Player player) {
-        //Avoid Array Index out of bounds
-        if (player != null && player.hasMetadata(MetadataConstants.METADATA_KEY_PLAYER_DATA)) {
-            return (McMMOPlayer) player.getMetadata(MetadataConstants.METADATA_KEY_PLAYER_DATA)
-                    .get(0).value();
-        } else {
-            return null;
-        }
+        return player == null ? null : getPlayer(player.getUniqueId());
+    }
+
+    /**
+     * Gets the McMMOPlayer object for a player by UUID, this can be null if the player is offline
+     * or has not yet been loaded.
+     *
+     * @param uuid target player's UUID
+     * @return McMMOPlayer object for this player, null if Player has not been loaded
+     */
+    public static @Nullable McMMOPlayer getPlayer(@Nullable UUID uuid) {
+        return uuid == null ? null : playersByUuid.get(uuid);
     }
 
     private static @Nullable McMMOPlayer retrieveMcMMOPlayer(@Nullable String playerName,
@@ -150,21 +199,25 @@ public final class UserManager {
             return null;
         }
 
-        Player player = mcMMO.p.getServer().getPlayerExact(playerName);
-
-        if (player == null) {
-            if (!offlineValid) {
-                mcMMO.p.getLogger().warning(
-                        "A valid mmoPlayer object could not be found for " + playerName + ".");
-            }
+        final McMMOPlayer mmoPlayer = playersByName.get(toNameKey(playerName));
+        if (mmoPlayer != null) {
+            return mmoPlayer;
+        }
 
-            return null;
+        // Only warn about players who are not online at all, not ones still loading
+        if (!offlineValid && mcMMO.p.getServer().getPlayerExact(playerName) == null) {
+            mcMMO.p.getLogger().warning(
+                    "A valid mmoPlayer object could not be found for " + playerName + ".");
         }
 
-        return getPlayer(player);
+        return null;
     }
 
     public static boolean hasPlayerDataKey(@Nullable Entity entity) {
-        return entity != null && entity.hasMetadata(MetadataConstants.METADATA_KEY_PLAYER_DATA);
+        return entity instanceof Player player && getPlayer(player) != null;
+    }
+
+    private static @NotNull String toNameKey(@NotNull String playerName) {
+        return playerName.toLowerCase(Locale.ENGLISH);
     }
 }
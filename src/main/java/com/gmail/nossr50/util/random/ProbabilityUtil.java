@@ -8,7 +8,6 @@ import com.gmail.nossr50.datatypes.skills.SubSkillType;
 import com.gmail.nossr50.events.skills.secondaryabilities.SubSkillEvent;
 import com.gmail.nossr50.mcMMO;
 import com.gmail.nossr50.util.EventUtils;
-import com.gmail.nossr50.util.Permissions;
 import com.gmail.nossr50.util.player.UserManager;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
@@ -208,8 +207,7 @@ public class ProbabilityUtil {
         final Probability probability = getSkillProbability(subSkillType, mmoPlayer);
 
         //Luck
-        boolean isLucky = mmoPlayer != null && Permissions.lucky(mmoPlayer.getPlayer(),
-                subSkillType.getParentSkill());
+        boolean isLucky = mmoPlayer != null && mmoPlayer.isLucky(subSkillType.getParentSkill());
 
         if (isLucky) {
             return probability.evaluate(LUCKY_MODIFIER);
@@ -250,8 +248,7 @@ public class ProbabilityUtil {
         final Probability probability = getSkillProbability(subSkillType, mmoPlayer);
 
         //Luck
-        boolean isLucky = mmoPlayer != null && Permissions.lucky(mmoPlayer.getPlayer(),
-                subSkillType.getParentSkill());
+        boolean isLucky = mmoPlayer != null && mmoPlayer.isLucky(subSkillType.getParentSkill());
 
         if (isLucky) {
             return probability.evaluate(LUCKY_MODIFIER, probabilityMultiplier);
@@ -379,8 +376,7 @@ public class ProbabilityUtil {
      */
     public static boolean isStaticSkillRNGSuccessful(@NotNull PrimarySkillType primarySkillType,
             @Nullable McMMOPlayer mmoPlayer, @NotNull Probability probability) {
-        boolean isLucky =
-                mmoPlayer != null && Permissions.lucky(mmoPlayer.getPlayer(), primarySkillType);
+        boolean isLucky = mmoPlayer != null && mmoPlayer.isLucky(primarySkillType);
 
         if (isLucky) {
             return probability.evaluate(LUCKY_MODIFIER);
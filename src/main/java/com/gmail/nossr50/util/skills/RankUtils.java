@@ -22,6 +22,8 @@ public class RankUtils {
     private static final Map<SubSkillType, int[]> subSkillUnlockLevels = new ConcurrentHashMap<>();
     private static final Map<String, int[]> abstractSubSkillUnlockLevels =
             new ConcurrentHashMap<>();
+    // Bumped by populateRanks so the per-player SubSkillRanks tables pick up new unlock levels
+    private static volatile int rankConfigVersion;
 
     /**
      * @param plugin plugin instance ref
@@ -89,9 +91,15 @@ public class RankUtils {
                         loadUnlockLevels(abstractSubSkill));
             }
         }
+
+        rankConfigVersion++;
+    }
+
+    static int getRankConfigVersion() {
+        return rankConfigVersion;
     }
 
-    private static int[] getUnlockLevels(SubSkillType subSkillType) {
+    static int[] getUnlockLevels(SubSkillType subSkillType) {
         return subSkillUnlockLevels.computeIfAbsent(subSkillType, RankUtils::loadUnlockLevels);
     }
 
@@ -202,14 +210,21 @@ public class RankUtils {
             return 0;
         }
 
-        //Skill level of parent skill
-        final int currentSkillLevel = mmoPlayer.getSkillLevel(subSkillType.getParentSkill());
-        final int[] unlockLevels = getUnlockLevels(subSkillType);
+        return mmoPlayer.getSubSkillRanks().getRank(subSkillType);
+    }
 
+    /**
+     * Gets the highest rank unlocked at a skill level
+     *
+     * @param skillLevel level of the parent skill
+     * @param unlockLevels unlock level of each rank, indexed by rank - 1
+     * @return the rank, 0 if the first rank is not unlocked
+     */
+    static int getRankAtLevel(int skillLevel, int[] unlockLevels) {
         //Compare against the highest to lowest rank in that order
-        for (int rank = numRanks; rank >= 1; rank--) {
+        for (int rank = unlockLevels.length; rank >= 1; rank--) {
             //True if our skill level can unlock the current rank
-            if (currentSkillLevel >= unlockLevels[rank - 1]) {
+            if (skillLevel >= unlockLevels[rank - 1]) {
                 return rank;
             }
         }
@@ -240,17 +255,7 @@ public class RankUtils {
 
         //Skill level of parent skill
         final int currentSkillLevel = mmoPlayer.getSkillLevel(abstractSubSkill.getPrimarySkill());
-        final int[] unlockLevels = getUnlockLevels(abstractSubSkill);
-
-        //Compare against the highest to lowest rank in that order
-        for (int rank = numRanks; rank >= 1; rank--) {
-            //True if our skill level can unlock the current rank
-            if (currentSkillLevel >= unlockLevels[rank - 1]) {
-                return rank;
-            }
-        }
-
-        return 0;
+        return getRankAtLevel(currentSkillLevel, getUnlockLevels(abstractSubSkill));
     }
 
     /**
@@ -0,0 +1,94 @@
+package com.gmail.nossr50.util.skills;
+
+import com.gmail.nossr50.datatypes.skills.PrimarySkillType;
+import com.gmail.nossr50.util.Permissions;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The skill permissions of one player, read into bitmasks so the checks made on every XP gain,
+ * power level count and RNG roll do not each go through the permission plugin.
+ *
+ * <p>The snapshot is taken on the first read and again after {@link #invalidate()}, which runs on
+ * world changes. Permission plugins do not announce their changes through Bukkit, so a snapshot
+ * is also retaken once it is {@link #MAX_AGE_MILLIS} old.</p>
+ */
+public final class SkillPermissions {
+    static final long MAX_AGE_MILLIS = 5_000L;
+    private static final PrimarySkillType[] SKILLS = PrimarySkillType.values();
+
+    static {
+        if (SKILLS.length > Long.SIZE) {
+            throw new IllegalStateException("Skill permission masks hold at most 64 skills");
+        }
+    }
+
+    // Bits indexed by PrimarySkillType ordinal
+    private record Snapshot(long enabledSkills, long luckySkills, long takenAtMillis) {
+    }
+
+    private final @NotNull Player player;
+    private volatile @Nullable Snapshot snapshot;
+
+    public SkillPermissions(@NotNull Player player) {
+        this.player = player;
+    }
+
+    /**
+     * @param skill target skill
+     * @return true if the player has the permission to use the skill
+     * @see Permissions#skillEnabled
+     */
+    public boolean hasSkill(@NotNull PrimarySkillType skill) {
+        return (getSnapshot().enabledSkills() & (1L << skill.ordinal())) != 0;
+    }
+
+    /**
+     * @param skill target skill
+     * @return true if the player has the lucky perk for the skill
+     * @see Permissions#lucky
+     */
+    public boolean isLucky(@NotNull PrimarySkillType skill) {
+        return (getSnapshot().luckySkills() & (1L << skill.ordinal())) != 0;
+    }
+
+    /**
+     * Gets every skill the player has the permission to use, to tell whether values derived from
+     * them are still current.
+     *
+     * @return the skills as a mask of PrimarySkillType ordinal bits
+     */
+    public long getEnabledSkills() {
+        return getSnapshot().enabledSkills();
+    }
+
+    /**
+     * Drops the snapshot, the next read takes a new one.
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    private @NotNull Snapshot getSnapshot() {
+        final long now = System.currentTimeMillis();
+        Snapshot current = snapshot;
+        if (current == null || now - current.takenAtMillis() >= MAX_AGE_MILLIS) {
+            long enabledSkills = 0;
+            long luckySkills = 0;
+            for (PrimarySkillType skill : SKILLS) {
+                if (Permissions.skillEnabled(player, skill)) {
+                    enabledSkills |= 1L << skill.ordinal();
+                }
+                if (Permissions.lucky(player, skill)) {
+                    luckySkills |= 1L << skill.ordinal();
+                }
+            }
+
+            current = new Snapshot(enabledSkills, luckySkills, now);
+            snapshot = current;
+        }
+
+        return current;
+    }
+}
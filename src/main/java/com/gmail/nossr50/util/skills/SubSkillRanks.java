@@ -0,0 +1,80 @@
+package com.gmail.nossr50.util.skills;
+
+import com.gmail.nossr50.datatypes.player.McMMOPlayer;
+import com.gmail.nossr50.datatypes.skills.PrimarySkillType;
+import com.gmail.nossr50.datatypes.skills.SubSkillType;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The current rank of one player in every ranked {@link SubSkillType}, so the rank checks skills
+ * make several times per event are an array read. The table is rebuilt on the first read after a
+ * skill level of the player or the rank config changed.
+ */
+public final class SubSkillRanks {
+    private static final SubSkillType[] SUB_SKILL_TYPES = SubSkillType.values();
+    private static final int PRIMARY_SKILL_COUNT = PrimarySkillType.values().length;
+
+    // Ranks indexed by SubSkillType ordinal, along with the versions they were computed from
+    private record Table(int skillLevelsVersion, int rankConfigVersion, byte @NotNull [] ranks) {
+    }
+
+    private final @NotNull McMMOPlayer mmoPlayer;
+    private volatile @Nullable Table table;
+
+    public SubSkillRanks(@NotNull McMMOPlayer mmoPlayer) {
+        this.mmoPlayer = mmoPlayer;
+    }
+
+    /**
+     * Gets the rank the player has reached in a subskill that has ranks.
+     *
+     * @param subSkillType target subskill
+     * @return the rank, 0 if the first rank is not unlocked yet
+     */
+    public int getRank(@NotNull SubSkillType subSkillType) {
+        // Read the versions before the levels, so a change racing with a rebuild triggers
+        // another rebuild on the next read instead of being missed
+        final int skillLevelsVersion = mmoPlayer.getSkillLevelsVersion();
+        final int rankConfigVersion = RankUtils.getRankConfigVersion();
+
+        Table current = table;
+        if (current == null || current.skillLevelsVersion() != skillLevelsVersion
+                || current.rankConfigVersion() != rankConfigVersion) {
+            current = new Table(skillLevelsVersion, rankConfigVersion, computeRanks());
+            table = current;
+        }
+
+        return current.ranks()[subSkillType.ordinal()];
+    }
+
+    private byte @NotNull [] computeRanks() {
+        final byte[] ranks = new byte[SUB_SKILL_TYPES.length];
+        // Each parent skill level is read once, child skill levels are not free to compute
+        final int[] skillLevels = new int[PRIMARY_SKILL_COUNT];
+        Arrays.fill(skillLevels, -1);
+
+        for (SubSkillType subSkillType : SUB_SKILL_TYPES) {
+            if (subSkillType.getNumRanks() == 0) {
+                continue;
+            }
+
+            final PrimarySkillType parentSkill = subSkillType.getParentSkill();
+            if (parentSkill == null) {
+                continue;
+            }
+
+            final int index = parentSkill.ordinal();
+            if (skillLevels[index] == -1) {
+                skillLevels[index] = mmoPlayer.getSkillLevel(parentSkill);
+            }
+
+            // Subskills have at most a few dozen ranks
+            ranks[subSkillType.ordinal()] = (byte) RankUtils.getRankAtLevel(skillLevels[index],
+                    RankUtils.getUnlockLevels(subSkillType));
+        }
+
+        return ranks;
+    }
+}
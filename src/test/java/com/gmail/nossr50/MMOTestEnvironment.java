@@ -1,9 +1,11 @@
 package com.gmail.nossr50;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.spy;
@@ -134,6 +136,9 @@ public abstract class MMOTestEnvironment {
         // place store
         chunkManager = mock(ChunkManager.class);
         when(mcMMO.getUserBlockTracker()).thenReturn(chunkManager);
+        // Batch calls fall through to the per-block methods, so stubbing those covers both
+        when(chunkManager.isIneligible(anyCollection())).thenCallRealMethod();
+        doCallRealMethod().when(chunkManager).setIneligible(anyCollection());
 
         // chat config
         mockedChatConfig = mockStatic(ChatConfig.class);
@@ -0,0 +1,128 @@
+package com.gmail.nossr50.config;
+
+import static java.util.logging.Logger.getLogger;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Answers.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.gmail.nossr50.MMOTestEnvironment;
+import com.gmail.nossr50.datatypes.skills.SubSkillType;
+import com.gmail.nossr50.mcMMO;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Logger;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the hot value snapshot of {@link AdvancedConfig} reads the same values as a direct
+ * lookup in the YAML tree, which is what its getters did before the snapshot existed.
+ */
+class AdvancedConfigTest extends MMOTestEnvironment {
+    private static final Logger logger = getLogger(AdvancedConfigTest.class.getName());
+
+    @BeforeEach
+    void setUp() {
+        // Subskill addresses are resolved through the real SkillTools
+        mockBaseEnvironment(logger);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUpStaticMocks();
+    }
+
+    /**
+     * Creates an {@link AdvancedConfig} whose backing config is the given YAML, without running
+     * the file-loading constructor, and compiles its hot value snapshot.
+     */
+    private static AdvancedConfig advancedConfigBackedBy(final YamlConfiguration yaml) {
+        final AdvancedConfig advancedConfig = mock(AdvancedConfig.class, CALLS_REAL_METHODS);
+        try {
+            final Field configField = BukkitConfig.class.getDeclaredField("config");
+            configField.setAccessible(true);
+            configField.set(advancedConfig, yaml);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to inject backing config", e);
+        }
+        advancedConfig.compileHotValues();
+        return advancedConfig;
+    }
+
+    /** Loads the advanced.yml bundled with the plugin jar. */
+    private static YamlConfiguration shippedAdvancedYaml() {
+        final InputStream resource =
+                AdvancedConfig.class.getClassLoader().getResourceAsStream("advanced.yml");
+        assertThat(resource).as("bundled advanced.yml resource").isNotNull();
+        return YamlConfiguration.loadConfiguration(
+                new InputStreamReader(resource, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void subSkillValuesShouldMatchTheBackingConfig() {
+        // Given - the shipped advanced.yml with Dodge customized
+        final YamlConfiguration yaml = shippedAdvancedYaml();
+        yaml.set("Skills.Acrobatics.Dodge.ChanceMax", 35.5);
+        yaml.set("Skills.Acrobatics.Dodge.MaxBonusLevel.Standard", 80);
+        final AdvancedConfig advancedConfig = advancedConfigBackedBy(yaml);
+
+        // Then - every subskill reads what a lookup at its address reads
+        for (SubSkillType subSkillType : SubSkillType.values()) {
+            if (subSkillType.getParentSkill() == null) {
+                continue;
+            }
+
+            final String address = subSkillType.getAdvConfigAddress();
+            assertThat(advancedConfig.getMaxBonusLevel(subSkillType)).as(address)
+                    .isEqualTo(yaml.getInt(address + ".MaxBonusLevel.Standard", 100));
+            assertThat(advancedConfig.getMaximumProbability(subSkillType)).as(address)
+                    .isEqualTo(yaml.getDouble(address + ".ChanceMax", 100.0D));
+        }
+        assertThat(advancedConfig.getMaxBonusLevel(SubSkillType.ACROBATICS_DODGE)).isEqualTo(80);
+        assertThat(advancedConfig.getMaximumProbability(SubSkillType.ACROBATICS_DODGE))
+                .isEqualTo(35.5);
+
+        // And - so do the flags
+        assertThat(advancedConfig.useAttackCooldown()).isEqualTo(yaml.getBoolean(
+                "Skills.General.Attack_Cooldown.Adjust_Skills_For_Attack_Cooldown", true));
+        assertThat(advancedConfig.canApplyLimitBreakPVE())
+                .isEqualTo(yaml.getBoolean("Skills.General.LimitBreak.AllowPVE", false));
+        assertThat(advancedConfig.getForceMultiplier())
+                .isEqualTo(yaml.getDouble("Skills.Archery.ForceMultiplier", 2.0D));
+    }
+
+    @Test
+    void maxBonusLevelsShouldUseRetroModeValuesOnRetroServers() {
+        // Given - a retro mode server
+        when(mcMMO.isRetroModeEnabled()).thenReturn(true);
+        final YamlConfiguration yaml = shippedAdvancedYaml();
+        yaml.set("Skills.Acrobatics.Dodge.MaxBonusLevel.RetroMode", 800);
+        final AdvancedConfig advancedConfig = advancedConfigBackedBy(yaml);
+
+        // Then
+        assertThat(advancedConfig.getMaxBonusLevel(SubSkillType.ACROBATICS_DODGE))
+                .isEqualTo(800);
+    }
+
+    @Test
+    void compileHotValuesShouldPickUpChangedValues() {
+        // Given - a compiled snapshot
+        final YamlConfiguration yaml = shippedAdvancedYaml();
+        final AdvancedConfig advancedConfig = advancedConfigBackedBy(yaml);
+
+        // When - the config changes and is compiled again, as a reload does
+        yaml.set("Skills.Archery.ForceMultiplier", 3.5);
+        yaml.set("Skills.Acrobatics.Dodge.ChanceMax", 12.0);
+        advancedConfig.compileHotValues();
+
+        // Then
+        assertThat(advancedConfig.getForceMultiplier()).isEqualTo(3.5);
+        assertThat(advancedConfig.getMaximumProbability(SubSkillType.ACROBATICS_DODGE))
+                .isEqualTo(12.0);
+    }
+}
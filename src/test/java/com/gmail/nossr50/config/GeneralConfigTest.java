@@ -0,0 +1,129 @@
+package com.gmail.nossr50.config;
+
+import static com.gmail.nossr50.util.text.ConfigStringUtils.getMaterialConfigString;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Answers.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.gmail.nossr50.datatypes.skills.PrimarySkillType;
+import com.gmail.nossr50.util.text.StringUtils;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the hot value snapshot of {@link GeneralConfig} reads the same values as a direct
+ * lookup in the YAML tree, which is what its getters did before the snapshot existed.
+ */
+class GeneralConfigTest {
+
+    /**
+     * Creates a {@link GeneralConfig} whose backing config is the given YAML, without running the
+     * file-loading constructor, and compiles its hot value snapshot.
+     */
+    private static GeneralConfig generalConfigBackedBy(final YamlConfiguration yaml) {
+        final GeneralConfig generalConfig = mock(GeneralConfig.class, CALLS_REAL_METHODS);
+        try {
+            final Field configField = BukkitConfig.class.getDeclaredField("config");
+            configField.setAccessible(true);
+            configField.set(generalConfig, yaml);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to inject backing config", e);
+        }
+        generalConfig.compileHotValues();
+        return generalConfig;
+    }
+
+    /** Loads the config.yml bundled with the plugin jar. */
+    private static YamlConfiguration shippedConfigYaml() {
+        final InputStream resource =
+                GeneralConfig.class.getClassLoader().getResourceAsStream("config.yml");
+        assertThat(resource).as("bundled config.yml resource").isNotNull();
+        return YamlConfiguration.loadConfiguration(
+                new InputStreamReader(resource, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void bonusDropFlagsShouldMatchTheBackingConfig() {
+        // Given - the shipped config.yml with one flag turned off, one added and one misspelled
+        final YamlConfiguration yaml = shippedConfigYaml();
+        yaml.set("Bonus_Drops.Mining.Coal_Ore", false);
+        yaml.set("Bonus_Drops.Excavation.Clay", true);
+        yaml.set("Bonus_Drops.Woodcutting.oak_log", true);
+        yaml.set("Bonus_Drops.Woodcutting.Oak_Log", null);
+        final GeneralConfig generalConfig = generalConfigBackedBy(yaml);
+
+        // Then - every skill and material reads what a lookup by name reads
+        for (PrimarySkillType skill : PrimarySkillType.values()) {
+            final String skillName = StringUtils.getCapitalized(skill.toString());
+            for (Material material : Material.values()) {
+                final String path = "Bonus_Drops." + skillName + "."
+                        + getMaterialConfigString(material);
+                assertThat(generalConfig.getDoubleDropsEnabled(skill, material)).as(path)
+                        .isEqualTo(material != Material.LILY_PAD && yaml.getBoolean(path));
+            }
+        }
+        assertThat(generalConfig.getDoubleDropsEnabled(PrimarySkillType.MINING,
+                Material.COAL_ORE)).isFalse();
+        assertThat(generalConfig.getDoubleDropsEnabled(PrimarySkillType.EXCAVATION,
+                Material.CLAY)).isTrue();
+
+        // And - Woodcutting reads its own section, ignoring the lowercase key
+        for (Material material : Material.values()) {
+            final BlockData blockData = mock(BlockData.class);
+            when(blockData.getMaterial()).thenReturn(material);
+            assertThat(generalConfig.getWoodcuttingDoubleDropsEnabled(blockData))
+                    .as(material.toString()).isEqualTo(yaml.getBoolean(
+                            "Bonus_Drops.Woodcutting." + getMaterialConfigString(material)));
+        }
+    }
+
+    @Test
+    void capsAndAbilityFlagsShouldMatchTheBackingConfig() {
+        // Given - a power level cap, one skill cap and the ability flags flipped from default
+        final YamlConfiguration yaml = shippedConfigYaml();
+        yaml.set("General.Power_Level_Cap", 5000);
+        yaml.set("Skills.Mining.Level_Cap", 250);
+        yaml.set("Skills.Herbalism.Level_Cap", 0);
+        yaml.set("Abilities.Enabled", false);
+        yaml.set("Abilities.Activation.Only_Activate_When_Sneaking", true);
+        final GeneralConfig generalConfig = generalConfigBackedBy(yaml);
+
+        // Then - caps of 0 or less mean uncapped, as they always did
+        assertThat(generalConfig.getPowerLevelCap()).isEqualTo(5000);
+        assertThat(generalConfig.getLevelCap(PrimarySkillType.MINING)).isEqualTo(250);
+        assertThat(generalConfig.getLevelCap(PrimarySkillType.HERBALISM))
+                .isEqualTo(Integer.MAX_VALUE);
+
+        // And - the flags read the YAML tree
+        assertThat(generalConfig.getAbilitiesEnabled()).isFalse();
+        assertThat(generalConfig.getAbilitiesOnlyActivateWhenSneaking()).isTrue();
+        assertThat(generalConfig.getAbilityMessagesEnabled())
+                .isEqualTo(yaml.getBoolean("Abilities.Messages", true));
+        assertThat(generalConfig.getAbilitiesGateEnabled())
+                .isEqualTo(yaml.getBoolean("Abilities.Activation.Level_Gate_Abilities"));
+    }
+
+    @Test
+    void compileHotValuesShouldPickUpChangedValues() {
+        // Given - a compiled snapshot
+        final YamlConfiguration yaml = shippedConfigYaml();
+        final GeneralConfig generalConfig = generalConfigBackedBy(yaml);
+
+        // When - the config changes and is compiled again, as a reload does
+        yaml.set("Skills.Mining.Level_Cap", 42);
+        yaml.set("Bonus_Drops.Mining", null);
+        generalConfig.compileHotValues();
+
+        // Then
+        assertThat(generalConfig.getLevelCap(PrimarySkillType.MINING)).isEqualTo(42);
+        assertThat(generalConfig.getDoubleDropsEnabled(PrimarySkillType.MINING,
+                Material.COAL_ORE)).isFalse();
+    }
+}
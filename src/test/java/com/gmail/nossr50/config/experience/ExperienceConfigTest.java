@@ -1,5 +1,6 @@
 package com.gmail.nossr50.config.experience;
 
+import static com.gmail.nossr50.util.text.ConfigStringUtils.getConfigEntityTypeString;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.Answers.CALLS_REAL_METHODS;
@@ -12,6 +13,7 @@ import java.io.InputStreamReader;
 import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.EntityType;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -27,7 +29,8 @@ class ExperienceConfigTest {
 
     /**
      * Creates an {@link ExperienceConfig} whose backing config is the given YAML, without running
-     * the file-loading constructor. The getters under test only touch the backing config.
+     * the file-loading constructor. The getters under test only touch the backing config and the
+     * hot value snapshot compiled from it.
      */
     private static ExperienceConfig experienceConfigBackedBy(final YamlConfiguration yaml) {
         final ExperienceConfig experienceConfig = mock(ExperienceConfig.class, CALLS_REAL_METHODS);
@@ -38,6 +41,7 @@ class ExperienceConfigTest {
         } catch (ReflectiveOperationException e) {
             throw new IllegalStateException("Unable to inject backing config", e);
         }
+        experienceConfig.compileHotValues();
         return experienceConfig;
     }
 
@@ -204,4 +208,56 @@ class ExperienceConfigTest {
             assertThat(experienceConfig.getCombatHPCeiling()).isEqualTo(100);
         }
     }
+
+    @Nested
+    class HotValueSnapshot {
+
+        @Test
+        void snapshotGettersShouldMatchTheBackingConfig() {
+            // Given - the shipped experience.yml with a custom entry and a missing one
+            final YamlConfiguration yaml = shippedExperienceYaml();
+            yaml.set("Experience_Values.Combat.Multiplier.Zombie", 7.5);
+            yaml.set("Experience_Values.Combat.Multiplier.Cow", null);
+            yaml.set("Experience_Values.Combat.Multiplier.Animals", 0.25);
+            yaml.set("Experience_Bars.Update.Party", false);
+            final ExperienceConfig experienceConfig = experienceConfigBackedBy(yaml);
+
+            // Then - every combat multiplier reads what the YAML tree holds
+            for (EntityType entityType : EntityType.values()) {
+                final String path = "Experience_Values.Combat.Multiplier."
+                        + getConfigEntityTypeString(entityType).replace(" ", "_");
+                assertThat(experienceConfig.getCombatXP(entityType)).as(path)
+                        .isEqualTo(yaml.getDouble(path));
+                assertThat(experienceConfig.getAnimalsXP(entityType)).as(path)
+                        .isEqualTo(yaml.getDouble(path, 0.25));
+                assertThat(experienceConfig.hasCombatXP(entityType)).as(path)
+                        .isEqualTo(yaml.contains(path));
+            }
+            assertThat(experienceConfig.getCombatXP(EntityType.ZOMBIE)).isEqualTo(7.5);
+            assertThat(experienceConfig.getAnimalsXP(EntityType.COW)).isEqualTo(0.25);
+
+            // And - so do the flags
+            assertThat(experienceConfig.useCombatHPCeiling())
+                    .isEqualTo(yaml.getBoolean("ExploitFix.Combat.XPCeiling.Enabled", true));
+            assertThat(experienceConfig.isPartyExperienceBarsEnabled()).isFalse();
+            assertThat(experienceConfig.isPassiveGainsExperienceBarsEnabled())
+                    .isEqualTo(yaml.getBoolean("Experience_Bars.Update.Passive", true));
+            assertThat(experienceConfig.isXpGainCoalescingEnabled())
+                    .isEqualTo(yaml.getBoolean("Coalesce_XP_Gains.Enabled", false));
+        }
+
+        @Test
+        void compileHotValuesShouldPickUpChangedValues() {
+            // Given - a compiled snapshot
+            final YamlConfiguration yaml = shippedExperienceYaml();
+            final ExperienceConfig experienceConfig = experienceConfigBackedBy(yaml);
+
+            // When - the config changes and is compiled again, as a reload does
+            yaml.set("Experience_Values.Combat.Multiplier.Zombie", 9.0);
+            experienceConfig.compileHotValues();
+
+            // Then
+            assertThat(experienceConfig.getCombatXP(EntityType.ZOMBIE)).isEqualTo(9.0);
+        }
+    }
 }
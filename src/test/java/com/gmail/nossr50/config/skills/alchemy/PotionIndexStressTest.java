@@ -0,0 +1,158 @@
+package com.gmail.nossr50.config.skills.alchemy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.gmail.nossr50.datatypes.skills.alchemy.AlchemyPotion;
+import com.gmail.nossr50.mcMMO;
+import com.gmail.nossr50.util.PotionUtil;
+import com.gmail.nossr50.util.platform.MinecraftGameVersion;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.PotionMeta;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+/**
+ * Benchmark of {@link PotionIndex} against the linear scan it replaced, over every potion in the
+ * shipped potions.yml. Every slot of a brewing stand is looked up on each brew and inventory
+ * click, so a lookup should not depend on the number of configured potions.
+ *
+ * <p>Potions are stub-only mocks built from the config, since ItemStacks and PotionEffectTypes
+ * need a server. Effects keep their amplifier and duration but lose their type.
+ *
+ * <p>Tagged as {@code stress} so default Surefire runs skip it.
+ */
+@Tag("stress")
+class PotionIndexStressTest {
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    private final Logger logger = Logger.getLogger("PotionIndexStressTest");
+
+    private MockedStatic<mcMMO> mockedMcMMO;
+    private List<AlchemyPotion> potions;
+    private List<ItemStack> items;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockedMcMMO = mockStatic(mcMMO.class);
+        final MinecraftGameVersion minecraftGameVersion = mock(MinecraftGameVersion.class);
+        when(minecraftGameVersion.isAtLeast(1, 20, 5)).thenReturn(true);
+        when(mcMMO.getMinecraftGameVersion()).thenReturn(minecraftGameVersion);
+
+        final YamlConfiguration config;
+        try (InputStream inputStream = getClass().getResourceAsStream("/potions.yml")) {
+            assertThat(inputStream).isNotNull();
+            config = YamlConfiguration.loadConfiguration(
+                    new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        }
+
+        potions = new ArrayList<>();
+        items = new ArrayList<>();
+        final ConfigurationSection potionSection = config.getConfigurationSection("Potions");
+        for (String potionName : potionSection.getKeys(false)) {
+            final ConfigurationSection section = potionSection.getConfigurationSection(potionName);
+            potions.add(new AlchemyPotion(potionName, mockPotionStack(section), Map.of()));
+            // A separate stack, as a lookup never gets the configured one itself
+            items.add(mockPotionStack(section));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockedMcMMO.close();
+    }
+
+    private static ItemStack mockPotionStack(ConfigurationSection section) {
+        final List<PotionEffect> effects = new ArrayList<>();
+        for (String effect : section.getStringList("Effects")) {
+            final String[] parts = effect.split(" ");
+            final PotionEffect potionEffect = mock(PotionEffect.class, withSettings().stubOnly());
+            when(potionEffect.getAmplifier()).thenReturn(Integer.parseInt(parts[1]));
+            when(potionEffect.getDuration()).thenReturn(Integer.parseInt(parts[2]));
+            effects.add(potionEffect);
+        }
+
+        final PotionType potionType = PotionUtil.matchPotionType(
+                section.getString("PotionData.PotionType"),
+                section.getBoolean("PotionData.Upgraded"),
+                section.getBoolean("PotionData.Extended"));
+        final List<String> lore = section.getStringList("Lore");
+
+        final PotionMeta meta = mock(PotionMeta.class, withSettings().stubOnly());
+        when(meta.getBasePotionType()).thenReturn(potionType);
+        when(meta.getCustomEffects()).thenReturn(effects);
+        when(meta.hasLore()).thenReturn(!lore.isEmpty());
+        when(meta.getLore()).thenReturn(lore);
+
+        final ItemStack itemStack = mock(ItemStack.class, withSettings().stubOnly());
+        when(itemStack.getType()).thenReturn(
+                Material.valueOf(section.getString("Material", "POTION")));
+        when(itemStack.getItemMeta()).thenReturn(meta);
+        return itemStack;
+    }
+
+    // The lookup PotionConfig made before the index
+    private AlchemyPotion linearScan(ItemStack item) {
+        final PotionMeta itemMeta = (PotionMeta) item.getItemMeta();
+        final List<AlchemyPotion> potionList = potions.stream().filter(
+                potion -> potion.isSimilarPotion(item, itemMeta)).toList();
+        return potionList.isEmpty() ? null : potionList.get(0);
+    }
+
+    @Test
+    void indexShouldMatchTheLinearScanAndBeFaster() {
+        final PotionIndex index = new PotionIndex(potions);
+
+        // Every potion resolves to the same potion either way
+        for (ItemStack item : items) {
+            assertThat(index.find(item)).isSameAs(linearScan(item));
+        }
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            for (ItemStack item : items) {
+                index.find(item);
+                linearScan(item);
+            }
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            for (ItemStack item : items) {
+                linearScan(item);
+            }
+        }
+        final long linearNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            for (ItemStack item : items) {
+                index.find(item);
+            }
+        }
+        final long indexedNanos = System.nanoTime() - start;
+
+        final long lookups = (long) MEASURED_ROUNDS * items.size();
+        logger.info(String.format("%d potions, linear scan %d ns/lookup, index %d ns/lookup",
+                potions.size(), linearNanos / lookups, indexedNanos / lookups));
+        assertThat(indexedNanos).isLessThan(linearNanos);
+    }
+}
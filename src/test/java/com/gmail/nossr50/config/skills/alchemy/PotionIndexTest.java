@@ -0,0 +1,93 @@
+package com.gmail.nossr50.config.skills.alchemy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.gmail.nossr50.datatypes.skills.alchemy.AlchemyPotion;
+import java.util.List;
+import java.util.Map;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.PotionMeta;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionType;
+import org.junit.jupiter.api.Test;
+
+class PotionIndexTest {
+
+    // PotionEffectType needs the server registry, so effects are told apart by their numbers
+    private static PotionEffect mockEffect(int amplifier, int duration) {
+        final PotionEffect effect = mock(PotionEffect.class);
+        when(effect.getAmplifier()).thenReturn(amplifier);
+        when(effect.getDuration()).thenReturn(duration);
+        return effect;
+    }
+
+    private static ItemStack mockPotionStack(Material material, PotionType type,
+            List<PotionEffect> effects, List<String> lore) {
+        final PotionMeta meta = mock(PotionMeta.class);
+        when(meta.getBasePotionType()).thenReturn(type);
+        when(meta.getCustomEffects()).thenReturn(effects);
+        when(meta.hasLore()).thenReturn(!lore.isEmpty());
+        when(meta.getLore()).thenReturn(lore);
+
+        final ItemStack itemStack = mock(ItemStack.class);
+        when(itemStack.getType()).thenReturn(material);
+        when(itemStack.getItemMeta()).thenReturn(meta);
+        return itemStack;
+    }
+
+    @Test
+    void potionsSharingAKeyShouldBeToldApartByTheSimilarityCheck() {
+        // Given - two potions that only differ by lore
+        final AlchemyPotion plain = new AlchemyPotion("PLAIN", mockPotionStack(Material.POTION,
+                PotionType.MUNDANE, List.of(), List.of()), Map.of());
+        final AlchemyPotion lored = new AlchemyPotion("LORED", mockPotionStack(Material.POTION,
+                PotionType.MUNDANE, List.of(), List.of("Brewed with care")), Map.of());
+        final PotionIndex index = new PotionIndex(List.of(plain, lored));
+
+        // When
+        final AlchemyPotion foundLored = index.find(mockPotionStack(Material.POTION,
+                PotionType.MUNDANE, List.of(), List.of("Brewed with care")));
+        final AlchemyPotion foundPlain = index.find(mockPotionStack(Material.POTION,
+                PotionType.MUNDANE, List.of(), List.of()));
+
+        // Then
+        assertThat(foundLored).isSameAs(lored);
+        assertThat(foundPlain).isSameAs(plain);
+    }
+
+    @Test
+    void customEffectsShouldMatchInAnyOrder() {
+        // Given - a potion with two custom effects
+        final AlchemyPotion potion = new AlchemyPotion("MIXED", mockPotionStack(
+                Material.SPLASH_POTION, PotionType.AWKWARD,
+                List.of(mockEffect(0, 100), mockEffect(1, 200)), List.of()), Map.of());
+        final PotionIndex index = new PotionIndex(List.of(potion));
+
+        // When - the same effects are listed the other way around
+        final AlchemyPotion found = index.find(mockPotionStack(Material.SPLASH_POTION,
+                PotionType.AWKWARD, List.of(mockEffect(1, 200), mockEffect(0, 100)), List.of()));
+
+        // Then
+        assertThat(found).isSameAs(potion);
+    }
+
+    @Test
+    void itemsDifferingInMaterialTypeOrEffectsShouldNotMatch() {
+        // Given
+        final AlchemyPotion potion = new AlchemyPotion("SPLASH", mockPotionStack(
+                Material.SPLASH_POTION, PotionType.AWKWARD, List.of(mockEffect(0, 100)),
+                List.of()), Map.of());
+        final PotionIndex index = new PotionIndex(List.of(potion));
+
+        // When / Then
+        assertThat(index.find(mockPotionStack(Material.LINGERING_POTION, PotionType.AWKWARD,
+                List.of(mockEffect(0, 100)), List.of()))).isNull();
+        assertThat(index.find(mockPotionStack(Material.SPLASH_POTION, PotionType.MUNDANE,
+                List.of(mockEffect(0, 100)), List.of()))).isNull();
+        assertThat(index.find(mockPotionStack(Material.SPLASH_POTION, PotionType.AWKWARD,
+                List.of(mockEffect(0, 101)), List.of()))).isNull();
+    }
+}
@@ -315,6 +315,128 @@ class FlatFileDatabaseManagerTest {
         assertEquals(updatedName, reloadedProfile.getPlayerName());
     }
 
+    @Test
+    void saveUserShouldPatchRowInPlaceWhenLineLengthIsUnchanged() {
+        // Given – a saved user
+        var databaseManager = new FlatFileDatabaseManager(
+                new File(getTemporaryUserFilePath()), logger, PURGE_TIME, 0, true);
+        UUID uuid = UUID.fromString(HEALTHY_DB_LINE_ONE_UUID_STR);
+        var profile = new PlayerProfile("nossr50", uuid, 0);
+        profile.modifySkill(PrimarySkillType.MINING, 10);
+        assertTrue(databaseManager.saveUser(profile));
+        long fileLength = databaseManager.getUsersFile().length();
+
+        // When – saved again with a value of the same width
+        profile.modifySkill(PrimarySkillType.MINING, 42);
+        assertTrue(databaseManager.saveUser(profile));
+
+        // Then – the row was overwritten where it was and reads back updated
+        assertEquals(fileLength, databaseManager.getUsersFile().length());
+        assertEquals(42,
+                databaseManager.loadPlayerProfile(uuid).getSkillLevel(PrimarySkillType.MINING));
+    }
+
+    @Test
+    void saveUserShouldLeaveHealthyFileWhenRowsMove() throws IOException {
+        // Given – a database with three users
+        var databaseManager = new FlatFileDatabaseManager(
+                new File(getTemporaryUserFilePath()), logger, PURGE_TIME, 0, true);
+        replaceDataInFile(databaseManager, normalDatabaseData);
+        UUID uuid = UUID.fromString(HEALTHY_DB_LINE_ONE_UUID_STR);
+        var profile = databaseManager.loadPlayerProfile(uuid);
+        assertTrue(profile.isLoaded());
+
+        // When – a save grows the row so it has to move to the end of the file
+        profile.modifySkill(PrimarySkillType.MINING, 123456);
+        assertTrue(databaseManager.saveUser(profile));
+        assertTrue(databaseManager.removeUser("powerless", randomUUID()));
+
+        // Then – a fresh manager sees the same users
+        var reopened = new FlatFileDatabaseManager(
+                databaseManager.getUsersFile(), logger, PURGE_TIME, 0, true);
+        assertEquals(List.of("mrfloris", "nossr50"), reopened.getStoredUsers());
+        assertEquals(123456,
+                reopened.loadPlayerProfile(uuid).getSkillLevel(PrimarySkillType.MINING));
+        assertFalse(reopened.loadPlayerProfile("powerless").isLoaded());
+
+        // And – the left-over rows are not mistaken for corrupt data
+        List<FlatFileDataFlag> flags = reopened.checkFileHealthAndStructure();
+        assertThat(flags == null ? List.<FlatFileDataFlag>of() : flags)
+                .doesNotContain(FlatFileDataFlag.CORRUPTED_OR_UNRECOGNIZABLE);
+    }
+
+    @Test
+    void saveUserShouldCompactFileAfterManyMovedRows() {
+        // Given – a saved user
+        var databaseManager = new FlatFileDatabaseManager(
+                new File(getTemporaryUserFilePath()), logger, PURGE_TIME, 0, true);
+        UUID uuid = new UUID(0, 1);
+        var profile = new PlayerProfile("compacted", uuid, 0);
+        assertTrue(databaseManager.saveUser(profile));
+
+        // When – every save changes the row length, so every save moves the row
+        for (int i = 0; i < 1000; i++) {
+            profile.modifySkill(PrimarySkillType.MINING, i % 2 == 0 ? 9 : 10);
+            assertTrue(databaseManager.saveUser(profile));
+        }
+
+        // Then – the file stays bounded instead of holding a thousand dead rows
+        assertThat(databaseManager.getUsersFile().length()).isLessThan(200_000L);
+        assertEquals(10,
+                databaseManager.loadPlayerProfile(uuid).getSkillLevel(PrimarySkillType.MINING));
+    }
+
+    @Test
+    void loadPlayerProfileShouldSeeChangesMadeToTheFileOutsideTheManager() throws Exception {
+        // Given – the index and the leaderboards were built over one version of the file
+        var databaseManager = new FlatFileDatabaseManager(
+                new File(getTemporaryUserFilePath()), logger, PURGE_TIME, 0, true);
+        replaceDataInFile(databaseManager, normalDatabaseData);
+        assertTrue(databaseManager.loadPlayerProfile("powerless").isLoaded());
+        assertThat(databaseManager.readLeaderboard(null, 1, 10)).hasSize(3);
+
+        // When – the file is replaced behind the manager's back
+        replaceDataInFile(databaseManager, new String[]{normalDatabaseData[2]});
+
+        // Then – lookups follow the new file
+        assertTrue(databaseManager.loadPlayerProfile("powerless").isLoaded());
+        assertFalse(databaseManager.loadPlayerProfile("nossr50").isLoaded());
+
+        // And – so does the next leaderboard refresh, though the lookups rebuilt the index first
+        resetLeaderboardThrottle(databaseManager);
+        assertThat(databaseManager.readLeaderboard(null, 1, 10))
+                .extracting(PlayerStat::playerName)
+                .containsExactly("powerless");
+    }
+
+    @Test
+    void saveUserShouldNotRebuildTheIndexWhenNamesAreDuplicated() throws Exception {
+        // Given – two users sharing a name, the second one loaded by UUID
+        var databaseManager = new FlatFileDatabaseManager(
+                new File(getTemporaryUserFilePath()), logger, PURGE_TIME, 0, true);
+        replaceDataInFile(databaseManager, duplicateNameDatabaseData);
+        UUID uuid = UUID.fromString("631e3896-da2a-4077-974b-d047859d76bc");
+        var profile = databaseManager.loadPlayerProfile(uuid);
+        assertTrue(profile.isLoaded());
+        final Object index = userIndexOf(databaseManager);
+
+        // When – saved repeatedly, both in place and with rows that move
+        for (int i = 0; i < 20; i++) {
+            profile.modifySkill(PrimarySkillType.MINING, i % 4 < 2 ? 1000 + i : 100000 + i);
+            assertTrue(databaseManager.saveUser(profile));
+        }
+
+        // Then – every save went through the same index
+        assertThat(userIndexOf(databaseManager)).isSameAs(index);
+        assertEquals(100019,
+                databaseManager.loadPlayerProfile(uuid).getSkillLevel(PrimarySkillType.MINING));
+
+        // And – the name still finds the first of the two users
+        assertEquals(HEALTHY_DB_LINE_ONE_UUID_STR,
+                databaseManager.loadPlayerProfile("mochi").getUniqueId().toString());
+        assertThat(userIndexOf(databaseManager)).isSameAs(index);
+    }
+
     @Test
     void addedMissingLastLoginValuesAreSchemaUpgradedAndSetToMinusOne() {
         // Given
@@ -1466,18 +1588,18 @@ class FlatFileDatabaseManagerTest {
     }
 
     /**
-     * The bulk snapshot path exists so cache rebuilds always observe current file contents; it
-     * must not be subject to the wall-clock throttle that spaces out command-triggered rebuilds.
+     * Saves update the live leaderboards directly, so neither the throttled read path nor the
+     * bulk snapshot path has to wait for a rebuild to see a newly saved user.
      */
     @Test
-    void readLeaderboardSnapshotShouldObserveNewDataWhenThrottleWouldServeStaleData()
+    void readLeaderboardShouldObserveSavedUsersWithoutWaitingForARebuild()
             throws Exception {
-        // Given - a database with two ranked users whose leaderboards were just rebuilt,
+        // Given - a database with two ranked users whose leaderboards were just built,
         // putting the throttle in its "too soon to update" window
         var databaseManager = createDatabaseWithTwoRankedUsers();
         databaseManager.readLeaderboardSnapshot(10);
 
-        // And - a third, higher-level user saved after that rebuild
+        // And - a third, higher-level user saved after that build
         final UUID topUuid = randomUUID();
         databaseManager.newUser("topdog", topUuid);
         final PlayerProfile topProfile = databaseManager.loadPlayerProfile(topUuid);
@@ -1489,19 +1611,67 @@ class FlatFileDatabaseManagerTest {
         }
         databaseManager.saveUser(topProfile);
 
-        // When - reading through the throttled path and the forced bulk snapshot path
+        // When - reading through the throttled path and the bulk snapshot path
         final List<PlayerStat> throttledPage =
                 databaseManager.readLeaderboard(PrimarySkillType.MINING, 1, 10);
         final List<PlayerStat> snapshotPage = databaseManager.readLeaderboardSnapshot(10)
                 .skillLeaderboards().get(PrimarySkillType.MINING);
 
-        // Then - the throttled path still serves the pre-save snapshot
+        // Then - both paths observe the new top player immediately
         assertThat(throttledPage).extracting(PlayerStat::playerName)
-                .containsExactly("leader", "follower");
-
-        // And - the forced path observes the new top player immediately
+                .containsExactly("topdog", "leader", "follower");
         assertThat(snapshotPage).extracting(PlayerStat::playerName)
                 .containsExactly("topdog", "leader", "follower");
+
+        // And - the rank lookup agrees
+        assertThat(databaseManager.readRank("topdog").get(null)).isEqualTo(1);
+        assertThat(databaseManager.readRank("follower").get(null)).isEqualTo(3);
+    }
+
+    /**
+     * Once built, the leaderboards follow saves, renames and removals without rescanning the
+     * users file, and a change made to the file behind the manager's back is still picked up by
+     * the next refresh.
+     */
+    @Test
+    void leaderboardsShouldFollowUserChangesAndRescanOnlyWhenTheFileChangesExternally()
+            throws Exception {
+        // Given - a database with two ranked users and built leaderboards
+        var databaseManager = createDatabaseWithTwoRankedUsers();
+        databaseManager.readLeaderboardSnapshot(10);
+
+        // When - the follower overtakes the leader and the leader is then removed
+        final PlayerProfile followerProfile = databaseManager.loadPlayerProfile("follower");
+        followerProfile.modifySkill(PrimarySkillType.MINING, 1000);
+        databaseManager.saveUser(followerProfile);
+        final List<PlayerStat> afterSave =
+                databaseManager.readLeaderboard(PrimarySkillType.MINING, 1, 10);
+        databaseManager.removeUser("leader", randomUUID());
+        final List<PlayerStat> afterRemove =
+                databaseManager.readLeaderboard(PrimarySkillType.MINING, 1, 10);
+
+        // Then - each change shows up in order without a rebuild
+        assertThat(afterSave).extracting(PlayerStat::playerName)
+                .containsExactly("follower", "leader");
+        assertThat(afterRemove).extracting(PlayerStat::playerName)
+                .containsExactly("follower");
+        assertThat(databaseManager.readRank("leader").get(PrimarySkillType.MINING)).isNull();
+
+        // When - another user is appended to the file outside the manager
+        final File usersFile = databaseManager.getUsersFile();
+        final PlayerProfile outsider = new PlayerProfile("outsider", randomUUID(), true, 0);
+        outsider.modifySkill(PrimarySkillType.MINING, 5000);
+        final StringBuilder line = new StringBuilder();
+        databaseManager.writeUserToLine(outsider, line);
+        try (FileWriter out = new FileWriter(usersFile, true)) {
+            out.append(line);
+        }
+        resetLeaderboardThrottle(databaseManager);
+
+        // Then - the next refresh notices and rescans
+        assertThat(databaseManager.readLeaderboard(PrimarySkillType.MINING, 1, 10))
+                .extracting(PlayerStat::playerName)
+                .containsExactly("outsider", "follower");
     }
 
     /**
@@ -1590,6 +1760,13 @@ class FlatFileDatabaseManagerTest {
                 .containsExactly("leader", "follower");
     }
 
+    private static Object userIndexOf(FlatFileDatabaseManager databaseManager)
+            throws Exception {
+        final Field userIndexField = FlatFileDatabaseManager.class.getDeclaredField("userIndex");
+        userIndexField.setAccessible(true);
+        return userIndexField.get(databaseManager);
+    }
+
     private static void resetLeaderboardThrottle(FlatFileDatabaseManager databaseManager)
             throws Exception {
         final Field lastUpdateField = FlatFileDatabaseManager.class.getDeclaredField("lastUpdate");
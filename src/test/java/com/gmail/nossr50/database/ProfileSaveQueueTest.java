@@ -0,0 +1,193 @@
+package com.gmail.nossr50.database;
+
+import static java.util.logging.Logger.getLogger;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.gmail.nossr50.MMOTestEnvironment;
+import com.gmail.nossr50.datatypes.player.PlayerProfile;
+import com.gmail.nossr50.datatypes.skills.PrimarySkillType;
+import com.gmail.nossr50.mcMMO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class ProfileSaveQueueTest extends MMOTestEnvironment {
+    private static final Logger logger = getLogger(ProfileSaveQueueTest.class.getName());
+
+    private static final int STARTING_LEVEL = 10;
+
+    private DatabaseManager databaseManager;
+    private List<Runnable> scheduledFlushes;
+
+    @BeforeEach
+    void setUp() {
+        mockBaseEnvironment(logger);
+        databaseManager = mock(DatabaseManager.class);
+        scheduledFlushes = new ArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUpStaticMocks();
+    }
+
+    @Test
+    void enqueueShouldCoalesceRepeatSavesOfTheSameProfile() {
+        // Given - a queue and a dirty profile
+        final ProfileSaveQueue queue = createQueue(16, 16);
+        final PlayerProfile profile = dirtyProfile("Herb");
+
+        // When - the profile is queued twice before the flush runs
+        assertThat(queue.enqueue(profile)).isTrue();
+        profile.addLevels(PrimarySkillType.MINING, 5);
+        assertThat(queue.enqueue(profile)).isTrue();
+        runScheduledFlushes();
+
+        // Then - one flush saves a single copy carrying the latest data
+        final ArgumentCaptor<List<PlayerProfile>> batch = batchCaptor();
+        verify(databaseManager).saveUsers(batch.capture());
+        assertThat(batch.getValue()).hasSize(1);
+        assertThat(batch.getValue().get(0).getSkillLevel(PrimarySkillType.MINING))
+                .isEqualTo(STARTING_LEVEL + 5);
+        assertThat(queue.getStats().coalesced()).isEqualTo(1);
+        assertThat(queue.getStats().saved()).isEqualTo(1);
+    }
+
+    @Test
+    void flushShouldSaveQueuedProfilesInBatches() {
+        // Given - a queue with a batch size of two
+        final ProfileSaveQueue queue = createQueue(16, 2);
+
+        // When - five profiles are queued and flushed
+        for (int i = 0; i < 5; i++) {
+            queue.enqueue(dirtyProfile("Player" + i));
+        }
+        runScheduledFlushes();
+
+        // Then - the database receives batches of two, two and one
+        final ArgumentCaptor<List<PlayerProfile>> batch = batchCaptor();
+        verify(databaseManager, times(3)).saveUsers(batch.capture());
+        assertThat(batch.getAllValues()).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(queue.getStats().batches()).isEqualTo(3);
+        assertThat(queue.getStats().depth()).isZero();
+    }
+
+    @Test
+    void flushShouldRequeueProfilesTheDatabaseFailedToSave() {
+        // Given - a database that fails to save the one profile in the batch
+        final ProfileSaveQueue queue = createQueue(16, 16);
+        mockedMcMMO.when(mcMMO::getProfileSaveQueue).thenReturn(queue);
+        when(databaseManager.saveUsers(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        final PlayerProfile profile = dirtyProfile("Herb");
+
+        // When - the profile is flushed
+        queue.enqueue(profile);
+        final Runnable firstFlush = scheduledFlushes.remove(0);
+        firstFlush.run();
+
+        // Then - it stays dirty and waits in the queue for the next flush
+        assertThat(queue.getStats().failed()).isEqualTo(1);
+        assertThat(queue.getStats().depth()).isEqualTo(1);
+        assertThat(scheduledFlushes).hasSize(1);
+        assertThat(profile.beginSave()).isNotNull();
+    }
+
+    @Test
+    void enqueueShouldRejectProfilesOnceTheQueueIsFull() {
+        // Given - a queue holding at most one profile
+        final ProfileSaveQueue queue = createQueue(1, 16);
+        queue.enqueue(dirtyProfile("Herb"));
+
+        // When - another profile is queued
+        final boolean accepted = queue.enqueue(dirtyProfile("Other"));
+
+        // Then - it is turned away so the caller saves it itself
+        assertThat(accepted).isFalse();
+        assertThat(queue.getStats().rejected()).isEqualTo(1);
+        assertThat(queue.getStats().peakDepth()).isEqualTo(1);
+    }
+
+    @Test
+    void enqueueShouldScheduleAgainAfterTheSchedulerRejectedAFlush() {
+        // Given - a scheduler that rejects the first flush
+        final boolean[] rejectNext = {true};
+        final ProfileSaveQueue queue = new ProfileSaveQueue(() -> databaseManager, logger,
+                task -> {
+                    if (rejectNext[0]) {
+                        rejectNext[0] = false;
+                        throw new IllegalStateException("Scheduler rejected the task");
+                    }
+                    scheduledFlushes.add(task);
+                }, 16, 16);
+        final PlayerProfile profile = dirtyProfile("Herb");
+
+        // When - the first enqueue fails to schedule its flush
+        assertThatThrownBy(() -> queue.enqueue(profile))
+                .isInstanceOf(IllegalStateException.class);
+
+        // Then - the profile is still queued, and the next enqueue schedules a flush
+        assertThat(queue.getStats().depth()).isEqualTo(1);
+        assertThat(queue.enqueue(dirtyProfile("Other"))).isTrue();
+        assertThat(scheduledFlushes).hasSize(1);
+
+        // And - that flush saves both profiles
+        runScheduledFlushes();
+        final ArgumentCaptor<List<PlayerProfile>> batch = batchCaptor();
+        verify(databaseManager).saveUsers(batch.capture());
+        assertThat(batch.getValue()).extracting(PlayerProfile::getPlayerName)
+                .containsExactly("Herb", "Other");
+    }
+
+    @Test
+    void drainShouldSaveQueuedAndGivenProfilesOnTheCallingThread() {
+        // Given - one profile already queued and one more handed to the drain
+        final ProfileSaveQueue queue = createQueue(16, 16);
+        queue.enqueue(dirtyProfile("Herb"));
+
+        // When - the queue is drained without running the scheduled flush
+        queue.drain(List.of(dirtyProfile("Other")));
+
+        // Then - both are saved in one batch and nothing is left for the async flush
+        final ArgumentCaptor<List<PlayerProfile>> batch = batchCaptor();
+        verify(databaseManager).saveUsers(batch.capture());
+        assertThat(batch.getValue()).extracting(PlayerProfile::getPlayerName)
+                .containsExactly("Herb", "Other");
+        runScheduledFlushes();
+        verify(databaseManager, times(1)).saveUsers(anyList());
+    }
+
+    private ProfileSaveQueue createQueue(int capacity, int batchSize) {
+        return new ProfileSaveQueue(() -> databaseManager, logger, scheduledFlushes::add,
+                capacity, batchSize);
+    }
+
+    private void runScheduledFlushes() {
+        while (!scheduledFlushes.isEmpty()) {
+            scheduledFlushes.remove(0).run();
+        }
+    }
+
+    private static PlayerProfile dirtyProfile(String name) {
+        final PlayerProfile profile = new PlayerProfile(name, UUID.randomUUID(), true,
+                STARTING_LEVEL);
+        profile.markProfileDirty();
+        return profile;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<PlayerProfile>> batchCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
@@ -343,6 +343,53 @@ class SQLDatabaseManagerTest {
         }
     }
 
+    @ParameterizedTest(name = "{0} - saveUser with a missing table row changes nothing")
+    @MethodSource("dbFlavors")
+    void whenATableRowIsMissingSaveShouldFailWithoutPartialWrites(DbFlavor flavor)
+            throws Exception {
+        // GIVEN a saved user whose huds row went missing
+        SQLDatabaseManager databaseManager = createManagerFor(flavor);
+        Player player = Mockito.mock(Player.class);
+        UUID playerUuid = UUID.randomUUID();
+        String playerName = "nossr50_partial_" + flavor.name().toLowerCase();
+
+        when(player.getUniqueId()).thenReturn(playerUuid);
+        when(player.getName()).thenReturn(playerName);
+
+        try {
+            PlayerProfile playerProfile = databaseManager.newUser(player);
+            playerProfile.modifySkill(PrimarySkillType.MINING, 10);
+            assertThat(databaseManager.saveUser(playerProfile)).isTrue();
+
+            try (Connection connection = databaseManager.getConnection(
+                    SQLDatabaseManager.PoolIdentifier.MISC);
+                    Statement statement = connection.createStatement()) {
+                statement.executeUpdate("DELETE h FROM mcmmo_huds h JOIN mcmmo_users u"
+                        + " ON h.user_id = u.id WHERE u.`user` = '" + playerName + "'");
+            }
+
+            // WHEN the user is saved with a new level
+            playerProfile.modifySkill(PrimarySkillType.MINING, 20);
+            boolean saveSucceeded = databaseManager.saveUser(playerProfile);
+
+            // THEN the save fails
+            assertThat(saveSucceeded).isFalse();
+
+            // AND the other tables keep their previous values
+            try (Connection connection = databaseManager.getConnection(
+                    SQLDatabaseManager.PoolIdentifier.MISC);
+                    Statement statement = connection.createStatement();
+                    ResultSet resultSet = statement.executeQuery("SELECT s.mining FROM"
+                            + " mcmmo_skills s JOIN mcmmo_users u ON s.user_id = u.id"
+                            + " WHERE u.`user` = '" + playerName + "'")) {
+                assertThat(resultSet.next()).isTrue();
+                assertThat(resultSet.getInt(1)).isEqualTo(10);
+            }
+        } finally {
+            databaseManager.onDisable();
+        }
+    }
+
     @ParameterizedTest(name = "{0} - saveUser persists skill XP values")
     @MethodSource("dbFlavors")
     void whenSavingSkillXpValuesShouldPersistToDatabase(DbFlavor flavor) {
@@ -392,6 +439,45 @@ class SQLDatabaseManagerTest {
         }
     }
 
+    @ParameterizedTest(name = "{0} - saveUsers persists a batch of existing and new users")
+    @MethodSource("dbFlavors")
+    void whenSavingUsersInBatchShouldPersistExistingAndNewUsers(DbFlavor flavor) {
+        // GIVEN an existing user and a profile that has no rows yet
+        SQLDatabaseManager databaseManager = createManagerFor(flavor);
+        String suffix = flavor.name().toLowerCase();
+
+        try {
+            PlayerProfile existingProfile = databaseManager.newUser("batch_old_" + suffix,
+                    UUID.randomUUID());
+            PlayerProfile newProfile = new PlayerProfile("batch_new_" + suffix, UUID.randomUUID(),
+                    true, 0);
+
+            // WHEN both are changed and saved in one batch
+            existingProfile.modifySkill(PrimarySkillType.MINING, 25);
+            existingProfile.setSkillXpLevel(PrimarySkillType.MINING, 7);
+            newProfile.modifySkill(PrimarySkillType.HERBALISM, 40);
+
+            List<PlayerProfile> failed = databaseManager.saveUsers(
+                    List.of(existingProfile, newProfile));
+
+            // THEN nothing fails
+            assertThat(failed).isEmpty();
+
+            // AND both users load back with the saved values
+            PlayerProfile retrievedExisting =
+                    databaseManager.loadPlayerProfile(existingProfile.getPlayerName());
+            assertThat(retrievedExisting.getSkillLevel(PrimarySkillType.MINING)).isEqualTo(25);
+            assertThat(retrievedExisting.getSkillXpLevel(PrimarySkillType.MINING)).isEqualTo(7);
+
+            PlayerProfile retrievedNew =
+                    databaseManager.loadPlayerProfile(newProfile.getPlayerName());
+            assertThat(retrievedNew.isLoaded()).isTrue();
+            assertThat(retrievedNew.getSkillLevel(PrimarySkillType.HERBALISM)).isEqualTo(40);
+        } finally {
+            databaseManager.onDisable();
+        }
+    }
+
     // ------------------------------------------------------------------------
     // Schema upgrades
     // ------------------------------------------------------------------------
@@ -0,0 +1,80 @@
+package com.gmail.nossr50.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+
+/**
+ * Benchmark of {@link SQLRanks} against the two COUNT queries per scope {@code readRank} used
+ * before, on an embedded H2 database. Round trips are free in process, so this measures the
+ * work the database does; against a remote MySQL each of the 35 saved statements also saves a
+ * network round trip.
+ *
+ * <p>Tagged as {@code stress} so default Surefire runs skip it.
+ */
+@Tag("stress")
+@TestInstance(Lifecycle.PER_CLASS)
+class SQLRanksStressTest {
+    private static final int PLAYERS = 20_000;
+    private static final int WARMUP_READS = 50;
+    private static final int MEASURED_READS = 200;
+
+    private final Logger logger = Logger.getLogger("SQLRanksStressTest");
+    private SQLRanksTestDatabase database;
+
+    @FunctionalInterface
+    private interface RankReader {
+        Object read(String playerName) throws SQLException;
+    }
+
+    @BeforeAll
+    void setUp() throws SQLException {
+        database = new SQLRanksTestDatabase(PLAYERS, 1_000, 10, 7L);
+    }
+
+    @AfterAll
+    void tearDown() throws SQLException {
+        database.close();
+    }
+
+    private long measureNanos(RankReader reader) throws SQLException {
+        final List<String> names = database.getPlayerNames();
+        for (int i = 0; i < WARMUP_READS; i++) {
+            reader.read(names.get(i * 97 % names.size()));
+        }
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_READS; i++) {
+            reader.read(names.get(i * 131 % names.size()));
+        }
+        return (System.nanoTime() - start) / MEASURED_READS;
+    }
+
+    @Test
+    void rankStatementShouldBeBenchmarkedAgainstTheCountsPerScope() throws SQLException {
+        // Given
+        final RankReader countsPerScope = database::readRankWithCountsPerScope;
+        final RankReader unionCounts = name -> SQLRanks.readRank(database.getConnection(),
+                SQLRanksTestDatabase.TABLE_PREFIX, name);
+
+        // When
+        final long countsPerScopeNanos = measureNanos(countsPerScope);
+        final long unionCountsNanos = measureNanos(unionCounts);
+
+        // Then - both agree, the timings are for the reader
+        final String playerName = database.getPlayerNames().get(PLAYERS / 2);
+        assertThat(unionCounts.read(playerName)).isEqualTo(countsPerScope.read(playerName));
+
+        logger.info(String.format("readRank over %d players: counts per scope %.2f ms, "
+                        + "union of counts %.2f ms", PLAYERS, countsPerScopeNanos / 1e6,
+                unionCountsNanos / 1e6));
+    }
+}
@@ -0,0 +1,43 @@
+package com.gmail.nossr50.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.SQLException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SQLRanksTest {
+    private SQLRanksTestDatabase database;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        // Levels up to 5 over 17 skills make plenty of ties and some zero levels
+        database = new SQLRanksTestDatabase(200, 5, 3, 42L);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        database.close();
+    }
+
+    @Test
+    void ranksShouldMatchTheCountsPerScope() throws SQLException {
+        for (String playerName : database.getPlayerNames()) {
+            // When
+            final var ranks = SQLRanks.readRank(database.getConnection(),
+                    SQLRanksTestDatabase.TABLE_PREFIX, playerName);
+
+            // Then - same ranks, ties and ghost rows included, and no rank for zero levels
+            assertThat(ranks).as(playerName)
+                    .isEqualTo(database.readRankWithCountsPerScope(playerName));
+        }
+    }
+
+    @Test
+    void unknownPlayersShouldHaveNoRanks() throws SQLException {
+        // When & Then
+        assertThat(SQLRanks.readRank(database.getConnection(), SQLRanksTestDatabase.TABLE_PREFIX,
+                "nobody")).isEmpty();
+    }
+}
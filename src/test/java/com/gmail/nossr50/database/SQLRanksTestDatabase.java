@@ -0,0 +1,174 @@
+package com.gmail.nossr50.database;
+
+import com.gmail.nossr50.datatypes.skills.PrimarySkillType;
+import com.gmail.nossr50.util.skills.SkillTools;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Embedded H2 database in MySQL mode holding the users and skills tables, for checking and
+ * benchmarking {@link SQLRanks} without Docker. Also keeps the per-scope COUNT queries
+ * {@code readRank} used before {@link SQLRanks}, as the baseline.
+ */
+final class SQLRanksTestDatabase implements AutoCloseable {
+    static final String TABLE_PREFIX = "mcmmo_";
+
+    private final Connection connection;
+    private final List<String> playerNames = new ArrayList<>();
+
+    /**
+     * Creates the tables and fills them with random players.
+     *
+     * @param playerCount players to add
+     * @param maxLevel highest level per skill, low values make many ties
+     * @param ghostCount rows renamed to {@code _INVALID_OLD_USERNAME_}
+     * @param seed random seed
+     */
+    SQLRanksTestDatabase(int playerCount, int maxLevel, int ghostCount, long seed)
+            throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:ranks-" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        final List<String> columns = SQLDatabaseManager.leaderboardIndexColumns();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE " + TABLE_PREFIX + "users ("
+                    + "id INT AUTO_INCREMENT PRIMARY KEY, `user` VARCHAR(40) NOT NULL)");
+            statement.executeUpdate("CREATE INDEX user_index ON " + TABLE_PREFIX + "users (`user`)");
+
+            final StringBuilder skills = new StringBuilder("CREATE TABLE " + TABLE_PREFIX
+                    + "skills (user_id INT PRIMARY KEY");
+            for (String column : columns) {
+                skills.append(", `").append(column).append("` INT NOT NULL DEFAULT 0");
+            }
+            statement.executeUpdate(skills.append(")").toString());
+
+            for (String column : columns) {
+                statement.executeUpdate("CREATE INDEX idx_" + column + " ON " + TABLE_PREFIX
+                        + "skills (`" + column + "`)");
+            }
+        }
+
+        final Random random = new Random(seed);
+        final StringBuilder insertSkills = new StringBuilder("INSERT INTO " + TABLE_PREFIX
+                + "skills (user_id");
+        for (String column : columns) {
+            insertSkills.append(", `").append(column).append("`");
+        }
+        insertSkills.append(") VALUES (?").append(", ?".repeat(columns.size())).append(")");
+
+        try (PreparedStatement insertUser = connection.prepareStatement("INSERT INTO "
+                + TABLE_PREFIX + "users (`user`) VALUES (?)", Statement.RETURN_GENERATED_KEYS);
+                PreparedStatement insertSkill = connection.prepareStatement(
+                        insertSkills.toString())) {
+            for (int i = 0; i < playerCount + ghostCount; i++) {
+                final String name = i < playerCount ? "player" + i
+                        : SQLDatabaseManager.INVALID_OLD_USERNAME;
+                insertUser.setString(1, name);
+                insertUser.executeUpdate();
+
+                final int userId;
+                try (ResultSet keys = insertUser.getGeneratedKeys()) {
+                    keys.next();
+                    userId = keys.getInt(1);
+                }
+
+                insertSkill.setInt(1, userId);
+                int total = 0;
+                // Every column but the last (total) is a skill; ghosts outrank everybody
+                for (int column = 0; column < columns.size() - 1; column++) {
+                    final int level = i < playerCount ? random.nextInt(maxLevel + 1)
+                            : maxLevel + 1;
+                    insertSkill.setInt(column + 2, level);
+                    total += level;
+                }
+                insertSkill.setInt(columns.size() + 1, total);
+                insertSkill.addBatch();
+
+                if (i < playerCount) {
+                    playerNames.add(name);
+                }
+            }
+            insertSkill.executeBatch();
+        }
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    List<String> getPlayerNames() {
+        return playerNames;
+    }
+
+    /**
+     * Reads the ranks of a player with the two COUNT queries per scope readRank used before.
+     */
+    Map<PrimarySkillType, Integer> readRankWithCountsPerScope(String playerName)
+            throws SQLException {
+        final Map<PrimarySkillType, Integer> ranks = new HashMap<>();
+        final Map<PrimarySkillType, Integer> levels = new HashMap<>();
+        final int userId;
+
+        try (PreparedStatement statement = connection.prepareStatement("SELECT s.* FROM "
+                + TABLE_PREFIX + "users u JOIN " + TABLE_PREFIX + "skills s "
+                + "ON s.user_id = u.id WHERE u.`user` = ?")) {
+            statement.setString(1, playerName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return ranks;
+                }
+                for (PrimarySkillType skill : SkillTools.NON_CHILD_SKILLS) {
+                    levels.put(skill, resultSet.getInt(skill.name().toLowerCase(Locale.ENGLISH)));
+                }
+                levels.put(null, resultSet.getInt(SQLDatabaseManager.ALL_QUERY_VERSION));
+                userId = resultSet.getInt("user_id");
+            }
+        }
+
+        for (Map.Entry<PrimarySkillType, Integer> level : levels.entrySet()) {
+            if (level.getValue() <= 0) {
+                continue;
+            }
+
+            final String column = level.getKey() == null ? SQLDatabaseManager.ALL_QUERY_VERSION
+                    : level.getKey().name().toLowerCase(Locale.ENGLISH);
+            final String ghostFilter = " AND NOT u.`user` = '"
+                    + SQLDatabaseManager.INVALID_OLD_USERNAME + "'";
+            final int higher = count("SELECT COUNT(*) FROM " + TABLE_PREFIX + "users u JOIN "
+                    + TABLE_PREFIX + "skills s ON s.user_id = u.id WHERE s.`" + column + "` > ?"
+                    + ghostFilter, level.getValue());
+            final int tied = count("SELECT COUNT(*) FROM " + TABLE_PREFIX + "users u JOIN "
+                    + TABLE_PREFIX + "skills s ON s.user_id = u.id WHERE s.`" + column + "` = ?"
+                    + " AND s.user_id > " + userId + ghostFilter, level.getValue());
+            ranks.put(level.getKey(), higher + tied + 1);
+        }
+
+        return ranks;
+    }
+
+    private int count(String sql, int value) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, value);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+}
@@ -0,0 +1,63 @@
+package com.gmail.nossr50.database.flatfile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gmail.nossr50.datatypes.database.PlayerStat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+class RankedPlayerStatsTest {
+
+    @Test
+    void ranksAndPagesShouldMatchASortedSetUnderRandomUpdates() {
+        // Given - the tree and a TreeSet of the same rows, which defines the expected order
+        final Random random = new Random(42L);
+        final RankedPlayerStats ranking = new RankedPlayerStats();
+        final TreeSet<PlayerStat> expected = new TreeSet<>();
+
+        for (int round = 0; round < 20_000; round++) {
+            // When - rows with colliding names and values are added and removed at random
+            final String name = "player" + random.nextInt(500);
+            final int value = random.nextInt(50);
+            if (random.nextInt(3) == 0) {
+                assertThat(ranking.remove(name, value))
+                        .isEqualTo(expected.remove(new PlayerStat(name, value)));
+            } else {
+                ranking.add(name, value);
+                expected.add(new PlayerStat(name, value));
+            }
+
+            // Then - size, pages and ranks agree with the sorted set
+            assertThat(ranking.size()).isEqualTo(expected.size());
+            if (round % 1_000 == 0) {
+                final List<PlayerStat> rows = new ArrayList<>(expected);
+                assertThat(ranking.slice(0, Integer.MAX_VALUE)).isEqualTo(rows);
+
+                final int from = random.nextInt(rows.size() + 10);
+                assertThat(ranking.slice(from, 10)).isEqualTo(
+                        rows.subList(Math.min(from, rows.size()),
+                                Math.min(from + 10, rows.size())));
+
+                for (int i = 0; i < rows.size(); i++) {
+                    assertThat(ranking.rankOf(rows.get(i).playerName(), rows.get(i).value()))
+                            .isEqualTo(i + 1);
+                }
+            }
+        }
+    }
+
+    @Test
+    void rankOfShouldReturnMinusOneForMissingRows() {
+        // Given - a tree with one row
+        final RankedPlayerStats ranking = new RankedPlayerStats();
+        ranking.add("nossr50", 10);
+
+        // When / Then - the same name with another value is not on the leaderboard
+        assertThat(ranking.rankOf("nossr50", 10)).isEqualTo(1);
+        assertThat(ranking.rankOf("nossr50", 11)).isEqualTo(-1);
+        assertThat(ranking.remove("nossr50", 11)).isFalse();
+    }
+}
@@ -34,4 +34,26 @@ class BlockLocationHistoryTest {
         history.add(locationB);
         Assertions.assertFalse(history.contains(locationA));
     }
+
+    @Test
+    void testComparesBlockCoordinatesOnly() {
+        BlockLocationHistory history = new BlockLocationHistory(2);
+
+        history.add(new Location(null, 0.2, 64.9, -3.5));
+        Assertions.assertTrue(history.contains(new Location(null, 0.8, 64.1, -3.9, 90F, 45F)));
+        Assertions.assertFalse(history.contains(new Location(null, 1.0, 64.0, -3.5)));
+    }
+
+    @Test
+    void testForgetsEvictedLocationsOverManyAdds() {
+        BlockLocationHistory history = new BlockLocationHistory(50);
+
+        for (int i = 0; i < 1000; i++) {
+            history.add(new Location(null, i, -64, i * 31));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(i >= 950, history.contains(new Location(null, i, -64, i * 31)));
+        }
+    }
 }
@@ -0,0 +1,61 @@
+package com.gmail.nossr50.datatypes.experience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gmail.nossr50.datatypes.skills.PrimarySkillType;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PendingXpGainsTest {
+
+    private record Gain(PrimarySkillType skill, float xp, XPGainReason reason,
+                        XPGainSource source) {
+    }
+
+    @Test
+    void flushShouldSumGainsPerKeyInTheOrderTheyWereFirstAdded() {
+        // Given - a burst of Woodcutting gains with one Mining and one shared gain in between
+        final PendingXpGains pending = new PendingXpGains();
+        assertThat(pending.add(PrimarySkillType.WOODCUTTING, 7.5F, XPGainReason.PVE,
+                XPGainSource.SELF)).isTrue();
+        assertThat(pending.add(PrimarySkillType.MINING, 3F, XPGainReason.PVE,
+                XPGainSource.SELF)).isFalse();
+        for (int i = 0; i < 99; i++) {
+            pending.add(PrimarySkillType.WOODCUTTING, 7.5F, XPGainReason.PVE, XPGainSource.SELF);
+        }
+        pending.add(PrimarySkillType.WOODCUTTING, 2F, XPGainReason.SHARED_PVE,
+                XPGainSource.PARTY_MEMBERS);
+
+        // When
+        final List<Gain> flushed = new ArrayList<>();
+        pending.flush((skill, xp, reason, source) -> flushed.add(
+                new Gain(skill, xp, reason, source)));
+
+        // Then - one sum per skill, reason and source, with nothing lost
+        assertThat(flushed).containsExactly(
+                new Gain(PrimarySkillType.WOODCUTTING, 750F, XPGainReason.PVE, XPGainSource.SELF),
+                new Gain(PrimarySkillType.MINING, 3F, XPGainReason.PVE, XPGainSource.SELF),
+                new Gain(PrimarySkillType.WOODCUTTING, 2F, XPGainReason.SHARED_PVE,
+                        XPGainSource.PARTY_MEMBERS));
+        assertThat(pending.isEmpty()).isTrue();
+    }
+
+    @Test
+    void gainsAddedDuringAFlushShouldWaitForTheNextOne() {
+        // Given - one pending gain
+        final PendingXpGains pending = new PendingXpGains();
+        pending.add(PrimarySkillType.MINING, 1F, XPGainReason.PVE, XPGainSource.SELF);
+
+        // When - processing it awards more XP of the same key
+        final List<Boolean> scheduled = new ArrayList<>();
+        pending.flush((skill, xp, reason, source) -> scheduled.add(
+                pending.add(skill, 5F, reason, source)));
+
+        // Then - the new gain starts a new batch instead of joining the one being flushed
+        assertThat(scheduled).containsExactly(true);
+        final List<Float> flushed = new ArrayList<>();
+        pending.flush((skill, xp, reason, source) -> flushed.add(xp));
+        assertThat(flushed).containsExactly(5F);
+    }
+}
@@ -0,0 +1,89 @@
+package com.gmail.nossr50.datatypes.party;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+
+class MemberPositionsTest {
+    private final World world = mock(World.class);
+    private final World otherWorld = mock(World.class);
+
+    // Players whose position can be moved between queries
+    private static Player mockPlayer(World world, double[] position) {
+        final Player player = mock(Player.class);
+        when(player.isValid()).thenReturn(true);
+        when(player.canSee(any(Player.class))).thenReturn(true);
+        when(player.getLocation(any(Location.class))).thenAnswer(invocation -> {
+            final Location location = invocation.getArgument(0);
+            location.setWorld(world);
+            location.setX(position[0]);
+            location.setY(position[1]);
+            location.setZ(position[2]);
+            return location;
+        });
+        return player;
+    }
+
+    @Test
+    void getNearShouldFilterByWorldRangeAndVisibility() {
+        // Given - a player with members near, far, hidden and in another world
+        final MemberPositions positions = new MemberPositions();
+        final Player player = mockPlayer(world, new double[]{0, 64, 0});
+        final Player near = mockPlayer(world, new double[]{10, 64, 10});
+        final Player far = mockPlayer(world, new double[]{100, 64, 0});
+        final Player hidden = mockPlayer(world, new double[]{0, 70, 0});
+        final Player elsewhere = mockPlayer(otherWorld, new double[]{0, 64, 0});
+        when(player.canSee(hidden)).thenReturn(false);
+        final List<Player> onlineMembers = List.of(player, near, far, hidden, elsewhere);
+
+        // When & Then
+        assertThat(positions.getNear(player, onlineMembers, 75, false))
+                .containsExactly(near, hidden);
+        assertThat(positions.getNear(player, onlineMembers, 75, true)).containsExactly(near);
+        assertThat(positions.getNear(player, onlineMembers, 0, false))
+                .containsExactly(near, far, hidden);
+        assertThat(positions.anyNear(player, onlineMembers, 75)).isTrue();
+        assertThat(positions.anyNear(far, onlineMembers, 5)).isFalse();
+    }
+
+    @Test
+    void membersShouldBeReadOncePerSnapshot() {
+        // Given
+        final MemberPositions positions = new MemberPositions();
+        final Player player = mockPlayer(world, new double[]{0, 64, 0});
+        final double[] memberPosition = {10, 64, 0};
+        final Player member = mockPlayer(world, memberPosition);
+        final List<Player> onlineMembers = new ArrayList<>(List.of(player, member));
+
+        // When - the member is asked about many times within a tick
+        for (int i = 0; i < 20; i++) {
+            assertThat(positions.anyNear(player, onlineMembers, 20)).isTrue();
+        }
+
+        // Then - its location was read once
+        verify(member, times(1)).getLocation(any(Location.class));
+
+        // When - the member moves away and the snapshot is invalidated
+        memberPosition[0] = 500;
+        positions.invalidate();
+
+        // Then
+        assertThat(positions.anyNear(player, onlineMembers, 20)).isFalse();
+
+        // When - the member logs off
+        onlineMembers.remove(member);
+
+        // Then - the changed member count retakes the snapshot without an invalidate
+        assertThat(positions.getNear(player, onlineMembers, 0, false)).isEmpty();
+    }
+}
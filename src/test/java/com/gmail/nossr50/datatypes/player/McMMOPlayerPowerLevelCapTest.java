@@ -191,4 +191,27 @@ class McMMOPlayerPowerLevelCapTest extends MMOTestEnvironment {
                 () -> Permissions.skillEnabled(any(Player.class), any(PrimarySkillType.class)),
                 never());
     }
+
+    @Test
+    void getPowerLevelShouldFollowLevelChangesAndPermissionInvalidation() {
+        // Given - a player with every skill permitted and a cached power level
+        when(Permissions.skillEnabled(any(Player.class), any(PrimarySkillType.class)))
+                .thenReturn(true);
+        mmoPlayer.modifySkill(PrimarySkillType.MINING, 600);
+        mmoPlayer.modifySkill(PrimarySkillType.HERBALISM, 400);
+        final int initialPowerLevel = mmoPlayer.getPowerLevel();
+
+        // When - a level changes
+        mmoPlayer.modifySkill(PrimarySkillType.MINING, 700);
+
+        // Then - the power level is summed again
+        assertThat(mmoPlayer.getPowerLevel()).isEqualTo(initialPowerLevel + 100);
+
+        // When - Herbalism is revoked and the permissions are invalidated
+        when(Permissions.skillEnabled(player, PrimarySkillType.HERBALISM)).thenReturn(false);
+        mmoPlayer.getSkillPermissions().invalidate();
+
+        // Then - Herbalism no longer counts
+        assertThat(mmoPlayer.getPowerLevel()).isEqualTo(initialPowerLevel + 100 - 400);
+    }
 }
@@ -18,6 +18,7 @@ import java.util.List;
 import java.util.logging.Logger;
 import org.bukkit.Chunk;
 import org.bukkit.block.BlockState;
+import org.bukkit.event.world.ChunkLoadEvent;
 import org.bukkit.event.world.ChunkUnloadEvent;
 import org.bukkit.event.world.StructureGrowEvent;
 import org.bukkit.event.world.WorldUnloadEvent;
@@ -29,7 +30,7 @@ import org.mockito.MockedStatic;
 
 /**
  * Covers the world lifecycle wiring: structure growth resetting placed-block eligibility, and
- * chunk/world unloads flushing their placed-block data.
+ * chunk loads prefetching and chunk/world unloads flushing their placed-block data.
  */
 class WorldListenerTest extends MMOTestEnvironment {
     private static final Logger logger = getLogger(WorldListenerTest.class.getName());
@@ -86,6 +87,23 @@ class WorldListenerTest extends MMOTestEnvironment {
         verify(chunkManager).setEligible(secondBlock);
     }
 
+    @Test
+    void chunkLoadShouldPrefetchTheChunksPlacedBlockData() {
+        // Given - a loading chunk
+        final Chunk chunk = mock(Chunk.class);
+        when(chunk.getX()).thenReturn(-2);
+        when(chunk.getZ()).thenReturn(11);
+        final ChunkLoadEvent event = mock(ChunkLoadEvent.class);
+        when(event.getWorld()).thenReturn(world);
+        when(event.getChunk()).thenReturn(chunk);
+
+        // When - the load is handled
+        worldListener.onChunkLoad(event);
+
+        // Then - the chunk's placed-block data is handed to the tracker for prefetching
+        verify(chunkManager).chunkLoaded(-2, 11, world);
+    }
+
     @Test
     void chunkUnloadShouldFlushTheChunksPlacedBlockData() {
         // Given - an unloading chunk
@@ -312,4 +312,66 @@ class PartyManagerTest extends MMOTestEnvironment {
                         "Party.Disband"));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void getPartyShouldIgnoreCaseAndFollowRenames() {
+        // Given
+        PartyManager partyManager = new PartyManager(mcMMO.p);
+        Party party = new Party(new PartyLeader(UUID.randomUUID(), "Leader"), "Builders", null);
+        partyManager.getParties().add(party);
+
+        // When & Then - lookups ignore case
+        assertThat(partyManager.getParty("bUILDERS")).isSameAs(party);
+
+        // When - the party is renamed
+        partyManager.renameParty(party, "Miners");
+
+        // Then - only the new name resolves
+        assertThat(partyManager.getParty("Builders")).isNull();
+        assertThat(partyManager.getParty("miners")).isSameAs(party);
+        assertTrue(partyManager.getParties().contains(party));
+    }
+
+    @Test
+    public void getPlayerPartyShouldFollowJoinsLeavesAndDisbands() {
+        // Given - a loaded party with one member and a player joining it
+        PartyManager partyManager = new PartyManager(mcMMO.p);
+        UUID memberUUID = UUID.randomUUID();
+        Party party = new Party(new PartyLeader(memberUUID, "Member"), "Builders", null);
+        party.getMembers().put(memberUUID, "Member");
+        partyManager.getParties().add(party);
+
+        UUID joinerUUID = UUID.randomUUID();
+        Player joiner = mock(Player.class);
+        when(joiner.getUniqueId()).thenReturn(joinerUUID);
+        when(joiner.getName()).thenReturn("Joiner");
+        McMMOPlayer mmoJoiner = mock(McMMOPlayer.class);
+        when(mmoJoiner.getPlayer()).thenReturn(joiner);
+
+        // When
+        partyManager.addToParty(mmoJoiner, party);
+
+        // Then - both members resolve by UUID, and a renamed member by their old name too
+        assertThat(partyManager.getPlayerParty("Member", memberUUID)).isSameAs(party);
+        assertThat(partyManager.getPlayerParty("Joiner", joinerUUID)).isSameAs(party);
+        assertThat(partyManager.getPlayerParty("Renamed", joinerUUID)).isSameAs(party);
+        assertThat(party.getMembers().get(joinerUUID)).isEqualTo("Renamed");
+        assertThat(partyManager.getPlayerParty("Renamed")).isSameAs(party);
+        assertThat(partyManager.getPlayerParty("Joiner")).isNull();
+
+        // When - the joiner leaves
+        when(joiner.isOnline()).thenReturn(true);
+        when(joiner.getPlayer()).thenReturn(joiner);
+        partyManager.removeFromParty(joiner, party);
+
+        // Then
+        assertThat(partyManager.getPlayerParty("Renamed", joinerUUID)).isNull();
+        assertThat(partyManager.getPlayerParty("Member", memberUUID)).isSameAs(party);
+
+        // When - the party is disbanded
+        partyManager.disbandParty(null, party);
+
+        // Then
+        assertThat(partyManager.getPlayerParty("Member", memberUUID)).isNull();
+        assertThat(partyManager.getParty("Builders")).isNull();
+    }
+}
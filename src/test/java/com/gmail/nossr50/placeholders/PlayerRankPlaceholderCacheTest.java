@@ -0,0 +1,103 @@
+package com.gmail.nossr50.placeholders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gmail.nossr50.datatypes.skills.PrimarySkillType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.Test;
+
+class PlayerRankPlaceholderCacheTest {
+    private final UUID playerId = UUID.randomUUID();
+    // Async tasks are queued and run by the test, so it decides when a refresh lands
+    private final List<Runnable> pendingTasks = new ArrayList<>();
+    private final List<String> reads = new ArrayList<>();
+    private final long[] clock = {0};
+    private int miningRank = 7;
+
+    private PlayerRankPlaceholderCache newCache(int ttlSeconds) {
+        return new PlayerRankPlaceholderCache(playerName -> {
+            reads.add(playerName);
+            final Map<PrimarySkillType, Integer> ranks = new HashMap<>();
+            ranks.put(PrimarySkillType.MINING, miningRank);
+            ranks.put(null, 3);
+            return ranks;
+        }, pendingTasks::add, Logger.getAnonymousLogger(), () -> clock[0], ttlSeconds);
+    }
+
+    private void runPendingTasks() {
+        final List<Runnable> tasks = new ArrayList<>(pendingTasks);
+        pendingTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    void lookupsShouldNeverReadTheDatabaseThemselves() {
+        // Given
+        final PlayerRankPlaceholderCache cache = newCache(60);
+
+        // When - a scoreboard resolves every rank placeholder before the first refresh landed
+        for (int i = 0; i < 20; i++) {
+            assertThat(cache.getRank(playerId, "Steve", PrimarySkillType.MINING)).isNull();
+            assertThat(cache.getRank(playerId, "Steve", null)).isNull();
+        }
+
+        // Then - one async refresh was scheduled for all of them, and nothing was read yet
+        assertThat(pendingTasks).hasSize(1);
+        assertThat(reads).isEmpty();
+
+        // When - the refresh runs
+        runPendingTasks();
+
+        // Then - every skill is served from the one read
+        assertThat(reads).containsExactly("Steve");
+        assertThat(cache.getRank(playerId, "Steve", PrimarySkillType.MINING)).isEqualTo(7);
+        assertThat(cache.getRank(playerId, "Steve", null)).isEqualTo(3);
+        assertThat(pendingTasks).isEmpty();
+    }
+
+    @Test
+    void staleRanksShouldBeServedWhileTheyRefresh() {
+        // Given - cached ranks
+        final PlayerRankPlaceholderCache cache = newCache(60);
+        cache.getRank(playerId, "Steve", PrimarySkillType.MINING);
+        runPendingTasks();
+
+        // When - the time to live passes and the rank changes in the database
+        clock[0] += TimeUnit.SECONDS.toNanos(60);
+        miningRank = 2;
+
+        // Then - the old rank is returned at once and one refresh is scheduled
+        assertThat(cache.getRank(playerId, "Steve", PrimarySkillType.MINING)).isEqualTo(7);
+        assertThat(cache.getRank(playerId, "Steve", PrimarySkillType.MINING)).isEqualTo(7);
+        assertThat(pendingTasks).hasSize(1);
+
+        // When
+        runPendingTasks();
+
+        // Then
+        assertThat(cache.getRank(playerId, "Steve", PrimarySkillType.MINING)).isEqualTo(2);
+        assertThat(reads).hasSize(2);
+    }
+
+    @Test
+    void shutdownShouldStopScheduledAndPendingRefreshes() {
+        // Given - a refresh that is scheduled but has not run
+        final PlayerRankPlaceholderCache cache = newCache(60);
+        cache.getRank(playerId, "Steve", PrimarySkillType.MINING);
+
+        // When
+        cache.shutdown();
+        runPendingTasks();
+
+        // Then
+        assertThat(reads).isEmpty();
+        assertThat(cache.getRank(playerId, "Steve", PrimarySkillType.MINING)).isNull();
+        assertThat(pendingTasks).isEmpty();
+    }
+}
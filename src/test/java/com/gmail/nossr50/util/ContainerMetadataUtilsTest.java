@@ -0,0 +1,162 @@
+package com.gmail.nossr50.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.gmail.nossr50.datatypes.player.McMMOPlayer;
+import com.gmail.nossr50.listeners.BlockListener;
+import com.gmail.nossr50.mcMMO;
+import com.gmail.nossr50.util.player.UserManager;
+import java.util.List;
+import java.util.UUID;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.Furnace;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+class ContainerMetadataUtilsTest {
+    private final UUID ownerId = UUID.randomUUID();
+    private mcMMO previousPluginInstance;
+    private MockedStatic<UserManager> userManagerMock;
+    private McMMOPlayer owner;
+    private World world;
+
+    @BeforeEach
+    void setUp() {
+        previousPluginInstance = mcMMO.p;
+        mcMMO.p = mock(mcMMO.class);
+        when(mcMMO.p.getName()).thenReturn("mcMMO");
+
+        owner = mock(McMMOPlayer.class);
+        userManagerMock = mockStatic(UserManager.class);
+        when(UserManager.getPlayer(ownerId)).thenReturn(owner);
+
+        world = mock(World.class);
+        when(world.getUID()).thenReturn(UUID.randomUUID());
+    }
+
+    @AfterEach
+    void tearDown() {
+        ContainerMetadataUtils.invalidateWorld(world);
+        userManagerMock.close();
+        mcMMO.p = previousPluginInstance;
+    }
+
+    private Block mockFurnace(int x, int y, int z, UUID furnaceOwner) {
+        final PersistentDataContainer dataContainer = mock(PersistentDataContainer.class);
+        if (furnaceOwner != null) {
+            when(dataContainer.get(any(NamespacedKey.class), eq(PersistentDataType.LONG)))
+                    .thenReturn(furnaceOwner.getMostSignificantBits(),
+                            furnaceOwner.getLeastSignificantBits());
+        }
+
+        final Furnace furnace = mock(Furnace.class);
+        when(furnace.getWorld()).thenReturn(world);
+        when(furnace.getX()).thenReturn(x);
+        when(furnace.getY()).thenReturn(y);
+        when(furnace.getZ()).thenReturn(z);
+        when(furnace.getPersistentDataContainer()).thenReturn(dataContainer);
+
+        final Block block = mock(Block.class);
+        when(block.getWorld()).thenReturn(world);
+        when(block.getX()).thenReturn(x);
+        when(block.getY()).thenReturn(y);
+        when(block.getZ()).thenReturn(z);
+        when(block.getState()).thenReturn(furnace);
+        return block;
+    }
+
+    @Test
+    void ownerShouldBeReadFromTheBlockOnceUntilInvalidated() {
+        // Given - a furnace owned by an online player
+        final Block block = mockFurnace(17, -40, -3, ownerId);
+
+        // When - the owner is looked up by a burst of furnace events
+        for (int i = 0; i < 10; i++) {
+            assertThat(ContainerMetadataUtils.getOnlineContainerOwner(block)).isSameAs(owner);
+        }
+
+        // Then - only the first lookup took a snapshot of the block
+        verify(block, times(1)).getState();
+
+        // When - the block is broken
+        ContainerMetadataUtils.invalidateContainerOwner(block);
+
+        // Then - the next lookup reads the block again
+        assertThat(ContainerMetadataUtils.getOnlineContainerOwner(block)).isSameAs(owner);
+        verify(block, times(2)).getState();
+    }
+
+    @Test
+    void blocksWithoutAnOwnerShouldAlsoBeCached() {
+        // Given - a furnace nobody owns, next to an owned one in the same chunk
+        final Block unowned = mockFurnace(0, 64, 0, null);
+        final Block owned = mockFurnace(1, 64, 0, ownerId);
+
+        // When
+        assertThat(ContainerMetadataUtils.getOnlineContainerOwner(unowned)).isNull();
+        assertThat(ContainerMetadataUtils.getOnlineContainerOwner(unowned)).isNull();
+        assertThat(ContainerMetadataUtils.getOnlineContainerOwner(owned)).isSameAs(owner);
+
+        // Then
+        verify(unowned, times(1)).getState();
+    }
+
+    @Test
+    void chunkUnloadShouldDropTheCachedOwners() {
+        // Given - a cached owner in chunk (1, 2)
+        final Block block = mockFurnace(16 + 5, 70, 32 + 9, ownerId);
+        ContainerMetadataUtils.getOnlineContainerOwner(block);
+
+        // When
+        ContainerMetadataUtils.invalidateChunk(world, 1, 2);
+        ContainerMetadataUtils.getOnlineContainerOwner(block);
+
+        // Then
+        verify(block, times(2)).getState();
+    }
+
+    @Test
+    void explodedAndBurnedContainersShouldDropTheirCachedOwners() {
+        // Given - cached owners for three furnaces
+        final Block blownUpByTnt = mockFurnace(3, 64, 3, ownerId);
+        final Block blownUpByABed = mockFurnace(4, 64, 3, ownerId);
+        final Block burned = mockFurnace(5, 64, 3, ownerId);
+        for (Block block : List.of(blownUpByTnt, blownUpByABed, burned)) {
+            ContainerMetadataUtils.getOnlineContainerOwner(block);
+        }
+
+        // When - one is destroyed by an entity explosion, one by a block explosion, one by fire
+        final BlockListener blockListener = new BlockListener(mcMMO.p);
+        final EntityExplodeEvent entityExplodeEvent = mock(EntityExplodeEvent.class);
+        when(entityExplodeEvent.blockList()).thenReturn(List.of(blownUpByTnt));
+        blockListener.onEntityExplode(entityExplodeEvent);
+        final BlockExplodeEvent blockExplodeEvent = mock(BlockExplodeEvent.class);
+        when(blockExplodeEvent.blockList()).thenReturn(List.of(blownUpByABed));
+        blockListener.onBlockExplode(blockExplodeEvent);
+        final BlockBurnEvent blockBurnEvent = mock(BlockBurnEvent.class);
+        when(blockBurnEvent.getBlock()).thenReturn(burned);
+        blockListener.onBlockBurn(blockBurnEvent);
+
+        // Then - each one is read from the block again
+        for (Block block : List.of(blownUpByTnt, blownUpByABed, burned)) {
+            ContainerMetadataUtils.getOnlineContainerOwner(block);
+            verify(block, times(2)).getState();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.gmail.nossr50.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+import com.gmail.nossr50.api.ItemSpawnReason;
+import java.util.List;
+import java.util.Set;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+
+class DropAccumulatorTest {
+    private final Player player = mock(Player.class);
+    private final World world = mock(World.class);
+    private MockedStatic<ItemUtils> mockedItemUtils;
+
+    @BeforeEach
+    void setUp() {
+        mockedItemUtils = mockStatic(ItemUtils.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockedItemUtils.close();
+    }
+
+    /**
+     * Mocked stack that clones, counts and compares by type like a plain {@link ItemStack}.
+     */
+    private ItemStack stack(Material type, int amount) {
+        final ItemStack itemStack = mock(ItemStack.class);
+        final int[] currentAmount = {amount};
+        when(itemStack.getType()).thenReturn(type);
+        when(itemStack.getMaxStackSize()).thenReturn(64);
+        when(itemStack.getAmount()).thenAnswer(invocation -> currentAmount[0]);
+        doAnswer(invocation -> {
+            currentAmount[0] = invocation.getArgument(0);
+            return null;
+        }).when(itemStack).setAmount(anyInt());
+        when(itemStack.isSimilar(any())).thenAnswer(
+                invocation -> invocation.<ItemStack>getArgument(0).getType() == type);
+        when(itemStack.clone()).thenAnswer(invocation -> stack(type, currentAmount[0]));
+        return itemStack;
+    }
+
+    @Test
+    void identicalDropsShouldSpawnAsFullStacksAtTheirCentroid() {
+        // Given - 150 logs and one sapling dropped by three blocks of a tree
+        final DropAccumulator drops = new DropAccumulator(player, true);
+        for (int x = 0; x <= 20; x += 10) {
+            drops.add(new Location(world, x + 0.5, 64.5, 0.5), stack(Material.OAK_LOG, 50),
+                    ItemSpawnReason.TREE_FELLER_DISPLACED_BLOCK);
+        }
+        drops.add(new Location(world, 0.5, 70.5, 0.5), stack(Material.OAK_SAPLING, 1),
+                ItemSpawnReason.TREE_FELLER_DISPLACED_BLOCK);
+
+        // When
+        drops.spawnDrops();
+
+        // Then - three log stacks in the middle of the logs, and the sapling where it dropped
+        final ArgumentCaptor<Location> locations = ArgumentCaptor.forClass(Location.class);
+        final ArgumentCaptor<ItemStack> stacks = ArgumentCaptor.forClass(ItemStack.class);
+        mockedItemUtils.verify(() -> ItemUtils.spawnItem(eq(player), locations.capture(),
+                stacks.capture(), eq(ItemSpawnReason.TREE_FELLER_DISPLACED_BLOCK)), times(4));
+        assertThat(stacks.getAllValues()).extracting(ItemStack::getType, ItemStack::getAmount)
+                .containsExactly(tuple(Material.OAK_LOG, 64), tuple(Material.OAK_LOG, 64),
+                        tuple(Material.OAK_LOG, 22), tuple(Material.OAK_SAPLING, 1));
+        assertThat(locations.getAllValues().get(0))
+                .isEqualTo(new Location(world, 10.5, 64.5, 0.5));
+        assertThat(locations.getAllValues().get(3))
+                .isEqualTo(new Location(world, 0.5, 70.5, 0.5));
+
+        // And - nothing is left to spawn twice
+        drops.spawnDrops();
+        mockedItemUtils.verify(() -> ItemUtils.spawnItem(any(), any(), any(), any()), times(4));
+    }
+
+    @Test
+    void dropsShouldOnlyMergeWithinTheirSpawnReason() {
+        // Given - the same ore as a regular and as a bonus drop, and a blacklisted item
+        final DropAccumulator drops = new DropAccumulator(player, true);
+        final Location location = new Location(world, 0.5, 10.5, 0.5);
+        drops.addAll(location, List.of(stack(Material.RAW_IRON, 1)), Set.of(),
+                ItemSpawnReason.BLAST_MINING_ORES);
+        drops.addAll(location, List.of(stack(Material.RAW_IRON, 1)), Set.of(),
+                ItemSpawnReason.BLAST_MINING_ORES_BONUS_DROP);
+        drops.addAll(location, List.of(stack(Material.SPAWNER, 1)), Set.of(Material.SPAWNER),
+                ItemSpawnReason.BLAST_MINING_ORES);
+
+        // When
+        drops.spawnDrops();
+
+        // Then - one stack per reason, and no spawner
+        mockedItemUtils.verify(() -> ItemUtils.spawnItem(eq(player), eq(location), any(),
+                eq(ItemSpawnReason.BLAST_MINING_ORES)), times(1));
+        mockedItemUtils.verify(() -> ItemUtils.spawnItem(eq(player), eq(location), any(),
+                eq(ItemSpawnReason.BLAST_MINING_ORES_BONUS_DROP)), times(1));
+    }
+
+    @Test
+    void dropsShouldSpawnRightAwayWhenConsolidationIsOff() {
+        // Given
+        final DropAccumulator drops = new DropAccumulator(player, false);
+        final Location location = new Location(world, 0.5, 10.5, 0.5);
+        final ItemStack log = stack(Material.OAK_LOG, 1);
+        final List<ItemStack> ores = List.of(stack(Material.RAW_IRON, 1));
+
+        // When
+        drops.add(location, log, ItemSpawnReason.TREE_FELLER_DISPLACED_BLOCK);
+        drops.addAll(location, ores, Set.of(), ItemSpawnReason.BLAST_MINING_ORES);
+
+        // Then - the usual spawn calls, before spawnDrops
+        mockedItemUtils.verify(() -> ItemUtils.spawnItem(player, location, log,
+                ItemSpawnReason.TREE_FELLER_DISPLACED_BLOCK));
+        mockedItemUtils.verify(() -> ItemUtils.spawnItems(player, location, ores, Set.of(),
+                ItemSpawnReason.BLAST_MINING_ORES));
+
+        // When
+        drops.spawnDrops();
+
+        // Then - nothing more
+        mockedItemUtils.verify(() -> ItemUtils.spawnItem(any(), any(), any(),
+                eq(ItemSpawnReason.BLAST_MINING_ORES)), never());
+    }
+}
@@ -6,6 +6,8 @@ import java.lang.reflect.Field;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
 import org.bukkit.Material;
 import org.junit.jupiter.api.Test;
 
@@ -168,6 +170,77 @@ class MaterialMapStoreTest {
         assertThat(unresolved).isEmpty();
     }
 
+    /**
+     * The Material checks read a table compiled from the string registers, so for every
+     * Material they must answer exactly like the String overload of the same check.
+     */
+    @Test
+    @SuppressWarnings("deprecation")
+    void materialChecksShouldAgreeWithTheStringRegisters() {
+        // Given - a fully populated material map store
+        final MaterialMapStore store = new MaterialMapStore();
+        final Map<String, BiPredicate<Material, String>> checks = Map.ofEntries(
+                check("isArmor", store::isArmor, store::isArmor),
+                check("isTool", store::isTool, store::isTool),
+                check("isEnchantable", store::isEnchantable, store::isEnchantable),
+                check("isOre", store::isOre, store::isOre),
+                check("isBow", store::isBow, store::isBow),
+                check("isCrossbow", store::isCrossbow, store::isCrossbow),
+                check("isTrident", store::isTrident, store::isTrident),
+                check("isMace", store::isMace, store::isMace),
+                check("isSpear", store::isSpear, store::isSpear),
+                check("isLeatherArmor", store::isLeatherArmor, store::isLeatherArmor),
+                check("isCopperArmor", store::isCopperArmor, store::isCopperArmor),
+                check("isIronArmor", store::isIronArmor, store::isIronArmor),
+                check("isGoldArmor", store::isGoldArmor, store::isGoldArmor),
+                check("isDiamondArmor", store::isDiamondArmor, store::isDiamondArmor),
+                check("isChainmailArmor", store::isChainmailArmor, store::isChainmailArmor),
+                check("isNetheriteArmor", store::isNetheriteArmor, store::isNetheriteArmor),
+                check("isWoodTool", store::isWoodTool, store::isWoodTool),
+                check("isStoneTool", store::isStoneTool, store::isStoneTool),
+                check("isCopperTool", store::isCopperTool, store::isCopperTool),
+                check("isIronTool", store::isIronTool, store::isIronTool),
+                check("isGoldTool", store::isGoldTool, store::isGoldTool),
+                check("isDiamondTool", store::isDiamondTool, store::isDiamondTool),
+                check("isNetheriteTool", store::isNetheriteTool, store::isNetheriteTool),
+                check("isStringTool", store::isStringTool, store::isStringTool),
+                check("isPrismarineTool", store::isPrismarineTool, store::isPrismarineTool),
+                check("isSword", store::isSword, store::isSword),
+                check("isAxe", store::isAxe, store::isAxe),
+                check("isPickAxe", store::isPickAxe, store::isPickAxe),
+                check("isShovel", store::isShovel, store::isShovel),
+                check("isHoe", store::isHoe, store::isHoe),
+                check("isIntendedToolPickaxe", store::isIntendedToolPickaxe, store::isIntendedToolPickaxe));
+
+        // When - every check is asked about every Material both ways
+        final Set<String> mismatches = new TreeSet<>();
+        for (final Material material : Material.values()) {
+            if (material.isLegacy()) {
+                continue;
+            }
+
+            final String id = material.getKey().getKey();
+            checks.forEach((name, agrees) -> {
+                if (!agrees.test(material, id)) {
+                    mismatches.add(name + ":" + id);
+                }
+            });
+            if (store.getTier(material) != store.getTier(id)) {
+                mismatches.add("getTier:" + id);
+            }
+        }
+
+        // Then - the answers never differ
+        assertThat(mismatches).isEmpty();
+        assertThat(store.isOre(Material.DIAMOND_ORE)).isTrue();
+        assertThat(store.getTier(Material.NETHERITE_CHESTPLATE)).isEqualTo(12);
+    }
+
+    private static Map.Entry<String, BiPredicate<Material, String>> check(String name,
+            Predicate<Material> byMaterial, Predicate<String> byId) {
+        return Map.entry(name, (material, id) -> byMaterial.test(material) == byId.test(id));
+    }
+
     private void collectUnresolved(String name, Set<String> unresolved) {
         if (Material.matchMaterial(name) != null
                 || BEDROCK_EDITION_ALIASES.contains(name)
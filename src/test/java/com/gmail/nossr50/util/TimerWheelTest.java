@@ -0,0 +1,126 @@
+package com.gmail.nossr50.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.bukkit.entity.Entity;
+import org.junit.jupiter.api.Test;
+
+class TimerWheelTest {
+
+    private static final class RecordingTask extends CancellableRunnable {
+        private final List<Long> runs;
+        private final long[] clock;
+        private final int maxRuns;
+
+        RecordingTask(List<Long> runs, long[] clock, int maxRuns) {
+            this.runs = runs;
+            this.clock = clock;
+            this.maxRuns = maxRuns;
+        }
+
+        @Override
+        public void run() {
+            runs.add(clock[0]);
+            if (runs.size() == maxRuns) {
+                cancel();
+            }
+        }
+    }
+
+    private static void advance(TimerWheel wheel, long[] clock, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            clock[0]++;
+            wheel.tick();
+        }
+    }
+
+    @Test
+    void timersShouldFireOnTheirDeadlineEvenPastOneRevolution() {
+        // Given - a small wheel and timers shorter and longer than one revolution
+        final TimerWheel wheel = new TimerWheel(8);
+        final long[] clock = {0};
+        final List<Long> shortRuns = new ArrayList<>();
+        final List<Long> longRuns = new ArrayList<>();
+        wheel.schedule(new RecordingTask(shortRuns, clock, Integer.MAX_VALUE), 3, 0);
+        wheel.schedule(new RecordingTask(longRuns, clock, Integer.MAX_VALUE), 27, 0);
+
+        // When
+        advance(wheel, clock, 40);
+
+        // Then - each one-shot timer ran exactly once, on its tick
+        assertThat(shortRuns).containsExactly(3L);
+        assertThat(longRuns).containsExactly(27L);
+        assertThat(wheel.getStats().active()).isZero();
+        assertThat(wheel.getStats().fired()).isEqualTo(2);
+    }
+
+    @Test
+    void repeatingTimersShouldRunUntilTheirTaskCancelsItself() {
+        // Given - a task that repeats every 5 ticks and stops after 3 runs
+        final TimerWheel wheel = new TimerWheel(4);
+        final long[] clock = {0};
+        final List<Long> runs = new ArrayList<>();
+        wheel.schedule(new RecordingTask(runs, clock, 3), 2, 5);
+
+        // When
+        advance(wheel, clock, 30);
+
+        // Then
+        assertThat(runs).containsExactly(2L, 7L, 12L);
+        assertThat(wheel.getStats().active()).isZero();
+    }
+
+    @Test
+    void cancelledTimersShouldNotRunAndShouldLeaveTheMetrics() {
+        // Given - two timers of the same task type
+        final TimerWheel wheel = new TimerWheel(16);
+        final long[] clock = {0};
+        final List<Long> cancelledRuns = new ArrayList<>();
+        final List<Long> taskCancelledRuns = new ArrayList<>();
+        final TimerWheel.Timer timer = wheel.schedule(
+                new RecordingTask(cancelledRuns, clock, Integer.MAX_VALUE), 5, 1);
+        final RecordingTask task = new RecordingTask(taskCancelledRuns, clock, Integer.MAX_VALUE);
+        wheel.schedule(task, 5, 1);
+        assertThat(wheel.getStats().activeByType()).containsEntry("RecordingTask", 2);
+
+        // When - one timer is cancelled through the wheel, the other through its task
+        timer.cancel();
+        task.cancel();
+
+        // Then - both leave the counts right away, not when their deadline comes
+        assertThat(wheel.getStats().active()).isZero();
+        assertThat(wheel.getStats().activeByType()).isEmpty();
+
+        // And - neither runs
+        advance(wheel, clock, 10);
+        assertThat(cancelledRuns).isEmpty();
+        assertThat(taskCancelledRuns).isEmpty();
+        assertThat(wheel.getStats().active()).isZero();
+    }
+
+    @Test
+    void entityTimersShouldRunTheRetiredCallbackOnceTheEntityIsGone() {
+        // Given - a repeating task about an entity that is removed after the second run
+        final TimerWheel wheel = new TimerWheel(16);
+        final long[] clock = {0};
+        final List<Long> runs = new ArrayList<>();
+        final List<Long> retiredRuns = new ArrayList<>();
+        final Entity entity = mock(Entity.class);
+        when(entity.isValid()).thenAnswer(invocation -> clock[0] <= 4);
+        final RecordingTask task = new RecordingTask(runs, clock, Integer.MAX_VALUE);
+        wheel.schedule(task, entity, () -> retiredRuns.add(clock[0]), 2, 2);
+
+        // When
+        advance(wheel, clock, 12);
+
+        // Then - the task ran while the entity was valid, then retired once in its place
+        assertThat(runs).containsExactly(2L, 4L);
+        assertThat(retiredRuns).containsExactly(6L);
+        assertThat(task.isCancelled()).isTrue();
+        assertThat(wheel.getStats().active()).isZero();
+    }
+}
@@ -16,9 +16,12 @@ import static org.mockito.Mockito.when;
 import com.gmail.nossr50.mcMMO;
 import com.google.common.io.Files;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -136,6 +139,80 @@ class BitSetChunkStoreTest {
         assertEqualIgnoreMinMax(original, deserialized);
     }
 
+    /**
+     * Format version 9 stored one bitmap spanning the whole column; existing region files hold
+     * chunks in that layout and must still read back with every marker in place.
+     */
+    @Test
+    void readChunkStoreShouldReadVersion9Data() throws IOException {
+        // Given - a version 9 chunk store with markers at the bottom and near the top
+        when(mockWorld.getMinHeight()).thenReturn(-64);
+        when(mockWorld.getMaxHeight()).thenReturn(320);
+        final BitSet legacyBits = new BitSet();
+        legacyBits.set(0); // (0, -64, 0)
+        legacyBits.set((300 + 64) * 256 + 5 * 16 + 7); // (7, 300, 5)
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeShort(BitSetChunkStore.Serialization.STREAM_MAGIC);
+        out.writeInt(0xEA5EDEBB);
+        out.writeInt(9);
+        out.writeLong(mockWorld.getUID().getLeastSignificantBits());
+        out.writeLong(mockWorld.getUID().getMostSignificantBits());
+        out.writeInt(1);
+        out.writeInt(2);
+        out.writeInt(-64);
+        out.writeInt(320);
+        final byte[] legacyData = legacyBits.toByteArray();
+        out.writeInt(legacyData.length);
+        out.write(legacyData);
+
+        // When - it is read back
+        final ChunkStore deserialized = BitSetChunkStore.Serialization.readChunkStore(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        // Then - both markers survive and nothing else is set
+        assertThat(deserialized).isNotNull();
+        assertTrue(deserialized.isTrue(0, -64, 0));
+        assertTrue(deserialized.isTrue(7, 300, 5));
+        assertFalse(deserialized.isTrue(7, 299, 5));
+        assertFalse(deserialized.isTrue(0, 0, 0));
+    }
+
+    /**
+     * Only populated sections are serialized: a single marker near the build limit must not
+     * cost a bitmap of the whole column, and a densely populated section must round-trip
+     * through the bitmap container.
+     */
+    @Test
+    void serializeShouldOnlyStorePopulatedSections() throws IOException {
+        // Given - one marker near the top and one section full of markers
+        when(mockWorld.getMinHeight()).thenReturn(-64);
+        when(mockWorld.getMaxHeight()).thenReturn(320);
+        final BitSetChunkStore sparse = new BitSetChunkStore(mockWorld, 1, 2);
+        sparse.setTrue(3, 300, 4);
+        final BitSetChunkStore dense = new BitSetChunkStore(mockWorld, 1, 2);
+        for (int y = 16; y < 32; y++) {
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    dense.setTrue(x, y, z);
+                }
+            }
+        }
+        dense.setFalse(8, 20, 8);
+
+        // When - both are serialized and read back
+        final byte[] sparseBytes = serializeChunkStore(sparse);
+        final ChunkStore sparseBack = BitSetChunkStore.Serialization.readChunkStore(
+                new DataInputStream(new ByteArrayInputStream(sparseBytes)));
+        final ChunkStore denseBack = BitSetChunkStore.Serialization.readChunkStore(
+                new DataInputStream(new ByteArrayInputStream(serializeChunkStore(dense))));
+
+        // Then - the sparse store is a few dozen bytes and both round-trip exactly
+        assertThat(sparseBytes.length).isLessThan(64);
+        assertChunkStoreEquals(sparse, sparseBack);
+        assertChunkStoreEquals(dense, denseBack);
+    }
+
     /**
      * A world's build height can shrink between server runs (world downgrade, datapack change).
      * In-range placed-block markers must survive at their original coordinates and only the
@@ -0,0 +1,186 @@
+package com.gmail.nossr50.util.blockmeta;
+
+import static com.gmail.nossr50.util.blockmeta.BlockStoreTestUtils.LEGACY_WORLD_HEIGHT_MAX;
+import static com.gmail.nossr50.util.blockmeta.BlockStoreTestUtils.LEGACY_WORLD_HEIGHT_MIN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.gmail.nossr50.mcMMO;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Benchmark of the batch {@link UserBlockTracker} calls against one call per block, for a Blast
+ * Mining sized explosion of about 200 blocks centered on a chunk corner so it spans four
+ * chunks. Runs once on a quiet manager and once while other threads keep the same region's lock
+ * busy, where taking it once per chunk instead of once per block matters most.
+ *
+ * <p>Tagged as {@code stress} so default Surefire runs skip it.
+ */
+@Tag("stress")
+class HashChunkManagerBatchStressTest {
+    private static final int EXPLOSION_RADIUS = 4; // 257 blocks, about a 200 block blast
+    private static final int WARMUP_EXPLOSIONS = 2_000;
+    private static final int MEASURED_EXPLOSIONS = 10_000;
+    private static final int BACKGROUND_THREADS = 3;
+
+    private final Logger logger = Logger.getLogger("HashChunkManagerBatchStressTest");
+
+    @TempDir
+    Path tempDir;
+
+    private World mockWorld;
+
+    @BeforeEach
+    void setUp() {
+        mockWorld = mock(World.class, withSettings().stubOnly());
+        when(mockWorld.getUID()).thenReturn(UUID.randomUUID());
+        when(mockWorld.getMinHeight()).thenReturn(LEGACY_WORLD_HEIGHT_MIN);
+        when(mockWorld.getMaxHeight()).thenReturn(LEGACY_WORLD_HEIGHT_MAX);
+        when(mockWorld.getWorldFolder()).thenReturn(tempDir.toFile());
+        when(mockWorld.getName()).thenReturn("stress");
+
+        mcMMO.p = mock(mcMMO.class, withSettings().stubOnly());
+        when(mcMMO.p.getLogger()).thenReturn(logger);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mcMMO.p = null;
+    }
+
+    @Test
+    void batchCallsShouldBeBenchmarkedAgainstPerBlockCalls() throws Exception {
+        runScenario("quiet", 0);
+    }
+
+    @Test
+    void batchCallsShouldBeBenchmarkedAgainstPerBlockCallsUnderContention() throws Exception {
+        runScenario("contended", BACKGROUND_THREADS);
+    }
+
+    private void runScenario(String name, int backgroundThreads) throws Exception {
+        final HashChunkManager chunkManager = new HashChunkManager();
+        final List<Block> explosion = createExplosion(EXPLOSION_RADIUS);
+        // Every fifth block was placed by a player
+        for (int i = 0; i < explosion.size(); i += 5) {
+            chunkManager.setIneligible(explosion.get(i));
+        }
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, backgroundThreads));
+        final List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < backgroundThreads; t++) {
+                // Players mining elsewhere in the same region
+                final Block neighbour = createBlock(100 + t * 16, 64, 100);
+                futures.add(executor.submit(() -> {
+                    while (running.get()) {
+                        chunkManager.setIneligible(neighbour);
+                        chunkManager.isIneligible(neighbour);
+                    }
+                    return null;
+                }));
+            }
+
+            final long perBlockNanos = measureNanos(() -> {
+                final BitSet ineligible = new BitSet(explosion.size());
+                for (int i = 0; i < explosion.size(); i++) {
+                    if (chunkManager.isIneligible(explosion.get(i))) {
+                        ineligible.set(i);
+                    }
+                }
+                for (Block block : explosion) {
+                    chunkManager.setIneligible(block);
+                }
+                return ineligible;
+            });
+            final long batchNanos = measureNanos(() -> {
+                final BitSet ineligible = chunkManager.isIneligible(explosion);
+                chunkManager.setIneligible(explosion);
+                return ineligible;
+            });
+
+            logger.info(String.format("%s, %d block explosion: per block %.1f us, batch %.1f us"
+                            + " (lookup and mark)", name, explosion.size(), perBlockNanos / 1e3,
+                    batchNanos / 1e3));
+        } finally {
+            running.set(false);
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+            executor.shutdownNow();
+        }
+
+        // Both ways marked the whole blast
+        assertThat(chunkManager.isIneligible(explosion).cardinality())
+                .isEqualTo(explosion.size());
+        chunkManager.unloadWorld(mockWorld);
+    }
+
+    private long measureNanos(ExplosionPass pass) {
+        for (int i = 0; i < WARMUP_EXPLOSIONS; i++) {
+            pass.run();
+        }
+
+        final long start = System.nanoTime();
+        int checksum = 0;
+        for (int i = 0; i < MEASURED_EXPLOSIONS; i++) {
+            checksum += pass.run().cardinality();
+        }
+        final long elapsed = System.nanoTime() - start;
+        assertThat(checksum).isPositive(); // Keeps the lookups from being optimized away
+        return elapsed / MEASURED_EXPLOSIONS;
+    }
+
+    /**
+     * Blocks of a ball centered on the corner shared by chunks (-1, -1), (0, -1), (-1, 0) and
+     * (0, 0).
+     */
+    private List<Block> createExplosion(int radius) {
+        final List<Block> blocks = new ArrayList<>();
+        for (int x = -radius; x <= radius; x++) {
+            for (int y = -radius; y <= radius; y++) {
+                for (int z = -radius; z <= radius; z++) {
+                    if (x * x + y * y + z * z <= radius * radius) {
+                        blocks.add(createBlock(x, 64 + y, z));
+                    }
+                }
+            }
+        }
+        return blocks;
+    }
+
+    private Block createBlock(int x, int y, int z) {
+        final Block block = mock(Block.class, withSettings().stubOnly());
+        when(block.getX()).thenReturn(x);
+        when(block.getY()).thenReturn(y);
+        when(block.getZ()).thenReturn(z);
+        when(block.getWorld()).thenReturn(mockWorld);
+        return block;
+    }
+
+    @FunctionalInterface
+    private interface ExplosionPass {
+        BitSet run();
+    }
+}
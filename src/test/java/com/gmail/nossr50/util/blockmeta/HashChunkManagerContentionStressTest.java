@@ -0,0 +1,157 @@
+package com.gmail.nossr50.util.blockmeta;
+
+import static com.gmail.nossr50.util.blockmeta.BlockStoreTestUtils.LEGACY_WORLD_HEIGHT_MAX;
+import static com.gmail.nossr50.util.blockmeta.BlockStoreTestUtils.LEGACY_WORLD_HEIGHT_MIN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.gmail.nossr50.mcMMO;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Contention benchmark for {@link HashChunkManager}: many threads hammer the
+ * {@link UserBlockTracker} API at once, either in disjoint regions (the Folia region-thread
+ * case, which should scale with thread count) or all inside one region (the worst case, which
+ * serializes on that region's lock). Each scenario also verifies that no marker was lost.
+ *
+ * <p>Tagged as {@code stress} so default Surefire runs skip it.
+ */
+@Tag("stress")
+class HashChunkManagerContentionStressTest {
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 200;
+    private static final int BLOCKS_PER_THREAD = 16 * 16 * 4;
+
+    private final Logger logger = Logger.getLogger("HashChunkManagerContentionStressTest");
+
+    @TempDir
+    Path tempDir;
+
+    private World mockWorld;
+
+    @BeforeEach
+    void setUp() {
+        mockWorld = mock(World.class, withSettings().stubOnly());
+        when(mockWorld.getUID()).thenReturn(UUID.randomUUID());
+        when(mockWorld.getMinHeight()).thenReturn(LEGACY_WORLD_HEIGHT_MIN);
+        when(mockWorld.getMaxHeight()).thenReturn(LEGACY_WORLD_HEIGHT_MAX);
+        when(mockWorld.getWorldFolder()).thenReturn(tempDir.toFile());
+        when(mockWorld.getName()).thenReturn("stress");
+
+        mcMMO.p = mock(mcMMO.class, withSettings().stubOnly());
+        when(mcMMO.p.getLogger()).thenReturn(logger);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mcMMO.p = null;
+    }
+
+    @Test
+    void disjointRegionsShouldNotLoseMarkersUnderContention() throws Exception {
+        // Each thread owns its own 32x32 chunk region
+        runScenario("disjoint regions", threadIndex -> threadIndex * 32 * 16);
+    }
+
+    @Test
+    void sharedRegionShouldNotLoseMarkersUnderContention() throws Exception {
+        // Every thread works a different chunk of region (0, 0)
+        runScenario("shared region", threadIndex -> threadIndex * 16);
+    }
+
+    private void runScenario(String name, BlockXOffset offset) throws Exception {
+        final HashChunkManager chunkManager = new HashChunkManager();
+        final List<Block[]> blocksByThread = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            blocksByThread.add(createBlocks(offset.forThread(t)));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (Block[] blocks : blocksByThread) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < ROUNDS; round++) {
+                        for (int i = 0; i < blocks.length; i++) {
+                            // Alternate markers every round, finishing with every even block set
+                            final boolean ineligible = ((i + round) & 1) == 1;
+                            if (ineligible) {
+                                chunkManager.setIneligible(blocks[i]);
+                            } else {
+                                chunkManager.setEligible(blocks[i]);
+                            }
+                            chunkManager.isIneligible(blocks[i]);
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            final long startNanos = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+            final long elapsedNanos = System.nanoTime() - startNanos;
+
+            final long operations = 2L * THREADS * ROUNDS * BLOCKS_PER_THREAD;
+            logger.info(String.format("%s: %d threads, %d ops in %d ms (%.0f ops/ms)", name,
+                    THREADS, operations, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    operations / Math.max(1.0, elapsedNanos / 1_000_000.0)));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // ROUNDS is even, so the final round (ROUNDS - 1) left odd-parity blocks eligible
+        for (Block[] blocks : blocksByThread) {
+            for (int i = 0; i < blocks.length; i++) {
+                final boolean expected = ((i + ROUNDS - 1) & 1) == 1;
+                assertThat(chunkManager.isIneligible(blocks[i])).isEqualTo(expected);
+            }
+        }
+        chunkManager.unloadWorld(mockWorld);
+    }
+
+    private Block[] createBlocks(int baseX) {
+        final Block[] blocks = new Block[BLOCKS_PER_THREAD];
+        int i = 0;
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    final Block block = mock(Block.class, withSettings().stubOnly());
+                    when(block.getX()).thenReturn(baseX + x);
+                    when(block.getY()).thenReturn(64 + y);
+                    when(block.getZ()).thenReturn(z);
+                    when(block.getWorld()).thenReturn(mockWorld);
+                    blocks[i++] = block;
+                }
+            }
+        }
+        return blocks;
+    }
+
+    @FunctionalInterface
+    private interface BlockXOffset {
+        int forThread(int threadIndex);
+    }
+}
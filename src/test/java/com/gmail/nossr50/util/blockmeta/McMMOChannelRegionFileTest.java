@@ -0,0 +1,120 @@
+package com.gmail.nossr50.util.blockmeta;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Verifies that {@link McMMOChannelRegionFile} reads and writes exactly the format of
+ * {@link McMMOSimpleRegionFile}, so servers can switch region file backends on existing data.
+ */
+class McMMOChannelRegionFileTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void channelRegionFileShouldReadChunksWrittenBySimpleRegionFile() throws IOException {
+        // Given - a region file written by the classic implementation, with a relocated chunk
+        final File regionFile = tempDir.resolve("mcmmo_0_0_.mcm").toFile();
+        try (McMMOSimpleRegionFile simple = new McMMOSimpleRegionFile(regionFile, 0, 0)) {
+            writeChunkPayload(simple, 0, 0, payload(100, (byte) 1));
+            writeChunkPayload(simple, 0, 1, payload(200, (byte) 2));
+            writeChunkPayload(simple, 0, 0, payload(5000, (byte) 3));
+            writeChunkPayload(simple, 31, 31, payload(64, (byte) 4));
+        }
+
+        // When / Then - the channel implementation reads every chunk back intact
+        try (McMMOChannelRegionFile channel = new McMMOChannelRegionFile(regionFile, 0, 0)) {
+            assertThat(readChunkPayload(channel, 0, 0)).isEqualTo(payload(5000, (byte) 3));
+            assertThat(readChunkPayload(channel, 0, 1)).isEqualTo(payload(200, (byte) 2));
+            assertThat(readChunkPayload(channel, 31, 31)).isEqualTo(payload(64, (byte) 4));
+            assertThat(channel.getInputStream(5, 5)).isNull();
+        }
+    }
+
+    @Test
+    void simpleRegionFileShouldReadChunksWrittenByChannelRegionFile() throws IOException {
+        // Given - a region file written by the channel implementation, with a relocated chunk
+        final File regionFile = tempDir.resolve("mcmmo_-1_2_.mcm").toFile();
+        try (McMMOChannelRegionFile channel = new McMMOChannelRegionFile(regionFile, -1, 2)) {
+            writeChunkPayload(channel, -32, 64, payload(100, (byte) 1));
+            writeChunkPayload(channel, -32, 65, payload(200, (byte) 2));
+            writeChunkPayload(channel, -32, 64, payload(5000, (byte) 3));
+        }
+
+        // When / Then - the classic implementation reads every chunk back intact
+        try (McMMOSimpleRegionFile simple = new McMMOSimpleRegionFile(regionFile, -1, 2)) {
+            assertThat(readChunkPayload(simple, -32, 64)).isEqualTo(payload(5000, (byte) 3));
+            assertThat(readChunkPayload(simple, -32, 65)).isEqualTo(payload(200, (byte) 2));
+            assertThat(simple.getInputStream(-1, 95)).isNull();
+        }
+    }
+
+    @Test
+    void channelRegionFileShouldRejectChunksOutsideItsRegion() {
+        final File regionFile = tempDir.resolve("mcmmo_0_0_.mcm").toFile();
+        try (McMMOChannelRegionFile channel = new McMMOChannelRegionFile(regionFile, 0, 0)) {
+            assertThatThrownBy(() -> channel.getOutputStream(-1, 0))
+                    .isInstanceOf(IndexOutOfBoundsException.class);
+            assertThatThrownBy(() -> channel.getInputStream(0, 32))
+                    .isInstanceOf(IndexOutOfBoundsException.class);
+        }
+    }
+
+    @Test
+    void channelRegionFileOpenShouldFailCleanlyOnCorruptHeader() throws IOException {
+        // Given - a region file whose header claims a negative byte length for chunk 0
+        final File regionFile = tempDir.resolve("CorruptHeader.mcm").toFile();
+        try (RandomAccessFile raf = new RandomAccessFile(regionFile, "rw")) {
+            raf.write(new byte[12288]);
+            raf.seek(8192);
+            raf.writeInt(10); // segment exponent
+            raf.seek(4096);
+            raf.writeInt(-100); // chunkNumBytes[0] - impossible value
+        }
+
+        // When / Then - opening it fails with an error that names the file
+        assertThatThrownBy(() -> new McMMOChannelRegionFile(regionFile, 0, 0))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining(regionFile.getName());
+
+        // And - the handle was released, so the corrupt file can still be deleted or replaced
+        assertThat(regionFile.delete()).isTrue();
+    }
+
+    static byte[] payload(int size, byte fill) {
+        final byte[] data = new byte[size];
+        Arrays.fill(data, fill);
+        // Vary the tail so compression cannot collapse payloads into identical streams
+        for (int i = 0; i < Math.min(size, 32); i++) {
+            data[size - 1 - i] = (byte) (fill + i);
+        }
+        return data;
+    }
+
+    static void writeChunkPayload(McMMORegionFile region, int cx, int cz, byte[] payload)
+            throws IOException {
+        try (DataOutputStream out = region.getOutputStream(cx, cz)) {
+            out.writeInt(payload.length);
+            out.write(payload);
+        }
+    }
+
+    static byte[] readChunkPayload(McMMORegionFile region, int cx, int cz) throws IOException {
+        try (DataInputStream in = region.getInputStream(cx, cz)) {
+            assertThat(in).as("chunk data at (" + cx + ", " + cz + ")").isNotNull();
+            final byte[] data = new byte[in.readInt()];
+            in.readFully(data);
+            return data;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.gmail.nossr50.util.blockmeta;
+
+import static com.gmail.nossr50.util.blockmeta.McMMOChannelRegionFileTest.payload;
+import static com.gmail.nossr50.util.blockmeta.McMMOChannelRegionFileTest.readChunkPayload;
+import static com.gmail.nossr50.util.blockmeta.McMMOChannelRegionFileTest.writeChunkPayload;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Throughput comparison of the {@link RegionFileBackend} implementations: a full region is
+ * rewritten repeatedly, then read back concurrently from several threads. Results are logged
+ * per backend so runs can be compared side by side. The block tracker accesses a region from one
+ * thread at a time, so the concurrent read figure overstates what it gains from a backend.
+ *
+ * <p>Tagged as {@code stress} so default Surefire runs skip it.
+ */
+@Tag("stress")
+class RegionFileBackendStressTest {
+    private static final int REGION_CHUNKS = 32;
+    private static final int WRITE_ROUNDS = 10;
+    private static final int READ_THREADS = 8;
+    private static final int READ_ROUNDS = 20;
+
+    private final Logger logger = Logger.getLogger("RegionFileBackendStressTest");
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @EnumSource(RegionFileBackend.class)
+    void regionFileBackendThroughput(RegionFileBackend backend) throws Exception {
+        final File file = tempDir.resolve("mcmmo_0_0_.mcm").toFile();
+        try (McMMORegionFile region = backend.open(file, 0, 0)) {
+            // Writes: every round changes payload sizes so chunks keep relocating
+            final long writeStart = System.nanoTime();
+            for (int round = 0; round < WRITE_ROUNDS; round++) {
+                for (int cx = 0; cx < REGION_CHUNKS; cx++) {
+                    for (int cz = 0; cz < REGION_CHUNKS; cz++) {
+                        writeChunkPayload(region, cx, cz, chunkPayload(cx, cz, round));
+                    }
+                }
+            }
+            final long writeNanos = System.nanoTime() - writeStart;
+
+            // Reads: every thread reads the whole region, each starting at a different row
+            final ExecutorService executor = Executors.newFixedThreadPool(READ_THREADS);
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<?>> futures = new ArrayList<>();
+            try {
+                for (int t = 0; t < READ_THREADS; t++) {
+                    final int rowOffset = t * (REGION_CHUNKS / READ_THREADS);
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        for (int round = 0; round < READ_ROUNDS; round++) {
+                            for (int row = 0; row < REGION_CHUNKS; row++) {
+                                final int cx = (row + rowOffset) % REGION_CHUNKS;
+                                for (int cz = 0; cz < REGION_CHUNKS; cz++) {
+                                    assertThat(readChunkPayload(region, cx, cz)).isEqualTo(
+                                            chunkPayload(cx, cz, WRITE_ROUNDS - 1));
+                                }
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                final long readStart = System.nanoTime();
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(5, TimeUnit.MINUTES);
+                }
+                final long readNanos = System.nanoTime() - readStart;
+
+                logger.info(String.format("%s: %d chunk writes in %d ms, %d chunk reads on %d"
+                                + " threads in %d ms", backend,
+                        WRITE_ROUNDS * REGION_CHUNKS * REGION_CHUNKS,
+                        TimeUnit.NANOSECONDS.toMillis(writeNanos),
+                        READ_THREADS * READ_ROUNDS * REGION_CHUNKS * REGION_CHUNKS, READ_THREADS,
+                        TimeUnit.NANOSECONDS.toMillis(readNanos)));
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static byte[] chunkPayload(int cx, int cz, int round) {
+        return payload(64 + ((cx * 31 + cz * 17 + round * 523) % 3000), (byte) (cx ^ cz));
+    }
+}
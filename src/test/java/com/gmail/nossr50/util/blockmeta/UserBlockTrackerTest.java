@@ -2,6 +2,7 @@ package com.gmail.nossr50.util.blockmeta;
 
 import static com.gmail.nossr50.util.blockmeta.BlockStoreTestUtils.LEGACY_WORLD_HEIGHT_MAX;
 import static com.gmail.nossr50.util.blockmeta.BlockStoreTestUtils.LEGACY_WORLD_HEIGHT_MIN;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.bukkit.Bukkit.getWorld;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -18,8 +19,16 @@ import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
@@ -224,6 +233,59 @@ class UserBlockTrackerTest {
         chunkManager.chunkUnloaded(0, 0, mockWorld);
     }
 
+    /**
+     * The batch lookup sorts blocks by region and chunk, so it must hand the bits back in the
+     * caller's order, including across the mirrored negative chunks and region borders.
+     */
+    @Test
+    void batchLookupShouldMatchPerBlockLookupInCallerOrder() {
+        // Given - a spread over four regions, listed against the sort order, with every third
+        // block marked
+        when(mockWorld.getWorldFolder()).thenReturn(new File(tempDir, "batchLookupWorld"));
+        final HashChunkManager hashChunkManager = new HashChunkManager();
+        final List<Block> blocks = new ArrayList<>();
+        for (int x = -520; x <= 520; x += 13) {
+            for (int z = 520; z >= -520; z -= 17) {
+                blocks.add(initMockBlock(x, (x + z) & 0xFF, z));
+            }
+        }
+        final BitSet expected = new BitSet();
+        for (int i = 0; i < blocks.size(); i += 3) {
+            hashChunkManager.setIneligible(blocks.get(i));
+            expected.set(i);
+        }
+
+        // When
+        final BitSet ineligible = hashChunkManager.isIneligible(blocks);
+
+        // Then
+        assertThat(ineligible).isEqualTo(expected);
+        for (int i = 0; i < blocks.size(); i++) {
+            assertThat(hashChunkManager.isIneligible(blocks.get(i))).isEqualTo(expected.get(i));
+        }
+    }
+
+    @Test
+    void batchSetShouldMarkEveryBlock() {
+        // Given - blocks on both sides of the chunk and region borders around the origin
+        when(mockWorld.getWorldFolder()).thenReturn(new File(tempDir, "batchSetWorld"));
+        final HashChunkManager hashChunkManager = new HashChunkManager();
+        final List<Block> blocks = List.of(initMockBlock(-1, 10, -1), initMockBlock(0, 10, 0),
+                initMockBlock(15, 10, -16), initMockBlock(-15, 10, 15),
+                initMockBlock(511, 10, 512), initMockBlock(-512, 10, -513));
+        final Block untouchedBlock = initMockBlock(1, 10, 1);
+
+        // When
+        hashChunkManager.setIneligible(blocks);
+
+        // Then
+        for (Block block : blocks) {
+            assertTrue(hashChunkManager.isIneligible(block));
+        }
+        assertFalse(hashChunkManager.isIneligible(untouchedBlock));
+        assertThat(hashChunkManager.isIneligible(blocks).cardinality()).isEqualTo(blocks.size());
+    }
+
     /**
      * Full disk round-trip: markers must survive the chunk being unloaded (which writes the
      * region file) and must be readable by a completely fresh manager instance, proving the
@@ -251,6 +313,112 @@ class UserBlockTrackerTest {
         assertFalse(readingManager.isIneligible(untouchedBlock));
     }
 
+    /**
+     * With asynchronous I/O the unload only queues the write: a reload racing the queued write
+     * must still see the markers, and shutdown must drain the queue to disk.
+     */
+    @Test
+    void setIneligibleShouldSurviveWriteBehindWithAsyncIO() {
+        // Given - an isolated world folder and a marker in an async manager
+        when(mockWorld.getWorldFolder()).thenReturn(new File(tempDir, "writeBehindWorld"));
+        final HashChunkManager asyncManager = new HashChunkManager(true);
+        final Block block = initMockBlock(-100, 42, 260);
+        asyncManager.setIneligible(block);
+
+        // When - the chunk unloads and is immediately looked up again, then unloads once more
+        asyncManager.chunkUnloaded(-100 >> 4, 260 >> 4, mockWorld);
+        assertTrue(asyncManager.isIneligible(block));
+        asyncManager.chunkUnloaded(-100 >> 4, 260 >> 4, mockWorld);
+        asyncManager.closeAll();
+
+        // Then - a fresh manager reads the marker back from disk
+        assertTrue(new HashChunkManager().isIneligible(block));
+    }
+
+    /**
+     * Prefetching runs for every chunk that loads, so it must only read placed-block data that
+     * exists and never create region files for regions nobody placed blocks in.
+     */
+    @Test
+    void prefetchShouldNotCreateRegionFiles() {
+        // Given - an async manager over a world without any placed-block data
+        final File worldFolder = new File(tempDir, "prefetchOnlyWorld");
+        when(mockWorld.getWorldFolder()).thenReturn(worldFolder);
+        final HashChunkManager asyncManager = new HashChunkManager(true);
+
+        // When - chunks load and are looked up, then the manager shuts down
+        asyncManager.chunkLoaded(0, 0, mockWorld);
+        asyncManager.chunkLoaded(-40, 70, mockWorld);
+        assertFalse(asyncManager.isIneligible(initMockBlock(3, 42, 3)));
+        asyncManager.closeAll();
+
+        // Then - no region file was created
+        assertFalse(new File(worldFolder, McMMORegionBackupStore.IN_WORLD_FOLDER_NAME).exists());
+    }
+
+    @Test
+    void prefetchShouldReadExistingRegionFilesWithoutWritingThem() {
+        // Given - a marker stored on disk
+        final File worldFolder = new File(tempDir, "prefetchStoredWorld");
+        when(mockWorld.getWorldFolder()).thenReturn(worldFolder);
+        final Block block = initMockBlock(20, 42, 40);
+        final HashChunkManager writingManager = new HashChunkManager();
+        writingManager.setIneligible(block);
+        writingManager.chunkUnloaded(20 >> 4, 40 >> 4, mockWorld);
+        final File regionFile = new File(new File(worldFolder,
+                McMMORegionBackupStore.IN_WORLD_FOLDER_NAME), "mcmmo_0_0_.mcm");
+        final long regionFileLength = regionFile.length();
+
+        // When - an async manager prefetches the chunk, looks it up and shuts down
+        final HashChunkManager asyncManager = new HashChunkManager(true);
+        asyncManager.chunkLoaded(20 >> 4, 40 >> 4, mockWorld);
+        final boolean ineligible = asyncManager.isIneligible(block);
+        asyncManager.closeAll();
+
+        // Then - the marker is read and the file left as it was
+        assertTrue(ineligible);
+        assertThat(regionFile.length()).isEqualTo(regionFileLength);
+    }
+
+    /**
+     * The I/O thread only holds the region lock to claim and publish a prefetch, so lookups of
+     * loaded chunks in the same region go on while the read itself waits on the disk.
+     */
+    @Test
+    void lookupShouldNotWaitOnPrefetchReadInTheSameRegion() throws Exception {
+        // Given - a loaded chunk, and an async manager whose I/O thread stalls in its next read
+        final File worldFolder = new File(tempDir, "prefetchContentionWorld");
+        final HashChunkManager asyncManager = new HashChunkManager(true);
+        final Block block = initMockBlock(3, 42, 3);
+        when(mockWorld.getWorldFolder()).thenReturn(worldFolder);
+        assertFalse(asyncManager.isIneligible(block));
+
+        final CountDownLatch reading = new CountDownLatch(1);
+        final CountDownLatch releaseRead = new CountDownLatch(1);
+        when(mockWorld.getWorldFolder()).thenAnswer(invocation -> {
+            if (Thread.currentThread().getName().startsWith("mcMMO-BlockTracker-IO")) {
+                reading.countDown();
+                releaseRead.await();
+            }
+            return worldFolder;
+        });
+        final ExecutorService mainThread = Executors.newSingleThreadExecutor();
+        try {
+            // When - another chunk of the region is prefetched, and the loaded one looked up
+            asyncManager.chunkLoaded(5, 7, mockWorld);
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+            final Future<Boolean> lookup =
+                    mainThread.submit(() -> asyncManager.isIneligible(block));
+
+            // Then - the lookup completes while the read is still in progress
+            assertFalse(lookup.get(5, TimeUnit.SECONDS));
+        } finally {
+            releaseRead.countDown();
+            mainThread.shutdownNow();
+            asyncManager.closeAll();
+        }
+    }
+
     /**
      * Region files store chunk data in fixed-size segments; rewriting a chunk with more data
      * than its old segments can hold forces a relocation past its neighbor. Both chunks must
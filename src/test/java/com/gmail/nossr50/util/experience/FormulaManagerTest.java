@@ -0,0 +1,110 @@
+package com.gmail.nossr50.util.experience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.gmail.nossr50.MMOTestEnvironment;
+import com.gmail.nossr50.datatypes.experience.FormulaType;
+import com.gmail.nossr50.datatypes.skills.PrimarySkillType;
+import com.gmail.nossr50.mcMMO;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the precomputed experience curves against the formulas they are built from. The test
+ * environment configures a base of 1000 and a multiplier of 1, so a Retro level costs
+ * {@code 1000 + level} and a Standard level costs the ten Retro levels it stands for.
+ */
+class FormulaManagerTest extends MMOTestEnvironment {
+    private static final Logger logger = Logger.getLogger(FormulaManagerTest.class.getName());
+
+    private FormulaManager formulaManager;
+
+    @BeforeEach
+    void setUp() {
+        mockBaseEnvironment(logger);
+        formulaManager = new FormulaManager(FormulaType.LINEAR);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUpStaticMocks();
+    }
+
+    @Test
+    void xpToNextLevelShouldFollowTheScalingMode() {
+        // Given - Standard scaling
+        // When / Then - a level costs the sum of its ten Retro levels
+        assertThat(formulaManager.getXPtoNextLevel(0, FormulaType.LINEAR))
+                .isEqualTo(standardLinearXp(0));
+        assertThat(formulaManager.getXPtoNextLevel(250, FormulaType.UNKNOWN))
+                .isEqualTo(standardLinearXp(250));
+
+        // Given - Retro scaling
+        mockedMcMMO.when(mcMMO::isRetroModeEnabled).thenReturn(true);
+
+        // When / Then - the curve is rebuilt for the new mode
+        assertThat(formulaManager.getXPtoNextLevel(0, FormulaType.LINEAR)).isEqualTo(1000);
+        assertThat(formulaManager.getXPtoNextLevel(5000, FormulaType.LINEAR)).isEqualTo(6000);
+    }
+
+    @Test
+    void totalExperienceAndNewLevelShouldRoundTrip() {
+        // Given - a player at level 42 with some progress into level 43
+        final int progress = standardLinearXp(42) - 1;
+
+        // When - the levels are converted to experience and back
+        final int totalXp = formulaManager.calculateTotalExperience(42, progress);
+        final int[] levelAndXp = formulaManager.calculateNewLevel(PrimarySkillType.MINING,
+                totalXp, FormulaType.LINEAR);
+
+        // Then - nothing is lost
+        int expectedTotal = progress;
+        for (int level = 0; level < 42; level++) {
+            expectedTotal += standardLinearXp(level);
+        }
+        assertThat(totalXp).isEqualTo(expectedTotal);
+        assertThat(levelAndXp).containsExactly(42, progress);
+    }
+
+    @Test
+    void newLevelShouldGrowTheCurveAndStopAtTheLevelCap() {
+        // Given - enough experience for far more levels than a fresh curve covers
+        final int totalXp = formulaManager.calculateTotalExperience(150, 0);
+
+        // When / Then - uncapped, every level is reached with nothing left over
+        assertThat(formulaManager.calculateNewLevel(PrimarySkillType.MINING, totalXp,
+                FormulaType.LINEAR)).containsExactly(150, 0);
+
+        // When / Then - capped, the level stops at the cap and the rest is dropped
+        when(generalConfig.getLevelCap(any(PrimarySkillType.class))).thenReturn(100);
+        assertThat(formulaManager.calculateNewLevel(PrimarySkillType.MINING, totalXp + 7,
+                FormulaType.LINEAR)).containsExactly(100, 0);
+    }
+
+    @Test
+    void reloadCurvesShouldPickUpChangedFormulaValues() {
+        // Given - a curve built from a base of 1000
+        assertThat(formulaManager.getXPtoNextLevel(0, FormulaType.LINEAR))
+                .isEqualTo(standardLinearXp(0));
+
+        // When - the base changes and the curves are reloaded
+        when(experienceConfigInstance.getBase(any(FormulaType.class))).thenReturn(2000);
+        formulaManager.reloadCurves();
+
+        // Then - the new base is used
+        assertThat(formulaManager.getXPtoNextLevel(0, FormulaType.LINEAR))
+                .isEqualTo(standardLinearXp(0) + 10 * 1000);
+    }
+
+    private static int standardLinearXp(int level) {
+        int xp = 0;
+        for (int retroLevel = level * 10 + 1; retroLevel <= level * 10 + 10; retroLevel++) {
+            xp += 1000 + retroLevel;
+        }
+        return xp;
+    }
+}
@@ -0,0 +1,121 @@
+package com.gmail.nossr50.util.player;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.gmail.nossr50.datatypes.player.McMMOPlayer;
+import com.gmail.nossr50.mcMMO;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Allocation benchmark for {@link UserManager} lookups, which run in nearly every listener. A
+ * lookup by player, UUID or lower case name must not allocate once warmed up; the metadata
+ * lookups they replaced allocated a list on every call.
+ *
+ * <p>Players are plain proxies rather than Mockito mocks, since a mock records every call and
+ * would allocate on its own.
+ *
+ * <p>Tagged as {@code stress} so default Surefire runs skip it.
+ */
+@Tag("stress")
+class UserManagerLookupStressTest {
+    private static final int PLAYERS = 500;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 2_000;
+    // Leaves room for the odd allocation by the JIT or the JVM itself during the measurement
+    private static final long ALLOCATION_SLACK_BYTES = 64 * 1024;
+
+    private final Logger logger = Logger.getLogger("UserManagerLookupStressTest");
+
+    private Server server;
+    private Player[] players;
+    private UUID[] uuids;
+    private String[] names;
+
+    @BeforeEach
+    void setUp() {
+        mcMMO.p = mock(mcMMO.class, withSettings().stubOnly());
+        server = mock(Server.class, withSettings().stubOnly());
+        when(mcMMO.p.getServer()).thenReturn(server);
+        when(mcMMO.p.getLogger()).thenReturn(logger);
+
+        players = new Player[PLAYERS];
+        uuids = new UUID[PLAYERS];
+        names = new String[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) {
+            uuids[i] = UUID.randomUUID();
+            names[i] = "player" + i;
+            players[i] = proxyPlayer(uuids[i], names[i]);
+
+            final McMMOPlayer mmoPlayer = mock(McMMOPlayer.class, withSettings().stubOnly());
+            when(mmoPlayer.getPlayer()).thenReturn(players[i]);
+            UserManager.track(mmoPlayer);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        doReturn(List.of()).when(server).getOnlinePlayers();
+        UserManager.clearAll();
+        mcMMO.p = null;
+    }
+
+    @Test
+    void lookupsShouldNotAllocate() {
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+
+        // Warm up so the measured loop runs compiled code
+        long found = lookUpEveryone(WARMUP_ROUNDS);
+
+        final long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        final long start = System.nanoTime();
+        found += lookUpEveryone(MEASURED_ROUNDS);
+        final long elapsedNanos = System.nanoTime() - start;
+        final long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        final long lookups = 3L * PLAYERS * MEASURED_ROUNDS;
+        logger.info(String.format("%d lookups, %.1f ns/lookup, %d bytes allocated", lookups,
+                (double) elapsedNanos / lookups, allocated));
+
+        assertThat(found).isEqualTo(3L * PLAYERS * (WARMUP_ROUNDS + MEASURED_ROUNDS));
+        assertThat(allocated).isLessThan(ALLOCATION_SLACK_BYTES);
+    }
+
+    private long lookUpEveryone(int rounds) {
+        long found = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < PLAYERS; i++) {
+                found += UserManager.getPlayer(players[i]) != null ? 1 : 0;
+                found += UserManager.getPlayer(uuids[i]) != null ? 1 : 0;
+                found += UserManager.getPlayer(names[i]) != null ? 1 : 0;
+            }
+        }
+        return found;
+    }
+
+    private static Player proxyPlayer(UUID uuid, String name) {
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(),
+                new Class<?>[]{Player.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getUniqueId" -> uuid;
+                    case "getName" -> name;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+}
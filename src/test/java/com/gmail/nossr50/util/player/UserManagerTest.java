@@ -1,5 +1,6 @@
 package com.gmail.nossr50.util.player;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -9,9 +10,11 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.gmail.nossr50.datatypes.player.McMMOPlayer;
 import com.gmail.nossr50.mcMMO;
 import com.gmail.nossr50.util.MetadataConstants;
 import java.util.List;
+import java.util.UUID;
 import org.bukkit.Server;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
@@ -38,6 +41,8 @@ class UserManagerTest {
 
     @AfterEach
     void tearDown() {
+        doReturn(List.of()).when(server).getOnlinePlayers();
+        UserManager.clearAll();
         mcMMO.p = null;
     }
 
@@ -77,4 +82,71 @@ class UserManagerTest {
         // Then - no metadata cleanup is attempted for the untracked player
         verify(untrackedPlayer, never()).removeMetadata(anyString(), any(Plugin.class));
     }
+
+    @Test
+    void trackedPlayersShouldBeFoundByPlayerUuidAndAnyCaseOfTheirName() {
+        // Given - a loaded player
+        final Player player = mockPlayer("Herb");
+        final McMMOPlayer mmoPlayer = mockMcMMOPlayer(player);
+
+        // When - the player is tracked
+        UserManager.track(mmoPlayer);
+
+        // Then - every lookup finds the same McMMOPlayer
+        assertThat(UserManager.getPlayer(player)).isSameAs(mmoPlayer);
+        assertThat(UserManager.getPlayer(player.getUniqueId())).isSameAs(mmoPlayer);
+        assertThat(UserManager.getPlayer("hErB")).isSameAs(mmoPlayer);
+        assertThat(UserManager.getOfflinePlayer("HERB")).isSameAs(mmoPlayer);
+        assertThat(UserManager.hasPlayerDataKey(player)).isTrue();
+        assertThat(UserManager.getPlayers()).containsExactly(mmoPlayer);
+    }
+
+    @Test
+    void removeShouldForgetThePlayerEverywhere() {
+        // Given - a tracked player
+        final Player player = mockPlayer("Herb");
+        final McMMOPlayer mmoPlayer = mockMcMMOPlayer(player);
+        UserManager.track(mmoPlayer);
+
+        // When - the player quits
+        UserManager.remove(player);
+
+        // Then - no lookup finds them and the compatibility metadata is removed
+        assertThat(UserManager.getPlayer(player)).isNull();
+        assertThat(UserManager.getOfflinePlayer("Herb")).isNull();
+        assertThat(UserManager.hasPlayerDataKey(player)).isFalse();
+        assertThat(UserManager.getPlayers()).isEmpty();
+        verify(player).removeMetadata(MetadataConstants.METADATA_KEY_PLAYER_DATA, mcMMO.p);
+    }
+
+    @Test
+    void cleaningUpAReplacedMcMMOPlayerShouldKeepItsReplacementTracked() {
+        // Given - a player whose McMMOPlayer was replaced by a newer one
+        final Player player = mockPlayer("Herb");
+        final McMMOPlayer stale = mockMcMMOPlayer(player);
+        final McMMOPlayer current = mockMcMMOPlayer(player);
+        UserManager.track(stale);
+        UserManager.track(current);
+
+        // When - the stale McMMOPlayer is cleaned up
+        UserManager.cleanupPlayer(stale);
+
+        // Then - the newer one is still found
+        assertThat(UserManager.getPlayer(player)).isSameAs(current);
+        assertThat(UserManager.getPlayer("Herb")).isSameAs(current);
+    }
+
+    private static Player mockPlayer(String name) {
+        final Player player = mock(Player.class);
+        final UUID uuid = UUID.randomUUID();
+        when(player.getUniqueId()).thenReturn(uuid);
+        when(player.getName()).thenReturn(name);
+        return player;
+    }
+
+    private static McMMOPlayer mockMcMMOPlayer(Player player) {
+        final McMMOPlayer mmoPlayer = mock(McMMOPlayer.class);
+        when(mmoPlayer.getPlayer()).thenReturn(player);
+        return mmoPlayer;
+    }
 }
@@ -35,6 +35,7 @@ class RankUtilsTest {
     private MockedStatic<mcMMO> mcMMOMock;
     private MockedStatic<RankConfig> rankConfigMock;
     private MockedStatic<com.gmail.nossr50.util.player.UserManager> userManagerMock;
+    private RankConfig rankConfig;
     private Player player;
     private McMMOPlayer mmoPlayer;
 
@@ -57,7 +58,7 @@ class RankUtilsTest {
         when(mcMMO.p.getSkillTools()).thenReturn(skillTools);
 
         // Rupture has four ranks; unlock levels 5, 10, 20, 50
-        final RankConfig rankConfig = mock(RankConfig.class);
+        rankConfig = mock(RankConfig.class);
         rankConfigMock = mockStatic(RankConfig.class);
         rankConfigMock.when(RankConfig::getInstance).thenReturn(rankConfig);
         when(rankConfig.getSubSkillUnlockLevel(SubSkillType.SWORDS_RUPTURE, 1)).thenReturn(5);
@@ -67,6 +68,7 @@ class RankUtilsTest {
 
         player = mock(Player.class);
         mmoPlayer = mock(McMMOPlayer.class);
+        when(mmoPlayer.getSubSkillRanks()).thenReturn(new SubSkillRanks(mmoPlayer));
         userManagerMock = mockStatic(com.gmail.nossr50.util.player.UserManager.class);
         userManagerMock.when(
                 () -> com.gmail.nossr50.util.player.UserManager.getPlayer(player))
@@ -153,4 +155,41 @@ class RankUtilsTest {
         assertThat(RankUtils.isPlayerMaxRankInSubSkill(player, SubSkillType.SWORDS_RUPTURE))
                 .isTrue();
     }
+
+    @Test
+    void getRankShouldServeCachedRanksUntilALevelChanges() {
+        // Given - a rank read at Swords level 5
+        when(mmoPlayer.getSkillLevel(PrimarySkillType.SWORDS)).thenReturn(5);
+        assertThat(RankUtils.getRank(player, SubSkillType.SWORDS_RUPTURE)).isEqualTo(1);
+
+        // When - the level source changes without the levels version moving
+        when(mmoPlayer.getSkillLevel(PrimarySkillType.SWORDS)).thenReturn(50);
+
+        // Then - the cached rank is served
+        assertThat(RankUtils.getRank(player, SubSkillType.SWORDS_RUPTURE)).isEqualTo(1);
+
+        // When - the profile reports a level change
+        when(mmoPlayer.getSkillLevelsVersion()).thenReturn(1);
+
+        // Then - the ranks are recomputed
+        assertThat(RankUtils.getRank(player, SubSkillType.SWORDS_RUPTURE)).isEqualTo(4);
+    }
+
+    @Test
+    void getRankShouldRecomputeRanksWhenTheRankConfigIsReloaded() {
+        // Given - rank 1 at Swords level 5
+        when(mmoPlayer.getSkillLevel(PrimarySkillType.SWORDS)).thenReturn(5);
+        assertThat(RankUtils.getRank(player, SubSkillType.SWORDS_RUPTURE)).isEqualTo(1);
+
+        // When - rank 1 moves to level 6 and the ranks are reloaded
+        when(rankConfig.getSubSkillUnlockLevel(SubSkillType.SWORDS_RUPTURE, 1)).thenReturn(6);
+        RankUtils.populateRanks();
+
+        // Then - the player no longer has rank 1
+        assertThat(RankUtils.getRank(player, SubSkillType.SWORDS_RUPTURE)).isZero();
+
+        // The unlock levels are static, restore them for the other tests
+        when(rankConfig.getSubSkillUnlockLevel(SubSkillType.SWORDS_RUPTURE, 1)).thenReturn(5);
+        RankUtils.populateRanks();
+    }
 }
@@ -0,0 +1,71 @@
+package com.gmail.nossr50.util.skills;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+import com.gmail.nossr50.datatypes.skills.PrimarySkillType;
+import com.gmail.nossr50.util.Permissions;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+class SkillPermissionsTest {
+    private MockedStatic<Permissions> permissionsMock;
+    private Player player;
+
+    @BeforeEach
+    void setUp() {
+        permissionsMock = mockStatic(Permissions.class);
+        player = mock(Player.class);
+        when(Permissions.skillEnabled(player, PrimarySkillType.MINING)).thenReturn(true);
+        when(Permissions.lucky(player, PrimarySkillType.HERBALISM)).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        permissionsMock.close();
+    }
+
+    @Test
+    void permissionsShouldBeReadOnceUntilInvalidated() {
+        // Given
+        final SkillPermissions skillPermissions = new SkillPermissions(player);
+
+        // When - the permissions are read repeatedly
+        for (int i = 0; i < 10; i++) {
+            assertThat(skillPermissions.hasSkill(PrimarySkillType.MINING)).isTrue();
+            assertThat(skillPermissions.hasSkill(PrimarySkillType.WOODCUTTING)).isFalse();
+            assertThat(skillPermissions.isLucky(PrimarySkillType.HERBALISM)).isTrue();
+            assertThat(skillPermissions.isLucky(PrimarySkillType.MINING)).isFalse();
+        }
+
+        // Then - the permission plugin was asked once per skill
+        permissionsMock.verify(() -> Permissions.skillEnabled(player, PrimarySkillType.MINING),
+                times(1));
+        permissionsMock.verify(() -> Permissions.lucky(player, PrimarySkillType.HERBALISM),
+                times(1));
+    }
+
+    @Test
+    void invalidateShouldPickUpChangedPermissions() {
+        // Given - a snapshot with Mining enabled
+        final SkillPermissions skillPermissions = new SkillPermissions(player);
+        assertThat(skillPermissions.hasSkill(PrimarySkillType.MINING)).isTrue();
+
+        // When - Mining is revoked
+        when(Permissions.skillEnabled(any(Player.class), any(PrimarySkillType.class)))
+                .thenReturn(false);
+
+        // Then - the snapshot is served until it is invalidated
+        assertThat(skillPermissions.hasSkill(PrimarySkillType.MINING)).isTrue();
+        skillPermissions.invalidate();
+        assertThat(skillPermissions.hasSkill(PrimarySkillType.MINING)).isFalse();
+        assertThat(skillPermissions.getEnabledSkills()).isZero();
+    }
+}